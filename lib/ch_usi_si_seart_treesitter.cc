@@ -1,5 +1,6 @@
 #include "ch_usi_si_seart_treesitter.h"
 #include <jni.h>
+#include <string.h>
 
 static jint JNI_VERSION = JNI_VERSION_10;
 
@@ -28,6 +29,20 @@ jfieldID _nodeContext3Field;
 jfieldID _nodeIdField;
 jfieldID _nodeTreeField;
 
+jclass _batchVisitorClass;
+jmethodID _batchVisitorVisitMethod;
+
+jclass _batchVisitorBatchClass;
+jfieldID _batchVisitorBatchSizeField;
+
+jclass _nodeRefClass;
+jfieldID _nodeRefContext0Field;
+jfieldID _nodeRefContext1Field;
+jfieldID _nodeRefContext2Field;
+jfieldID _nodeRefContext3Field;
+jfieldID _nodeRefIdField;
+jfieldID _nodeRefTreeField;
+
 jclass _pointClass;
 jmethodID _pointConstructor;
 jfieldID _pointRowField;
@@ -68,13 +83,28 @@ jfieldID _treeCursorNodeIsNamed;
 
 jclass _parserClass;
 jfieldID _parserLanguageField;
+jfieldID _parserMetricsField;
+jfieldID _parserProgressMonitorField;
 jmethodID _parserConstructor;
 
 jclass _treeClass;
 jfieldID _treeLanguageField;
 jfieldID _treeSourceField;
+jfieldID _treeWidthField;
 jmethodID _treeConstructor;
 
+jclass _encodingClass;
+jfieldID _encodingWidthField;
+
+jclass _inputClass;
+jfieldID _inputEncodingField;
+jfieldID _inputChunkField;
+jmethodID _inputReadMethod;
+
+jclass _progressMonitorClass;
+jmethodID _progressMonitorProceedMethod;
+jmethodID _progressMonitorTracksErrorCostMethod;
+
 jclass _dotGraphPrinterClass;
 jfieldID _dotGraphPrinterTreeField;
 
@@ -139,6 +169,10 @@ jclass _ioExceptionClass;
 jclass _timeoutExceptionClass;
 jmethodID _timeoutExceptionConstructor;
 
+jclass _cancellationExceptionClass;
+jmethodID _cancellationExceptionConstructor;
+jmethodID _cancellationExceptionMessageConstructor;
+
 jclass _indexOutOfBoundsExceptionClass;
 jmethodID _indexOutOfBoundsExceptionConstructor;
 
@@ -173,6 +207,17 @@ jmethodID _loggerDebugMethod;
 jclass _markerFactoryClass;
 jmethodID _markerFactoryGetMarkerStaticMethod;
 
+const uint32_t WIDTH_DEFAULT = 2;
+
+// Must match the flags declared in NodeInfo
+const jint NODE_FLAG_NAMED = 1;
+const jint NODE_FLAG_HAS_ERROR = 2;
+const jint NODE_FLAG_MISSING = 4;
+const jint NODE_FLAG_EXTRA = 8;
+const jint NODE_FLAG_ERROR = 16;
+
+const uint32_t LOG_BUFFER_ENTRY_SIZE = 256;
+
 const TSPoint POINT_ORIGIN = {
   .row = 0,
   .column = 0,
@@ -243,6 +288,20 @@ jint JNI_OnLoad(JavaVM* vm, void* reserved) {
   _loadField(_nodeIdField, _nodeClass, "id", "J")
   _loadField(_nodeTreeField, _nodeClass, "tree", "Lch/usi/si/seart/treesitter/Tree;")
 
+  _loadClass(_batchVisitorClass, "ch/usi/si/seart/treesitter/BatchVisitor")
+  _loadMethod(_batchVisitorVisitMethod, _batchVisitorClass, "visit", "(Lch/usi/si/seart/treesitter/BatchVisitor$Batch;)Z")
+
+  _loadClass(_batchVisitorBatchClass, "ch/usi/si/seart/treesitter/BatchVisitor$Batch")
+  _loadField(_batchVisitorBatchSizeField, _batchVisitorBatchClass, "size", "I")
+
+  _loadClass(_nodeRefClass, "ch/usi/si/seart/treesitter/NodeRef")
+  _loadField(_nodeRefContext0Field, _nodeRefClass, "context0", "I")
+  _loadField(_nodeRefContext1Field, _nodeRefClass, "context1", "I")
+  _loadField(_nodeRefContext2Field, _nodeRefClass, "context2", "I")
+  _loadField(_nodeRefContext3Field, _nodeRefClass, "context3", "I")
+  _loadField(_nodeRefIdField, _nodeRefClass, "id", "J")
+  _loadField(_nodeRefTreeField, _nodeRefClass, "tree", "Lch/usi/si/seart/treesitter/Tree;")
+
   _loadClass(_pointClass, "ch/usi/si/seart/treesitter/Point")
   _loadConstructor(_pointConstructor, _pointClass, "(II)V")
   _loadField(_pointRowField, _pointClass, "row", "I")
@@ -287,12 +346,28 @@ jint JNI_OnLoad(JavaVM* vm, void* reserved) {
 
   _loadClass(_parserClass, "ch/usi/si/seart/treesitter/Parser")
   _loadField(_parserLanguageField, _parserClass, "language", "Lch/usi/si/seart/treesitter/Language;")
+  _loadField(_parserMetricsField, _parserClass, "metrics", "Ljava/nio/ByteBuffer;")
+  _loadField(_parserProgressMonitorField, _parserClass, "progressMonitor",
+    "Lch/usi/si/seart/treesitter/ProgressMonitor;")
   _loadConstructor(_parserConstructor, _parserClass, "(JLch/usi/si/seart/treesitter/Language;)V")
 
   _loadClass(_treeClass, "ch/usi/si/seart/treesitter/Tree")
   _loadField(_treeLanguageField, _treeClass, "language", "Lch/usi/si/seart/treesitter/Language;")
-  _loadField(_treeSourceField, _treeClass, "source", "Ljava/lang/String;")
-  _loadConstructor(_treeConstructor, _treeClass, "(JLch/usi/si/seart/treesitter/Language;Ljava/lang/String;)V")
+  _loadField(_treeSourceField, _treeClass, "source", "Lch/usi/si/seart/treesitter/Source;")
+  _loadField(_treeWidthField, _treeClass, "width", "I")
+  _loadConstructor(_treeConstructor, _treeClass, "(JLch/usi/si/seart/treesitter/Language;Lch/usi/si/seart/treesitter/Source;)V")
+
+  _loadClass(_encodingClass, "ch/usi/si/seart/treesitter/Encoding")
+  _loadField(_encodingWidthField, _encodingClass, "width", "I")
+
+  _loadClass(_inputClass, "ch/usi/si/seart/treesitter/Input")
+  _loadField(_inputEncodingField, _inputClass, "encoding", "Lch/usi/si/seart/treesitter/Encoding;")
+  _loadField(_inputChunkField, _inputClass, "chunk", "Ljava/nio/ByteBuffer;")
+  _loadMethod(_inputReadMethod, _inputClass, "read", "(J)I")
+
+  _loadClass(_progressMonitorClass, "ch/usi/si/seart/treesitter/ProgressMonitor")
+  _loadMethod(_progressMonitorProceedMethod, _progressMonitorClass, "proceed", "(JJ)Z")
+  _loadMethod(_progressMonitorTracksErrorCostMethod, _progressMonitorClass, "tracksErrorCost", "()Z")
 
   _loadClass(_dotGraphPrinterClass, "ch/usi/si/seart/treesitter/printer/DotGraphPrinter")
   _loadField(_dotGraphPrinterTreeField, _dotGraphPrinterClass, "tree", "Lch/usi/si/seart/treesitter/Tree;")
@@ -362,6 +437,10 @@ jint JNI_OnLoad(JavaVM* vm, void* reserved) {
   _loadClass(_timeoutExceptionClass, "java/util/concurrent/TimeoutException")
   _loadConstructor(_timeoutExceptionConstructor, _timeoutExceptionClass, "()V")
 
+  _loadClass(_cancellationExceptionClass, "java/util/concurrent/CancellationException")
+  _loadConstructor(_cancellationExceptionConstructor, _cancellationExceptionClass, "()V")
+  _loadConstructor(_cancellationExceptionMessageConstructor, _cancellationExceptionClass, "(Ljava/lang/String;)V")
+
   _loadClass(_indexOutOfBoundsExceptionClass, "java/lang/IndexOutOfBoundsException")
   _loadConstructor(_indexOutOfBoundsExceptionConstructor, _indexOutOfBoundsExceptionClass, "(I)V")
 
@@ -437,6 +516,9 @@ void JNI_OnUnload(JavaVM* vm, void* reserved) {
   _unload(_collectionsClass)
   _unload(_externalClass)
   _unload(_nodeClass)
+  _unload(_batchVisitorClass)
+  _unload(_batchVisitorBatchClass)
+  _unload(_nodeRefClass)
   _unload(_pointClass)
   _unload(_rangeClass)
   _unload(_queryMatchClass)
@@ -444,6 +526,9 @@ void JNI_OnUnload(JavaVM* vm, void* reserved) {
   _unload(_treeCursorNodeClass)
   _unload(_parserClass)
   _unload(_treeClass)
+  _unload(_encodingClass)
+  _unload(_inputClass)
+  _unload(_progressMonitorClass)
   _unload(_dotGraphPrinterClass)
   _unload(_queryClass)
   _unload(_patternClass)
@@ -460,6 +545,7 @@ void JNI_OnUnload(JavaVM* vm, void* reserved) {
   _unload(_illegalStateExceptionClass)
   _unload(_ioExceptionClass)
   _unload(_timeoutExceptionClass)
+  _unload(_cancellationExceptionClass)
   _unload(_indexOutOfBoundsExceptionClass)
   _unload(_treeSitterExceptionClass)
   _unload(_byteOffsetOutOfBoundsExceptionClass)
@@ -609,52 +695,78 @@ bool __isDefaultRange(TSRange range) {
   return __rangeEqual(range, RANGE_DEFAULT);
 }
 
-jobject __marshalPoint(JNIEnv* env, TSPoint point) {
-  // Not sure why I need to divide by two, probably because of utf-16
+jint __getNodeFlags(TSNode node) {
+  return (ts_node_is_named(node) ? NODE_FLAG_NAMED : 0)
+    | (ts_node_has_error(node) ? NODE_FLAG_HAS_ERROR : 0)
+    | (ts_node_is_missing(node) ? NODE_FLAG_MISSING : 0)
+    | (ts_node_is_extra(node) ? NODE_FLAG_EXTRA : 0)
+    | (ts_node_is_error(node) ? NODE_FLAG_ERROR : 0);
+}
+
+uint32_t __getEncodingWidth(JNIEnv* env, jobject encodingObject) {
+  return (uint32_t)env->GetIntField(encodingObject, _encodingWidthField);
+}
+
+uint32_t __getTreeWidth(JNIEnv* env, jobject treeObject) {
+  if (treeObject == NULL) return WIDTH_DEFAULT;
+  return (uint32_t)env->GetIntField(treeObject, _treeWidthField);
+}
+
+uint32_t __getNodeWidth(JNIEnv* env, jobject nodeObject) {
+  jobject treeObject = env->GetObjectField(nodeObject, _nodeTreeField);
+  return __getTreeWidth(env, treeObject);
+}
+
+TSInputEncoding __getInputEncoding(uint32_t width) {
+  return (width == 1) ? TSInputEncodingUTF8 : TSInputEncodingUTF16;
+}
+
+// Offsets and columns are exposed in the code units of the parsed
+// encoding, while tree-sitter itself always operates on bytes
+jobject __marshalPoint(JNIEnv* env, TSPoint point, uint32_t width) {
   return _newObject(
     _pointClass,
     _pointConstructor,
     point.row,
-    point.column / 2
+    point.column / width
   );
 }
 
-TSPoint __unmarshalPoint(JNIEnv* env, jobject pointObject) {
-  // Not sure why I need to multiply by two, probably because of utf-16
+TSPoint __unmarshalPoint(JNIEnv* env, jobject pointObject, uint32_t width) {
   return (TSPoint) {
     (uint32_t)env->GetIntField(pointObject, _pointRowField),
-    (uint32_t)env->GetIntField(pointObject, _pointColumnField) * 2,
+    (uint32_t)env->GetIntField(pointObject, _pointColumnField) * width,
   };
 }
 
-jobject __marshalRange(JNIEnv* env, TSRange range) {
+jobject __marshalRange(JNIEnv* env, TSRange range, uint32_t width) {
   return _newObject(
     _rangeClass,
     _rangeConstructor,
-    (jint)range.start_byte / 2,
-    (jint)range.end_byte / 2,
-    __marshalPoint(env, range.start_point),
-    __marshalPoint(env, range.end_point)
+    (jint)(range.start_byte / width),
+    (jint)(range.end_byte / width),
+    __marshalPoint(env, range.start_point, width),
+    __marshalPoint(env, range.end_point, width)
   );
 }
 
-TSRange __unmarshalRange(JNIEnv* env, jobject rangeObject) {
+TSRange __unmarshalRange(JNIEnv* env, jobject rangeObject, uint32_t width) {
   return (TSRange) {
-    __unmarshalPoint(env, env->GetObjectField(rangeObject, _rangeStartPointField)),
-    __unmarshalPoint(env, env->GetObjectField(rangeObject, _rangeEndPointField)),
-    (uint32_t)env->GetIntField(rangeObject, _rangeStartByteField) * 2,
-    (uint32_t)env->GetIntField(rangeObject, _rangeEndByteField) * 2
+    __unmarshalPoint(env, env->GetObjectField(rangeObject, _rangeStartPointField), width),
+    __unmarshalPoint(env, env->GetObjectField(rangeObject, _rangeEndPointField), width),
+    (uint32_t)env->GetIntField(rangeObject, _rangeStartByteField) * width,
+    (uint32_t)env->GetIntField(rangeObject, _rangeEndByteField) * width
   };
 }
 
-TSInputEdit __unmarshalInputEdit(JNIEnv* env, jobject inputEditObject) {
+TSInputEdit __unmarshalInputEdit(JNIEnv* env, jobject inputEditObject, uint32_t width) {
   return (TSInputEdit) {
-    (uint32_t)env->GetIntField(inputEditObject, _inputEditStartByteField) * 2,
-    (uint32_t)env->GetIntField(inputEditObject, _inputEditOldEndByteField) * 2,
-    (uint32_t)env->GetIntField(inputEditObject, _inputEditNewEndByteField) * 2,
-    __unmarshalPoint(env, env->GetObjectField(inputEditObject, _inputEditStartPointField)),
-    __unmarshalPoint(env, env->GetObjectField(inputEditObject, _inputEditOldEndPointField)),
-    __unmarshalPoint(env, env->GetObjectField(inputEditObject, _inputEditNewEndPointField)),
+    (uint32_t)env->GetIntField(inputEditObject, _inputEditStartByteField) * width,
+    (uint32_t)env->GetIntField(inputEditObject, _inputEditOldEndByteField) * width,
+    (uint32_t)env->GetIntField(inputEditObject, _inputEditNewEndByteField) * width,
+    __unmarshalPoint(env, env->GetObjectField(inputEditObject, _inputEditStartPointField), width),
+    __unmarshalPoint(env, env->GetObjectField(inputEditObject, _inputEditOldEndPointField), width),
+    __unmarshalPoint(env, env->GetObjectField(inputEditObject, _inputEditNewEndPointField), width),
   };
 }
 
@@ -771,3 +883,17 @@ void __log_in_java(void* payload, TSLogType log_type, const char* buffer) {
     env->NewStringUTF(buffer)
   );
 }
+
+// Entries consist of the log type, the message length and the message itself,
+// truncated to fit. Once the buffer is full, the oldest entries are overwritten.
+void __log_in_buffer(void* payload, TSLogType log_type, const char* buffer) {
+  LogBufferHeader* header = reinterpret_cast<LogBufferHeader*>(payload);
+  if (!header->enabled || (header->mask & (1 << log_type)) == 0) return;
+  int64_t index = header->count % header->capacity;
+  char* entry = reinterpret_cast<char*>(header + 1) + index * LOG_BUFFER_ENTRY_SIZE;
+  uint16_t length = (uint16_t)strnlen(buffer, LOG_BUFFER_ENTRY_SIZE - 3);
+  entry[0] = (char)log_type;
+  memcpy(entry + 1, &length, sizeof(length));
+  memcpy(entry + 3, buffer, length);
+  header->count++;
+}
@@ -4,6 +4,20 @@
 #ifndef _Included_ch_usi_si_seart_treesitter
 #define _Included_ch_usi_si_seart_treesitter
 
+extern const uint32_t WIDTH_DEFAULT;
+
+// Layout of the direct buffers backing LogBuffer instances,
+// consisting of this header followed by fixed-size entries
+typedef struct {
+  int64_t count;
+  int32_t capacity;
+  int32_t mask;
+  int32_t enabled;
+  int32_t reserved;
+} LogBufferHeader;
+
+extern const uint32_t LOG_BUFFER_ENTRY_SIZE;
+
 extern jclass _stringClass;
 
 extern jclass _listClass;
@@ -18,6 +32,7 @@ extern jclass _collectionsClass;
 extern jmethodID _collectionsEmptyListStaticMethod;
 
 extern jclass _noSuchElementExceptionClass;
+
 extern jclass _nullPointerExceptionClass;
 extern jclass _illegalArgumentExceptionClass;
 extern jclass _illegalStateExceptionClass;
@@ -26,6 +41,10 @@ extern jclass _ioExceptionClass;
 extern jclass _timeoutExceptionClass;
 extern jmethodID _timeoutExceptionConstructor;
 
+extern jclass _cancellationExceptionClass;
+extern jmethodID _cancellationExceptionConstructor;
+extern jmethodID _cancellationExceptionMessageConstructor;
+
 extern jclass _indexOutOfBoundsExceptionClass;
 extern jmethodID _indexOutOfBoundsExceptionConstructor;
 
@@ -41,6 +60,20 @@ extern jfieldID _nodeContext3Field;
 extern jfieldID _nodeIdField;
 extern jfieldID _nodeTreeField;
 
+extern jclass _batchVisitorClass;
+extern jmethodID _batchVisitorVisitMethod;
+
+extern jclass _batchVisitorBatchClass;
+extern jfieldID _batchVisitorBatchSizeField;
+
+extern jclass _nodeRefClass;
+extern jfieldID _nodeRefContext0Field;
+extern jfieldID _nodeRefContext1Field;
+extern jfieldID _nodeRefContext2Field;
+extern jfieldID _nodeRefContext3Field;
+extern jfieldID _nodeRefIdField;
+extern jfieldID _nodeRefTreeField;
+
 extern jclass _pointClass;
 extern jmethodID _pointConstructor;
 extern jfieldID _pointRowField;
@@ -81,13 +114,28 @@ extern jfieldID _treeCursorNodeIsNamed;
 
 extern jclass _parserClass;
 extern jfieldID _parserLanguageField;
+extern jfieldID _parserMetricsField;
+extern jfieldID _parserProgressMonitorField;
 extern jmethodID _parserConstructor;
 
 extern jclass _treeClass;
 extern jfieldID _treeLanguageField;
 extern jfieldID _treeSourceField;
+extern jfieldID _treeWidthField;
 extern jmethodID _treeConstructor;
 
+extern jclass _encodingClass;
+extern jfieldID _encodingWidthField;
+
+extern jclass _inputClass;
+extern jfieldID _inputEncodingField;
+extern jfieldID _inputChunkField;
+extern jmethodID _inputReadMethod;
+
+extern jclass _progressMonitorClass;
+extern jmethodID _progressMonitorProceedMethod;
+extern jmethodID _progressMonitorTracksErrorCostMethod;
+
 extern jclass _dotGraphPrinterClass;
 extern jfieldID _dotGraphPrinterTreeField;
 
@@ -302,15 +350,25 @@ bool __rangeEqual(TSRange left, TSRange right);
 
 bool __isDefaultRange(TSRange range);
 
-jobject __marshalPoint(JNIEnv* env, TSPoint point);
+jint __getNodeFlags(TSNode node);
+
+uint32_t __getEncodingWidth(JNIEnv* env, jobject encodingObject);
+
+uint32_t __getTreeWidth(JNIEnv* env, jobject treeObject);
 
-TSPoint __unmarshalPoint(JNIEnv* env, jobject pointObject);
+uint32_t __getNodeWidth(JNIEnv* env, jobject nodeObject);
 
-jobject __marshalRange(JNIEnv* env, TSRange range);
+TSInputEncoding __getInputEncoding(uint32_t width);
 
-TSRange __unmarshalRange(JNIEnv* env, jobject rangeObject);
+jobject __marshalPoint(JNIEnv* env, TSPoint point, uint32_t width);
 
-TSInputEdit __unmarshalInputEdit(JNIEnv* env, jobject inputEdit);
+TSPoint __unmarshalPoint(JNIEnv* env, jobject pointObject, uint32_t width);
+
+jobject __marshalRange(JNIEnv* env, TSRange range, uint32_t width);
+
+TSRange __unmarshalRange(JNIEnv* env, jobject rangeObject, uint32_t width);
+
+TSInputEdit __unmarshalInputEdit(JNIEnv* env, jobject inputEdit, uint32_t width);
 
 jobject __marshalPredicateStep(JNIEnv* env, const TSQuery* query, TSQueryPredicateStep step);
 
@@ -320,6 +378,8 @@ const TSLanguage* __unmarshalLanguage(JNIEnv* env, jobject languageObject);
 
 void __log_in_java(void* payload, TSLogType log_type, const char* buffer);
 
+void __log_in_buffer(void* payload, TSLogType log_type, const char* buffer);
+
 #ifdef TS_LANGUAGE_ADA
 TSLanguage* tree_sitter_ada();
 #endif
@@ -9,6 +9,8 @@ extern "C" {
 #endif
 #undef ch_usi_si_seart_treesitter_Language_INVALID
 #define ch_usi_si_seart_treesitter_Language_INVALID 0LL
+#undef ch_usi_si_seart_treesitter_Language_ERROR_SYMBOL
+#define ch_usi_si_seart_treesitter_Language_ERROR_SYMBOL 65535L
 /*
  * Class:     ch_usi_si_seart_treesitter_Language
  * Method:    ada
@@ -81,16 +81,16 @@ JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Node_getDescendant__II
     __throwIAE(env, "The starting byte of the range must not be greater than the ending byte!");
     return NULL;
   }
-  // Not sure why I need to multiply by two, again probably because of utf-16
   TSNode node = __unmarshalNode(env, thisObject);
+  uint32_t width = __getNodeWidth(env, thisObject);
   uint32_t nodeStart = ts_node_start_byte(node);
-  uint32_t rangeStart = (uint32_t)start * 2;
+  uint32_t rangeStart = (uint32_t)start * width;
   if (rangeStart < nodeStart) {
     __throwBOB(env, start);
     return NULL;
   }
   uint32_t nodeEnd = ts_node_end_byte(node);
-  uint32_t rangeEnd = (uint32_t)end * 2;
+  uint32_t rangeEnd = (uint32_t)end * width;
   if (rangeEnd > nodeEnd) {
     __throwBOB(env, end);
     return NULL;
@@ -115,8 +115,9 @@ JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Node_getDescendant__Lc
     return NULL;
   }
   TSNode node = __unmarshalNode(env, thisObject);
-  TSPoint startPoint = __unmarshalPoint(env, startPointObject);
-  TSPoint endPoint = __unmarshalPoint(env, endPointObject);
+  uint32_t width = __getNodeWidth(env, thisObject);
+  TSPoint startPoint = __unmarshalPoint(env, startPointObject, width);
+  TSPoint endPoint = __unmarshalPoint(env, endPointObject, width);
   if (endPoint.row < 0 || endPoint.column < 0) {
     __throwIAE(env, "End point can not have negative coordinates!");
     return NULL;
@@ -157,7 +158,8 @@ JNIEXPORT jint JNICALL Java_ch_usi_si_seart_treesitter_Node_getDescendantCount(
 JNIEXPORT jint JNICALL Java_ch_usi_si_seart_treesitter_Node_getEndByte(
   JNIEnv* env, jobject thisObject) {
   TSNode node = __unmarshalNode(env, thisObject);
-  return ts_node_is_null(node) ? (jint)0 : (jint)ts_node_end_byte(node) / 2;
+  if (ts_node_is_null(node)) return (jint)0;
+  return (jint)(ts_node_end_byte(node) / __getNodeWidth(env, thisObject));
 }
 
 JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Node_getEndPoint(
@@ -165,7 +167,7 @@ JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Node_getEndPoint(
   TSNode node = __unmarshalNode(env, thisObject);
   if (ts_node_is_null(node)) return env->CallStaticObjectMethod(_pointClass, _pointOriginStaticMethod);
   TSPoint point = ts_node_end_point(node);
-  return __marshalPoint(env, point);
+  return __marshalPoint(env, point, __getNodeWidth(env, thisObject));
 }
 
 JNIEXPORT jstring JNICALL Java_ch_usi_si_seart_treesitter_Node_getFieldNameForChild(
@@ -184,7 +186,7 @@ JNIEXPORT jstring JNICALL Java_ch_usi_si_seart_treesitter_Node_getFieldNameForCh
 JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Node_getFirstChildForByte(
   JNIEnv* env, jobject thisObject, jint offset, jboolean named) {
   TSNode node = __unmarshalNode(env, thisObject);
-  uint32_t position = (uint32_t)offset * 2;
+  uint32_t position = (uint32_t)offset * __getNodeWidth(env, thisObject);
   uint32_t nodeStart = ts_node_start_byte(node);
   if (position < nodeStart) {
     __throwBOB(env, offset);
@@ -255,7 +257,8 @@ JNIEXPORT jint JNICALL Java_ch_usi_si_seart_treesitter_Node_getParseState(
 JNIEXPORT jint JNICALL Java_ch_usi_si_seart_treesitter_Node_getStartByte(
   JNIEnv* env, jobject thisObject) {
   TSNode node = __unmarshalNode(env, thisObject);
-  return ts_node_is_null(node) ? (jint)0 : (jint)ts_node_start_byte(node) / 2;
+  if (ts_node_is_null(node)) return (jint)0;
+  return (jint)(ts_node_start_byte(node) / __getNodeWidth(env, thisObject));
 }
 
 JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Node_getStartPoint(
@@ -263,7 +266,7 @@ JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Node_getStartPoint(
   TSNode node = __unmarshalNode(env, thisObject);
   if (ts_node_is_null(node)) return env->CallStaticObjectMethod(_pointClass, _pointOriginStaticMethod);
   TSPoint point = ts_node_start_point(node);
-  return __marshalPoint(env, point);
+  return __marshalPoint(env, point, __getNodeWidth(env, thisObject));
 }
 
 JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Node_getSymbol(
@@ -313,6 +316,27 @@ JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_Node_hasError(
   return ts_node_has_error(node) ? JNI_TRUE : JNI_FALSE;
 }
 
+// Must match the array positions declared in NodeInfo
+JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Node_fill(
+  JNIEnv* env, jobject thisObject, jintArray buffer, jint offset) {
+  TSNode node = __unmarshalNode(env, thisObject);
+  jint info[8] = {0};
+  if (!ts_node_is_null(node)) {
+    uint32_t width = __getNodeWidth(env, thisObject);
+    TSPoint startPoint = ts_node_start_point(node);
+    TSPoint endPoint = ts_node_end_point(node);
+    info[0] = (jint)ts_node_symbol(node);
+    info[1] = (jint)(ts_node_start_byte(node) / width);
+    info[2] = (jint)(ts_node_end_byte(node) / width);
+    info[3] = (jint)startPoint.row;
+    info[4] = (jint)(startPoint.column / width);
+    info[5] = (jint)endPoint.row;
+    info[6] = (jint)(endPoint.column / width);
+    info[7] = __getNodeFlags(node);
+  }
+  env->SetIntArrayRegion(buffer, offset, 8, info);
+}
+
 JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_Node_isError(
   JNIEnv* env, jobject thisObject) {
   TSNode node = __unmarshalNode(env, thisObject);
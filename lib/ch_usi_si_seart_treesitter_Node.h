@@ -183,6 +183,14 @@ JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_Node_hasChanges
 JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_Node_hasError
   (JNIEnv *, jobject);
 
+/*
+ * Class:     ch_usi_si_seart_treesitter_Node
+ * Method:    fill
+ * Signature: ([II)V
+ */
+JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Node_fill
+  (JNIEnv *, jobject, jintArray, jint);
+
 /*
  * Class:     ch_usi_si_seart_treesitter_Node
  * Method:    isError
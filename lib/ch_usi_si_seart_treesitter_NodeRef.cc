@@ -0,0 +1,162 @@
+#include "ch_usi_si_seart_treesitter.h"
+#include "ch_usi_si_seart_treesitter_NodeRef.h"
+#include <jni.h>
+#include <tree_sitter/api.h>
+
+// Unlike nodes, references are read and written field by field,
+// as their whole purpose is to avoid allocating new objects
+static TSNode __unmarshalNodeRef(JNIEnv* env, jobject refObject) {
+  jobject treeObject = env->GetObjectField(refObject, _nodeRefTreeField);
+  jlong tree = (treeObject == NULL) ? (jlong)0 : __getPointer(env, treeObject);
+  jlong node = env->GetLongField(refObject, _nodeRefIdField);
+  return (TSNode) {
+      {
+          (uint32_t)env->GetIntField(refObject, _nodeRefContext0Field),
+          (uint32_t)env->GetIntField(refObject, _nodeRefContext1Field),
+          (uint32_t)env->GetIntField(refObject, _nodeRefContext2Field),
+          (uint32_t)env->GetIntField(refObject, _nodeRefContext3Field),
+      },
+      (const void*)node,
+      (const TSTree*)tree
+  };
+}
+
+static jboolean __moveNodeRef(JNIEnv* env, jobject refObject, TSNode node) {
+  if (ts_node_is_null(node)) return JNI_FALSE;
+  env->SetIntField(refObject, _nodeRefContext0Field, (jint)node.context[0]);
+  env->SetIntField(refObject, _nodeRefContext1Field, (jint)node.context[1]);
+  env->SetIntField(refObject, _nodeRefContext2Field, (jint)node.context[2]);
+  env->SetIntField(refObject, _nodeRefContext3Field, (jint)node.context[3]);
+  env->SetLongField(refObject, _nodeRefIdField, (jlong)node.id);
+  return JNI_TRUE;
+}
+
+static uint32_t __getNodeRefWidth(JNIEnv* env, jobject refObject) {
+  jobject treeObject = env->GetObjectField(refObject, _nodeRefTreeField);
+  return __getTreeWidth(env, treeObject);
+}
+
+JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_assign(
+  JNIEnv* env, jobject thisObject, jobject nodeObject) {
+  TSNode node = __unmarshalNode(env, nodeObject);
+  jobject treeObject = env->GetObjectField(nodeObject, _nodeTreeField);
+  env->SetIntField(thisObject, _nodeRefContext0Field, (jint)node.context[0]);
+  env->SetIntField(thisObject, _nodeRefContext1Field, (jint)node.context[1]);
+  env->SetIntField(thisObject, _nodeRefContext2Field, (jint)node.context[2]);
+  env->SetIntField(thisObject, _nodeRefContext3Field, (jint)node.context[3]);
+  env->SetLongField(thisObject, _nodeRefIdField, (jlong)node.id);
+  env->SetObjectField(thisObject, _nodeRefTreeField, treeObject);
+}
+
+JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_gotoParent(
+  JNIEnv* env, jobject thisObject) {
+  TSNode node = __unmarshalNodeRef(env, thisObject);
+  if (ts_node_is_null(node)) return JNI_FALSE;
+  return __moveNodeRef(env, thisObject, ts_node_parent(node));
+}
+
+JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_gotoChild(
+  JNIEnv* env, jobject thisObject, jint index, jboolean named) {
+  uint32_t (*child_counter)(TSNode) = (bool)named
+      ? ts_node_named_child_count
+      : ts_node_child_count;
+  TSNode (*child_getter)(TSNode, uint32_t) = (bool)named
+      ? ts_node_named_child
+      : ts_node_child;
+  TSNode node = __unmarshalNodeRef(env, thisObject);
+  if (ts_node_is_null(node) || index < 0) return JNI_FALSE;
+  uint32_t childIndex = (uint32_t)index;
+  if (childIndex >= child_counter(node)) return JNI_FALSE;
+  return __moveNodeRef(env, thisObject, child_getter(node, childIndex));
+}
+
+JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_gotoNextSibling(
+  JNIEnv* env, jobject thisObject, jboolean named) {
+  TSNode (*next_sibling_getter)(TSNode) = (bool)named
+      ? ts_node_next_named_sibling
+      : ts_node_next_sibling;
+  TSNode node = __unmarshalNodeRef(env, thisObject);
+  if (ts_node_is_null(node)) return JNI_FALSE;
+  return __moveNodeRef(env, thisObject, next_sibling_getter(node));
+}
+
+JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_gotoPrevSibling(
+  JNIEnv* env, jobject thisObject, jboolean named) {
+  TSNode (*prev_sibling_getter)(TSNode) = (bool)named
+      ? ts_node_prev_named_sibling
+      : ts_node_prev_sibling;
+  TSNode node = __unmarshalNodeRef(env, thisObject);
+  if (ts_node_is_null(node)) return JNI_FALSE;
+  return __moveNodeRef(env, thisObject, prev_sibling_getter(node));
+}
+
+JNIEXPORT jint JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_getChildCount(
+  JNIEnv* env, jobject thisObject, jboolean named) {
+  uint32_t (*child_counter)(TSNode) = (bool)named
+      ? ts_node_named_child_count
+      : ts_node_child_count;
+  TSNode node = __unmarshalNodeRef(env, thisObject);
+  return ts_node_is_null(node) ? (jint)0 : (jint)child_counter(node);
+}
+
+JNIEXPORT jint JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_getStartByte(
+  JNIEnv* env, jobject thisObject) {
+  TSNode node = __unmarshalNodeRef(env, thisObject);
+  if (ts_node_is_null(node)) return (jint)0;
+  return (jint)(ts_node_start_byte(node) / __getNodeRefWidth(env, thisObject));
+}
+
+JNIEXPORT jint JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_getEndByte(
+  JNIEnv* env, jobject thisObject) {
+  TSNode node = __unmarshalNodeRef(env, thisObject);
+  if (ts_node_is_null(node)) return (jint)0;
+  return (jint)(ts_node_end_byte(node) / __getNodeRefWidth(env, thisObject));
+}
+
+JNIEXPORT jint JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_getSymbolId(
+  JNIEnv* env, jobject thisObject) {
+  TSNode node = __unmarshalNodeRef(env, thisObject);
+  return ts_node_is_null(node) ? (jint)0 : (jint)ts_node_symbol(node);
+}
+
+JNIEXPORT jstring JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_getType(
+  JNIEnv* env, jobject thisObject) {
+  TSNode node = __unmarshalNodeRef(env, thisObject);
+  if (ts_node_is_null(node)) return NULL;
+  return env->NewStringUTF(ts_node_type(node));
+}
+
+JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_hasError(
+  JNIEnv* env, jobject thisObject) {
+  TSNode node = __unmarshalNodeRef(env, thisObject);
+  if (ts_node_is_null(node)) return JNI_FALSE;
+  return ts_node_has_error(node) ? JNI_TRUE : JNI_FALSE;
+}
+
+JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_isError(
+  JNIEnv* env, jobject thisObject) {
+  TSNode node = __unmarshalNodeRef(env, thisObject);
+  if (ts_node_is_null(node)) return JNI_FALSE;
+  return ts_node_is_error(node) ? JNI_TRUE : JNI_FALSE;
+}
+
+JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_isExtra(
+  JNIEnv* env, jobject thisObject) {
+  TSNode node = __unmarshalNodeRef(env, thisObject);
+  if (ts_node_is_null(node)) return JNI_FALSE;
+  return ts_node_is_extra(node) ? JNI_TRUE : JNI_FALSE;
+}
+
+JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_isMissing(
+  JNIEnv* env, jobject thisObject) {
+  TSNode node = __unmarshalNodeRef(env, thisObject);
+  if (ts_node_is_null(node)) return JNI_FALSE;
+  return ts_node_is_missing(node) ? JNI_TRUE : JNI_FALSE;
+}
+
+JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_isNamed(
+  JNIEnv* env, jobject thisObject) {
+  TSNode node = __unmarshalNodeRef(env, thisObject);
+  if (ts_node_is_null(node)) return JNI_FALSE;
+  return ts_node_is_named(node) ? JNI_TRUE : JNI_FALSE;
+}
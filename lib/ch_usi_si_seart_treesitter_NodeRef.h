@@ -0,0 +1,133 @@
+/* DO NOT EDIT THIS FILE - it is machine generated */
+#include <jni.h>
+/* Header for class ch_usi_si_seart_treesitter_NodeRef */
+
+#ifndef _Included_ch_usi_si_seart_treesitter_NodeRef
+#define _Included_ch_usi_si_seart_treesitter_NodeRef
+#ifdef __cplusplus
+extern "C" {
+#endif
+/*
+ * Class:     ch_usi_si_seart_treesitter_NodeRef
+ * Method:    assign
+ * Signature: (Lch/usi/si/seart/treesitter/Node;)V
+ */
+JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_assign
+  (JNIEnv *, jobject, jobject);
+
+/*
+ * Class:     ch_usi_si_seart_treesitter_NodeRef
+ * Method:    gotoParent
+ * Signature: ()Z
+ */
+JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_gotoParent
+  (JNIEnv *, jobject);
+
+/*
+ * Class:     ch_usi_si_seart_treesitter_NodeRef
+ * Method:    gotoChild
+ * Signature: (IZ)Z
+ */
+JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_gotoChild
+  (JNIEnv *, jobject, jint, jboolean);
+
+/*
+ * Class:     ch_usi_si_seart_treesitter_NodeRef
+ * Method:    gotoNextSibling
+ * Signature: (Z)Z
+ */
+JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_gotoNextSibling
+  (JNIEnv *, jobject, jboolean);
+
+/*
+ * Class:     ch_usi_si_seart_treesitter_NodeRef
+ * Method:    gotoPrevSibling
+ * Signature: (Z)Z
+ */
+JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_gotoPrevSibling
+  (JNIEnv *, jobject, jboolean);
+
+/*
+ * Class:     ch_usi_si_seart_treesitter_NodeRef
+ * Method:    getChildCount
+ * Signature: (Z)I
+ */
+JNIEXPORT jint JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_getChildCount
+  (JNIEnv *, jobject, jboolean);
+
+/*
+ * Class:     ch_usi_si_seart_treesitter_NodeRef
+ * Method:    getStartByte
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_getStartByte
+  (JNIEnv *, jobject);
+
+/*
+ * Class:     ch_usi_si_seart_treesitter_NodeRef
+ * Method:    getEndByte
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_getEndByte
+  (JNIEnv *, jobject);
+
+/*
+ * Class:     ch_usi_si_seart_treesitter_NodeRef
+ * Method:    getSymbolId
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_getSymbolId
+  (JNIEnv *, jobject);
+
+/*
+ * Class:     ch_usi_si_seart_treesitter_NodeRef
+ * Method:    getType
+ * Signature: ()Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_getType
+  (JNIEnv *, jobject);
+
+/*
+ * Class:     ch_usi_si_seart_treesitter_NodeRef
+ * Method:    hasError
+ * Signature: ()Z
+ */
+JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_hasError
+  (JNIEnv *, jobject);
+
+/*
+ * Class:     ch_usi_si_seart_treesitter_NodeRef
+ * Method:    isError
+ * Signature: ()Z
+ */
+JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_isError
+  (JNIEnv *, jobject);
+
+/*
+ * Class:     ch_usi_si_seart_treesitter_NodeRef
+ * Method:    isExtra
+ * Signature: ()Z
+ */
+JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_isExtra
+  (JNIEnv *, jobject);
+
+/*
+ * Class:     ch_usi_si_seart_treesitter_NodeRef
+ * Method:    isMissing
+ * Signature: ()Z
+ */
+JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_isMissing
+  (JNIEnv *, jobject);
+
+/*
+ * Class:     ch_usi_si_seart_treesitter_NodeRef
+ * Method:    isNamed
+ * Signature: ()Z
+ */
+JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_NodeRef_isNamed
+  (JNIEnv *, jobject);
+
+#ifdef __cplusplus
+}
+#endif
+#endif
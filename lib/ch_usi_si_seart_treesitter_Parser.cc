@@ -1,11 +1,29 @@
 #include "ch_usi_si_seart_treesitter.h"
 #include "ch_usi_si_seart_treesitter_Parser.h"
 #include <jni.h>
+#include <stdlib.h>
+#include <string.h>
+#include <time.h>
 #include <tree_sitter/api.h>
 
+// Only one of the two logging modes can be active at a time,
+// and no logging function is installed when both are disabled,
+// so that tree-sitter does not format messages in vain
+static void __setLogger(JNIEnv* env, TSParser* parser, void* payload, void (*log)(void*, TSLogType, const char*)) {
+  TSLogger logger = ts_parser_logger(parser);
+  if (logger.log == __log_in_java) {
+    jobject globalObject = reinterpret_cast<jobject>(logger.payload);
+    if (globalObject != NULL) env->DeleteGlobalRef(globalObject);
+  }
+  logger.payload = payload;
+  logger.log = payload != NULL ? log : NULL;
+  ts_parser_set_logger(parser, logger);
+}
+
 JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Parser_delete(
   JNIEnv* env, jobject thisObject) {
   TSParser* parser = (TSParser*)__getPointer(env, thisObject);
+  __setLogger(env, parser, NULL, NULL);
   ts_parser_delete(parser);
   __clearPointer(env, thisObject);
 }
@@ -25,22 +43,36 @@ JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Parser_setLanguage(
   }
 }
 
+JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Parser_setCancellationFlag(
+  JNIEnv* env, jobject thisObject, jobject flagObject) {
+  TSParser* parser = (TSParser*)__getPointer(env, thisObject);
+  // The flag memory is owned by the Java handle, which outlives the parser
+  const size_t* flag = reinterpret_cast<const size_t*>(env->GetDirectBufferAddress(flagObject));
+  ts_parser_set_cancellation_flag(parser, flag);
+}
+
 JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Parser_getLogger(
   JNIEnv* env, jobject thisObject) {
   TSParser* parser = (TSParser*)__getPointer(env, thisObject);
   TSLogger logger = ts_parser_logger(parser);
+  if (logger.log != __log_in_java) return NULL;
   jobject loggerObject = reinterpret_cast<jobject>(logger.payload);
   return env->NewLocalRef(loggerObject);
 }
 
 JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Parser_setLogger(
-  JNIEnv* env, jobject thisObject, jobject loggerObject) {
-  TSParser* parser = (TSParser*)__getPointer(env, thisObject);
-  TSLogger logger = ts_parser_logger(parser);
-  jobject globalObject = reinterpret_cast<jobject>(logger.payload);
-  if (globalObject != NULL) env->DeleteGlobalRef(globalObject);
-  logger.payload = reinterpret_cast<void*>(env->NewGlobalRef(loggerObject));
-  ts_parser_set_logger(parser, logger);
+  JNIEnv* env, jclass thisClass, jobject parserObject, jobject loggerObject) {
+  TSParser* parser = (TSParser*)__getPointer(env, parserObject);
+  void* payload = loggerObject != NULL ? reinterpret_cast<void*>(env->NewGlobalRef(loggerObject)) : NULL;
+  __setLogger(env, parser, payload, __log_in_java);
+}
+
+JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Parser_setLogBuffer(
+  JNIEnv* env, jclass thisClass, jobject parserObject, jobject bufferObject) {
+  TSParser* parser = (TSParser*)__getPointer(env, parserObject);
+  // The buffer memory is owned by the Java object, which the parser retains
+  void* payload = bufferObject != NULL ? env->GetDirectBufferAddress(bufferObject) : NULL;
+  __setLogger(env, parser, payload, __log_in_buffer);
 }
 
 JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Parser_getIncludedRanges(
@@ -56,7 +88,7 @@ JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Parser_getIncludedRang
     jobjectArray array = env->NewObjectArray(length, _rangeClass, NULL);
     for (uint32_t i = 0; i < length; i++) {
       TSRange range = ranges[i];
-      jobject rangeObject = __marshalRange(env, range);
+      jobject rangeObject = __marshalRange(env, range, WIDTH_DEFAULT);
       env->SetObjectArrayElement(array, i, rangeObject);
     }
     return env->CallStaticObjectMethod(_listClass, _listOfStaticMethod, array);
@@ -69,7 +101,7 @@ JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Parser_setIncludedRanges(
   TSRange ranges[length];
   for (int i = 0; i < length; i++) {
     jobject rangeObject = env->GetObjectArrayElement(rangeObjectArray, i);
-    ranges[i] = __unmarshalRange(env, rangeObject);
+    ranges[i] = __unmarshalRange(env, rangeObject, WIDTH_DEFAULT);
   }
   if (!ts_parser_set_included_ranges(parser, ranges, length)) {
     __throwISE(env, NULL);
@@ -92,21 +124,298 @@ JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Parser_setTimeout(
   }
 }
 
-JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Parser_parse(
-  JNIEnv* env, jobject thisObject, jstring source, jbyteArray bytes, jint length, jobject treeObject) {
+// Included ranges are always stored in UTF-16 bytes, so they have
+// to be rescaled for the duration of parsing in other encodings
+static TSRange* __rescaleIncludedRanges(TSParser* parser, uint32_t width, uint32_t* length) {
+  const TSRange* ranges = ts_parser_included_ranges(parser, length);
+  if (width == WIDTH_DEFAULT || (*length == 1 && __isDefaultRange(ranges[0]))) return NULL;
+  TSRange* original = (TSRange*)malloc(sizeof(TSRange) * (*length));
+  TSRange rescaled[*length];
+  for (uint32_t i = 0; i < *length; i++) {
+    original[i] = ranges[i];
+    rescaled[i] = (TSRange) {
+      { ranges[i].start_point.row, ranges[i].start_point.column / WIDTH_DEFAULT * width },
+      { ranges[i].end_point.row, ranges[i].end_point.column / WIDTH_DEFAULT * width },
+      ranges[i].start_byte / WIDTH_DEFAULT * width,
+      ranges[i].end_byte / WIDTH_DEFAULT * width
+    };
+  }
+  ts_parser_set_included_ranges(parser, rescaled, *length);
+  return original;
+}
+
+typedef struct {
+  const char* bytes;
+  uint32_t length;
+} StringPayload;
+
+typedef struct {
+  JNIEnv* env;
+  jobject inputObject;
+  const char* chunk;
+} StreamPayload;
+
+static const char* __readString(void* payload, uint32_t offset, TSPoint position, uint32_t* length) {
+  StringPayload* string = (StringPayload*)payload;
+  if (offset >= string->length) {
+    *length = 0;
+    return "";
+  }
+  *length = string->length - offset;
+  return string->bytes + offset;
+}
+
+typedef struct {
+  const char* bytes;
+  uint32_t start;
+  uint32_t end;
+} WindowPayload;
+
+// Offsets are relative to the start of the file,
+// but only the bytes within the window are available
+static const char* __readWindow(void* payload, uint32_t offset, TSPoint position, uint32_t* length) {
+  WindowPayload* window = (WindowPayload*)payload;
+  if (offset < window->start || offset >= window->end) {
+    *length = 0;
+    return "";
+  }
+  *length = window->end - offset;
+  return window->bytes + (offset - window->start);
+}
+
+static const char* __readStream(void* payload, uint32_t offset, TSPoint position, uint32_t* length) {
+  StreamPayload* stream = (StreamPayload*)payload;
+  JNIEnv* env = stream->env;
+  if (env->ExceptionCheck()) {
+    *length = 0;
+    return stream->chunk;
+  }
+  jint count = env->CallIntMethod(stream->inputObject, _inputReadMethod, (jlong)offset);
+  *length = (env->ExceptionCheck() || count < 0) ? 0 : (uint32_t)count;
+  return stream->chunk;
+}
+
+typedef struct {
+  JNIEnv* env;
+  jobject monitorObject;
+  TSInput input;
+  TSLogger logger;
+  size_t* flag;
+  uint32_t bytes;
+  uint64_t cost;
+  bool aborted;
+} ProgressPayload;
+
+// Reads are capped so that progress is reported
+// at least once every this many bytes of input
+static const uint32_t PROGRESS_CHUNK_SIZE = 4096;
+
+// The bundled tree-sitter (0.24) does not expose the error cost of a parse in progress,
+// so it is approximated from the parse log instead. Each entry pairs the prefix of a
+// message logged in lib/src/parser.c with the cost that tree-sitter assigns to the
+// corresponding recovery in lib/src/error_costs.h:
+//
+//   detect_error          ERROR_COST_PER_RECOVERY      500
+//   recover_with_missing  ERROR_COST_PER_MISSING_TREE  110
+//   skip_token            ERROR_COST_PER_SKIPPED_TREE  100
+//
+// Costs that depend on the size of the skipped input (per line and per character) are not
+// included, as they are not logged. Both the messages and the costs have to be revisited
+// when upgrading tree-sitter, which ProgressMonitorTest checks against a real parse log.
+static const struct {
+  const char* prefix;
+  uint64_t cost;
+} ERROR_COSTS[] = {
+  { "detect_error", 500 },
+  { "recover_with_missing", 110 },
+  { "skip_token", 100 },
+};
+
+static uint64_t __errorCost(const char* message) {
+  for (const auto& entry: ERROR_COSTS) {
+    if (strncmp(message, entry.prefix, strlen(entry.prefix)) == 0) return entry.cost;
+  }
+  return 0;
+}
+
+static void __reportProgress(ProgressPayload* progress) {
+  JNIEnv* env = progress->env;
+  if (progress->aborted || env->ExceptionCheck()) return;
+  jboolean proceed = env->CallBooleanMethod(
+    progress->monitorObject,
+    _progressMonitorProceedMethod,
+    (jlong)progress->bytes,
+    (jlong)progress->cost
+  );
+  if (proceed && !env->ExceptionCheck()) return;
+  progress->aborted = !env->ExceptionCheck();
+  __atomic_store_n(progress->flag, 1, __ATOMIC_SEQ_CST);
+}
+
+static const char* __readProgress(void* payload, uint32_t offset, TSPoint position, uint32_t* length) {
+  ProgressPayload* progress = (ProgressPayload*)payload;
+  const char* chunk = progress->input.read(progress->input.payload, offset, position, length);
+  if (*length > PROGRESS_CHUNK_SIZE) *length = PROGRESS_CHUNK_SIZE;
+  if (offset > progress->bytes) {
+    progress->bytes = offset;
+    __reportProgress(progress);
+  }
+  return chunk;
+}
+
+static void __logProgress(void* payload, TSLogType type, const char* message) {
+  ProgressPayload* progress = (ProgressPayload*)payload;
+  if (progress->logger.log != NULL) progress->logger.log(progress->logger.payload, type, message);
+  if (type != TSLogTypeParse) return;
+  uint64_t cost = __errorCost(message);
+  if (cost == 0) return;
+  progress->cost += cost;
+  __reportProgress(progress);
+}
+
+JNIEXPORT jlong JNICALL Java_ch_usi_si_seart_treesitter_Parser_errorCost(
+  JNIEnv* env, jclass thisClass, jstring messageString) {
+  const char* message = env->GetStringUTFChars(messageString, NULL);
+  uint64_t cost = __errorCost(message);
+  env->ReleaseStringUTFChars(messageString, message);
+  return (jlong)cost;
+}
+
+// Layout of the direct buffer that parse metrics are recorded in,
+// which must match the offsets used by the Java ParseMetrics class
+typedef struct {
+  int64_t wall;
+  int64_t cpu;
+  int64_t bytes;
+  int64_t descendants;
+  int64_t errors;
+  int64_t missing;
+  int64_t flags;
+} ParseMetrics;
+
+static const int64_t METRICS_RECORDED = 1;
+static const int64_t METRICS_INCREMENTAL = 2;
+static const int64_t METRICS_TIMED_OUT = 4;
+static const int64_t METRICS_CANCELLED = 8;
+
+static int64_t __nanos(clockid_t clock) {
+  struct timespec time;
+  clock_gettime(clock, &time);
+  return (int64_t)time.tv_sec * 1000000000 + time.tv_nsec;
+}
+
+// Only subtrees that contain errors are visited,
+// which makes counting free for error-free trees
+static void __countErrors(TSNode root, int64_t* errors, int64_t* missing) {
+  if (!ts_node_has_error(root)) return;
+  TSTreeCursor cursor = ts_tree_cursor_new(root);
+  while (true) {
+    TSNode node = ts_tree_cursor_current_node(&cursor);
+    if (ts_node_is_error(node)) (*errors)++;
+    if (ts_node_is_missing(node)) (*missing)++;
+    if (ts_node_has_error(node) && ts_tree_cursor_goto_first_child(&cursor)) continue;
+    while (!ts_tree_cursor_goto_next_sibling(&cursor)) {
+      if (!ts_tree_cursor_goto_parent(&cursor)) {
+        ts_tree_cursor_delete(&cursor);
+        return;
+      }
+    }
+  }
+}
+
+static void __recordMetrics(
+  ParseMetrics* metrics,
+  int64_t wall,
+  int64_t cpu,
+  uint32_t length,
+  TSTree* tree,
+  TSTree* result,
+  bool cancelled
+) {
+  metrics->wall = __nanos(CLOCK_MONOTONIC) - wall;
+  metrics->cpu = __nanos(CLOCK_THREAD_CPUTIME_ID) - cpu;
+  metrics->bytes = length;
+  metrics->descendants = 0;
+  metrics->errors = 0;
+  metrics->missing = 0;
+  metrics->flags = METRICS_RECORDED;
+  if (tree != NULL) metrics->flags |= METRICS_INCREMENTAL;
+  if (result != NULL) {
+    TSNode root = ts_tree_root_node(result);
+    // Streamed input has no length known in advance
+    if (length == 0) metrics->bytes = ts_node_end_byte(root);
+    metrics->descendants = ts_node_descendant_count(root);
+    __countErrors(root, &metrics->errors, &metrics->missing);
+  } else {
+    metrics->flags |= cancelled ? METRICS_CANCELLED : METRICS_TIMED_OUT;
+  }
+}
+
+static jobject __parse(
+  JNIEnv* env,
+  jobject thisObject,
+  jobject sourceObject,
+  TSInput input,
+  uint32_t length,
+  uint32_t width,
+  jobject treeObject,
+  bool resumable
+) {
   TSParser* parser = (TSParser*)__getPointer(env, thisObject);
   TSTree* tree = (treeObject != NULL) ? (TSTree*)__getPointer(env, treeObject) : NULL;
-  jbyte* elements = env->GetByteArrayElements(bytes, NULL);
-  TSTree* result = ts_parser_parse_string_encoding(
-    parser, tree, reinterpret_cast<const char*>(elements), length, TSInputEncodingUTF16
-  );
-  env->ReleaseByteArrayElements(bytes, elements, JNI_ABORT);
+  // Metrics are only recorded while the parser has a listener
+  jobject metricsObject = env->GetObjectField(thisObject, _parserMetricsField);
+  ParseMetrics* metrics = metricsObject != NULL
+    ? reinterpret_cast<ParseMetrics*>(env->GetDirectBufferAddress(metricsObject))
+    : NULL;
+  int64_t wall = metrics != NULL ? __nanos(CLOCK_MONOTONIC) : 0;
+  int64_t cpu = metrics != NULL ? __nanos(CLOCK_THREAD_CPUTIME_ID) : 0;
+  uint32_t count = 0;
+  TSRange* ranges = __rescaleIncludedRanges(parser, width, &count);
+  // Buffered logging is muted for parses that were not sampled
+  TSLogger logger = ts_parser_logger(parser);
+  bool muted = logger.log == __log_in_buffer && !reinterpret_cast<LogBufferHeader*>(logger.payload)->enabled;
+  TSLogger active = muted ? (TSLogger) { logger.payload, NULL } : logger;
+  size_t* flag = const_cast<size_t*>(ts_parser_cancellation_flag(parser));
+  // Monitored input is read through a wrapper that reports progress,
+  // and error costs are tallied from the parse log if requested
+  jobject monitorObject = env->GetObjectField(thisObject, _parserProgressMonitorField);
+  ProgressPayload progress = { env, monitorObject, input, active, flag, 0, 0, false };
+  bool tracked = false;
+  if (monitorObject != NULL && flag != NULL) {
+    input = (TSInput) { &progress, __readProgress, input.encoding };
+    tracked = env->CallBooleanMethod(monitorObject, _progressMonitorTracksErrorCostMethod);
+    if (tracked) active = (TSLogger) { &progress, __logProgress };
+  }
+  bool replaced = muted || tracked;
+  if (replaced) ts_parser_set_logger(parser, active);
+  TSTree* result = !env->ExceptionCheck() ? ts_parser_parse(parser, tree, input) : NULL;
+  if (replaced) ts_parser_set_logger(parser, logger);
+  // Requests that arrive from here on are discarded once the Java call returns
+  bool cancelled = flag != NULL && __atomic_exchange_n(flag, 0, __ATOMIC_SEQ_CST) != 0;
+  if (metrics != NULL) __recordMetrics(metrics, wall, cpu, length, tree, result, cancelled);
+  if (ranges != NULL) {
+    ts_parser_set_included_ranges(parser, ranges, count);
+    free(ranges);
+  }
+  // Timed out parsing can be resumed by supplying the same input again
+  bool suspended = result == NULL && resumable && !cancelled;
+  if (suspended && !env->ExceptionCheck()) return NULL;
   ts_parser_reset(parser);
-  if (result == 0) {
-    jthrowable cause = _newThrowable(
-      _timeoutExceptionClass,
-      _timeoutExceptionConstructor
-    );
+  if (env->ExceptionCheck()) {
+    if (result != NULL) ts_tree_delete(result);
+    return NULL;
+  }
+  if (result == NULL) {
+    jthrowable cause = progress.aborted
+      ? _newThrowable(
+          _cancellationExceptionClass,
+          _cancellationExceptionMessageConstructor,
+          env->NewStringUTF("Parsing aborted by progress monitor")
+        )
+      : cancelled
+      ? _newThrowable(_cancellationExceptionClass, _cancellationExceptionConstructor)
+      : _newThrowable(_timeoutExceptionClass, _timeoutExceptionConstructor);
     jthrowable exception = _newThrowable(
       _parsingExceptionClass,
       _parsingExceptionConstructor,
@@ -121,6 +430,64 @@ JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Parser_parse(
     _treeConstructor,
     (jlong)result,
     languageObject,
-    source
+    sourceObject
   );
 }
+
+JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Parser_parse__Lch_usi_si_seart_treesitter_Source_2_3BIILch_usi_si_seart_treesitter_Encoding_2Lch_usi_si_seart_treesitter_Tree_2(
+  JNIEnv* env, jobject thisObject, jobject sourceObject, jbyteArray bytes, jint offset, jint length,
+  jobject encodingObject, jobject treeObject) {
+  // Only the parsed region is copied, and without any transcoding
+  char* region = (char*)malloc(length > 0 ? length : 1);
+  env->GetByteArrayRegion(bytes, offset, length, reinterpret_cast<jbyte*>(region));
+  uint32_t width = __getEncodingWidth(env, encodingObject);
+  StringPayload payload = { region, (uint32_t)length };
+  TSInput input = { &payload, __readString, __getInputEncoding(width) };
+  jobject result = __parse(env, thisObject, sourceObject, input, (uint32_t)length, width, treeObject, false);
+  free(region);
+  return result;
+}
+
+JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Parser_parse__Lch_usi_si_seart_treesitter_Source_2Ljava_nio_ByteBuffer_2ILch_usi_si_seart_treesitter_Encoding_2Lch_usi_si_seart_treesitter_Tree_2(
+  JNIEnv* env, jobject thisObject, jobject sourceObject, jobject bufferObject, jint length,
+  jobject encodingObject, jobject treeObject) {
+  const char* address = reinterpret_cast<const char*>(env->GetDirectBufferAddress(bufferObject));
+  if (address == NULL) {
+    __throwIAE(env, "Buffer must be direct!");
+    return NULL;
+  }
+  uint32_t width = __getEncodingWidth(env, encodingObject);
+  StringPayload payload = { address, (uint32_t)length };
+  TSInput input = { &payload, __readString, __getInputEncoding(width) };
+  return __parse(env, thisObject, sourceObject, input, (uint32_t)length, width, treeObject, false);
+}
+
+JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Parser_parse__Lch_usi_si_seart_treesitter_Input_2Lch_usi_si_seart_treesitter_Source_2Lch_usi_si_seart_treesitter_Tree_2(
+  JNIEnv* env, jobject thisObject, jobject inputObject, jobject sourceObject, jobject treeObject) {
+  jobject chunkObject = env->GetObjectField(inputObject, _inputChunkField);
+  jobject encodingObject = env->GetObjectField(inputObject, _inputEncodingField);
+  uint32_t width = __getEncodingWidth(env, encodingObject);
+  const char* chunk = reinterpret_cast<const char*>(env->GetDirectBufferAddress(chunkObject));
+  StreamPayload payload = { env, inputObject, chunk };
+  TSInput input = { &payload, __readStream, __getInputEncoding(width) };
+  return __parse(env, thisObject, sourceObject, input, 0, width, treeObject, false);
+}
+
+
+JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Parser_parseWindow(
+  JNIEnv* env, jobject thisObject, jobject sourceObject, jobject bufferObject, jint start, jint length) {
+  const char* address = reinterpret_cast<const char*>(env->GetDirectBufferAddress(bufferObject));
+  WindowPayload payload = { address, (uint32_t)start, (uint32_t)start + (uint32_t)length };
+  TSInput input = { &payload, __readWindow, TSInputEncodingUTF8 };
+  return __parse(env, thisObject, sourceObject, input, (uint32_t)length, 1, NULL, false);
+}
+
+JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Parser_resume(
+  JNIEnv* env, jobject thisObject, jobject sourceObject, jobject bufferObject, jint length,
+  jobject encodingObject) {
+  const char* address = reinterpret_cast<const char*>(env->GetDirectBufferAddress(bufferObject));
+  uint32_t width = __getEncodingWidth(env, encodingObject);
+  StringPayload payload = { address, (uint32_t)length };
+  TSInput input = { &payload, __readString, __getInputEncoding(width) };
+  return __parse(env, thisObject, sourceObject, input, (uint32_t)length, width, NULL, true);
+}
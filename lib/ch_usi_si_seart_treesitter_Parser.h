@@ -7,6 +7,18 @@
 #ifdef __cplusplus
 extern "C" {
 #endif
+#undef ch_usi_si_seart_treesitter_Parser_WINDOW_SCAN_SIZE
+#define ch_usi_si_seart_treesitter_Parser_WINDOW_SCAN_SIZE 65536L
+#undef ch_usi_si_seart_treesitter_Parser_SCRATCH_RETENTION_LIMIT
+#define ch_usi_si_seart_treesitter_Parser_SCRATCH_RETENTION_LIMIT 1048576L
+/*
+ * Class:     ch_usi_si_seart_treesitter_Parser
+ * Method:    setCancellationFlag
+ * Signature: (Ljava/nio/ByteBuffer;)V
+ */
+JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Parser_setCancellationFlag
+  (JNIEnv *, jobject, jobject);
+
 /*
  * Class:     ch_usi_si_seart_treesitter_Parser
  * Method:    delete
@@ -34,10 +46,26 @@ JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Parser_getLogger
 /*
  * Class:     ch_usi_si_seart_treesitter_Parser
  * Method:    setLogger
- * Signature: (Lorg/slf4j/Logger;)V
+ * Signature: (Lch/usi/si/seart/treesitter/Parser;Lorg/slf4j/Logger;)V
  */
 JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Parser_setLogger
-  (JNIEnv *, jobject, jobject);
+  (JNIEnv *, jclass, jobject, jobject);
+
+/*
+ * Class:     ch_usi_si_seart_treesitter_Parser
+ * Method:    setLogBuffer
+ * Signature: (Lch/usi/si/seart/treesitter/Parser;Ljava/nio/ByteBuffer;)V
+ */
+JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Parser_setLogBuffer
+  (JNIEnv *, jclass, jobject, jobject);
+
+/*
+ * Class:     ch_usi_si_seart_treesitter_Parser
+ * Method:    errorCost
+ * Signature: (Ljava/lang/String;)J
+ */
+JNIEXPORT jlong JNICALL Java_ch_usi_si_seart_treesitter_Parser_errorCost
+  (JNIEnv *, jclass, jstring);
 
 /*
  * Class:     ch_usi_si_seart_treesitter_Parser
@@ -71,13 +99,45 @@ JNIEXPORT jlong JNICALL Java_ch_usi_si_seart_treesitter_Parser_getTimeout
 JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Parser_setTimeout
   (JNIEnv *, jobject, jlong);
 
+/*
+ * Class:     ch_usi_si_seart_treesitter_Parser
+ * Method:    parseWindow
+ * Signature: (Lch/usi/si/seart/treesitter/Source;Ljava/nio/ByteBuffer;II)Lch/usi/si/seart/treesitter/Tree;
+ */
+JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Parser_parseWindow
+  (JNIEnv *, jobject, jobject, jobject, jint, jint);
+
 /*
  * Class:     ch_usi_si_seart_treesitter_Parser
  * Method:    parse
- * Signature: (Ljava/lang/String;[BILch/usi/si/seart/treesitter/Tree;)Lch/usi/si/seart/treesitter/Tree;
+ * Signature: (Lch/usi/si/seart/treesitter/Source;[BIILch/usi/si/seart/treesitter/Encoding;Lch/usi/si/seart/treesitter/Tree;)Lch/usi/si/seart/treesitter/Tree;
+ */
+JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Parser_parse__Lch_usi_si_seart_treesitter_Source_2_3BIILch_usi_si_seart_treesitter_Encoding_2Lch_usi_si_seart_treesitter_Tree_2
+  (JNIEnv *, jobject, jobject, jbyteArray, jint, jint, jobject, jobject);
+
+/*
+ * Class:     ch_usi_si_seart_treesitter_Parser
+ * Method:    parse
+ * Signature: (Lch/usi/si/seart/treesitter/Source;Ljava/nio/ByteBuffer;ILch/usi/si/seart/treesitter/Encoding;Lch/usi/si/seart/treesitter/Tree;)Lch/usi/si/seart/treesitter/Tree;
+ */
+JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Parser_parse__Lch_usi_si_seart_treesitter_Source_2Ljava_nio_ByteBuffer_2ILch_usi_si_seart_treesitter_Encoding_2Lch_usi_si_seart_treesitter_Tree_2
+  (JNIEnv *, jobject, jobject, jobject, jint, jobject, jobject);
+
+/*
+ * Class:     ch_usi_si_seart_treesitter_Parser
+ * Method:    parse
+ * Signature: (Lch/usi/si/seart/treesitter/Input;Lch/usi/si/seart/treesitter/Source;Lch/usi/si/seart/treesitter/Tree;)Lch/usi/si/seart/treesitter/Tree;
+ */
+JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Parser_parse__Lch_usi_si_seart_treesitter_Input_2Lch_usi_si_seart_treesitter_Source_2Lch_usi_si_seart_treesitter_Tree_2
+  (JNIEnv *, jobject, jobject, jobject, jobject);
+
+/*
+ * Class:     ch_usi_si_seart_treesitter_Parser
+ * Method:    resume
+ * Signature: (Lch/usi/si/seart/treesitter/Source;Ljava/nio/ByteBuffer;ILch/usi/si/seart/treesitter/Encoding;)Lch/usi/si/seart/treesitter/Tree;
  */
-JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Parser_parse
-  (JNIEnv *, jobject, jstring, jbyteArray, jint, jobject);
+JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Parser_resume
+  (JNIEnv *, jobject, jobject, jobject, jint, jobject);
 
 #ifdef __cplusplus
 }
@@ -31,17 +31,17 @@ JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_QueryCursor_setRange__II(
     __throwIAE(env, "The starting byte of the range must not be greater than the ending byte!");
     return;
   }
-  // Not sure why I need to multiply by two, again probably because of utf-16
   jobject nodeObject = env->GetObjectField(thisObject, _queryCursorNodeField);
   TSNode node = __unmarshalNode(env, nodeObject);
+  uint32_t width = __getNodeWidth(env, nodeObject);
   uint32_t nodeStart = ts_node_start_byte(node);
-  uint32_t rangeStart = (uint32_t)start * 2;
+  uint32_t rangeStart = (uint32_t)start * width;
   if (rangeStart < nodeStart) {
     __throwBOB(env, start);
     return;
   }
   uint32_t nodeEnd = ts_node_end_byte(node);
-  uint32_t rangeEnd = (uint32_t)end * 2;
+  uint32_t rangeEnd = (uint32_t)end * width;
   if (rangeEnd > nodeEnd) {
     __throwBOB(env, end);
     return;
@@ -62,8 +62,9 @@ JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_QueryCursor_setRange__Lch
   }
   jobject nodeObject = env->GetObjectField(thisObject, _queryCursorNodeField);
   TSNode node = __unmarshalNode(env, nodeObject);
-  TSPoint startPoint = __unmarshalPoint(env, startPointObject);
-  TSPoint endPoint = __unmarshalPoint(env, endPointObject);
+  uint32_t width = __getNodeWidth(env, nodeObject);
+  TSPoint startPoint = __unmarshalPoint(env, startPointObject, width);
+  TSPoint endPoint = __unmarshalPoint(env, endPointObject, width);
   if (endPoint.row < 0 || endPoint.column < 0) {
     __throwIAE(env, "End point can not have negative coordinates!");
     return;
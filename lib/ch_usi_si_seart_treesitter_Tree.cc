@@ -10,27 +10,52 @@ JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Tree_delete(
   __clearPointer(env, thisObject);
 }
 
-JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Tree_edit(
+JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Tree_edit__Lch_usi_si_seart_treesitter_InputEdit_2(
   JNIEnv* env, jobject thisObject, jobject inputEditObject) {
   TSTree* tree = (TSTree*)__getPointer(env, thisObject);
   if (inputEditObject == NULL) {
     __throwNPE(env, "Input edit must not be null!");
   } else {
-    TSInputEdit inputEdit = __unmarshalInputEdit(env, inputEditObject);
+    uint32_t width = __getTreeWidth(env, thisObject);
+    TSInputEdit inputEdit = __unmarshalInputEdit(env, inputEditObject, width);
     ts_tree_edit(tree, &inputEdit);
   }
 }
 
+JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Tree_edit___3I_3II(
+  JNIEnv* env, jobject thisObject, jintArray offsetArray, jintArray pointArray, jint count) {
+  TSTree* tree = (TSTree*)__getPointer(env, thisObject);
+  uint32_t width = __getTreeWidth(env, thisObject);
+  jint* offsets = env->GetIntArrayElements(offsetArray, NULL);
+  jint* points = env->GetIntArrayElements(pointArray, NULL);
+  for (jint i = 0; i < count; i++) {
+    const jint* offset = offsets + i * 3;
+    const jint* point = points + i * 6;
+    TSInputEdit inputEdit = {
+      (uint32_t)offset[0] * width,
+      (uint32_t)offset[1] * width,
+      (uint32_t)offset[2] * width,
+      { (uint32_t)point[0], (uint32_t)point[1] * width },
+      { (uint32_t)point[2], (uint32_t)point[3] * width },
+      { (uint32_t)point[4], (uint32_t)point[5] * width },
+    };
+    ts_tree_edit(tree, &inputEdit);
+  }
+  env->ReleaseIntArrayElements(pointArray, points, JNI_ABORT);
+  env->ReleaseIntArrayElements(offsetArray, offsets, JNI_ABORT);
+}
+
 JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Tree_getChangedRanges(
   JNIEnv* env, jobject thisObject, jobject otherObject) {
   TSTree* old_tree = (TSTree*)__getPointer(env, thisObject);
   TSTree* new_tree = (TSTree*)__getPointer(env, otherObject);
+  uint32_t width = __getTreeWidth(env, thisObject);
   uint32_t length = 0;
   TSRange* ranges = ts_tree_get_changed_ranges(old_tree, new_tree, &length);
   jobjectArray array = env->NewObjectArray(length, _rangeClass, NULL);
   for (uint32_t i = 0; i < length; i++) {
     TSRange range = ranges[i];
-    jobject rangeObject = __marshalRange(env, range);
+    jobject rangeObject = __marshalRange(env, range, width);
     env->SetObjectArrayElement(array, i, rangeObject);
   }
   delete[] ranges;
@@ -59,3 +84,75 @@ JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Tree_clone(
     sourceObject
   );
 }
+
+// Columns must be filled in the order declared in FlatTree
+JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Tree_flatten(
+  JNIEnv* env, jobject thisObject, jobjectArray columnArrays, jbyteArray flagArray) {
+  TSTree* tree = (TSTree*)__getPointer(env, thisObject);
+  uint32_t width = __getTreeWidth(env, thisObject);
+  jsize size = env->GetArrayLength(flagArray);
+  jsize count = env->GetArrayLength(columnArrays);
+  jintArray* arrays = new jintArray[count];
+  for (jsize i = 0; i < count; i++) {
+    arrays[i] = (jintArray)env->GetObjectArrayElement(columnArrays, i);
+  }
+  // No other JNI functions may be called until all the arrays are released
+  jint** columns = new jint*[count];
+  for (jsize i = 0; i < count; i++) {
+    columns[i] = (jint*)env->GetPrimitiveArrayCritical(arrays[i], NULL);
+  }
+  jbyte* flags = (jbyte*)env->GetPrimitiveArrayCritical(flagArray, NULL);
+  jint* symbols = columns[0];
+  jint* parents = columns[1];
+  jint* firstChildren = columns[2];
+  jint* nextSiblings = columns[3];
+  TSTreeCursor cursor = ts_tree_cursor_new(ts_tree_root_node(tree));
+  jint index = 0;
+  jint parent = -1;
+  jint previous = -1;
+  bool done = (size == 0);
+  while (!done && index < size) {
+    jint current = index++;
+    TSNode node = ts_tree_cursor_current_node(&cursor);
+    TSPoint startPoint = ts_node_start_point(node);
+    TSPoint endPoint = ts_node_end_point(node);
+    symbols[current] = (jint)ts_node_symbol(node);
+    parents[current] = parent;
+    firstChildren[current] = -1;
+    nextSiblings[current] = -1;
+    columns[4][current] = (jint)(ts_node_start_byte(node) / width);
+    columns[5][current] = (jint)(ts_node_end_byte(node) / width);
+    columns[6][current] = (jint)startPoint.row;
+    columns[7][current] = (jint)(startPoint.column / width);
+    columns[8][current] = (jint)endPoint.row;
+    columns[9][current] = (jint)(endPoint.column / width);
+    columns[10][current] = (jint)ts_tree_cursor_current_field_id(&cursor);
+    flags[current] = (jbyte)__getNodeFlags(node);
+    if (previous >= 0) {
+      nextSiblings[previous] = current;
+    } else if (parent >= 0) {
+      firstChildren[parent] = current;
+    }
+    if (ts_tree_cursor_goto_first_child(&cursor)) {
+      parent = current;
+      previous = -1;
+      continue;
+    }
+    while (!ts_tree_cursor_goto_next_sibling(&cursor)) {
+      if (!ts_tree_cursor_goto_parent(&cursor)) {
+        done = true;
+        break;
+      }
+      current = parent;
+      parent = parents[current];
+    }
+    previous = current;
+  }
+  ts_tree_cursor_delete(&cursor);
+  env->ReleasePrimitiveArrayCritical(flagArray, flags, 0);
+  for (jsize i = count - 1; i >= 0; i--) {
+    env->ReleasePrimitiveArrayCritical(arrays[i], columns[i], 0);
+  }
+  delete[] columns;
+  delete[] arrays;
+}
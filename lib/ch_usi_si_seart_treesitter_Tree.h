@@ -7,6 +7,10 @@
 #ifdef __cplusplus
 extern "C" {
 #endif
+#undef ch_usi_si_seart_treesitter_Tree_OFFSETS_PER_EDIT
+#define ch_usi_si_seart_treesitter_Tree_OFFSETS_PER_EDIT 3L
+#undef ch_usi_si_seart_treesitter_Tree_POINTS_PER_EDIT
+#define ch_usi_si_seart_treesitter_Tree_POINTS_PER_EDIT 6L
 /*
  * Class:     ch_usi_si_seart_treesitter_Tree
  * Method:    delete
@@ -20,9 +24,17 @@ JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Tree_delete
  * Method:    edit
  * Signature: (Lch/usi/si/seart/treesitter/InputEdit;)V
  */
-JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Tree_edit
+JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Tree_edit__Lch_usi_si_seart_treesitter_InputEdit_2
   (JNIEnv *, jobject, jobject);
 
+/*
+ * Class:     ch_usi_si_seart_treesitter_Tree
+ * Method:    edit
+ * Signature: ([I[II)V
+ */
+JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Tree_edit___3I_3II
+  (JNIEnv *, jobject, jintArray, jintArray, jint);
+
 /*
  * Class:     ch_usi_si_seart_treesitter_Tree
  * Method:    getChangedRanges
@@ -39,6 +51,14 @@ JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Tree_getChangedRanges
 JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_Tree_getRootNode
   (JNIEnv *, jobject);
 
+/*
+ * Class:     ch_usi_si_seart_treesitter_Tree
+ * Method:    flatten
+ * Signature: ([[I[B)V
+ */
+JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_Tree_flatten
+  (JNIEnv *, jobject, jobjectArray, jbyteArray);
+
 /*
  * Class:     ch_usi_si_seart_treesitter_Tree
  * Method:    clone
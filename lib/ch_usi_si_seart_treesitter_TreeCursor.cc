@@ -65,8 +65,8 @@ JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_TreeCursor_gotoFirstC
     __throwIAE(env, "Byte offset must not be negative!");
     return JNI_FALSE;
   }
-  // Not sure why I need to multiply by two, again probably because of utf-16
-  uint32_t childStart = (uint32_t)offset * 2;
+  jobject treeObject = env->GetObjectField(thisObject, _treeCursorTreeField);
+  uint32_t childStart = (uint32_t)offset * __getTreeWidth(env, treeObject);
   TSTreeCursor* cursor = (TSTreeCursor*)__getPointer(env, thisObject);
   TSNode node = ts_tree_cursor_current_node(cursor);
   uint32_t nodeStart = ts_node_start_byte(node);
@@ -91,7 +91,8 @@ JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_TreeCursor_gotoFirstC
     __throwNPE(env, "Point must not be null!");
     return JNI_FALSE;
   }
-  TSPoint point = __unmarshalPoint(env, pointObject);
+  jobject treeObject = env->GetObjectField(thisObject, _treeCursorTreeField);
+  TSPoint point = __unmarshalPoint(env, pointObject, __getTreeWidth(env, treeObject));
   if (point.row < 0 || point.column < 0) {
     __throwIAE(env, "Point can not have negative coordinates!");
     return JNI_FALSE;
@@ -214,3 +215,63 @@ JNIEXPORT jobject JNICALL Java_ch_usi_si_seart_treesitter_TreeCursor_clone(
     treeObject
   );
 }
+
+// Must match the record layout declared in BatchVisitor.Batch,
+// with the event bit placed above the node flags of NodeInfo
+#define BATCH_RECORD_SIZE 8
+#define BATCH_EVENT_LEAVE 256
+
+static void __recordEvent(jint* record, TSTreeCursor* cursor, uint32_t depth, uint32_t width, bool leave) {
+  TSNode node = ts_tree_cursor_current_node(cursor);
+  record[0] = __getNodeFlags(node) | (leave ? BATCH_EVENT_LEAVE : 0);
+  record[1] = (jint)ts_node_symbol(node);
+  record[2] = (jint)ts_tree_cursor_current_field_id(cursor);
+  record[3] = (jint)depth;
+  record[4] = (jint)(ts_node_start_byte(node) / width);
+  record[5] = (jint)(ts_node_end_byte(node) / width);
+  record[6] = (jint)ts_node_start_point(node).row;
+  record[7] = (jint)ts_node_end_point(node).row;
+}
+
+JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_TreeCursor_traverse(
+  JNIEnv* env, jobject thisObject, jobject visitorObject, jobject batchObject, jobject bufferObject) {
+  TSTreeCursor* cursor = (TSTreeCursor*)__getPointer(env, thisObject);
+  jobject treeObject = env->GetObjectField(thisObject, _treeCursorTreeField);
+  uint32_t width = __getTreeWidth(env, treeObject);
+  jint* records = (jint*)env->GetDirectBufferAddress(bufferObject);
+  jlong capacity = env->GetDirectBufferCapacity(bufferObject) / (jlong)(BATCH_RECORD_SIZE * sizeof(jint));
+  // The copy retains the ancestors of the current node,
+  // so the depth is tracked to avoid climbing above it
+  TSTreeCursor walker = ts_tree_cursor_copy(cursor);
+  uint32_t depth = 0;
+  jlong count = 0;
+  bool leave = false;
+  bool proceed = true;
+  while (proceed) {
+    __recordEvent(records + count * BATCH_RECORD_SIZE, &walker, depth, width, leave);
+    count++;
+    if (count == capacity) {
+      env->SetIntField(batchObject, _batchVisitorBatchSizeField, (jint)count);
+      proceed = env->CallBooleanMethod(visitorObject, _batchVisitorVisitMethod, batchObject)
+        && !env->ExceptionCheck();
+      count = 0;
+    }
+    if (!leave && ts_tree_cursor_goto_first_child(&walker)) {
+      depth++;
+    } else if (!leave) {
+      leave = true;
+    } else if (depth == 0) {
+      break;
+    } else if (ts_tree_cursor_goto_next_sibling(&walker)) {
+      leave = false;
+    } else {
+      ts_tree_cursor_goto_parent(&walker);
+      depth--;
+    }
+  }
+  ts_tree_cursor_delete(&walker);
+  if (proceed && count > 0) {
+    env->SetIntField(batchObject, _batchVisitorBatchSizeField, (jint)count);
+    env->CallBooleanMethod(visitorObject, _batchVisitorVisitMethod, batchObject);
+  }
+}
@@ -111,6 +111,14 @@ JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_TreeCursor_gotoParent
 JNIEXPORT jboolean JNICALL Java_ch_usi_si_seart_treesitter_TreeCursor_gotoNode
   (JNIEnv *, jobject, jobject);
 
+/*
+ * Class:     ch_usi_si_seart_treesitter_TreeCursor
+ * Method:    traverse
+ * Signature: (Lch/usi/si/seart/treesitter/BatchVisitor;Lch/usi/si/seart/treesitter/BatchVisitor/Batch;Ljava/nio/ByteBuffer;)V
+ */
+JNIEXPORT void JNICALL Java_ch_usi_si_seart_treesitter_TreeCursor_traverse
+  (JNIEnv *, jobject, jobject, jobject, jobject);
+
 /*
  * Class:     ch_usi_si_seart_treesitter_TreeCursor
  * Method:    reset
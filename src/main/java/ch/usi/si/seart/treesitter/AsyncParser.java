@@ -0,0 +1,333 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Parses source code asynchronously, on a dedicated and bounded pool of platform threads.
+ * Parsing blocks the calling thread in native code for its entire duration, which in the
+ * case of virtual threads also pins their carrier. Offloading the parsing to this facade
+ * leaves the calling threads free, while each of its workers uses a single, dedicated
+ * {@link Parser} for all the source code that it processes.
+ * <p>
+ * The returned futures are linked to the native parsing: completing a future before parsing
+ * finishes, be it through {@link CompletableFuture#cancel(boolean) cancellation} or otherwise,
+ * {@link ParseHandle#cancel() cancels} the parse in progress, or prevents a queued parse from
+ * ever starting. The input of each parse is only referenced until the native call returns.
+ * Each successfully parsed {@link Tree} is owned by the consumer of the future,
+ * and should be closed once no longer needed.
+ *
+ * @since 1.13.0
+ * @author Ozren Dabić
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class AsyncParser implements AutoCloseable {
+
+    private static final String NULL_LANGUAGE = "Language must not be null!";
+    private static final String NULL_SOURCE = "Source must not be null!";
+    private static final String NULL_BUFFER = "Buffer must not be null!";
+    private static final String NULL_ENCODING = "Encoding must not be null!";
+    private static final String NULL_PATH = "Path must not be null!";
+    private static final String NULL_DURATION = "Duration must not be null!";
+    private static final String NEGATIVE_DURATION = "Duration must not be negative!";
+    private static final String NON_POSITIVE_THREADS = "Thread count must be positive!";
+    private static final String NON_POSITIVE_CAPACITY = "Capacity must be positive!";
+    private static final String CLOSED_PARSER = "Async parser is closed!";
+
+    private static final AtomicInteger POOLS = new AtomicInteger();
+
+    ThreadPoolExecutor executor;
+    long timeout;
+
+    ThreadLocal<Parser> parsers = new ThreadLocal<>();
+    AtomicInteger counter = new AtomicInteger();
+    int pool = POOLS.incrementAndGet();
+
+    private AsyncParser(int threads, int capacity, long timeout) {
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(capacity),
+                this::newThread
+        );
+        this.timeout = timeout;
+    }
+
+    /**
+     * Obtain a new {@link Builder Builder} for constructing an async parser.
+     *
+     * @return a new async parser builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Facilitates the construction of {@link AsyncParser} instances.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static final class Builder {
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        int capacity = Integer.MAX_VALUE;
+        long timeout = 0L;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the number of worker threads used for parsing.
+         * Defaults to the number of available processors.
+         *
+         * @param threads the number of worker threads
+         * @return this builder
+         * @throws IllegalArgumentException if the thread count is not positive
+         */
+        public Builder threads(int threads) {
+            if (threads < 1) throw new IllegalArgumentException(NON_POSITIVE_THREADS);
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of parses that can be queued while all workers are busy.
+         * Parses submitted while the queue is full fail with a {@link RejectedExecutionException}.
+         * The queue is unbounded by default.
+         *
+         * @param capacity the queue capacity
+         * @return this builder
+         * @throws IllegalArgumentException if the capacity is not positive
+         */
+        public Builder capacity(int capacity) {
+            if (capacity < 1) throw new IllegalArgumentException(NON_POSITIVE_CAPACITY);
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * Sets the maximum duration that a single parse should be allowed to take.
+         * Timeouts are disabled by default.
+         *
+         * @param duration the timeout duration
+         * @return this builder
+         * @throws NullPointerException if the duration is {@code null}
+         * @throws IllegalArgumentException if the duration is negative
+         */
+        public Builder timeout(@NotNull Duration duration) {
+            Objects.requireNonNull(duration, NULL_DURATION);
+            if (duration.isNegative()) throw new IllegalArgumentException(NEGATIVE_DURATION);
+            this.timeout = duration.toMillis() * TimeUnit.MILLISECONDS.toMicros(1);
+            return this;
+        }
+
+        /**
+         * Builds and returns a new async parser instance with the configured settings.
+         *
+         * @return a new async parser instance
+         */
+        public AsyncParser build() {
+            return new AsyncParser(threads, capacity, timeout);
+        }
+    }
+
+    /**
+     * Asynchronously parse some source code.
+     *
+     * @param language the language used for parsing
+     * @param source the source code string to be parsed
+     * @return a future of the syntax tree matching the provided source
+     * @throws NullPointerException if either argument is {@code null}
+     * @throws IllegalStateException if the async parser has been closed
+     * @see Parser#parse(String)
+     */
+    public CompletableFuture<Tree> parse(@NotNull Language language, @NotNull String source) {
+        Objects.requireNonNull(source, NULL_SOURCE);
+        return submit(language, parser -> parser.parse(source));
+    }
+
+    /**
+     * Asynchronously parse source code stored in a {@link ByteBuffer}.
+     * The contents of the buffer should not be modified while the resulting tree is in use.
+     *
+     * @param language the language used for parsing
+     * @param buffer the buffer containing the source code
+     * @param encoding the encoding of the source code
+     * @return a future of the syntax tree matching the provided source
+     * @throws NullPointerException if any of the arguments is {@code null}
+     * @throws IllegalStateException if the async parser has been closed
+     * @see Parser#parse(ByteBuffer, Encoding)
+     */
+    public CompletableFuture<Tree> parse(
+            @NotNull Language language, @NotNull ByteBuffer buffer, @NotNull Encoding encoding
+    ) {
+        Objects.requireNonNull(buffer, NULL_BUFFER);
+        Objects.requireNonNull(encoding, NULL_ENCODING);
+        ByteBuffer slice = buffer.slice();
+        return submit(language, parser -> parser.parse(slice, encoding));
+    }
+
+    /**
+     * Asynchronously parse source code from a file.
+     *
+     * @param language the language used for parsing
+     * @param path the path of the file to be parsed
+     * @return a future of the syntax tree matching the provided source
+     * @throws NullPointerException if either argument is {@code null}
+     * @throws IllegalStateException if the async parser has been closed
+     * @see Parser#parse(Path)
+     */
+    public CompletableFuture<Tree> parse(@NotNull Language language, @NotNull Path path) {
+        Objects.requireNonNull(path, NULL_PATH);
+        return submit(language, parser -> parser.parse(path));
+    }
+
+    /**
+     * Asynchronously parse source code from a memory-mapped file.
+     *
+     * @param language the language used for parsing
+     * @param path the path of the file to be parsed
+     * @param encoding the encoding of the file contents
+     * @return a future of the syntax tree matching the provided source
+     * @throws NullPointerException if any of the arguments is {@code null}
+     * @throws IllegalStateException if the async parser has been closed
+     * @see Parser#parse(Path, Encoding)
+     */
+    public CompletableFuture<Tree> parse(
+            @NotNull Language language, @NotNull Path path, @NotNull Encoding encoding
+    ) {
+        Objects.requireNonNull(path, NULL_PATH);
+        Objects.requireNonNull(encoding, NULL_ENCODING);
+        return submit(language, parser -> parser.parse(path, encoding));
+    }
+
+    private CompletableFuture<Tree> submit(Language language, Function<Parser, Tree> function) {
+        Objects.requireNonNull(language, NULL_LANGUAGE);
+        if (executor.isShutdown()) throw new IllegalStateException(CLOSED_PARSER);
+        Task task = new Task(language, function);
+        task.future.whenComplete((tree, throwable) -> task.abort());
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            if (executor.isShutdown()) throw new IllegalStateException(CLOSED_PARSER, ex);
+            task.future.completeExceptionally(ex);
+        }
+        return task.future;
+    }
+
+    private Thread newThread(Runnable runnable) {
+        String name = String.format("tree-sitter-async-%d-%d", pool, counter.incrementAndGet());
+        Thread thread = new Thread(() -> {
+            try {
+                runnable.run();
+            } finally {
+                Parser parser = parsers.get();
+                if (parser != null) parser.close();
+                parsers.remove();
+            }
+        }, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private Parser getParser(Language language) {
+        Parser parser = parsers.get();
+        if (parser == null) {
+            parser = Parser.builder()
+                    .language(language)
+                    .timeout(timeout)
+                    .build();
+            parsers.set(parser);
+        } else if (parser.getLanguage() != language) {
+            parser.setLanguage(language);
+        }
+        return parser;
+    }
+
+    /**
+     * Close the async parser.
+     * Queued parses are cancelled, while the workers performing parses are interrupted,
+     * which in turn cancels the parses in progress. Each worker releases its parser
+     * upon terminating. Trees that were already produced are not affected.
+     */
+    @Override
+    public void close() {
+        List<Runnable> queued = executor.shutdownNow();
+        for (Runnable runnable: queued) {
+            Task task = (Task) runnable;
+            task.future.cancel(false);
+        }
+    }
+
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    private final class Task implements Runnable {
+
+        final CompletableFuture<Tree> future = new CompletableFuture<>();
+        final Language language;
+
+        Function<Parser, Tree> function;
+        Parser parser;
+
+        private Task(Language language, Function<Parser, Tree> function) {
+            this.language = language;
+            this.function = function;
+        }
+
+        @Override
+        public void run() {
+            Function<Parser, Tree> parse;
+            synchronized (this) {
+                parse = function;
+                function = null;
+                if (parse == null || future.isDone()) return;
+                try {
+                    parser = getParser(language);
+                } catch (RuntimeException | LinkageError ex) {
+                    future.completeExceptionally(ex);
+                    return;
+                }
+            }
+            try {
+                Tree tree = parse.apply(parser);
+                if (!future.complete(tree)) tree.close();
+            } catch (RuntimeException | LinkageError ex) {
+                future.completeExceptionally(ex);
+            } finally {
+                Parser used;
+                synchronized (this) {
+                    used = parser;
+                    parser = null;
+                }
+                used.getParseHandle().reset();
+            }
+        }
+
+        /*
+         * Invoked upon any completion of the future. If that happens
+         * before parsing has finished, then parsing has been abandoned,
+         * and the input should not be retained by the queue any longer.
+         */
+        private void abort() {
+            boolean queued;
+            synchronized (this) {
+                queued = function != null;
+                function = null;
+                if (parser != null) parser.getParseHandle().cancel();
+            }
+            if (queued) executor.remove(this);
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Generated;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Parses collections of files in parallel.
+ * Work is distributed over an {@link Executor}, with each of its worker threads
+ * using a single, dedicated {@link Parser} for all the files that it processes.
+ * Results are emitted in the order in which parsing completes, while the number
+ * of files that are being parsed or awaiting consumption is bounded by a window,
+ * limiting the amount of native memory held by trees at any given moment.
+ * <p>
+ * The parsers are owned by the batch parser, and are released when it is closed.
+ * Since a parser is created for each distinct worker thread, the executor should
+ * be backed by a bounded set of reusable threads, as is the case with the
+ * {@link ForkJoinPool#commonPool() common pool} used by default.
+ *
+ * @since 1.13.0
+ * @author Ozren Dabić
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BatchParser implements AutoCloseable {
+
+    private static final String NULL_PATHS = "Paths must not be null!";
+    private static final String NULL_MAPPER = "Language mapper must not be null!";
+    private static final String NULL_LANGUAGE = "Language must not be null!";
+    private static final String NULL_EXECUTOR = "Executor must not be null!";
+    private static final String NULL_DURATION = "Duration must not be null!";
+    private static final String NULL_ENCODING = "Encoding must not be null!";
+    private static final String NEGATIVE_DURATION = "Duration must not be negative!";
+    private static final String NON_POSITIVE_WINDOW = "Window must be positive!";
+    private static final String CLOSED_PARSER = "Batch parser is closed!";
+
+    Executor executor;
+    int window;
+    long timeout;
+    Encoding encoding;
+
+    ThreadLocal<Parser> parsers = new ThreadLocal<>();
+    Queue<Parser> created = new ConcurrentLinkedQueue<>();
+    ReadWriteLock lifecycle = new ReentrantReadWriteLock();
+
+    @NonFinal
+    boolean closed = false;
+
+    private BatchParser(Executor executor, int window, long timeout, Encoding encoding) {
+        this.executor = executor;
+        this.window = window;
+        this.timeout = timeout;
+        this.encoding = encoding;
+    }
+
+    /**
+     * Obtain a new {@link Builder Builder} for constructing a batch parser.
+     *
+     * @return a new batch parser builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Facilitates the construction of {@link BatchParser} instances.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static final class Builder {
+
+        Executor executor = ForkJoinPool.commonPool();
+        int window = 2 * Runtime.getRuntime().availableProcessors();
+        long timeout = 0L;
+        Encoding encoding = null;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the executor used for parsing.
+         * Defaults to the {@link ForkJoinPool#commonPool() common pool}.
+         *
+         * @param executor the executor
+         * @return this builder
+         * @throws NullPointerException if the executor is {@code null}
+         */
+        public Builder executor(@NotNull Executor executor) {
+            this.executor = Objects.requireNonNull(executor, NULL_EXECUTOR);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of files that can be either
+         * in the process of being parsed, or awaiting consumption.
+         * Defaults to twice the number of available processors.
+         *
+         * @param window the in-flight window size
+         * @return this builder
+         * @throws IllegalArgumentException if the window is not positive
+         */
+        public Builder window(int window) {
+            if (window < 1) throw new IllegalArgumentException(NON_POSITIVE_WINDOW);
+            this.window = window;
+            return this;
+        }
+
+        /**
+         * Sets the maximum duration that the parsing of a single file should be allowed to take.
+         * Timeouts are disabled by default.
+         *
+         * @param duration the timeout duration
+         * @return this builder
+         * @throws NullPointerException if the duration is {@code null}
+         * @throws IllegalArgumentException if the duration is negative
+         */
+        public Builder timeout(@NotNull Duration duration) {
+            Objects.requireNonNull(duration, NULL_DURATION);
+            if (duration.isNegative()) throw new IllegalArgumentException(NEGATIVE_DURATION);
+            this.timeout = duration.toMillis() * TimeUnit.MILLISECONDS.toMicros(1);
+            return this;
+        }
+
+        /**
+         * Parse the files by {@link Parser#parse(Path, Encoding) memory-mapping}
+         * their contents, rather than reading them into strings.
+         *
+         * @param encoding the encoding of the file contents
+         * @return this builder
+         * @throws NullPointerException if the encoding is {@code null}
+         */
+        public Builder mapped(@NotNull Encoding encoding) {
+            this.encoding = Objects.requireNonNull(encoding, NULL_ENCODING);
+            return this;
+        }
+
+        /**
+         * Builds and returns a new batch parser instance with the configured settings.
+         *
+         * @return a new batch parser instance
+         */
+        public BatchParser build() {
+            return new BatchParser(executor, window, timeout, encoding);
+        }
+    }
+
+    /**
+     * Parse all the files from a stream of paths in parallel.
+     * The returned stream is lazy: files are only submitted for parsing
+     * as results are consumed, with at most {@code window} files in flight.
+     * Each successfully parsed {@link Tree} is owned by the consumer,
+     * and should be closed once no longer needed. Closing the returned
+     * stream stops the submission of new files, closes the source stream,
+     * and releases the trees of results that have not been consumed.
+     *
+     * @param paths the paths of the files to parse
+     * @param mapper function that determines the language of each file
+     * @return a stream of parsing results, in order of completion
+     * @throws NullPointerException if either argument is {@code null}
+     * @throws IllegalStateException if the batch parser has been closed
+     */
+    public Stream<Result> parseAll(@NotNull Stream<Path> paths, @NotNull Function<Path, Language> mapper) {
+        Objects.requireNonNull(paths, NULL_PATHS);
+        Objects.requireNonNull(mapper, NULL_MAPPER);
+        ensureOpen();
+        Batch batch = new Batch(paths.iterator(), mapper);
+        Spliterator<Result> spliterator = Spliterators.spliteratorUnknownSize(
+                batch, Spliterator.NONNULL | Spliterator.IMMUTABLE
+        );
+        return StreamSupport.stream(spliterator, false)
+                .onClose(batch::close)
+                .onClose(paths::close);
+    }
+
+    private void ensureOpen() {
+        Lock lock = lifecycle.readLock();
+        lock.lock();
+        try {
+            if (closed) throw new IllegalStateException(CLOSED_PARSER);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Result parse(Path path, Function<Path, Language> mapper) {
+        Lock lock = lifecycle.readLock();
+        lock.lock();
+        try {
+            if (closed) throw new IllegalStateException(CLOSED_PARSER);
+            Language language = Objects.requireNonNull(mapper.apply(path), NULL_LANGUAGE);
+            Parser parser = getParser(language);
+            Tree tree = encoding != null ? parser.parse(path, encoding) : parser.parse(path);
+            return new Result(path, tree, null);
+        } catch (RuntimeException | LinkageError ex) {
+            return new Result(path, null, ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Parser getParser(Language language) {
+        Parser parser = parsers.get();
+        if (parser == null || parser.isNull()) {
+            parser = Parser.builder()
+                    .language(language)
+                    .timeout(timeout)
+                    .build();
+            parsers.set(parser);
+            created.add(parser);
+        } else if (parser.getLanguage() != language) {
+            parser.setLanguage(language);
+        }
+        return parser;
+    }
+
+    /**
+     * Close the batch parser, along with all the parsers used by its workers.
+     * Waits for the files that are currently being parsed to finish.
+     * Files that have not yet started parsing will fail with an {@link IllegalStateException}.
+     * Trees that were already produced are not affected.
+     */
+    @Override
+    public void close() {
+        Lock lock = lifecycle.writeLock();
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            for (Parser parser = created.poll(); parser != null; parser = created.poll()) {
+                parser.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The outcome of parsing a single file in a batch.
+     * Contains either the resulting syntax tree or the failure cause.
+     *
+     * @since 1.13.0
+     * @author Ozren Dabić
+     */
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    public static final class Result {
+
+        /**
+         * The path of the parsed file.
+         */
+        Path path;
+
+        /**
+         * The resulting syntax tree, or {@code null} if parsing failed.
+         */
+        Tree tree;
+
+        /**
+         * The cause of the failure, or {@code null} if parsing succeeded.
+         */
+        Throwable failure;
+
+        /**
+         * Check if the file was parsed successfully.
+         *
+         * @return true if a syntax tree was produced, false otherwise
+         */
+        public boolean isSuccessful() {
+            return failure == null;
+        }
+
+        @Override
+        @Generated
+        public String toString() {
+            return String.format("Result(path: %s, successful: %s)", path, isSuccessful());
+        }
+    }
+
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    private final class Batch implements Iterator<Result> {
+
+        final Iterator<Path> paths;
+        final Function<Path, Language> mapper;
+        final BlockingQueue<Result> completed = new LinkedBlockingQueue<>();
+        final Queue<Result> abandoned = new ArrayDeque<>();
+
+        int inFlight = 0;
+        boolean cancelled = false;
+
+        private Batch(Iterator<Path> paths, Function<Path, Language> mapper) {
+            this.paths = paths;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean hasNext() {
+            submit();
+            return inFlight > 0;
+        }
+
+        @Override
+        public Result next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            try {
+                Result result = completed.take();
+                inFlight--;
+                return result;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                CancellationException exception = new CancellationException();
+                exception.initCause(ex);
+                throw exception;
+            }
+        }
+
+        private void submit() {
+            while (!cancelled && inFlight < window && paths.hasNext()) {
+                Path path = paths.next();
+                inFlight++;
+                try {
+                    executor.execute(() -> complete(parse(path, mapper)));
+                } catch (RuntimeException ex) {
+                    complete(new Result(path, null, ex));
+                }
+            }
+        }
+
+        private void complete(Result result) {
+            synchronized (this) {
+                if (!cancelled) {
+                    completed.add(result);
+                    return;
+                }
+            }
+            Tree tree = result.getTree();
+            if (tree != null) tree.close();
+        }
+
+        private void close() {
+            synchronized (this) {
+                cancelled = true;
+                completed.drainTo(abandoned);
+            }
+            for (Result result = abandoned.poll(); result != null; result = abandoned.poll()) {
+                Tree tree = result.getTree();
+                if (tree != null) tree.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.AccessLevel;
+import lombok.Generated;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Objects;
+
+/**
+ * Callback for traversals that are driven entirely by native code.
+ * Rather than crossing the native boundary several times for every visited node,
+ * the traversal records the events of up to {@value Batch#CAPACITY} nodes at a time
+ * into a reusable off-heap buffer, and only then hands them over to the visitor.
+ * Each node produces an <em>enter</em> event before any of its descendants,
+ * and a <em>leave</em> event after all of them, both of which carry the node's properties.
+ * <p>
+ * Usage example:
+ * <pre>{@code
+ * int[] histogram = new int[language.getSymbols().size()];
+ * AtomicInteger errors = new AtomicInteger();
+ * cursor.traverse(batch -> {
+ *     for (int i = 0; i < batch.size(); i++) {
+ *         if (batch.isLeave(i)) continue;
+ *         if (batch.isError(i)) errors.incrementAndGet();
+ *         else histogram[batch.getSymbolId(i)]++;
+ *     }
+ *     return true;
+ * });
+ * }</pre>
+ *
+ * @since 1.13.0
+ * @author Ozren Dabić
+ * @see TreeCursor#traverse(BatchVisitor)
+ */
+@FunctionalInterface
+public interface BatchVisitor {
+
+    /**
+     * Process a batch of traversal events.
+     * The batch is only valid for the duration of the call,
+     * as its contents are overwritten by the subsequent batch.
+     * Exceptions thrown by the visitor stop the traversal, and are propagated to the caller.
+     *
+     * @param batch the events, in traversal order
+     * @return true if the traversal should continue, false if it should be stopped
+     */
+    boolean visit(Batch batch);
+
+    /**
+     * A batch of consecutive traversal events, each identified by its index within the batch.
+     * Offsets and columns are expressed in the same units as those of {@link Node}.
+     *
+     * @since 1.13.0
+     * @author Ozren Dabić
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    final class Batch {
+
+        /**
+         * The maximum number of events in a single batch.
+         */
+        public static final int CAPACITY = 4096;
+
+        /*
+         * Must match the layout of the records written natively
+         */
+        private static final int EVENT = 0;
+        private static final int SYMBOL = 1;
+        private static final int FIELD = 2;
+        private static final int DEPTH = 3;
+        private static final int START_BYTE = 4;
+        private static final int END_BYTE = 5;
+        private static final int START_ROW = 6;
+        private static final int END_ROW = 7;
+        private static final int RECORD = 8;
+
+        private static final int LEAVE = 256;
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CAPACITY * RECORD * Integer.BYTES)
+                .order(ByteOrder.nativeOrder());
+
+        IntBuffer records = buffer.asIntBuffer();
+
+        @NonFinal
+        int size = 0;
+
+        Batch() {
+        }
+
+        ByteBuffer getBuffer() {
+            return buffer;
+        }
+
+        /**
+         * Get the number of events in this batch.
+         *
+         * @return the event count
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Check if an event marks the start of a node's visit.
+         *
+         * @param index the index of the event
+         * @return true if the event precedes the visits of the node's descendants
+         * @throws IndexOutOfBoundsException if the index is out of bounds
+         */
+        public boolean isEnter(int index) {
+            return (get(index, EVENT) & LEAVE) == 0;
+        }
+
+        /**
+         * Check if an event marks the end of a node's visit.
+         *
+         * @param index the index of the event
+         * @return true if the event follows the visits of the node's descendants
+         * @throws IndexOutOfBoundsException if the index is out of bounds
+         */
+        public boolean isLeave(int index) {
+            return (get(index, EVENT) & LEAVE) != 0;
+        }
+
+        /**
+         * Get the numerical identifier of the visited node's {@link Symbol}.
+         * For {@code ERROR} nodes this is the identifier of the built-in error symbol,
+         * which does not appear among the {@link Language#getSymbols() symbols} of the language.
+         *
+         * @param index the index of the event
+         * @return the node's symbol identifier
+         * @throws IndexOutOfBoundsException if the index is out of bounds
+         */
+        public int getSymbolId(int index) {
+            return get(index, SYMBOL);
+        }
+
+        /**
+         * Get the numerical identifier of the field in which the visited node resides.
+         *
+         * @param index the index of the event
+         * @return the field identifier, {@code 0} if the node does not reside in a field
+         * @throws IndexOutOfBoundsException if the index is out of bounds
+         */
+        public int getFieldId(int index) {
+            return get(index, FIELD);
+        }
+
+        /**
+         * Get the depth of the visited node, relative to the node the traversal started from.
+         *
+         * @param index the index of the event
+         * @return the node's relative depth
+         * @throws IndexOutOfBoundsException if the index is out of bounds
+         */
+        public int getDepth(int index) {
+            return get(index, DEPTH);
+        }
+
+        /**
+         * Get the offset where the visited node starts.
+         *
+         * @param index the index of the event
+         * @return the node's start byte
+         * @throws IndexOutOfBoundsException if the index is out of bounds
+         */
+        public int getStartByte(int index) {
+            return get(index, START_BYTE);
+        }
+
+        /**
+         * Get the offset where the visited node ends.
+         *
+         * @param index the index of the event
+         * @return the node's end byte
+         * @throws IndexOutOfBoundsException if the index is out of bounds
+         */
+        public int getEndByte(int index) {
+            return get(index, END_BYTE);
+        }
+
+        /**
+         * Get the row where the visited node starts.
+         *
+         * @param index the index of the event
+         * @return the node's start row
+         * @throws IndexOutOfBoundsException if the index is out of bounds
+         */
+        public int getStartRow(int index) {
+            return get(index, START_ROW);
+        }
+
+        /**
+         * Get the row where the visited node ends.
+         *
+         * @param index the index of the event
+         * @return the node's end row
+         * @throws IndexOutOfBoundsException if the index is out of bounds
+         */
+        public int getEndRow(int index) {
+            return get(index, END_ROW);
+        }
+
+        /**
+         * Check if the visited node is named.
+         *
+         * @param index the index of the event
+         * @return true if the node is named
+         * @throws IndexOutOfBoundsException if the index is out of bounds
+         */
+        public boolean isNamed(int index) {
+            return (get(index, EVENT) & NodeInfo.NAMED) != 0;
+        }
+
+        /**
+         * Check if the visited node has any syntax errors within it.
+         *
+         * @param index the index of the event
+         * @return true if the node contains {@code ERROR} or {@code MISSING} nodes
+         * @throws IndexOutOfBoundsException if the index is out of bounds
+         */
+        public boolean hasError(int index) {
+            return (get(index, EVENT) & NodeInfo.HAS_ERROR) != 0;
+        }
+
+        /**
+         * Check if the visited node was inserted by the parser to recover from certain kinds of syntax errors.
+         *
+         * @param index the index of the event
+         * @return true if the node is {@code MISSING}
+         * @throws IndexOutOfBoundsException if the index is out of bounds
+         */
+        public boolean isMissing(int index) {
+            return (get(index, EVENT) & NodeInfo.MISSING) != 0;
+        }
+
+        /**
+         * Check if the visited node is extra, such as a comment.
+         *
+         * @param index the index of the event
+         * @return true if the node is extra
+         * @throws IndexOutOfBoundsException if the index is out of bounds
+         */
+        public boolean isExtra(int index) {
+            return (get(index, EVENT) & NodeInfo.EXTRA) != 0;
+        }
+
+        /**
+         * Check if the visited node is a syntax error.
+         *
+         * @param index the index of the event
+         * @return true if the node is an {@code ERROR} node
+         * @throws IndexOutOfBoundsException if the index is out of bounds
+         */
+        public boolean isError(int index) {
+            return (get(index, EVENT) & NodeInfo.ERROR) != 0;
+        }
+
+        private int get(int index, int offset) {
+            Objects.checkIndex(index, size);
+            return records.get(index * RECORD + offset);
+        }
+
+        @Override
+        @Generated
+        public String toString() {
+            return String.format("Batch(size: %d)", size);
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package ch.usi.si.seart.treesitter;
+
+import ch.usi.si.seart.treesitter.exception.parser.ParsingException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Generated;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parses large record-oriented files in parallel, by splitting them into chunks.
+ * Files are split at record boundaries, i.e. at line breaks that do not occur within
+ * quoted fields or strings and, in the case of JSON, outside any object or array.
+ * This makes it suitable for delimiter-separated values, as well as JSON Lines files.
+ * Each chunk is memory-mapped and parsed on its own {@link Parser}, leased from a
+ * {@link ParserPool}, with the chunks distributed over an {@link Executor}.
+ * The resulting trees are stitched into a {@link Forest}, which translates
+ * the positions of their nodes into the coordinates of the entire file.
+ * <p>
+ * Only languages whose records are separated by line breaks are supported,
+ * namely {@link Language#CSV CSV}, {@link Language#TSV TSV},
+ * {@link Language#PSV PSV} and {@link Language#JSON JSON}.
+ * Files are expected to be UTF-8 encoded.
+ *
+ * @since 1.13.0
+ * @author Ozren Dabić
+ * @see Forest
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ChunkedParser implements AutoCloseable {
+
+    private static final String NULL_LANGUAGE = "Language must not be null!";
+    private static final String NULL_EXECUTOR = "Executor must not be null!";
+    private static final String NULL_POOL = "Pool must not be null!";
+    private static final String NULL_PATH = "Path must not be null!";
+    private static final String UNSUPPORTED_LANGUAGE = "Language must be one of: %s";
+    private static final String NON_POSITIVE_CHUNK_SIZE = "Chunk size must be positive!";
+    private static final String OVERSIZED_CHUNK = "Record starting at offset %d exceeds the maximum chunk size!";
+
+    private static final Set<Language> SUPPORTED = EnumSet.of(Language.CSV, Language.TSV, Language.PSV, Language.JSON);
+
+    private static final int DEFAULT_CHUNK_SIZE = 8_388_608;
+    private static final int SCAN_BUFFER_SIZE = 1_048_576;
+
+    Language language;
+    Executor executor;
+    ParserPool pool;
+    boolean owned;
+    int chunkSize;
+
+    private ChunkedParser(Language language, Executor executor, ParserPool pool, int chunkSize) {
+        this.language = language;
+        this.executor = executor;
+        this.owned = pool == null;
+        this.pool = owned ? ParserPool.builder().build() : pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Obtain a new {@link Builder Builder} for constructing a chunked parser.
+     *
+     * @return a new chunked parser builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Facilitates the construction of {@link ChunkedParser} instances.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static final class Builder {
+
+        Language language = null;
+        Executor executor = ForkJoinPool.commonPool();
+        ParserPool pool = null;
+        int chunkSize = DEFAULT_CHUNK_SIZE;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the language used for parsing.
+         *
+         * @param language the language of the parsed files
+         * @return this builder
+         * @throws NullPointerException if the language is {@code null}
+         * @throws IllegalArgumentException if the language is not record-oriented
+         */
+        public Builder language(@NotNull Language language) {
+            Objects.requireNonNull(language, NULL_LANGUAGE);
+            if (!SUPPORTED.contains(language))
+                throw new IllegalArgumentException(String.format(UNSUPPORTED_LANGUAGE, SUPPORTED));
+            this.language = language;
+            return this;
+        }
+
+        /**
+         * Sets the executor used for parsing the chunks in parallel.
+         * Defaults to the {@link ForkJoinPool#commonPool() common pool}.
+         *
+         * @param executor the executor
+         * @return this builder
+         * @throws NullPointerException if the executor is {@code null}
+         */
+        public Builder executor(@NotNull Executor executor) {
+            Objects.requireNonNull(executor, NULL_EXECUTOR);
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the pool from which the parsers of all chunks are leased.
+         * The pool is not closed along with the chunked parser.
+         * By default, the chunked parser creates and owns a pool of its own.
+         *
+         * @param pool the parser pool
+         * @return this builder
+         * @throws NullPointerException if the pool is {@code null}
+         */
+        public Builder pool(@NotNull ParserPool pool) {
+            Objects.requireNonNull(pool, NULL_POOL);
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * Sets the target size of each chunk in bytes.
+         * Chunks extend past this size up to the end of the record in progress,
+         * so a record is never split across chunks. Defaults to 8 MiB.
+         *
+         * @param chunkSize the target number of bytes per chunk
+         * @return this builder
+         * @throws IllegalArgumentException if the size is not positive
+         */
+        public Builder chunkSize(int chunkSize) {
+            if (chunkSize < 1) throw new IllegalArgumentException(NON_POSITIVE_CHUNK_SIZE);
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Builds and returns a new chunked parser instance with the configured settings.
+         *
+         * @return a new chunked parser instance
+         * @throws NullPointerException if the language was not set
+         */
+        public ChunkedParser build() {
+            Objects.requireNonNull(language, NULL_LANGUAGE);
+            return new ChunkedParser(language, executor, pool, chunkSize);
+        }
+    }
+
+    /**
+     * Parse a file by splitting it into chunks, which are parsed in parallel.
+     * Splitting requires a single sequential pass over the file,
+     * which is considerably cheaper than parsing it.
+     *
+     * @param path the path of the file to be parsed
+     * @return a forest of the chunk trees, in file order
+     * @throws NullPointerException if the path is {@code null}
+     * @throws ParsingException if a parsing failure occurs in any of the chunks,
+     * if a single record exceeds the size of an addressable buffer,
+     * or if an I/O error occurs while reading the file
+     */
+    public Forest parse(@NotNull Path path) throws ParsingException {
+        Objects.requireNonNull(path, NULL_PATH);
+        List<Boundary> boundaries;
+        List<MappedByteBuffer> buffers = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path)) {
+            boundaries = split(channel);
+            for (int i = 0; i < boundaries.size() - 1; i++) {
+                long start = boundaries.get(i).offset;
+                long end = boundaries.get(i + 1).offset;
+                if (end - start > Integer.MAX_VALUE) throw new ParsingException(String.format(OVERSIZED_CHUNK, start));
+                buffers.add(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+            }
+        } catch (IOException ex) {
+            throw new ParsingException(ex);
+        }
+        List<CompletableFuture<Forest.Chunk>> futures = new ArrayList<>(buffers.size());
+        for (int i = 0; i < buffers.size(); i++) {
+            Boundary boundary = boundaries.get(i);
+            MappedByteBuffer buffer = buffers.get(i);
+            futures.add(CompletableFuture.supplyAsync(() -> parse(boundary, buffer), executor));
+        }
+        return new Forest(join(futures));
+    }
+
+    private List<Boundary> split(FileChannel channel) throws IOException {
+        List<Boundary> boundaries = new ArrayList<>();
+        boundaries.add(new Boundary(0, 0));
+        Splitter splitter = new Splitter(language == Language.JSON);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(SCAN_BUFFER_SIZE);
+        long size = channel.size();
+        long position = 0;
+        long target = chunkSize;
+        int row = 0;
+        while (position < size) {
+            buffer.clear();
+            int count = channel.read(buffer, position);
+            if (count < 0) break;
+            buffer.flip();
+            for (int i = 0; i < count; i++) {
+                byte current = buffer.get(i);
+                boolean boundary = splitter.isBoundary(current);
+                if (current == '\n') row++;
+                long offset = position + i + 1;
+                if (boundary && offset >= target && offset < size) {
+                    boundaries.add(new Boundary(offset, row));
+                    target = offset + chunkSize;
+                }
+            }
+            position += count;
+        }
+        boundaries.add(new Boundary(size, row));
+        return boundaries;
+    }
+
+    private Forest.Chunk parse(Boundary boundary, ByteBuffer buffer) {
+        try (ParserPool.Lease lease = pool.lease(language)) {
+            Tree tree = lease.getParser().parse(buffer, Encoding.UTF_8);
+            return new Forest.Chunk(tree, boundary.offset, buffer.capacity(), boundary.row);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            CancellationException exception = new CancellationException();
+            exception.initCause(ex);
+            throw exception;
+        }
+    }
+
+    private static List<Forest.Chunk> join(List<CompletableFuture<Forest.Chunk>> futures) {
+        List<Forest.Chunk> chunks = new ArrayList<>(futures.size());
+        RuntimeException failure = null;
+        for (CompletableFuture<Forest.Chunk> future: futures) {
+            try {
+                chunks.add(future.join());
+            } catch (CompletionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof Error) throw (Error) cause;
+                if (failure == null) failure = (RuntimeException) cause;
+            }
+        }
+        if (failure != null) {
+            for (Forest.Chunk chunk: chunks) chunk.getTree().close();
+            throw failure;
+        }
+        return chunks;
+    }
+
+    /**
+     * Close the chunked parser, releasing the parser pool if it is owned by the chunked parser.
+     * Forests that were already produced are not affected.
+     */
+    @Override
+    public void close() {
+        if (owned) pool.close();
+    }
+
+    @Override
+    @Generated
+    public String toString() {
+        return String.format("ChunkedParser(language: %s, chunkSize: %d)", language, chunkSize);
+    }
+
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class Boundary {
+
+        long offset;
+        int row;
+    }
+
+    /*
+     * Tracks whether the scanned bytes are within a quoted field or string,
+     * as well as the nesting depth of JSON values, since line breaks in any
+     * of those places do not separate records
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    private static final class Splitter {
+
+        final boolean json;
+
+        @NonFinal
+        boolean quoted = false;
+
+        @NonFinal
+        boolean escaped = false;
+
+        @NonFinal
+        int depth = 0;
+
+        private Splitter(boolean json) {
+            this.json = json;
+        }
+
+        private boolean isBoundary(byte current) {
+            if (quoted) {
+                if (escaped) {
+                    escaped = false;
+                } else if (json && current == '\\') {
+                    escaped = true;
+                } else {
+                    quoted = current != '"';
+                }
+                return false;
+            }
+            switch (current) {
+                case '"':
+                    quoted = true;
+                    return false;
+                case '{':
+                case '[':
+                    if (json) depth++;
+                    return false;
+                case '}':
+                case ']':
+                    if (json) depth--;
+                    return false;
+                case '\n':
+                    return depth <= 0;
+                default:
+                    return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package ch.usi.si.seart.treesitter;
+
+import ch.usi.si.seart.treesitter.exception.parser.ParsingException;
+import lombok.AccessLevel;
+import lombok.Generated;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An editable source code document, kept in sync with its syntax {@link Tree}.
+ * The text is stored in a piece table, which makes edits proportional to the number
+ * of changes made, rather than the length of the text. Edits are expressed in terms of
+ * UTF-16 code unit offsets, i.e. {@link String} indices, and are accumulated until the
+ * document is {@link #reparse() reparsed}, at which point they are applied to the tree
+ * in order, after which the text is incrementally reparsed. The text is supplied to the
+ * parser in chunks, so that it is never copied into a single string in the process.
+ * <p>
+ * The document owns its current tree, which is closed when it is replaced by a reparse,
+ * or when the document is closed. The parser is <em>not</em> owned by the document,
+ * and can be shared between documents used by the same thread. Like parsers,
+ * documents are not thread-safe.
+ *
+ * @since 1.13.0
+ * @author Ozren Dabić
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class Document implements AutoCloseable {
+
+    private static final String NULL_PARSER = "Parser must not be null!";
+    private static final String NULL_TEXT = "Text must not be null!";
+
+    /**
+     * The parser used for reparsing the document.
+     */
+    @Getter
+    Parser parser;
+
+    PieceTable text;
+
+    List<InputEdit> pending = new ArrayList<>();
+
+    @NonFinal
+    Tree tree;
+
+    @NonFinal
+    boolean stale = false;
+
+    private Document(Parser parser, String text) {
+        this.parser = parser;
+        this.text = new PieceTable(text);
+        this.tree = parser.parse(this.text.snapshot(), null);
+    }
+
+    /**
+     * Create a new document with some initial text, parsing it in the process.
+     *
+     * @param parser the parser used for parsing the document
+     * @param text the initial text of the document
+     * @return a new document
+     * @throws NullPointerException if either argument is {@code null}
+     * @throws ParsingException if a parsing failure occurs
+     */
+    public static Document of(@NotNull Parser parser, @NotNull String text) throws ParsingException {
+        Objects.requireNonNull(parser, NULL_PARSER);
+        Objects.requireNonNull(text, NULL_TEXT);
+        return new Document(parser, text);
+    }
+
+    /**
+     * Replace a range of the document text.
+     * The change is reflected in the text immediately,
+     * but only reaches the tree once the document is reparsed.
+     *
+     * @param start the index of the first replaced character, inclusive
+     * @param end the index of the last replaced character, exclusive
+     * @param replacement the text to insert in place of the range
+     * @return this document
+     * @throws NullPointerException if the replacement is {@code null}
+     * @throws IndexOutOfBoundsException if the range is out of the text bounds
+     */
+    public Document replace(int start, int end, @NotNull String replacement) {
+        Objects.requireNonNull(replacement, NULL_TEXT);
+        Objects.checkFromToIndex(start, end, text.length());
+        if (start == end && replacement.isEmpty()) return this;
+        Point startPoint = text.pointAt(start);
+        Point oldEndPoint = text.pointAt(end);
+        text.replace(start, end, replacement);
+        int newEnd = start + replacement.length();
+        Point newEndPoint = text.pointAt(newEnd);
+        InputEdit edit = new InputEdit(start, end, newEnd, startPoint, oldEndPoint, newEndPoint);
+        pending.add(edit);
+        return this;
+    }
+
+    /**
+     * Insert text at a given index of the document text.
+     *
+     * @param offset the index at which the text is inserted
+     * @param insertion the inserted text
+     * @return this document
+     * @throws NullPointerException if the inserted text is {@code null}
+     * @throws IndexOutOfBoundsException if the index is out of the text bounds
+     * @see #replace(int, int, String)
+     */
+    public Document insert(int offset, @NotNull String insertion) {
+        return replace(offset, offset, insertion);
+    }
+
+    /**
+     * Delete a range of the document text.
+     *
+     * @param start the index of the first deleted character, inclusive
+     * @param end the index of the last deleted character, exclusive
+     * @return this document
+     * @throws IndexOutOfBoundsException if the range is out of the text bounds
+     * @see #replace(int, int, String)
+     */
+    public Document delete(int start, int end) {
+        return replace(start, end, "");
+    }
+
+    /**
+     * Check if the document has been edited since it was last parsed.
+     *
+     * @return true if the tree does not reflect the current text, false otherwise
+     */
+    public boolean isModified() {
+        return stale || !pending.isEmpty();
+    }
+
+    /**
+     * Apply the pending edits to the tree, and incrementally reparse the document.
+     * Adjacent edits, such as consecutive keystrokes, are merged before being applied.
+     * The tree from before the reparse is closed once the changes have been computed.
+     *
+     * @return the ranges whose syntactic structure has changed, empty if there were no edits
+     * @throws ParsingException if a parsing failure occurs, in which
+     * case the next reparse will once again attempt to parse the text
+     * @see Tree#getChangedRanges(Tree)
+     */
+    public List<Range> reparse() throws ParsingException {
+        if (!isModified()) return Collections.emptyList();
+        tree.editAll(InputEdit.coalesce(pending));
+        pending.clear();
+        stale = true;
+        Tree edited = tree;
+        Tree reparsed = parser.parse(text.snapshot(), edited);
+        List<Range> ranges = edited.getChangedRanges(reparsed);
+        edited.close();
+        tree = reparsed;
+        stale = false;
+        return ranges;
+    }
+
+    /**
+     * Get the syntax tree of the document, as of the last reparse.
+     * The tree is owned by the document, and should not be closed.
+     *
+     * @return the current syntax tree
+     */
+    public Tree getTree() {
+        return tree;
+    }
+
+    /**
+     * Get a snapshot of the current document text, including all the pending edits.
+     * The snapshot is unaffected by subsequent edits, and is cheap to obtain,
+     * as it does not copy the text itself.
+     *
+     * @return the document text
+     */
+    public CharSequence getText() {
+        return text.snapshot();
+    }
+
+    /**
+     * Get the length of the current document text.
+     *
+     * @return the number of UTF-16 code units in the text
+     */
+    public int getLength() {
+        return text.length();
+    }
+
+    /**
+     * Close the document, along with its current syntax tree.
+     */
+    @Override
+    public void close() {
+        tree.close();
+    }
+
+    @Override
+    @Generated
+    public String toString() {
+        return String.format("Document(length: %d, modified: %s)", getLength(), isModified());
+    }
+}
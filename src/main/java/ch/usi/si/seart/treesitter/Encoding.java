@@ -0,0 +1,48 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Enum that consists of the text encodings natively supported by {@code tree-sitter}.
+ * The encoding used for parsing determines the unit in which the byte offsets
+ * and column positions of the resulting {@link Tree} are reported:
+ * <ul>
+ *     <li>{@link #UTF_8} reports offsets and columns in bytes</li>
+ *     <li>{@link #UTF_16} reports offsets and columns in {@code char} units,
+ *     which coincides with the indexing used by {@link String}</li>
+ * </ul>
+ *
+ * @since 1.13.0
+ * @author Ozren Dabić
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public enum Encoding {
+
+    /**
+     * UTF-8 encoding, in which each offset unit corresponds to a single byte.
+     */
+    UTF_8(StandardCharsets.UTF_8, 1),
+
+    /**
+     * Little-endian UTF-16 encoding, in which each offset unit corresponds to two bytes.
+     */
+    UTF_16(StandardCharsets.UTF_16LE, 2);
+
+    /**
+     * The {@link Charset} used for encoding and decoding text.
+     */
+    Charset charset;
+
+    /**
+     * The number of bytes that make up a single offset unit.
+     */
+    int width;
+}
@@ -0,0 +1,328 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.AccessLevel;
+import lombok.Generated;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * A copy of an entire syntax {@link Tree}, laid out as a structure of primitive arrays.
+ * Nodes are identified by their index in the preorder traversal of the tree,
+ * with the root node at index {@code 0}, and every property of the node at index
+ * {@code i} residing at position {@code i} of the corresponding array.
+ * The structure of the tree is captured through the indices of each node's parent,
+ * first child and next sibling, with {@code -1} denoting the absence of such a node.
+ * <p>
+ * Since the whole copy is produced in a single native call, scanning the arrays
+ * is considerably cheaper than visiting the same nodes through the {@link Node} API,
+ * which makes this representation well-suited for extracting features from large numbers of trees.
+ * The copy is independent of the tree it was obtained from, and remains valid after the tree is closed.
+ * Offsets and columns are expressed in the same units as those of {@link Node}.
+ * <p>
+ * Usage example:
+ * <pre>{@code
+ * FlatTree flat = tree.flatten();
+ * int[] histogram = new int[flat.getLanguage().getSymbols().size()];
+ * int errors = 0;
+ * for (int i = 0; i < flat.size(); i++) {
+ *     if (flat.isError(i)) errors++;
+ *     else histogram[flat.getSymbolId(i)]++;
+ * }
+ * }</pre>
+ *
+ * @since 1.13.0
+ * @author Ozren Dabić
+ * @see Tree#flatten()
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class FlatTree {
+
+    /*
+     * Must match the order in which the native code fills the columns
+     */
+    private static final int SYMBOLS = 0;
+    private static final int PARENTS = 1;
+    private static final int FIRST_CHILDREN = 2;
+    private static final int NEXT_SIBLINGS = 3;
+    private static final int START_BYTES = 4;
+    private static final int END_BYTES = 5;
+    private static final int START_ROWS = 6;
+    private static final int START_COLUMNS = 7;
+    private static final int END_ROWS = 8;
+    private static final int END_COLUMNS = 9;
+    private static final int FIELDS = 10;
+    private static final int COLUMNS = 11;
+
+    /**
+     * The language of the flattened tree.
+     */
+    @Getter
+    Language language;
+
+    int[][] columns;
+    byte[] flags;
+
+    FlatTree(Language language, int size) {
+        this.language = language;
+        this.columns = new int[COLUMNS][size];
+        this.flags = new byte[size];
+    }
+
+    int[][] getColumns() {
+        return columns;
+    }
+
+    byte[] getFlags() {
+        return flags;
+    }
+
+    /**
+     * Get the number of nodes in the flattened tree.
+     *
+     * @return the node count
+     */
+    public int size() {
+        return flags.length;
+    }
+
+    /**
+     * Get the numerical identifier of a node's {@link Symbol}.
+     * For {@code ERROR} nodes this is the identifier of the built-in error symbol,
+     * which does not appear among the {@link Language#getSymbols() symbols} of the language.
+     *
+     * @param index the preorder index of the node
+     * @return the node's symbol identifier
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public int getSymbolId(int index) {
+        return columns[SYMBOLS][index];
+    }
+
+    /**
+     * Get the {@link Symbol} of a node.
+     *
+     * @param index the preorder index of the node
+     * @return the node's symbol
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public Symbol getSymbol(int index) {
+        return language.getSymbol(getSymbolId(index));
+    }
+
+    /**
+     * Get the type of a node.
+     *
+     * @param index the preorder index of the node
+     * @return the node's type
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public String getType(int index) {
+        return getSymbol(index).getName();
+    }
+
+    /**
+     * Get the index of a node's parent.
+     *
+     * @param index the preorder index of the node
+     * @return the index of the parent, {@code -1} for the root node
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public int getParent(int index) {
+        return columns[PARENTS][index];
+    }
+
+    /**
+     * Get the index of a node's first child.
+     * For nodes that have children, this is always the index that follows their own.
+     *
+     * @param index the preorder index of the node
+     * @return the index of the first child, {@code -1} if the node has no children
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public int getFirstChild(int index) {
+        return columns[FIRST_CHILDREN][index];
+    }
+
+    /**
+     * Get the index of a node's next sibling.
+     *
+     * @param index the preorder index of the node
+     * @return the index of the next sibling, {@code -1} if the node is the last child
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public int getNextSibling(int index) {
+        return columns[NEXT_SIBLINGS][index];
+    }
+
+    /**
+     * Get the offset where a node starts.
+     *
+     * @param index the preorder index of the node
+     * @return the node's start byte
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public int getStartByte(int index) {
+        return columns[START_BYTES][index];
+    }
+
+    /**
+     * Get the offset where a node ends.
+     *
+     * @param index the preorder index of the node
+     * @return the node's end byte
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public int getEndByte(int index) {
+        return columns[END_BYTES][index];
+    }
+
+    /**
+     * Get the row where a node starts.
+     *
+     * @param index the preorder index of the node
+     * @return the node's start row
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public int getStartRow(int index) {
+        return columns[START_ROWS][index];
+    }
+
+    /**
+     * Get the column where a node starts.
+     *
+     * @param index the preorder index of the node
+     * @return the node's start column
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public int getStartColumn(int index) {
+        return columns[START_COLUMNS][index];
+    }
+
+    /**
+     * Get the row where a node ends.
+     *
+     * @param index the preorder index of the node
+     * @return the node's end row
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public int getEndRow(int index) {
+        return columns[END_ROWS][index];
+    }
+
+    /**
+     * Get the column where a node ends.
+     *
+     * @param index the preorder index of the node
+     * @return the node's end column
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public int getEndColumn(int index) {
+        return columns[END_COLUMNS][index];
+    }
+
+    /**
+     * Get the position where a node starts.
+     *
+     * @param index the preorder index of the node
+     * @return the node's start point
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public Point getStartPoint(int index) {
+        return new Point(getStartRow(index), getStartColumn(index));
+    }
+
+    /**
+     * Get the position where a node ends.
+     *
+     * @param index the preorder index of the node
+     * @return the node's end point
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public Point getEndPoint(int index) {
+        return new Point(getEndRow(index), getEndColumn(index));
+    }
+
+    /**
+     * Get the numerical identifier of the field in which a node resides within its parent.
+     *
+     * @param index the preorder index of the node
+     * @return the field identifier, {@code 0} if the node does not reside in a field
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public int getFieldId(int index) {
+        return columns[FIELDS][index];
+    }
+
+    /**
+     * Get the name of the field in which a node resides within its parent.
+     *
+     * @param index the preorder index of the node
+     * @return the field name, {@code null} if the node does not reside in a field
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public String getFieldName(int index) {
+        int field = getFieldId(index);
+        return field != 0 ? language.getFields().get(field - 1) : null;
+    }
+
+    /**
+     * Check if a node is named.
+     *
+     * @param index the preorder index of the node
+     * @return true if the node is named
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public boolean isNamed(int index) {
+        return (flags[index] & NodeInfo.NAMED) != 0;
+    }
+
+    /**
+     * Check if a node has any syntax errors within it.
+     *
+     * @param index the preorder index of the node
+     * @return true if the node contains {@code ERROR} or {@code MISSING} nodes
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public boolean hasError(int index) {
+        return (flags[index] & NodeInfo.HAS_ERROR) != 0;
+    }
+
+    /**
+     * Check if a node was inserted by the parser to recover from certain kinds of syntax errors.
+     *
+     * @param index the preorder index of the node
+     * @return true if the node is {@code MISSING}
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public boolean isMissing(int index) {
+        return (flags[index] & NodeInfo.MISSING) != 0;
+    }
+
+    /**
+     * Check if a node is extra, such as a comment.
+     *
+     * @param index the preorder index of the node
+     * @return true if the node is extra
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public boolean isExtra(int index) {
+        return (flags[index] & NodeInfo.EXTRA) != 0;
+    }
+
+    /**
+     * Check if a node is a syntax error.
+     *
+     * @param index the preorder index of the node
+     * @return true if the node is an {@code ERROR} node
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public boolean isError(int index) {
+        return (flags[index] & NodeInfo.ERROR) != 0;
+    }
+
+    @Override
+    @Generated
+    public String toString() {
+        return String.format("FlatTree(language: %s, size: %d)", language, size());
+    }
+}
@@ -0,0 +1,238 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.AccessLevel;
+import lombok.Generated;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * An ordered collection of syntax trees, each covering a consecutive chunk of the same file.
+ * Together, the trees are a single logical representation of the file, produced by a
+ * {@link ChunkedParser}. Since each tree is only aware of the positions within its own chunk,
+ * the forest provides the means to translate the positions of nodes into file-global ones.
+ * Offsets are represented as {@code long} values, as files may exceed the size of a single tree.
+ * <p>
+ * Closing the forest closes all of its trees.
+ *
+ * @since 1.13.0
+ * @author Ozren Dabić
+ * @see ChunkedParser
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class Forest implements Iterable<Forest.Chunk>, AutoCloseable {
+
+    private static final String NULL_NODE = "Node must not be null!";
+    private static final String FOREIGN_NODE = "Node does not belong to this forest!";
+    private static final String OFFSET_OUT_OF_BOUNDS = "Offset %d out of bounds for length %d";
+
+    List<Chunk> chunks;
+
+    Forest(List<Chunk> chunks) {
+        this.chunks = Collections.unmodifiableList(chunks);
+    }
+
+    /**
+     * A single tree of the forest, along with the position of its chunk in the file.
+     *
+     * @since 1.13.0
+     * @author Ozren Dabić
+     */
+    @Getter
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    public static final class Chunk {
+
+        /**
+         * The syntax tree of the chunk.
+         */
+        Tree tree;
+
+        /**
+         * The byte offset of the chunk within the file.
+         */
+        long offset;
+
+        /**
+         * The number of bytes in the chunk.
+         */
+        long length;
+
+        /**
+         * The position of the chunk within the file.
+         * Chunks always start at the beginning of a line.
+         */
+        Point startPoint;
+
+        Chunk(Tree tree, long offset, long length, int row) {
+            this.tree = tree;
+            this.offset = offset;
+            this.length = length;
+            this.startPoint = new Point(row, 0);
+        }
+
+        /**
+         * Get the byte offset at which the chunk ends within the file.
+         *
+         * @return the exclusive end offset
+         */
+        public long getEndOffset() {
+            return offset + length;
+        }
+
+        @Override
+        @Generated
+        public String toString() {
+            return String.format("Chunk(offset: %d, length: %d, startPoint: %s)", offset, length, startPoint);
+        }
+    }
+
+    /**
+     * Get the chunks of the forest, in file order.
+     *
+     * @return an unmodifiable list of chunks
+     */
+    public List<Chunk> getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Get the number of bytes covered by the forest.
+     *
+     * @return the size of the parsed file
+     */
+    public long getLength() {
+        return chunks.isEmpty() ? 0 : chunks.get(chunks.size() - 1).getEndOffset();
+    }
+
+    /**
+     * Get the chunk that covers a given byte offset of the file.
+     *
+     * @param offset the file-global byte offset
+     * @return the chunk containing the offset
+     * @throws IndexOutOfBoundsException if the offset is negative,
+     * or not smaller than the {@link #getLength() length} of the forest
+     */
+    public Chunk getChunkAt(long offset) {
+        long length = getLength();
+        if (offset < 0 || offset >= length)
+            throw new IndexOutOfBoundsException(String.format(OFFSET_OUT_OF_BOUNDS, offset, length));
+        int low = 0;
+        int high = chunks.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (chunks.get(mid).offset <= offset) low = mid;
+            else high = mid - 1;
+        }
+        return chunks.get(low);
+    }
+
+    /**
+     * Get the chunk whose tree contains the given node.
+     *
+     * @param node the node of one of the trees
+     * @return the chunk of the node
+     * @throws NullPointerException if the node is {@code null}
+     * @throws IllegalArgumentException if the node does not belong to any of the trees
+     */
+    public Chunk getChunkOf(@NotNull Node node) {
+        Objects.requireNonNull(node, NULL_NODE);
+        Tree tree = node.getTree();
+        for (Chunk chunk: chunks) {
+            if (chunk.tree == tree) return chunk;
+        }
+        throw new IllegalArgumentException(FOREIGN_NODE);
+    }
+
+    /**
+     * Get the file-global start byte of a node.
+     *
+     * @param node the node of one of the trees
+     * @return the byte offset at which the node starts within the file
+     * @throws NullPointerException if the node is {@code null}
+     * @throws IllegalArgumentException if the node does not belong to any of the trees
+     */
+    public long getStartByte(@NotNull Node node) {
+        return getChunkOf(node).offset + node.getStartByte();
+    }
+
+    /**
+     * Get the file-global end byte of a node.
+     *
+     * @param node the node of one of the trees
+     * @return the byte offset at which the node ends within the file
+     * @throws NullPointerException if the node is {@code null}
+     * @throws IllegalArgumentException if the node does not belong to any of the trees
+     */
+    public long getEndByte(@NotNull Node node) {
+        return getChunkOf(node).offset + node.getEndByte();
+    }
+
+    /**
+     * Get the file-global start point of a node.
+     *
+     * @param node the node of one of the trees
+     * @return the position at which the node starts within the file
+     * @throws NullPointerException if the node is {@code null}
+     * @throws IllegalArgumentException if the node does not belong to any of the trees
+     */
+    public Point getStartPoint(@NotNull Node node) {
+        return getChunkOf(node).startPoint.add(node.getStartPoint());
+    }
+
+    /**
+     * Get the file-global end point of a node.
+     *
+     * @param node the node of one of the trees
+     * @return the position at which the node ends within the file
+     * @throws NullPointerException if the node is {@code null}
+     * @throws IllegalArgumentException if the node does not belong to any of the trees
+     */
+    public Point getEndPoint(@NotNull Node node) {
+        return getChunkOf(node).startPoint.add(node.getEndPoint());
+    }
+
+    /**
+     * Get the root nodes of all the trees, in file order.
+     *
+     * @return a stream of root nodes
+     */
+    public Stream<Node> getRootNodes() {
+        return chunks.stream().map(chunk -> chunk.tree.getRootNode());
+    }
+
+    /**
+     * Get the top-level records of the entire file, in file order.
+     * These are the children of the root nodes of all the trees,
+     * i.e. the rows of delimiter-separated values, or the JSON values.
+     *
+     * @return a stream of record nodes
+     */
+    public Stream<Node> getRecords() {
+        return getRootNodes().flatMap(root -> root.getChildren().stream());
+    }
+
+    @Override
+    public @NotNull Iterator<Chunk> iterator() {
+        return chunks.iterator();
+    }
+
+    /**
+     * Close all the trees of the forest.
+     */
+    @Override
+    public void close() {
+        chunks.forEach(chunk -> chunk.tree.close());
+    }
+
+    @Override
+    @Generated
+    public String toString() {
+        return String.format("Forest(chunks: %d, length: %d)", chunks.size(), getLength());
+    }
+}
@@ -0,0 +1,173 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.AccessLevel;
+import lombok.Generated;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe, fixed-size histogram of non-negative {@code long} values.
+ * Much like an <a href="https://hdrhistogram.github.io/HdrHistogram/">HDR histogram</a>,
+ * values are counted in buckets whose width grows with their magnitude, so that the
+ * entire range of {@code long} values is covered with a constant relative precision.
+ * Values below 128 are recorded exactly, while all other values are recorded with
+ * 7 significant bits, which bounds the relative error of the reported values to under 2%.
+ * The histogram occupies under 30 KiB of memory, regardless of the number of recorded values.
+ *
+ * @since 1.13.0
+ * @author Ozren Dabić
+ * @see ParseStatistics
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class Histogram {
+
+    private static final String NULL_HISTOGRAM = "Histogram must not be null!";
+    private static final String NEGATIVE_VALUE = "Value must not be negative!";
+    private static final String INVALID_PERCENTILE = "Percentile must be between 0 and 100!";
+
+    private static final int PRECISION = 7;
+    private static final int SUB_BUCKETS = 1 << PRECISION;
+    private static final int HALF_BUCKETS = SUB_BUCKETS / 2;
+    private static final int BUCKETS = (Long.SIZE - PRECISION + 1) * HALF_BUCKETS;
+    private static final double HUNDRED = 100.0;
+    private static final double MEDIAN = 50.0;
+    private static final double TAIL = 99.0;
+
+    AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    AtomicLong count = new AtomicLong();
+    AtomicLong sum = new AtomicLong();
+    AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Record a single value.
+     *
+     * @param value the recorded value
+     * @throws IllegalArgumentException if the value is negative
+     */
+    public void record(long value) {
+        if (value < 0) throw new IllegalArgumentException(NEGATIVE_VALUE);
+        counts.incrementAndGet(indexOf(value));
+        sum.addAndGet(value);
+        min.accumulateAndGet(value, Math::min);
+        max.accumulateAndGet(value, Math::max);
+        count.incrementAndGet();
+    }
+
+    /**
+     * Add all the values recorded by another histogram to this one.
+     *
+     * @param other the histogram whose values are added
+     * @throws NullPointerException if the histogram is {@code null}
+     */
+    public void add(@NotNull Histogram other) {
+        Objects.requireNonNull(other, NULL_HISTOGRAM);
+        for (int i = 0; i < BUCKETS; i++) {
+            long value = other.counts.get(i);
+            if (value != 0) counts.addAndGet(i, value);
+        }
+        sum.addAndGet(other.sum.get());
+        min.accumulateAndGet(other.min.get(), Math::min);
+        max.accumulateAndGet(other.max.get(), Math::max);
+        count.addAndGet(other.count.get());
+    }
+
+    /**
+     * Get the number of recorded values.
+     *
+     * @return the total count
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Get the smallest recorded value.
+     *
+     * @return the exact minimum, or 0 if no values were recorded
+     */
+    public long getMin() {
+        return getCount() > 0 ? min.get() : 0;
+    }
+
+    /**
+     * Get the largest recorded value.
+     *
+     * @return the exact maximum, or 0 if no values were recorded
+     */
+    public long getMax() {
+        return getCount() > 0 ? max.get() : 0;
+    }
+
+    /**
+     * Get the arithmetic mean of the recorded values.
+     *
+     * @return the exact mean, or 0 if no values were recorded
+     */
+    public double getMean() {
+        long total = getCount();
+        return total > 0 ? (double) sum.get() / total : 0;
+    }
+
+    /**
+     * Get the value at the given percentile of the recorded values.
+     * The result is the highest value that is equivalent to the
+     * value at the percentile, within the precision of the histogram,
+     * but never greater than the {@link #getMax() maximum}.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the value at the percentile, or 0 if no values were recorded
+     * @throws IllegalArgumentException if the percentile is out of bounds
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= HUNDRED)) throw new IllegalArgumentException(INVALID_PERCENTILE);
+        long total = getCount();
+        if (total == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(percentile / HUNDRED * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) return Math.max(getMin(), Math.min(highestEquivalent(i), getMax()));
+        }
+        return getMax();
+    }
+
+    /**
+     * Discard all the recorded values.
+     * Values recorded concurrently with the reset may or may not be retained.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        sum.set(0);
+        min.set(Long.MAX_VALUE);
+        max.set(Long.MIN_VALUE);
+        count.set(0);
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - PRECISION;
+        return (shift + 1) * HALF_BUCKETS + (int) (value >>> shift) - HALF_BUCKETS;
+    }
+
+    private static long highestEquivalent(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = index / HALF_BUCKETS - 1;
+        long sub = index % HALF_BUCKETS + HALF_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    @Override
+    @Generated
+    public String toString() {
+        return String.format(
+                "Histogram(count: %d, min: %d, max: %d, mean: %.2f, p50: %d, p99: %d)",
+                getCount(), getMin(), getMax(), getMean(),
+                getValueAtPercentile(MEDIAN), getValueAtPercentile(TAIL)
+        );
+    }
+}
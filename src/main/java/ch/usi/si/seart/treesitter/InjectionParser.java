@@ -0,0 +1,596 @@
+package ch.usi.si.seart.treesitter;
+
+import ch.usi.si.seart.treesitter.exception.parser.ParsingException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Generated;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parses source code that embeds multiple languages into a {@link LayeredTree}.
+ * Which regions of a language are written in another language is determined by
+ * injection queries, following the conventions of the {@code injections.scm}
+ * files that accompany {@code tree-sitter} grammars:
+ * <ul>
+ *     <li>{@code @injection.content} captures the nodes whose text is injected;</li>
+ *     <li>{@code @injection.language} captures a node whose text names the language,
+ *     which can otherwise be set using {@code (#set! injection.language "name")};</li>
+ *     <li>{@code (#set! injection.combined)} parses all the matches of a pattern as a
+ *     single layer, rather than creating a separate layer for each match;</li>
+ *     <li>{@code (#set! injection.include-children)} includes the text of the children
+ *     of captured nodes, which is otherwise excluded from the injected ranges.</li>
+ * </ul>
+ * Language names are resolved using the configured aliases, followed by the
+ * {@link Language} constant names and file extensions. Injections into languages
+ * that can not be resolved are skipped. Apart from the {@code #set!} directives, the
+ * {@code #eq?}, {@code #not-eq?}, {@code #match?} and {@code #not-match?} predicates
+ * are evaluated, while all other predicates are ignored.
+ * <p>
+ * The host language is parsed first, after which all the layers injected at the same depth
+ * are parsed in parallel on the configured {@link Executor}, using parsers from a
+ * {@link ParserPool}. Injected layers are themselves searched for injections,
+ * up to a maximum depth. The injection parser is thread-safe.
+ *
+ * @since 1.13.0
+ * @author Ozren Dabić
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class InjectionParser implements AutoCloseable {
+
+    private static final String NULL_LANGUAGE = "Language must not be null!";
+    private static final String NULL_QUERY = "Query must not be null!";
+    private static final String NULL_PATH = "Path must not be null!";
+    private static final String NULL_NAME = "Name must not be null!";
+    private static final String NULL_EXECUTOR = "Executor must not be null!";
+    private static final String NULL_POOL = "Pool must not be null!";
+    private static final String NULL_SOURCE = "Source must not be null!";
+    private static final String NULL_TREE = "Tree must not be null!";
+    private static final String NEGATIVE_DEPTH = "Depth must not be negative!";
+
+    private static final String CONTENT = "injection.content";
+    private static final String LANGUAGE = "injection.language";
+    private static final String COMBINED = "injection.combined";
+    private static final String INCLUDE_CHILDREN = "injection.include-children";
+
+    Language language;
+    Map<Language, Query> injections;
+    Map<String, Language> aliases;
+    Executor executor;
+    ParserPool pool;
+    boolean owned;
+    int depth;
+
+    private InjectionParser(
+            Language language,
+            Map<Language, Query> injections,
+            Map<String, Language> aliases,
+            Executor executor,
+            ParserPool pool,
+            int depth
+    ) {
+        this.language = language;
+        this.injections = injections;
+        this.aliases = aliases;
+        this.executor = executor;
+        this.owned = pool == null;
+        this.pool = owned ? ParserPool.builder().build() : pool;
+        this.depth = depth;
+    }
+
+    /**
+     * Obtain a new {@link Builder Builder} for constructing an injection parser.
+     *
+     * @return a new injection parser builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Facilitates the construction of {@link InjectionParser} instances.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static final class Builder {
+
+        Language language = null;
+        Map<Language, String> injections = new EnumMap<>(Language.class);
+        Map<String, Language> aliases = new HashMap<>();
+        Executor executor = ForkJoinPool.commonPool();
+        ParserPool pool = null;
+        int depth = Integer.MAX_VALUE;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the host language, used for parsing the source code as a whole.
+         *
+         * @param language the host language
+         * @return this builder
+         * @throws NullPointerException if the language is {@code null}
+         * @throws UnsatisfiedLinkError if the language was not linked to native code
+         * @throws ch.usi.si.seart.treesitter.error.ABIVersionError
+         * if the language ABI version is incompatible with requirements
+         */
+        public Builder language(@NotNull Language language) {
+            Language.validate(language);
+            this.language = language;
+            return this;
+        }
+
+        /**
+         * Adds injection rules for a language, in the format of {@code injections.scm} files.
+         * Rules added for the same language are combined into a single query.
+         *
+         * @param language the language in whose trees the injections are searched for
+         * @param query the injection query
+         * @return this builder
+         * @throws NullPointerException if either argument is {@code null}
+         */
+        public Builder injections(@NotNull Language language, @NotNull String query) {
+            Objects.requireNonNull(language, NULL_LANGUAGE);
+            Objects.requireNonNull(query, NULL_QUERY);
+            injections.merge(language, query, (first, second) -> first + "\n" + second);
+            return this;
+        }
+
+        /**
+         * Adds injection rules for a language, read from an {@code injections.scm} file.
+         *
+         * @param language the language in whose trees the injections are searched for
+         * @param path the path of the query file
+         * @return this builder
+         * @throws NullPointerException if either argument is {@code null}
+         * @throws UncheckedIOException if the file could not be read
+         */
+        public Builder injections(@NotNull Language language, @NotNull Path path) {
+            Objects.requireNonNull(path, NULL_PATH);
+            try {
+                return injections(language, Files.readString(path));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        /**
+         * Associates a language name, as it appears in the source code
+         * or injection queries, with a specific language.
+         * Aliases take precedence over the default resolution.
+         *
+         * @param name the language name, matched regardless of case
+         * @param language the language denoted by the name
+         * @return this builder
+         * @throws NullPointerException if either argument is {@code null}
+         */
+        public Builder alias(@NotNull String name, @NotNull Language language) {
+            Objects.requireNonNull(name, NULL_NAME);
+            Objects.requireNonNull(language, NULL_LANGUAGE);
+            aliases.put(name.toLowerCase(Locale.ROOT), language);
+            return this;
+        }
+
+        /**
+         * Sets the executor used for parsing injected layers in parallel.
+         * Defaults to the {@link ForkJoinPool#commonPool() common pool}.
+         *
+         * @param executor the executor
+         * @return this builder
+         * @throws NullPointerException if the executor is {@code null}
+         */
+        public Builder executor(@NotNull Executor executor) {
+            Objects.requireNonNull(executor, NULL_EXECUTOR);
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the pool from which the parsers of all layers are leased.
+         * The pool is not closed along with the injection parser.
+         * By default, the injection parser creates and owns a pool of its own.
+         *
+         * @param pool the parser pool
+         * @return this builder
+         * @throws NullPointerException if the pool is {@code null}
+         */
+        public Builder pool(@NotNull ParserPool pool) {
+            Objects.requireNonNull(pool, NULL_POOL);
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * Sets the maximum nesting depth of injected layers.
+         * A depth of 0 disables injections altogether.
+         * The depth is unlimited by default.
+         *
+         * @param depth the maximum depth
+         * @return this builder
+         * @throws IllegalArgumentException if the depth is negative
+         */
+        public Builder depth(int depth) {
+            if (depth < 0) throw new IllegalArgumentException(NEGATIVE_DEPTH);
+            this.depth = depth;
+            return this;
+        }
+
+        /**
+         * Builds and returns a new injection parser instance with the configured settings.
+         *
+         * @return a new injection parser instance
+         * @throws NullPointerException if the host language was not set
+         * @throws ch.usi.si.seart.treesitter.exception.query.QueryException
+         * if any of the injection queries is malformed
+         */
+        public InjectionParser build() {
+            Objects.requireNonNull(language, NULL_LANGUAGE);
+            Map<Language, Query> queries = new EnumMap<>(Language.class);
+            try {
+                injections.forEach((key, value) -> queries.put(key, Query.getFor(key, uncommented(value))));
+            } catch (RuntimeException ex) {
+                queries.values().forEach(Query::close);
+                throw ex;
+            }
+            return new InjectionParser(language, queries, Map.copyOf(aliases), executor, pool, depth);
+        }
+
+        /*
+         * Query patterns are normalized into a single line,
+         * so comments have to be removed beforehand.
+         */
+        private static String uncommented(String query) {
+            StringBuilder builder = new StringBuilder(query.length());
+            boolean string = false;
+            boolean escaped = false;
+            boolean comment = false;
+            for (char c: query.toCharArray()) {
+                if (comment) {
+                    comment = c != '\n';
+                } else if (string) {
+                    string = escaped || c != '"';
+                    escaped = !escaped && c == '\\';
+                } else {
+                    string = c == '"';
+                    comment = c == ';';
+                }
+                if (!comment) builder.append(c);
+            }
+            return builder.toString();
+        }
+    }
+
+    /**
+     * Parse source code, along with all the languages injected into it.
+     *
+     * @param source the source code string to be parsed
+     * @return a layered syntax tree matching the provided source
+     * @throws NullPointerException if the source is {@code null}
+     * @throws ParsingException if a parsing failure occurs in any of the layers
+     */
+    public LayeredTree parse(@NotNull String source) throws ParsingException {
+        Objects.requireNonNull(source, NULL_SOURCE);
+        return parse(source, Collections.emptyList());
+    }
+
+    /**
+     * Incrementally reparse changed source code, along with all the languages injected into it.
+     * The old tree should have been {@link LayeredTree#edit(InputEdit) edited} beforehand.
+     * Each layer of the new tree reuses the old layer of the same language and depth that
+     * overlaps it, if any. The old tree remains owned by the caller, and is left intact.
+     *
+     * @param source the source code string to be parsed
+     * @param oldTree the layered syntax tree before changes were made
+     * @return a layered syntax tree matching the provided source
+     * @throws NullPointerException if either argument is {@code null}
+     * @throws ParsingException if a parsing failure occurs in any of the layers
+     */
+    public LayeredTree parse(@NotNull String source, @NotNull LayeredTree oldTree) throws ParsingException {
+        Objects.requireNonNull(source, NULL_SOURCE);
+        Objects.requireNonNull(oldTree, NULL_TREE);
+        return parse(source, oldTree.getLayers());
+    }
+
+    private LayeredTree parse(String source, List<LayeredTree.Layer> previous) {
+        List<LayeredTree.Layer> reusable = new ArrayList<>(previous);
+        List<LayeredTree.Layer> layers = new ArrayList<>();
+        List<Injection> level = List.of(new Injection(null, language, Collections.emptyList()));
+        try {
+            for (int current = 0; !level.isEmpty(); current++) {
+                List<CompletableFuture<LayeredTree.Layer>> futures = new ArrayList<>(level.size());
+                for (Injection injection: level) {
+                    Tree oldTree = reuse(reusable, injection, current);
+                    int layerDepth = current;
+                    futures.add(CompletableFuture.supplyAsync(
+                            () -> parse(source, injection, oldTree, layerDepth), executor
+                    ));
+                }
+                List<LayeredTree.Layer> parsed = join(futures);
+                layers.addAll(parsed);
+                if (current == depth) break;
+                level = new ArrayList<>();
+                for (LayeredTree.Layer layer: parsed) level.addAll(injections(layer));
+            }
+        } catch (RuntimeException ex) {
+            for (LayeredTree.Layer layer: layers) layer.getTree().close();
+            throw ex;
+        }
+        return new LayeredTree(source, layers);
+    }
+
+    private static Tree reuse(List<LayeredTree.Layer> reusable, Injection injection, int depth) {
+        for (int i = 0; i < reusable.size(); i++) {
+            LayeredTree.Layer layer = reusable.get(i);
+            boolean compatible = layer.getDepth() == depth && layer.getLanguage() == injection.language;
+            if (compatible && overlaps(layer.getRanges(), injection.ranges)) {
+                reusable.remove(i);
+                return layer.getTree();
+            }
+        }
+        return null;
+    }
+
+    private static boolean overlaps(List<Range> first, List<Range> second) {
+        if (first.isEmpty() || second.isEmpty()) return first.isEmpty() && second.isEmpty();
+        int start = second.get(0).getStartByte();
+        int end = second.get(second.size() - 1).getEndByte();
+        return first.get(0).getStartByte() <= end && start <= first.get(first.size() - 1).getEndByte();
+    }
+
+    private LayeredTree.Layer parse(String source, Injection injection, Tree oldTree, int depth) {
+        try (ParserPool.Lease lease = pool.lease(injection.language)) {
+            Parser parser = lease.getParser();
+            parser.setIncludedRanges(injection.ranges);
+            Tree tree = oldTree != null ? parser.parse(source, oldTree) : parser.parse(source);
+            return new LayeredTree.Layer(injection.parent, injection.language, tree, injection.ranges, depth);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            CancellationException exception = new CancellationException();
+            exception.initCause(ex);
+            throw exception;
+        }
+    }
+
+    private static List<LayeredTree.Layer> join(List<CompletableFuture<LayeredTree.Layer>> futures) {
+        List<LayeredTree.Layer> layers = new ArrayList<>(futures.size());
+        RuntimeException failure = null;
+        for (CompletableFuture<LayeredTree.Layer> future: futures) {
+            try {
+                layers.add(future.join());
+            } catch (CompletionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof Error) throw (Error) cause;
+                if (failure == null) failure = (RuntimeException) cause;
+            }
+        }
+        if (failure != null) {
+            for (LayeredTree.Layer layer: layers) layer.getTree().close();
+            throw failure;
+        }
+        return layers;
+    }
+
+    private List<Injection> injections(LayeredTree.Layer layer) {
+        Query query = injections.get(layer.getLanguage());
+        if (query == null) return Collections.emptyList();
+        List<Injection> result = new ArrayList<>();
+        Map<Combination, List<Range>> combined = new LinkedHashMap<>();
+        try (QueryCursor cursor = layer.getTree().getRootNode().walk(query)) {
+            for (QueryMatch match: cursor) {
+                Map<String, String> properties = new HashMap<>();
+                if (!evaluate(match, properties)) continue;
+                Collection<Node> content = match.getNodes(CONTENT);
+                if (content.isEmpty()) continue;
+                String name = properties.getOrDefault(LANGUAGE, text(match, LANGUAGE));
+                Language injected = resolve(name);
+                if (injected == null) continue;
+                boolean includeChildren = properties.containsKey(INCLUDE_CHILDREN);
+                List<Range> ranges = new ArrayList<>();
+                for (Node node: content) ranges.addAll(ranges(node, includeChildren));
+                ranges = intersect(ranges, layer.getRanges());
+                if (properties.containsKey(COMBINED)) {
+                    Combination key = new Combination(match.getPattern().getIndex(), injected);
+                    combined.computeIfAbsent(key, k -> new ArrayList<>()).addAll(ranges);
+                } else if (!ranges.isEmpty()) {
+                    result.add(new Injection(layer, injected, ranges));
+                }
+            }
+        }
+        combined.forEach((key, ranges) -> {
+            List<Range> disjoint = disjoint(ranges);
+            if (!disjoint.isEmpty()) result.add(new Injection(layer, key.language, disjoint));
+        });
+        result.sort(Comparator.comparingInt(injection -> injection.ranges.get(0).getStartByte()));
+        return result;
+    }
+
+    private static boolean evaluate(QueryMatch match, Map<String, String> properties) {
+        for (Predicate predicate: match.getPattern().getPredicates()) {
+            List<Predicate.Step> steps = predicate.getSteps();
+            String operator = steps.get(0).getValue();
+            List<Predicate.Step> arguments = steps.subList(1, steps.size() - 1);
+            if ("set!".equals(operator) && !arguments.isEmpty()) {
+                String value = arguments.size() > 1 ? arguments.get(1).getValue() : null;
+                properties.put(arguments.get(0).getValue(), value);
+            } else if (arguments.size() == 2 && arguments.get(0).getType() == Predicate.Step.Type.CAPTURE) {
+                String left = text(match, arguments.get(0).getValue());
+                Predicate.Step argument = arguments.get(1);
+                boolean capture = argument.getType() == Predicate.Step.Type.CAPTURE;
+                String right = capture ? text(match, argument.getValue()) : argument.getValue();
+                if (left == null || right == null) continue;
+                switch (operator) {
+                    case "eq?":
+                        if (!left.equals(right)) return false;
+                        break;
+                    case "not-eq?":
+                        if (left.equals(right)) return false;
+                        break;
+                    case "match?":
+                        if (!java.util.regex.Pattern.compile(right).matcher(left).find()) return false;
+                        break;
+                    case "not-match?":
+                        if (java.util.regex.Pattern.compile(right).matcher(left).find()) return false;
+                        break;
+                    default:
+                }
+            }
+        }
+        return true;
+    }
+
+    private static String text(QueryMatch match, String name) {
+        Collection<Node> nodes = match.getNodes(name);
+        return nodes.isEmpty() ? null : nodes.iterator().next().getContent();
+    }
+
+    private Language resolve(String name) {
+        if (name == null) return null;
+        String key = name.trim().toLowerCase(Locale.ROOT);
+        Language alias = aliases.get(key);
+        if (alias != null) return alias;
+        String constant = key.replace('-', '_').toUpperCase(Locale.ROOT);
+        for (Language candidate: Language.values()) {
+            if (candidate.name().equals(constant) || candidate.getExtensions().contains(key)) {
+                try {
+                    Language.validate(candidate);
+                    return candidate;
+                } catch (LinkageError ignored) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /*
+     * The ranges of a node, excluding those of its children
+     * unless they are to be included in the injection.
+     */
+    private static List<Range> ranges(Node node, boolean includeChildren) {
+        if (includeChildren || node.getChildCount() == 0) return List.of(new Range(node));
+        List<Range> ranges = new ArrayList<>();
+        int startByte = node.getStartByte();
+        Point startPoint = node.getStartPoint();
+        for (Node child: node.getChildren()) {
+            if (child.getStartByte() > startByte) ranges.add(range(startByte, startPoint, child));
+            startByte = child.getEndByte();
+            startPoint = child.getEndPoint();
+        }
+        if (node.getEndByte() > startByte) {
+            ranges.add(Range.builder()
+                    .startByte(startByte)
+                    .startPoint(startPoint)
+                    .endByte(node.getEndByte())
+                    .endPoint(node.getEndPoint())
+                    .build());
+        }
+        return ranges;
+    }
+
+    private static Range range(int startByte, Point startPoint, Node until) {
+        return Range.builder()
+                .startByte(startByte)
+                .startPoint(startPoint)
+                .endByte(until.getStartByte())
+                .endPoint(until.getStartPoint())
+                .build();
+    }
+
+    /*
+     * Restricts ranges to those of the parent layer,
+     * so that nested injections never include text
+     * that was excluded from the layer they came from.
+     */
+    private static List<Range> intersect(List<Range> ranges, List<Range> bounds) {
+        if (bounds.isEmpty()) return ranges;
+        List<Range> result = new ArrayList<>();
+        for (Range range: ranges) {
+            for (Range bound: bounds) {
+                if (bound.getEndByte() <= range.getStartByte()) continue;
+                if (bound.getStartByte() >= range.getEndByte()) break;
+                boolean startsWithin = range.getStartByte() >= bound.getStartByte();
+                boolean endsWithin = range.getEndByte() <= bound.getEndByte();
+                result.add(Range.builder()
+                        .startByte(startsWithin ? range.getStartByte() : bound.getStartByte())
+                        .startPoint(startsWithin ? range.getStartPoint() : bound.getStartPoint())
+                        .endByte(endsWithin ? range.getEndByte() : bound.getEndByte())
+                        .endPoint(endsWithin ? range.getEndPoint() : bound.getEndPoint())
+                        .build());
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Orders the ranges of combined injections,
+     * dropping those that overlap preceding ones.
+     */
+    private static List<Range> disjoint(List<Range> ranges) {
+        List<Range> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparingInt(Range::getStartByte));
+        List<Range> result = new ArrayList<>(sorted.size());
+        int end = 0;
+        for (Range range: sorted) {
+            if (range.getStartByte() < end) continue;
+            result.add(range);
+            end = range.getEndByte();
+        }
+        return result;
+    }
+
+    /**
+     * Close the injection parser, releasing the injection queries,
+     * along with the parser pool if it is owned by the injection parser.
+     * Layered trees that were already produced are not affected.
+     */
+    @Override
+    public void close() {
+        injections.values().forEach(Query::close);
+        if (owned) pool.close();
+    }
+
+    @Override
+    @Generated
+    public String toString() {
+        return String.format("InjectionParser(language: %s, injections: %s)", language, injections.keySet());
+    }
+
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class Injection {
+
+        LayeredTree.Layer parent;
+        Language language;
+        List<Range> ranges;
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class Combination {
+
+        int pattern;
+        Language language;
+    }
+}
@@ -0,0 +1,208 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Source code supplied to tree-sitter in chunks, on demand.
+ * The native read callback invokes `read` with the byte offset
+ * requested by the lexer, after which the chunk is filled with
+ * the bytes starting at that offset. The same direct buffer is
+ * reused for every read, keeping the memory footprint bounded.
+ * I/O errors are retained and reported once parsing completes.
+ * Non-blocking channels may read nothing when no bytes are available
+ * yet, in which case reads are retried with an exponential backoff,
+ * until the channel is considered stalled.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+abstract class Input implements AutoCloseable {
+
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final int MAX_STALLS = 16;
+
+    @Getter
+    final Encoding encoding;
+
+    @Getter
+    final ByteBuffer chunk;
+
+    @Getter
+    IOException failure;
+
+    protected Input(Encoding encoding) {
+        this.encoding = encoding;
+        this.chunk = ByteBuffer.allocateDirect(CHUNK_SIZE);
+    }
+
+    static Input of(@NotNull ReadableByteChannel channel, @NotNull Encoding encoding) throws IOException {
+        return channel instanceof SeekableByteChannel
+                ? new SeekableInput((SeekableByteChannel) channel, encoding)
+                : new SequentialInput(channel, encoding);
+    }
+
+    static Input of(@NotNull PieceTable.Snapshot snapshot) {
+        return new SnapshotInput(snapshot);
+    }
+
+    @SuppressWarnings("unused")
+    final int read(long offset) {
+        if (failure != null) return 0;
+        try {
+            chunk.clear();
+            int width = encoding.getWidth();
+            int stalls = 0;
+            while (chunk.hasRemaining() && (chunk.position() == 0 || chunk.position() % width != 0)) {
+                int count = fill(offset + chunk.position(), chunk);
+                if (count < 0) break;
+                stalls = count > 0 ? 0 : stall(stalls + 1);
+            }
+            return chunk.position() - chunk.position() % width;
+        } catch (IOException ex) {
+            failure = ex;
+            return 0;
+        }
+    }
+
+    private static int stall(int stalls) throws IOException {
+        if (stalls > MAX_STALLS) throw new IOException("Channel made no progress after " + MAX_STALLS + " reads!");
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(1L << stalls));
+        return stalls;
+    }
+
+    /*
+     * Reads bytes starting at the given offset into the buffer,
+     * returning the number of bytes read, or -1 at the end of input.
+     * Zero is returned if no bytes could be read at the moment.
+     */
+    protected abstract int fill(long offset, ByteBuffer buffer) throws IOException;
+
+    @Override
+    public void close() throws IOException {
+    }
+
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class SeekableInput extends Input {
+
+        SeekableByteChannel channel;
+        long start;
+
+        private SeekableInput(SeekableByteChannel channel, Encoding encoding) throws IOException {
+            super(encoding);
+            this.channel = channel;
+            this.start = channel.position();
+        }
+
+        @Override
+        protected int fill(long offset, ByteBuffer buffer) throws IOException {
+            channel.position(start + offset);
+            return channel.read(buffer);
+        }
+    }
+
+    /*
+     * Text held in memory is encoded to UTF-16 one chunk at a time,
+     * so that the text as a whole is never copied into a single array.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class SnapshotInput extends Input {
+
+        PieceTable.Snapshot snapshot;
+        char[] chars = new char[CHUNK_SIZE / Character.BYTES];
+
+        private SnapshotInput(PieceTable.Snapshot snapshot) {
+            super(Encoding.UTF_16);
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        protected int fill(long offset, ByteBuffer buffer) {
+            long start = offset / Character.BYTES;
+            if (start >= snapshot.length()) return -1;
+            int count = (int) Math.min(buffer.remaining() / Character.BYTES, snapshot.length() - start);
+            snapshot.getChars((int) start, (int) start + count, chars, 0);
+            buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asCharBuffer().put(chars, 0, count);
+            buffer.position(buffer.position() + count * Character.BYTES);
+            return count * Character.BYTES;
+        }
+    }
+
+    /*
+     * Sequential channels can not be rewound, yet the lexer may request
+     * previously read offsets. Consumed bytes are thus spooled to a
+     * temporary file, which serves all the reads that fall behind.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    private static final class SequentialInput extends Input {
+
+        final ReadableByteChannel channel;
+        final Path path;
+        final FileChannel spool;
+        long consumed;
+        boolean exhausted;
+
+        private SequentialInput(ReadableByteChannel channel, Encoding encoding) throws IOException {
+            super(encoding);
+            this.channel = channel;
+            this.path = Files.createTempFile("tree-sitter-", ".spool");
+            this.spool = FileChannel.open(
+                    path,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE
+            );
+        }
+
+        @Override
+        protected int fill(long offset, ByteBuffer buffer) throws IOException {
+            while (offset > consumed) {
+                int count = pull(buffer.duplicate());
+                if (count <= 0) return count;
+            }
+            if (offset < consumed) {
+                int limit = buffer.limit();
+                long available = consumed - offset;
+                if (available < buffer.remaining()) buffer.limit(buffer.position() + (int) available);
+                int count = spool.read(buffer, offset);
+                buffer.limit(limit);
+                return count;
+            }
+            return (offset == consumed) ? pull(buffer) : -1;
+        }
+
+        private int pull(ByteBuffer buffer) throws IOException {
+            if (exhausted) return -1;
+            int position = buffer.position();
+            int count = channel.read(buffer);
+            if (count < 0) {
+                exhausted = true;
+                return -1;
+            }
+            ByteBuffer spooled = buffer.duplicate().position(position).limit(position + count);
+            while (spooled.hasRemaining()) {
+                consumed += spool.write(spooled, consumed);
+            }
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            spool.close();
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -4,6 +4,11 @@ import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Represents an edit operation on a section of source code.
@@ -24,4 +29,148 @@ public class InputEdit {
     Point startPoint;
     Point oldEndPoint;
     Point newEndPoint;
+
+    private static final String NULL_SOURCE = "Source must not be null!";
+    private static final String NULL_ENCODING = "Encoding must not be null!";
+    private static final String NULL_EDIT = "Input edit must not be null!";
+    private static final String NULL_EDITS = "Input edits must not be null!";
+
+    /**
+     * Compute the edits that transform one version of source code into another.
+     * The offsets and positions of the edits are expressed in the units of
+     * {@link Encoding#UTF_16 UTF-16}, which matches the trees obtained by
+     * {@link Parser#parse(String) parsing strings}.
+     *
+     * @param oldSource the source code before the changes were made
+     * @param newSource the source code after the changes were made
+     * @return the edits ordered by position, each expressed in
+     * the coordinates resulting from applying the preceding ones
+     * @throws NullPointerException if either argument is {@code null}
+     * @since 1.13.0
+     * @see #diff(String, String, Encoding)
+     */
+    public static List<InputEdit> diff(@NotNull String oldSource, @NotNull String newSource) {
+        return diff(oldSource, newSource, Encoding.UTF_16);
+    }
+
+    /**
+     * Compute the edits that transform one version of source code into another.
+     * Common leading and trailing text is skipped, while the remaining text is
+     * compared using the Myers difference algorithm, yielding a minimal number
+     * of edits for changes spread across multiple locations. For very large
+     * differences the changed region is reported as a single edit instead.
+     * <p>
+     * The edits are ordered by position, with each one expressed in the coordinates
+     * of the source code that results from applying all the preceding edits.
+     * As such, they can be passed to {@link Tree#edit(InputEdit)} in sequence.
+     *
+     * @param oldSource the source code before the changes were made
+     * @param newSource the source code after the changes were made
+     * @param encoding the encoding whose units are used for offsets and positions
+     * @return the edits ordered by position, each expressed in
+     * the coordinates resulting from applying the preceding ones
+     * @throws NullPointerException if any of the arguments is {@code null}
+     * @since 1.13.0
+     * @see Tree#editTo(String)
+     */
+    public static List<InputEdit> diff(
+            @NotNull String oldSource, @NotNull String newSource, @NotNull Encoding encoding
+    ) {
+        Objects.requireNonNull(oldSource, NULL_SOURCE);
+        Objects.requireNonNull(newSource, NULL_SOURCE);
+        Objects.requireNonNull(encoding, NULL_ENCODING);
+        return SourceDiff.diff(oldSource, newSource, encoding);
+    }
+
+    /**
+     * Merge adjacent and overlapping edits from a sequence of edits.
+     * Each edit is expected to be expressed in the coordinates resulting from
+     * applying all the preceding edits, as is the case for consecutive keystrokes
+     * or the results of {@link #diff(String, String, Encoding)}. Whenever an edit
+     * touches the region written by the edit before it, the two are replaced by a
+     * single edit spanning both. The result describes the same change to the
+     * source code, and can be applied using {@link Tree#editAll(List)}, but with
+     * fewer edits for the tree to process.
+     *
+     * @param edits the edits to coalesce, in the order in which they were made
+     * @return a new list containing the coalesced edits, in the same order
+     * @throws NullPointerException if the list is {@code null} or contains {@code null} elements
+     * @since 1.13.0
+     */
+    public static List<InputEdit> coalesce(@NotNull List<@NotNull InputEdit> edits) {
+        Objects.requireNonNull(edits, NULL_EDITS);
+        List<InputEdit> coalesced = new ArrayList<>(edits.size());
+        for (InputEdit edit: edits) {
+            Objects.requireNonNull(edit, NULL_EDIT);
+            int last = coalesced.size() - 1;
+            if (last >= 0 && coalesced.get(last).touches(edit)) {
+                coalesced.set(last, coalesced.get(last).merge(edit));
+            } else {
+                coalesced.add(edit);
+            }
+        }
+        return coalesced;
+    }
+
+    private boolean touches(InputEdit next) {
+        return next.startByte <= newEndByte && next.oldEndByte >= startByte;
+    }
+
+    /*
+     * The start of the merged edit is the lesser of the two, as the
+     * text before this edit was not moved by it. The old end is taken
+     * from the next edit if it extends past what this one wrote, in
+     * which case it is mapped back to the coordinates before this edit.
+     * Conversely, the new end is taken from this edit if it extends past
+     * what the next one removed, mapping it forward through the next edit.
+     */
+    private InputEdit merge(InputEdit next) {
+        boolean nextStarts = next.startByte < startByte;
+        boolean nextRemoves = next.oldEndByte >= newEndByte;
+        boolean thisWrites = newEndByte > next.oldEndByte;
+        return new InputEdit(
+                nextStarts ? next.startByte : startByte,
+                nextRemoves ? next.oldEndByte - newEndByte + oldEndByte : oldEndByte,
+                thisWrites ? newEndByte - next.oldEndByte + next.newEndByte : next.newEndByte,
+                nextStarts ? next.startPoint : startPoint,
+                nextRemoves ? shift(next.oldEndPoint, newEndPoint, oldEndPoint) : oldEndPoint,
+                thisWrites ? shift(newEndPoint, next.oldEndPoint, next.newEndPoint) : next.newEndPoint
+        );
+    }
+
+    /*
+     * Adjusts a range to account for this edit, in the same way
+     * that tree-sitter adjusts the included ranges of edited trees.
+     * Range bounds within the replaced text collapse to its start.
+     */
+    Range edit(Range range) {
+        return Range.builder()
+                .startByte(edit(range.getStartByte()))
+                .endByte(edit(range.getEndByte()))
+                .startPoint(edit(range.getStartByte(), range.getStartPoint()))
+                .endPoint(edit(range.getEndByte(), range.getEndPoint()))
+                .build();
+    }
+
+    private int edit(int offset) {
+        if (offset >= oldEndByte) return offset - oldEndByte + newEndByte;
+        return Math.min(offset, startByte);
+    }
+
+    private Point edit(int offset, Point point) {
+        if (offset >= oldEndByte) return shift(point, oldEndPoint, newEndPoint);
+        return offset > startByte ? startPoint : point;
+    }
+
+    /*
+     * Moves a point located at or after the end of an edit, from
+     * the coordinates on one side of the edit to those on the other.
+     */
+    private static Point shift(Point point, Point from, Point to) {
+        if (point.getRow() == from.getRow()) {
+            return new Point(to.getRow(), to.getColumn() + point.getColumn() - from.getColumn());
+        } else {
+            return new Point(to.getRow() + point.getRow() - from.getRow(), point.getColumn());
+        }
+    }
 }
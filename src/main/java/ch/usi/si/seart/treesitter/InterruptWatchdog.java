@@ -0,0 +1,61 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Translates thread interrupts into parse cancellations.
+ * Interrupting a thread has no effect on the native code that it runs,
+ * so threads register the handle of their parser for the duration of
+ * parsing, while a single daemon polls their interrupt status. The
+ * daemon remains parked for as long as there are no registrations.
+ */
+@UtilityClass
+class InterruptWatchdog {
+
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private static final Map<ParseHandle, Thread> watched = new ConcurrentHashMap<>();
+
+    private static final Thread daemon = start();
+
+    private static Thread start() {
+        Thread thread = new Thread(InterruptWatchdog::run, "tree-sitter-interrupt-watchdog");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    void watch(ParseHandle handle, Thread thread) {
+        if (thread.isInterrupted()) handle.cancel();
+        watched.put(handle, thread);
+        LockSupport.unpark(daemon);
+    }
+
+    void unwatch(ParseHandle handle) {
+        watched.remove(handle);
+    }
+
+    @SuppressWarnings("InfiniteLoopStatement")
+    private void run() {
+        while (true) {
+            if (watched.isEmpty()) {
+                LockSupport.park(InterruptWatchdog.class);
+                continue;
+            }
+            // Computing under the key lock ensures that
+            // no handle is cancelled after its unregistration
+            for (ParseHandle handle: watched.keySet()) {
+                watched.computeIfPresent(handle, (key, thread) -> {
+                    if (thread.isInterrupted()) key.cancel();
+                    return thread;
+                });
+            }
+            LockSupport.parkNanos(InterruptWatchdog.class, INTERVAL);
+        }
+    }
+}
@@ -651,6 +651,8 @@ public enum Language {
 
     private static final long INVALID = 0L;
 
+    private static final int ERROR_SYMBOL = 65_535;
+
     private static final Properties LANGUAGE_PROPERTIES = new Properties();
 
     static {
@@ -690,6 +692,14 @@ public enum Language {
         this.extensions = extensions;
     }
 
+    /*
+     * Unlike the symbols list, also resolves the built-in ERROR symbol,
+     * whose identifier lies outside the range of the language's own symbols
+     */
+    Symbol getSymbol(int symbolId) {
+        return symbolId == ERROR_SYMBOL ? symbol(id, symbolId) : symbols.get(symbolId);
+    }
+
     /**
      * Create a lookahead iterator, beginning from a specific parse state.
      *
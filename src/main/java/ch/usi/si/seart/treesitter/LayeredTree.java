@@ -0,0 +1,227 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Generated;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * A composite syntax tree of source code that embeds multiple languages.
+ * The tree consists of {@link Layer layers}, each of which is an ordinary {@link Tree},
+ * obtained by parsing the source code with a {@link Parser#setIncludedRanges(List) restricted}
+ * set of ranges. The root layer covers the source code as a whole, while each of the remaining
+ * layers covers the regions injected into its parent layer, such as the scripts of an HTML page.
+ * All layers share the same source code, and as such the same coordinates.
+ * <p>
+ * Layered trees are produced by the {@link InjectionParser}, and own all of their layers,
+ * which are closed along with the tree itself.
+ *
+ * @since 1.13.0
+ * @author Ozren Dabić
+ * @see InjectionParser
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LayeredTree implements AutoCloseable, Iterable<LayeredTree.Layer> {
+
+    private static final String NULL_EDIT = "Input edit must not be null!";
+    private static final String NULL_QUERY = "Query must not be null!";
+    private static final String NULL_LANGUAGE = "Language must not be null!";
+
+    /**
+     * The source code shared by all the layers.
+     */
+    @Getter
+    String source;
+
+    List<Layer> layers;
+
+    LayeredTree(String source, List<Layer> layers) {
+        this.source = source;
+        this.layers = Collections.unmodifiableList(layers);
+    }
+
+    /**
+     * Get the layer spanning the entire source code.
+     *
+     * @return the root layer
+     */
+    public Layer getRoot() {
+        return layers.get(0);
+    }
+
+    /**
+     * Get all the layers of this tree.
+     * Layers are ordered by depth, with the layers of
+     * the same depth ordered by their position in the source.
+     *
+     * @return an unmodifiable list of layers, starting with the root
+     */
+    public List<Layer> getLayers() {
+        return layers;
+    }
+
+    /**
+     * Get all the layers of a specific language.
+     *
+     * @param language the language of the layers
+     * @return the layers of the language, in the same order as {@link #getLayers()}
+     * @throws NullPointerException if the language is {@code null}
+     */
+    public List<Layer> getLayers(@NotNull Language language) {
+        Objects.requireNonNull(language, NULL_LANGUAGE);
+        return layers.stream()
+                .filter(layer -> layer.language == language)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Get the innermost layer that includes the given offset.
+     *
+     * @param offset the offset in the source code
+     * @return the deepest layer whose ranges contain the offset,
+     * or the root layer if none of the injected layers do
+     */
+    public Layer getLayerAt(int offset) {
+        Layer result = getRoot();
+        for (Layer layer: layers) {
+            if (layer.depth >= result.depth && layer.contains(offset)) result = layer;
+        }
+        return result;
+    }
+
+    /**
+     * Get the smallest node that spans the given offset,
+     * taken from the innermost layer that includes it.
+     *
+     * @param offset the offset in the source code
+     * @return the node at the offset
+     * @see #getLayerAt(int)
+     * @see Node#getDescendant(int, int)
+     */
+    public Node getNodeAt(int offset) {
+        Node root = getLayerAt(offset).tree.getRootNode();
+        boolean within = root.getStartByte() <= offset && offset <= root.getEndByte();
+        return within ? root.getDescendant(offset, offset) : root;
+    }
+
+    /**
+     * Run a query against all the layers of the query language.
+     *
+     * @param query the query to run
+     * @return the matches of all the layers, in the same order as {@link #getLayers()}
+     * @throws NullPointerException if the query is {@code null}
+     */
+    public List<QueryMatch> query(@NotNull Query query) {
+        Objects.requireNonNull(query, NULL_QUERY);
+        List<QueryMatch> matches = new ArrayList<>();
+        for (Layer layer: getLayers(query.getLanguage())) {
+            try (QueryCursor cursor = layer.tree.getRootNode().walk(query)) {
+                for (QueryMatch match: cursor) matches.add(match);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Edit all the layers of the tree to keep them in sync with the source code.
+     * The edited tree can then be passed to {@link InjectionParser#parse(String, LayeredTree)},
+     * which reuses the unchanged parts of its layers.
+     *
+     * @param edit the change made to the source code
+     * @throws NullPointerException if the edit is {@code null}
+     * @see Tree#edit(InputEdit)
+     */
+    public void edit(@NotNull InputEdit edit) {
+        Objects.requireNonNull(edit, NULL_EDIT);
+        for (Layer layer: layers) {
+            layer.tree.edit(edit);
+            layer.ranges = layer.ranges.stream()
+                    .map(edit::edit)
+                    .collect(Collectors.toUnmodifiableList());
+        }
+    }
+
+    @Override
+    public @NotNull Iterator<Layer> iterator() {
+        return layers.iterator();
+    }
+
+    /**
+     * Close the trees of all the layers.
+     */
+    @Override
+    public void close() {
+        for (Layer layer: layers) layer.tree.close();
+    }
+
+    @Override
+    @Generated
+    public String toString() {
+        return String.format("LayeredTree(layers: %d)", layers.size());
+    }
+
+    /**
+     * A single language layer of a {@link LayeredTree}.
+     *
+     * @since 1.13.0
+     * @author Ozren Dabić
+     */
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PACKAGE)
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    public static final class Layer {
+
+        /**
+         * The layer into which this layer was injected,
+         * {@code null} in the case of the root layer.
+         */
+        Layer parent;
+
+        /**
+         * The language of the layer.
+         */
+        Language language;
+
+        /**
+         * The syntax tree of the layer.
+         * The tree is owned by the layered tree, and should not be closed.
+         */
+        Tree tree;
+
+        /**
+         * The ranges of source code included in the layer,
+         * empty if the layer covers the entire source code.
+         */
+        @NonFinal
+        List<Range> ranges;
+
+        /**
+         * The nesting depth of the layer, 0 for the root layer.
+         */
+        int depth;
+
+        private boolean contains(int offset) {
+            if (ranges.isEmpty()) return true;
+            for (Range range: ranges) {
+                if (range.getStartByte() <= offset && offset < range.getEndByte()) return true;
+            }
+            return false;
+        }
+
+        @Override
+        @Generated
+        public String toString() {
+            return String.format("Layer(language: %s, depth: %d, ranges: %s)", language, depth, ranges);
+        }
+    }
+}
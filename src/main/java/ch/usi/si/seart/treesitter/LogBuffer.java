@@ -0,0 +1,289 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Generated;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An off-heap ring buffer that records the debugging information written by a {@link Parser}.
+ * Unlike a {@link Parser#setLogger(Logger) logger}, which is called from native code for each
+ * message, the buffer is written to natively, and is only read once parsing has completed.
+ * Messages are recorded in entries of fixed size, and are truncated to fit them. Once the
+ * buffer is full, the oldest entries are overwritten, and are counted as dropped.
+ * <p>
+ * Recording can be limited to a subset of the {@link Type types} of messages, as well as
+ * to a sample of the parses, in which case {@code tree-sitter} does not produce messages
+ * for the remaining parses at all. If a target logger is configured, all entries are
+ * forwarded to it after each parse, using the same markers as the parser loggers.
+ * Otherwise, the entries are retained until they are {@link #drain() drained}.
+ * <p>
+ * The buffer is not thread-safe, and should not be shared between parsers that are used concurrently.
+ *
+ * @since 1.13.0
+ * @author Ozren Dabić
+ * @see Parser#setLogBuffer(LogBuffer)
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class LogBuffer {
+
+    private static final String NULL_TYPES = "Types must not be null!";
+    private static final String NULL_LOGGER = "Logger must not be null!";
+    private static final String NON_POSITIVE_CAPACITY = "Capacity must be positive!";
+    private static final String NON_POSITIVE_RATE = "Sampling rate must be positive!";
+
+    /*
+     * Must match the layout of LogBufferHeader,
+     * as well as the native size of each entry
+     */
+    private static final int COUNT_OFFSET = 0;
+    private static final int CAPACITY_OFFSET = Long.BYTES;
+    private static final int MASK_OFFSET = CAPACITY_OFFSET + Integer.BYTES;
+    private static final int ENABLED_OFFSET = MASK_OFFSET + Integer.BYTES;
+    private static final int HEADER_SIZE = ENABLED_OFFSET + 2 * Integer.BYTES;
+    private static final int ENTRY_SIZE = 256;
+    private static final int MESSAGE_OFFSET = 1 + Short.BYTES;
+
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    @Getter(AccessLevel.PACKAGE)
+    ByteBuffer buffer;
+
+    /**
+     * The maximum number of entries retained by the buffer.
+     */
+    @Getter
+    int capacity;
+
+    /**
+     * The sampling rate, with one in this many parses being recorded.
+     */
+    @Getter
+    int rate;
+
+    Logger logger;
+
+    @NonFinal
+    long parses = 0;
+
+    @NonFinal
+    long drained = 0;
+
+    /**
+     * The number of entries that were overwritten before they could be drained.
+     */
+    @Getter
+    @NonFinal
+    long dropped = 0;
+
+    private LogBuffer(int capacity, int rate, Set<Type> types, Logger logger) {
+        this.buffer = ByteBuffer.allocateDirect(HEADER_SIZE + capacity * ENTRY_SIZE).order(ByteOrder.nativeOrder());
+        this.capacity = capacity;
+        this.rate = rate;
+        this.logger = logger;
+        int mask = 0;
+        for (Type type: types) mask |= 1 << type.ordinal();
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        buffer.putInt(MASK_OFFSET, mask);
+    }
+
+    /**
+     * Obtain a new {@link Builder Builder} for constructing a log buffer.
+     *
+     * @return a new log buffer builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Facilitates the construction of {@link LogBuffer} instances.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static final class Builder {
+
+        int capacity = DEFAULT_CAPACITY;
+        int rate = 1;
+        Set<Type> types = EnumSet.allOf(Type.class);
+        Logger logger = null;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximum number of entries retained by the buffer.
+         * Each entry occupies 256 bytes of native memory.
+         * Defaults to 4096 entries.
+         *
+         * @param capacity the number of entries
+         * @return this builder
+         * @throws IllegalArgumentException if the capacity is not positive
+         */
+        public Builder capacity(int capacity) {
+            if (capacity < 1) throw new IllegalArgumentException(NON_POSITIVE_CAPACITY);
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * Sets the sampling rate, so that only one in every {@code rate} parses is recorded.
+         * All parses are recorded by default.
+         *
+         * @param rate the sampling rate
+         * @return this builder
+         * @throws IllegalArgumentException if the rate is not positive
+         */
+        public Builder sample(int rate) {
+            if (rate < 1) throw new IllegalArgumentException(NON_POSITIVE_RATE);
+            this.rate = rate;
+            return this;
+        }
+
+        /**
+         * Sets the types of messages that are recorded.
+         * All types are recorded by default.
+         *
+         * @param types the recorded message types
+         * @return this builder
+         * @throws NullPointerException if the types or any of their elements are {@code null}
+         */
+        public Builder types(@NotNull Type... types) {
+            Objects.requireNonNull(types, NULL_TYPES);
+            Set<Type> set = EnumSet.noneOf(Type.class);
+            for (Type type: types) set.add(Objects.requireNonNull(type, NULL_TYPES));
+            this.types = set;
+            return this;
+        }
+
+        /**
+         * Sets the logger to which the recorded entries are forwarded after each parse.
+         * Entries are written at the {@code DEBUG} level, with a {@link Marker Marker}
+         * corresponding to their type.
+         *
+         * @param logger the target logger
+         * @return this builder
+         * @throws NullPointerException if the logger is {@code null}
+         */
+        public Builder logger(@NotNull Logger logger) {
+            Objects.requireNonNull(logger, NULL_LOGGER);
+            this.logger = logger;
+            return this;
+        }
+
+        /**
+         * Builds and returns a new log buffer instance with the configured settings.
+         *
+         * @return a new log buffer instance
+         */
+        public LogBuffer build() {
+            return new LogBuffer(capacity, rate, types, logger);
+        }
+    }
+
+    /*
+     * Invoked before each parse, deciding whether it is sampled
+     */
+    void begin() {
+        boolean enabled = parses++ % rate == 0;
+        buffer.putInt(ENABLED_OFFSET, enabled ? 1 : 0);
+    }
+
+    /*
+     * Invoked after each parse, forwarding the entries if possible
+     */
+    void flush() {
+        if (logger == null) return;
+        for (Entry entry: drain()) {
+            Marker marker = MarkerFactory.getMarker(entry.type.name());
+            logger.debug(marker, entry.message);
+        }
+    }
+
+    /**
+     * Remove and return all the entries recorded since the last drain.
+     * Entries that were overwritten in the meantime are added to the {@link #getDropped() dropped} count.
+     *
+     * @return the recorded entries, from oldest to newest
+     */
+    public List<Entry> drain() {
+        long count = buffer.getLong(COUNT_OFFSET);
+        long first = Math.max(drained, count - capacity);
+        dropped += first - drained;
+        List<Entry> entries = new ArrayList<>((int) (count - first));
+        byte[] bytes = new byte[ENTRY_SIZE - MESSAGE_OFFSET];
+        ByteBuffer view = buffer.duplicate();
+        for (long i = first; i < count; i++) {
+            int offset = HEADER_SIZE + (int) (i % capacity) * ENTRY_SIZE;
+            Type type = Type.VALUES[buffer.get(offset)];
+            int length = Short.toUnsignedInt(buffer.getShort(offset + 1));
+            view.position(offset + MESSAGE_OFFSET);
+            view.get(bytes, 0, length);
+            entries.add(new Entry(type, new String(bytes, 0, length, StandardCharsets.UTF_8)));
+        }
+        drained = count;
+        return entries;
+    }
+
+    @Override
+    @Generated
+    public String toString() {
+        return String.format("LogBuffer(capacity: %d, rate: %d, dropped: %d)", capacity, rate, dropped);
+    }
+
+    /**
+     * The type of message written by the parser.
+     *
+     * @since 1.13.0
+     * @author Ozren Dabić
+     */
+    public enum Type {
+
+        /**
+         * Messages about the actions of the parser.
+         */
+        PARSE,
+
+        /**
+         * Messages about the actions of the lexer.
+         */
+        LEX;
+
+        private static final Type[] VALUES = values();
+    }
+
+    /**
+     * A single message recorded in the buffer.
+     *
+     * @since 1.13.0
+     * @author Ozren Dabić
+     */
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    public static final class Entry {
+
+        Type type;
+        String message;
+
+        @Override
+        @Generated
+        public String toString() {
+            return type + ": " + message;
+        }
+    }
+}
@@ -3,16 +3,18 @@ package ch.usi.si.seart.treesitter;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Generated;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayDeque;
-import java.util.Collections;
-import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A single node within a syntax {@link Tree}.
@@ -36,6 +38,7 @@ public class Node implements Iterable<Node> {
 
     long id;
 
+    @Getter(AccessLevel.PACKAGE)
     Tree tree;
 
     static class Null extends Node {
@@ -98,6 +101,20 @@ public class Node implements Iterable<Node> {
         return !isNull() ? tree.getSource(getStartByte(), getEndByte()) : null;
     }
 
+    /**
+     * Get a read-only view of the source code content encapsulated by this node.
+     * Unlike {@link #getContent()}, the returned sequence is not a copy
+     * wherever the underlying source allows it, making this method
+     * well-suited for inspecting the contents of many nodes in succession.
+     * The view is only valid for as long as the source code remains unchanged.
+     *
+     * @return the node's source code, or {@code null} if the node is null
+     * @since 1.13.0
+     */
+    public CharSequence getContentView() {
+        return !isNull() ? tree.getSourceView(getStartByte(), getEndByte()) : null;
+    }
+
     /**
      * Get the smallest node within this node that spans the given range of bytes.
      *
@@ -434,6 +451,40 @@ public class Node implements Iterable<Node> {
      */
     public native boolean hasError();
 
+    /**
+     * Get a snapshot of all the scalar properties of this node,
+     * obtained through a single native call.
+     *
+     * @return the node's properties
+     * @since 1.13.0
+     */
+    public NodeInfo info() {
+        int[] buffer = new int[NodeInfo.SIZE];
+        info(buffer, 0);
+        return new NodeInfo(tree != null ? tree.getLanguage() : null, buffer);
+    }
+
+    /**
+     * Write all the scalar properties of this node into an array,
+     * through a single native call, and without allocating any objects.
+     * The properties are written to {@link NodeInfo#SIZE} consecutive elements,
+     * starting from the given offset, in the order specified by the constants of {@link NodeInfo}.
+     *
+     * @param buffer the array to write to
+     * @param offset the index of the first element to write
+     * @throws NullPointerException if the array is {@code null}
+     * @throws IndexOutOfBoundsException if the array can not
+     * accommodate the properties at the given offset
+     * @since 1.13.0
+     */
+    public void info(@NotNull int[] buffer, int offset) {
+        Objects.requireNonNull(buffer, "Buffer must not be null!");
+        Objects.checkFromIndexSize(offset, NodeInfo.SIZE, buffer.length);
+        fill(buffer, offset);
+    }
+
+    private native void fill(int[] buffer, int offset);
+
     /**
      * Check if this node represents a syntax error.
      * Syntax errors represent parts of the code that
@@ -525,31 +576,57 @@ public class Node implements Iterable<Node> {
         return String.format("Node(id: %d, tree: %s)", id, tree);
     }
 
+    Node withTree(Tree tree) {
+        return new Node(context0, context1, context2, context3, id, tree);
+    }
+
     /**
      * Create an iterator over the current node's subtree.
-     * The subtree is traversed in a depth-first manner.
-     * First iterator element is always the current node.
+     * The subtree is traversed in preorder, using a {@link TreeCursor},
+     * with the first iterator element always being the current node.
      *
      * @return the subtree iterator
      */
     @Override
     public @NotNull Iterator<Node> iterator() {
-        return new Iterator<>() {
-
-            private final Deque<Node> stack = new ArrayDeque<>(Collections.singletonList(Node.this));
-
-            @Override
-            public boolean hasNext() {
-                return !stack.isEmpty();
-            }
-
-            @Override
-            public Node next() {
-                if (!hasNext()) throw new NoSuchElementException();
-                Node node = stack.pop();
-                stack.addAll(node.getChildren());
-                return node;
-            }
-        };
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * Create a spliterator over the current node's subtree.
+     * The elements are encountered in the same order as those of {@link #iterator()}.
+     *
+     * @return the subtree spliterator
+     * @since 1.13.0
+     * @see #stream()
+     */
+    @Override
+    public Spliterator<Node> spliterator() {
+        return new NodeSpliterator(this);
+    }
+
+    /**
+     * Create a sequential stream over the current node's subtree,
+     * with the nodes appearing in the same order as those of {@link #iterator()}.
+     * <p>
+     * The stream can be made {@link Stream#parallel() parallel}, in which case the subtree
+     * is split at its larger descendants, and each portion is traversed on a separate
+     * {@link Tree#clone() clone} of the tree. The streamed nodes, however, always belong to the original tree.
+     * Clones are released as soon as their portion has been traversed, or otherwise when the stream is closed.
+     * <p>
+     * Usage example:
+     * <pre>{@code
+     * long identifiers = node.stream()
+     *         .parallel()
+     *         .filter(descendant -> descendant.getType().equals("identifier"))
+     *         .count();
+     * }</pre>
+     *
+     * @return the subtree stream
+     * @since 1.13.0
+     */
+    public Stream<Node> stream() {
+        NodeSpliterator spliterator = new NodeSpliterator(this);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
     }
 }
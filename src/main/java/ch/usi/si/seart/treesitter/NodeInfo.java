@@ -0,0 +1,246 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.AccessLevel;
+import lombok.Generated;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * A snapshot of all the scalar properties of a {@link Node}, obtained through a single native call.
+ * Reading each property from the node separately requires a native call per property,
+ * as well as new {@link Point} and {@link String} instances for the positions and the type.
+ * Instead, the snapshot stores the positions as primitives, and the type as a symbol identifier,
+ * which is resolved against the {@link Language#getSymbols() symbols} of the language on demand.
+ * <p>
+ * For loops where even the snapshot allocation matters, {@link Node#info(int[], int)}
+ * writes the same properties into an array, at the positions described by the constants of this class.
+ *
+ * @since 1.13.0
+ * @author Ozren Dabić
+ * @see Node#info()
+ */
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class NodeInfo {
+
+    /**
+     * The array position of the {@link #getSymbolId() symbol identifier}.
+     */
+    public static final int SYMBOL = 0;
+
+    /**
+     * The array position of the {@link #getStartByte() start byte}.
+     */
+    public static final int START_BYTE = 1;
+
+    /**
+     * The array position of the {@link #getEndByte() end byte}.
+     */
+    public static final int END_BYTE = 2;
+
+    /**
+     * The array position of the {@link #getStartRow() start row}.
+     */
+    public static final int START_ROW = 3;
+
+    /**
+     * The array position of the {@link #getStartColumn() start column}.
+     */
+    public static final int START_COLUMN = 4;
+
+    /**
+     * The array position of the {@link #getEndRow() end row}.
+     */
+    public static final int END_ROW = 5;
+
+    /**
+     * The array position of the {@link #getEndColumn() end column}.
+     */
+    public static final int END_COLUMN = 6;
+
+    /**
+     * The array position of the flags, a bitwise combination of
+     * {@link #NAMED}, {@link #HAS_ERROR}, {@link #MISSING}, {@link #EXTRA} and {@link #ERROR}.
+     */
+    public static final int FLAGS = 7;
+
+    /**
+     * The number of array positions occupied by the properties of a single node.
+     */
+    public static final int SIZE = 8;
+
+    /**
+     * Flag set if the node {@link Node#isNamed() is named}.
+     */
+    public static final int NAMED = 1;
+
+    /**
+     * Flag set if the node {@link Node#hasError() has errors}.
+     */
+    public static final int HAS_ERROR = 2;
+
+    /**
+     * Flag set if the node {@link Node#isMissing() is missing}.
+     */
+    public static final int MISSING = 4;
+
+    /**
+     * Flag set if the node {@link Node#isExtra() is extra}.
+     */
+    public static final int EXTRA = 8;
+
+    /**
+     * Flag set if the node {@link Node#isError() is an error}.
+     */
+    public static final int ERROR = 16;
+
+    /**
+     * The language of the node, {@code null} for the null node.
+     */
+    Language language;
+
+    /**
+     * The numerical identifier of the node's symbol.
+     * For {@code ERROR} nodes this is the identifier of the built-in error symbol,
+     * which does not appear among the {@link Language#getSymbols() symbols} of the language.
+     */
+    int symbolId;
+
+    /**
+     * The byte offset where the node starts.
+     */
+    int startByte;
+
+    /**
+     * The byte offset where the node ends.
+     */
+    int endByte;
+
+    /**
+     * The row where the node starts.
+     */
+    int startRow;
+
+    /**
+     * The column where the node starts.
+     */
+    int startColumn;
+
+    /**
+     * The row where the node ends.
+     */
+    int endRow;
+
+    /**
+     * The column where the node ends.
+     */
+    int endColumn;
+
+    @Getter(AccessLevel.NONE)
+    int flags;
+
+    NodeInfo(Language language, int[] buffer) {
+        this.language = language;
+        this.symbolId = buffer[SYMBOL];
+        this.startByte = buffer[START_BYTE];
+        this.endByte = buffer[END_BYTE];
+        this.startRow = buffer[START_ROW];
+        this.startColumn = buffer[START_COLUMN];
+        this.endRow = buffer[END_ROW];
+        this.endColumn = buffer[END_COLUMN];
+        this.flags = buffer[FLAGS];
+    }
+
+    /**
+     * Get the {@link Symbol} of the node.
+     *
+     * @return the node's symbol, {@code null} for the null node
+     */
+    public Symbol getSymbol() {
+        return language != null ? language.getSymbol(symbolId) : null;
+    }
+
+    /**
+     * Get the type of the node.
+     *
+     * @return the node's type, {@code null} for the null node
+     */
+    public String getType() {
+        Symbol symbol = getSymbol();
+        return symbol != null ? symbol.getName() : null;
+    }
+
+    /**
+     * Get the position where the node starts.
+     *
+     * @return the node's start point
+     */
+    public Point getStartPoint() {
+        return new Point(startRow, startColumn);
+    }
+
+    /**
+     * Get the position where the node ends.
+     *
+     * @return the node's end point
+     */
+    public Point getEndPoint() {
+        return new Point(endRow, endColumn);
+    }
+
+    /**
+     * Check if the node is named.
+     *
+     * @return true if the node is named
+     */
+    public boolean isNamed() {
+        return (flags & NAMED) != 0;
+    }
+
+    /**
+     * Check if the node has any syntax errors within it.
+     *
+     * @return true if the node contains {@code ERROR} or {@code MISSING} nodes
+     */
+    public boolean hasError() {
+        return (flags & HAS_ERROR) != 0;
+    }
+
+    /**
+     * Check if the node was inserted by the parser to recover from certain kinds of syntax errors.
+     *
+     * @return true if the node is {@code MISSING}
+     */
+    public boolean isMissing() {
+        return (flags & MISSING) != 0;
+    }
+
+    /**
+     * Check if the node is extra, such as a comment.
+     *
+     * @return true if the node is extra
+     */
+    public boolean isExtra() {
+        return (flags & EXTRA) != 0;
+    }
+
+    /**
+     * Check if the node is a syntax error.
+     *
+     * @return true if the node is an {@code ERROR} node
+     */
+    public boolean isError() {
+        return (flags & ERROR) != 0;
+    }
+
+    @Override
+    @Generated
+    public String toString() {
+        return String.format(
+                "NodeInfo(type: %s, startByte: %d, endByte: %d, startPoint: %d:%d, endPoint: %d:%d, "
+                + "named: %s, hasError: %s, missing: %s, extra: %s, error: %s)",
+                getType(), startByte, endByte, startRow, startColumn, endRow, endColumn,
+                isNamed(), hasError(), isMissing(), isExtra(), isError()
+        );
+    }
+}
@@ -0,0 +1,297 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.AccessLevel;
+import lombok.Generated;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * A reusable, mutable handle to a single node within a syntax {@link Tree}.
+ * Unlike {@link Node}, whose navigation methods return a new instance for each visited node,
+ * the navigation methods of this class move the handle itself, and report whether they succeeded.
+ * This makes it possible to traverse trees of any size without allocating on the heap:
+ * <pre>{@code
+ * NodeRef ref = new NodeRef(tree.getRootNode());
+ * if (ref.gotoFirstChild()) {
+ *     do {
+ *         if (ref.isNamed()) count++;
+ *     } while (ref.gotoNextSibling());
+ * }
+ * }</pre>
+ * Should a {@code Node} instance be needed, for example to keep a reference to
+ * the current position, or to access properties not exposed by this class,
+ * it can be obtained through {@link #toNode()}.
+ * <p>
+ * Instances are not thread-safe, and are only valid for as long as their tree is not closed.
+ *
+ * @since 1.13.0
+ * @author Ozren Dabić
+ * @see Node
+ * @see TreeCursor
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public final class NodeRef {
+
+    int context0;
+    int context1;
+    int context2;
+    int context3;
+
+    long id;
+
+    Tree tree;
+
+    private NodeRef() {
+    }
+
+    /**
+     * Create a new handle positioned at the given node.
+     *
+     * @param node the initial node
+     * @throws NullPointerException if the node is {@code null}
+     */
+    public NodeRef(@NotNull Node node) {
+        set(node);
+    }
+
+    /**
+     * Move this handle to the given node.
+     *
+     * @param node the node
+     * @return this handle
+     * @throws NullPointerException if the node is {@code null}
+     */
+    public NodeRef set(@NotNull Node node) {
+        Objects.requireNonNull(node, "Node must not be null!");
+        assign(node);
+        return this;
+    }
+
+    private native void assign(Node node);
+
+    /**
+     * Move this handle to the node of another handle.
+     *
+     * @param other the other handle
+     * @return this handle
+     * @throws NullPointerException if the other handle is {@code null}
+     */
+    public NodeRef set(@NotNull NodeRef other) {
+        Objects.requireNonNull(other, "Other handle must not be null!");
+        context0 = other.context0;
+        context1 = other.context1;
+        context2 = other.context2;
+        context3 = other.context3;
+        id = other.id;
+        tree = other.tree;
+        return this;
+    }
+
+    /**
+     * Create a new handle positioned at the same node as this one.
+     *
+     * @return a copy of this handle
+     */
+    public NodeRef copy() {
+        return new NodeRef().set(this);
+    }
+
+    /**
+     * Obtain a {@link Node} instance for the current position of this handle.
+     * The returned node is unaffected by subsequent movements of the handle.
+     *
+     * @return the node this handle is positioned at
+     */
+    public Node toNode() {
+        return new Node(context0, context1, context2, context3, id, tree);
+    }
+
+    /**
+     * Move this handle to the parent of its node.
+     *
+     * @return true if the handle moved, false if the node has no parent
+     */
+    public native boolean gotoParent();
+
+    /**
+     * Move this handle to the child of its node at the given index.
+     *
+     * @param child the zero-indexed child position
+     * @return true if the handle moved, false if there is no child at the index
+     */
+    public boolean gotoChild(int child) {
+        return gotoChild(child, false);
+    }
+
+    /**
+     * Move this handle to the <em>named</em> child of its node at the given index.
+     *
+     * @param child the zero-indexed named child position
+     * @return true if the handle moved, false if there is no named child at the index
+     */
+    public boolean gotoNamedChild(int child) {
+        return gotoChild(child, true);
+    }
+
+    private native boolean gotoChild(int child, boolean named);
+
+    /**
+     * Move this handle to the first child of its node.
+     *
+     * @return true if the handle moved, false if the node has no children
+     */
+    public boolean gotoFirstChild() {
+        return gotoChild(0, false);
+    }
+
+    /**
+     * Move this handle to the first <em>named</em> child of its node.
+     *
+     * @return true if the handle moved, false if the node has no named children
+     */
+    public boolean gotoFirstNamedChild() {
+        return gotoChild(0, true);
+    }
+
+    /**
+     * Move this handle to the next sibling of its node.
+     *
+     * @return true if the handle moved, false if there is no next sibling
+     */
+    public boolean gotoNextSibling() {
+        return gotoNextSibling(false);
+    }
+
+    /**
+     * Move this handle to the next <em>named</em> sibling of its node.
+     *
+     * @return true if the handle moved, false if there is no next named sibling
+     */
+    public boolean gotoNextNamedSibling() {
+        return gotoNextSibling(true);
+    }
+
+    private native boolean gotoNextSibling(boolean named);
+
+    /**
+     * Move this handle to the previous sibling of its node.
+     *
+     * @return true if the handle moved, false if there is no previous sibling
+     */
+    public boolean gotoPrevSibling() {
+        return gotoPrevSibling(false);
+    }
+
+    /**
+     * Move this handle to the previous <em>named</em> sibling of its node.
+     *
+     * @return true if the handle moved, false if there is no previous named sibling
+     */
+    public boolean gotoPrevNamedSibling() {
+        return gotoPrevSibling(true);
+    }
+
+    private native boolean gotoPrevSibling(boolean named);
+
+    /**
+     * Get the number of children of the current node.
+     *
+     * @return the count of the node's children
+     */
+    public int getChildCount() {
+        return getChildCount(false);
+    }
+
+    /**
+     * Get the number of <em>named</em> children of the current node.
+     *
+     * @return the count of the node's named children
+     */
+    public int getNamedChildCount() {
+        return getChildCount(true);
+    }
+
+    private native int getChildCount(boolean named);
+
+    /**
+     * Get the byte offset where the current node starts.
+     *
+     * @return the node's start byte
+     */
+    public native int getStartByte();
+
+    /**
+     * Get the byte offset where the current node ends.
+     *
+     * @return the node's end byte
+     */
+    public native int getEndByte();
+
+    /**
+     * Get the numerical identifier of the current node's {@link Symbol}.
+     * Unlike {@link Node#getSymbol()}, this does not allocate.
+     *
+     * @return the node's symbol identifier
+     * @see Symbol#getId()
+     */
+    public native int getSymbolId();
+
+    /**
+     * Get the current node's type as a string.
+     *
+     * @return the node's type
+     */
+    public native String getType();
+
+    /**
+     * Check if the current node has any syntax errors within it.
+     *
+     * @return true if the node contains {@code ERROR} or {@code MISSING} nodes
+     */
+    public native boolean hasError();
+
+    /**
+     * Check if the current node is a syntax error.
+     *
+     * @return true if the node is an {@code ERROR} node
+     */
+    public native boolean isError();
+
+    /**
+     * Check if the current node is extra, such as a comment.
+     *
+     * @return true if the node is extra
+     */
+    public native boolean isExtra();
+
+    /**
+     * Check if the current node was inserted by the parser to recover from certain kinds of syntax errors.
+     *
+     * @return true if the node is {@code MISSING}
+     */
+    public native boolean isMissing();
+
+    /**
+     * Check if the current node is named.
+     *
+     * @return true if the node is named
+     */
+    public native boolean isNamed();
+
+    /**
+     * Check if the handle is positioned at the null node.
+     *
+     * @return true if the node is null
+     */
+    public boolean isNull() {
+        return id == 0;
+    }
+
+    @Override
+    @Generated
+    public String toString() {
+        return String.format("NodeRef(id: %d)", id);
+    }
+}
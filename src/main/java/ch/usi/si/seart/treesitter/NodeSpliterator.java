@@ -0,0 +1,143 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.AccessLevel;
+import lombok.Generated;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/*
+ * Traverses a sequence of sibling subtrees in preorder, using a single TreeCursor per subtree.
+ * Splitting hands the first half of the remaining subtrees to a new instance,
+ * which walks them on its own clone of the tree, so that no two threads ever traverse the same
+ * tree instance. A lone subtree that is large enough is first split into its root and children.
+ * Regardless of the tree that was traversed, the produced nodes always belong to the original tree.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+final class NodeSpliterator implements Spliterator<Node>, AutoCloseable {
+
+    private static final int CHARACTERISTICS = ORDERED | DISTINCT | NONNULL | IMMUTABLE;
+
+    private static final int SPLIT_THRESHOLD = 1_024;
+
+    Tree origin;
+    Tree tree;
+    Deque<Node> subtrees;
+    Queue<Tree> clones;
+
+    @NonFinal
+    long estimate;
+
+    @NonFinal
+    TreeCursor cursor = null;
+
+    NodeSpliterator(Node node) {
+        this(node.getTree(), node.getTree(), new ArrayDeque<>(List.of(node)), new ConcurrentLinkedQueue<>());
+    }
+
+    private NodeSpliterator(Tree origin, Tree tree, Deque<Node> subtrees, Queue<Tree> clones) {
+        this.origin = origin;
+        this.tree = tree;
+        this.subtrees = subtrees;
+        this.clones = clones;
+        this.estimate = subtrees.stream().mapToLong(Node::getDescendantCount).sum();
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Node> action) {
+        Objects.requireNonNull(action);
+        Node next;
+        if (cursor != null) {
+            next = cursor.getCurrentNode();
+            if (!advance()) {
+                cursor.close();
+                cursor = null;
+            }
+        } else {
+            next = subtrees.poll();
+            if (next == null) {
+                release();
+                return false;
+            }
+            if (next.getChildCount() > 0) {
+                cursor = next.walk();
+                cursor.gotoFirstChild();
+            }
+        }
+        if (estimate > 0) estimate--;
+        action.accept(bind(next, origin));
+        return true;
+    }
+
+    private boolean advance() {
+        if (cursor.gotoFirstChild() || cursor.gotoNextSibling()) return true;
+        do {
+            if (!cursor.gotoParent()) return false;
+        } while (!cursor.gotoNextSibling());
+        return true;
+    }
+
+    @Override
+    public Spliterator<Node> trySplit() {
+        if (cursor != null) return null;
+        int half = subtrees.size() / 2;
+        if (half == 0) {
+            Node node = subtrees.peek();
+            if (node == null || node.getDescendantCount() < SPLIT_THRESHOLD) return null;
+            subtrees.poll();
+            subtrees.addAll(node.getChildren());
+            estimate--;
+            return Spliterators.spliterator(new Object[]{bind(node, origin)}, CHARACTERISTICS);
+        }
+        Tree clone = tree.clone();
+        clones.add(clone);
+        Deque<Node> prefix = new ArrayDeque<>(half);
+        for (int i = 0; i < half; i++) prefix.add(bind(subtrees.poll(), clone));
+        NodeSpliterator spliterator = new NodeSpliterator(origin, clone, prefix, clones);
+        estimate = Math.max(estimate - spliterator.estimate, 0);
+        return spliterator;
+    }
+
+    private static Node bind(Node node, Tree tree) {
+        return node.getTree() != tree ? node.withTree(tree) : node;
+    }
+
+    private void release() {
+        if (tree != origin) tree.close();
+    }
+
+    @Override
+    public long estimateSize() {
+        return estimate;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    /*
+     * Releases the clones of all instances split from this one,
+     * including those that were not traversed until the end
+     */
+    @Override
+    public void close() {
+        if (cursor != null) cursor.close();
+        for (Tree clone: clones) clone.close();
+    }
+
+    @Override
+    @Generated
+    public String toString() {
+        return String.format("NodeSpliterator(subtrees: %d, estimate: %d)", subtrees.size(), estimate);
+    }
+}
@@ -106,6 +106,11 @@ public class OffsetTreeCursor extends TreeCursor.Stub {
         cursor.preorderTraversal(callback);
     }
 
+    @Override
+    public void traverse(@NotNull BatchVisitor visitor) {
+        cursor.traverse(visitor);
+    }
+
     @Override
     public boolean reset(@NotNull TreeCursor other) {
         return cursor.reset(other);
@@ -384,27 +389,27 @@ public class OffsetTreeCursor extends TreeCursor.Stub {
     }
 
     /*
-     * An offset copy of the current tree cursor node.
+     * An offset view of the current tree cursor node.
      * Retains all the information from the original node,
      * except for the byte positions.
      */
     private static class OffsetTreeCursorNode extends TreeCursorNode {
 
+        private final Point offset;
+
         OffsetTreeCursorNode(TreeCursorNode cursorNode, Point offset) {
-            this(
-                    cursorNode.getName(),
-                    cursorNode.getType(),
-                    cursorNode.getContent(),
-                    cursorNode.getStartPoint().add(offset),
-                    cursorNode.getEndPoint().add(offset),
-                    cursorNode.isNamed()
-            );
+            super(cursorNode);
+            this.offset = offset;
         }
 
-        OffsetTreeCursorNode(
-                String name, String type, String content, Point startPoint, Point endPoint, boolean isNamed
-        ) {
-            super(name, type, content, Integer.MIN_VALUE, Integer.MAX_VALUE, startPoint, endPoint, isNamed);
+        @Override
+        public Point getStartPoint() {
+            return super.getStartPoint().add(offset);
+        }
+
+        @Override
+        public Point getEndPoint() {
+            return super.getEndPoint().add(offset);
         }
 
         @Override
@@ -0,0 +1,93 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.AccessLevel;
+import lombok.Generated;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handle used for cancelling the parsing performed by a {@link Parser}.
+ * Each parser owns a single handle, backed by an off-heap flag that
+ * {@code tree-sitter} periodically checks while parsing. Setting the
+ * flag causes the parse in progress to stop as soon as possible,
+ * upon which a {@link ch.usi.si.seart.treesitter.exception.parser.ParsingException ParsingException}
+ * caused by a {@link java.util.concurrent.CancellationException CancellationException} is thrown.
+ * <p>
+ * Cancellation requests are consumed by the parse that they stop.
+ * If no parse is in progress when the handle is cancelled,
+ * then the next parse performed by the parser is cancelled instead.
+ * Requests that arrive while a parse is completing, after it has
+ * stopped checking the flag but before it returns, are discarded.
+ * Unlike the parser itself, the handle is safe for use by multiple
+ * threads, and remains valid even after the parser has been closed.
+ *
+ * @since 1.13.0
+ * @author Ozren Dabić
+ * @see Parser#getParseHandle()
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class ParseHandle {
+
+    private static final String NULL_FUTURE = "Future must not be null!";
+
+    private static final VarHandle FLAG = MethodHandles.byteBufferViewVarHandle(
+            long[].class, ByteOrder.nativeOrder()
+    );
+
+    @Getter(AccessLevel.PACKAGE)
+    ByteBuffer flag = ByteBuffer.allocateDirect(Long.BYTES);
+
+    ParseHandle() {
+    }
+
+    /**
+     * Request the cancellation of the parse in progress,
+     * or of the next parse if none is currently in progress.
+     */
+    public void cancel() {
+        FLAG.setVolatile(flag, 0, 1L);
+    }
+
+    /**
+     * Check if there is a pending cancellation request.
+     *
+     * @return true if the cancellation was requested, but not yet consumed by a parse
+     */
+    public boolean isCancelled() {
+        return (long) FLAG.getVolatile(flag, 0) != 0L;
+    }
+
+    /**
+     * Propagate the cancellation of a {@link CompletableFuture} to the parser.
+     * Once the future is {@link CompletableFuture#cancel(boolean) cancelled},
+     * so too is the parse in progress. Normal or exceptional completion
+     * of the future has no effect on the parser.
+     *
+     * @param future the future whose cancellation should stop parsing
+     * @throws NullPointerException if the future is {@code null}
+     */
+    public void cancelOn(@NotNull CompletableFuture<?> future) {
+        Objects.requireNonNull(future, NULL_FUTURE);
+        future.whenComplete((ignored, throwable) -> {
+            if (future.isCancelled()) cancel();
+        });
+    }
+
+    void reset() {
+        FLAG.setVolatile(flag, 0, 0L);
+    }
+
+    @Override
+    @Generated
+    public String toString() {
+        return String.format("ParseHandle(cancelled: %s)", isCancelled());
+    }
+}
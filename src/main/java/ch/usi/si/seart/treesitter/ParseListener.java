@@ -0,0 +1,26 @@
+package ch.usi.si.seart.treesitter;
+
+/**
+ * Callback notified by a {@link Parser} after each parse, with the {@link ParseMetrics metrics} of that parse.
+ * Listeners are invoked on the parsing thread, once the parse has completed, regardless of whether
+ * it produced a tree, or failed due to a timeout or a cancellation. Any exception thrown by the
+ * listener is propagated to the caller, in which case the resulting tree is closed.
+ * <p>
+ * In the case of {@link Parser#parseSliced(String, java.time.Duration) sliced} parsing,
+ * only the slice that completes the parse is reported.
+ *
+ * @since 1.13.0
+ * @author Ozren Dabić
+ * @see Parser#setParseListener(ParseListener)
+ * @see ParseStatistics
+ */
+@FunctionalInterface
+public interface ParseListener {
+
+    /**
+     * Invoked after each parse.
+     *
+     * @param metrics the measurements of the parse
+     */
+    void onParse(ParseMetrics metrics);
+}
@@ -0,0 +1,136 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.AccessLevel;
+import lombok.Generated;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+
+/**
+ * The measurements of a single parse, as reported to a {@link ParseListener}.
+ * All measurements are taken natively, around the actual {@code tree-sitter}
+ * parsing call, and do not include the cost of preparing the input on the Java side.
+ * The node counts are only available for parses that produced a tree,
+ * and are zero for parses that {@link #isTimedOut() timed out} or were
+ * {@link #isCancelled() cancelled}.
+ *
+ * @since 1.13.0
+ * @author Ozren Dabić
+ * @see Parser#setParseListener(ParseListener)
+ */
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class ParseMetrics {
+
+    /*
+     * Must match the layout of the native ParseMetrics struct
+     */
+    static final int WALL_OFFSET = 0;
+    static final int CPU_OFFSET = WALL_OFFSET + Long.BYTES;
+    static final int BYTES_OFFSET = CPU_OFFSET + Long.BYTES;
+    static final int DESCENDANTS_OFFSET = BYTES_OFFSET + Long.BYTES;
+    static final int ERRORS_OFFSET = DESCENDANTS_OFFSET + Long.BYTES;
+    static final int MISSING_OFFSET = ERRORS_OFFSET + Long.BYTES;
+    static final int FLAGS_OFFSET = MISSING_OFFSET + Long.BYTES;
+    static final int SIZE = FLAGS_OFFSET + Long.BYTES;
+
+    static final long RECORDED = 1;
+    private static final long INCREMENTAL = 2;
+    private static final long TIMED_OUT = 4;
+    private static final long CANCELLED = 8;
+
+    /**
+     * The language used for parsing.
+     */
+    Language language;
+
+    /**
+     * The number of bytes of input supplied to the parser.
+     */
+    long bytes;
+
+    /**
+     * The elapsed wall-clock time of the parse.
+     */
+    Duration wallTime;
+
+    /**
+     * The CPU time consumed by the parsing thread.
+     */
+    Duration cpuTime;
+
+    /**
+     * Whether an old tree was supplied to the parser for reuse.
+     */
+    boolean incremental;
+
+    /**
+     * The number of nodes in the resulting tree, including the root.
+     */
+    long descendantCount;
+
+    /**
+     * The number of {@code ERROR} nodes in the resulting tree.
+     */
+    long errorCount;
+
+    /**
+     * The number of {@code MISSING} nodes in the resulting tree.
+     */
+    long missingCount;
+
+    /**
+     * Whether the parse was stopped because the timeout expired.
+     */
+    boolean timedOut;
+
+    /**
+     * Whether the parse was stopped because it was cancelled.
+     */
+    boolean cancelled;
+
+    ParseMetrics(Language language, ByteBuffer buffer) {
+        long flags = buffer.getLong(FLAGS_OFFSET);
+        this.language = language;
+        this.bytes = buffer.getLong(BYTES_OFFSET);
+        this.wallTime = Duration.ofNanos(buffer.getLong(WALL_OFFSET));
+        this.cpuTime = Duration.ofNanos(buffer.getLong(CPU_OFFSET));
+        this.incremental = (flags & INCREMENTAL) != 0;
+        this.descendantCount = buffer.getLong(DESCENDANTS_OFFSET);
+        this.errorCount = buffer.getLong(ERRORS_OFFSET);
+        this.missingCount = buffer.getLong(MISSING_OFFSET);
+        this.timedOut = (flags & TIMED_OUT) != 0;
+        this.cancelled = (flags & CANCELLED) != 0;
+    }
+
+    /**
+     * Check if the parse produced a tree.
+     *
+     * @return true if the parse neither timed out, nor was cancelled
+     */
+    public boolean isSuccessful() {
+        return !timedOut && !cancelled;
+    }
+
+    /**
+     * Check if the resulting tree contains any syntax errors.
+     *
+     * @return true if the tree has at least one {@code ERROR} or {@code MISSING} node
+     */
+    public boolean hasErrors() {
+        return errorCount > 0 || missingCount > 0;
+    }
+
+    @Override
+    @Generated
+    public String toString() {
+        return String.format(
+                "ParseMetrics(language: %s, bytes: %d, wallTime: %s, cpuTime: %s, incremental: %s, "
+                + "descendantCount: %d, errorCount: %d, missingCount: %d, timedOut: %s, cancelled: %s)",
+                language, bytes, wallTime, cpuTime, incremental,
+                descendantCount, errorCount, missingCount, timedOut, cancelled
+        );
+    }
+}
@@ -0,0 +1,135 @@
+package ch.usi.si.seart.treesitter;
+
+import ch.usi.si.seart.treesitter.exception.parser.ParsingException;
+import lombok.AccessLevel;
+import lombok.Generated;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the progress of parsing performed in time slices.
+ * Rather than discarding the work done when a slice expires,
+ * the parsing state is retained so that it can be resumed later.
+ * This allows schedulers to interleave the parsing of large files
+ * with other work, without having to start over each time.
+ * <p>
+ * Instances are obtained through {@link Parser#parseSliced(String, Duration)}, and hold
+ * both the input and a dedicated native parser until parsing completes or is abandoned.
+ * Once parsing completes, the resulting {@link Tree} is owned by the caller.
+ * Progress instances are not thread-safe, although slices can be resumed
+ * from different threads as long as they are not resumed concurrently.
+ *
+ * @since 1.13.0
+ * @author Ozren Dabić
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class ParseProgress implements AutoCloseable {
+
+    private static final String NULL_DURATION = "Duration must not be null!";
+    private static final String NEGATIVE_DURATION = "Duration must not be negative!";
+    private static final String ABANDONED = "Parsing has been abandoned!";
+    private static final String INCOMPLETE = "Parsing has not completed!";
+
+    Parser parser;
+    Source source;
+    ByteBuffer buffer;
+
+    @NonFinal
+    Tree tree;
+
+    /**
+     * The number of slices performed so far.
+     */
+    @Getter
+    @NonFinal
+    int slices = 0;
+
+    ParseProgress(Parser parser, Source source, ByteBuffer buffer) {
+        this.parser = parser;
+        this.source = source;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Resume parsing for the duration of another slice.
+     * Has no effect if parsing has already completed.
+     *
+     * @param slice the maximum duration of the slice,
+     * rounded down to the millisecond, with zero denoting no limit
+     * @return this progress instance
+     * @throws NullPointerException if the slice duration is {@code null}
+     * @throws IllegalArgumentException if the slice duration is negative
+     * @throws IllegalStateException if parsing has been abandoned
+     * @throws ParsingException if a parsing failure occurs, including cancellation,
+     * upon which the parsing is abandoned
+     */
+    public ParseProgress resume(@NotNull Duration slice) throws ParsingException {
+        Objects.requireNonNull(slice, NULL_DURATION);
+        if (slice.isNegative()) throw new IllegalArgumentException(NEGATIVE_DURATION);
+        if (tree != null) return this;
+        if (parser.isNull()) throw new IllegalStateException(ABANDONED);
+        long timeout = slice.toMillis() * TimeUnit.MILLISECONDS.toMicros(1);
+        try {
+            tree = parser.resume(source, buffer, timeout);
+            slices++;
+        } catch (RuntimeException ex) {
+            parser.close();
+            throw ex;
+        }
+        if (tree != null) parser.close();
+        return this;
+    }
+
+    /**
+     * Check if parsing has completed.
+     *
+     * @return true if the syntax tree is available, false otherwise
+     */
+    public boolean isDone() {
+        return tree != null;
+    }
+
+    /**
+     * Get the syntax tree produced once parsing has completed.
+     *
+     * @return the resulting syntax tree
+     * @throws IllegalStateException if parsing has not completed
+     */
+    public Tree getTree() {
+        if (tree == null) throw new IllegalStateException(INCOMPLETE);
+        return tree;
+    }
+
+    /**
+     * Get the handle used for cancelling the parsing.
+     * Cancelling parsing while it is suspended causes
+     * the next slice to fail and the parsing to be abandoned.
+     *
+     * @return the parse handle
+     */
+    public ParseHandle getParseHandle() {
+        return parser.getParseHandle();
+    }
+
+    /**
+     * Abandon parsing, releasing the native resources that retain its state.
+     * The syntax tree of completed parsing is not affected.
+     */
+    @Override
+    public void close() {
+        parser.close();
+    }
+
+    @Override
+    @Generated
+    public String toString() {
+        return String.format("ParseProgress(slices: %d, done: %s)", slices, isDone());
+    }
+}
@@ -0,0 +1,303 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Generated;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An in-memory {@link ParseListener} that aggregates the {@link ParseMetrics metrics}
+ * of parses into {@link Histogram histograms}, grouped by language and input {@link Size size}.
+ * The same instance can be shared by any number of parsers, including those used concurrently.
+ * <p>
+ * Usage example:
+ * <pre>{@code
+ * ParseStatistics statistics = new ParseStatistics();
+ * Parser parser = Parser.builder()
+ *         .language(Language.JAVA)
+ *         .listener(statistics)
+ *         .build();
+ * // parse some files...
+ * ParseStatistics.Summary summary = statistics.getSummary(Language.JAVA);
+ * long p99 = summary.getWallTime().getValueAtPercentile(99);
+ * }</pre>
+ *
+ * @since 1.13.0
+ * @author Ozren Dabić
+ * @see Parser#setParseListener(ParseListener)
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ParseStatistics implements ParseListener {
+
+    private static final String NULL_LANGUAGE = "Language must not be null!";
+    private static final String NULL_SIZE = "Size must not be null!";
+
+    private static final long TINY_LIMIT = 1_024L;
+    private static final long SMALL_LIMIT = 16_384L;
+    private static final long MEDIUM_LIMIT = 262_144L;
+    private static final long LARGE_LIMIT = 4_194_304L;
+
+    Map<Language, Map<Size, Summary>> summaries = new ConcurrentHashMap<>();
+
+    @Override
+    public void onParse(@NotNull ParseMetrics metrics) {
+        Size size = Size.of(metrics.getBytes());
+        summaries.computeIfAbsent(metrics.getLanguage(), ignored -> new ConcurrentHashMap<>())
+                .computeIfAbsent(size, ignored -> new Summary())
+                .record(metrics);
+    }
+
+    /**
+     * Get the aggregated metrics of all the parses of a language.
+     * The returned summary is a snapshot, unaffected by subsequent parses.
+     *
+     * @param language the language of the parses
+     * @return the summary of the parses, empty if there were none
+     * @throws NullPointerException if the language is {@code null}
+     */
+    public Summary getSummary(@NotNull Language language) {
+        Objects.requireNonNull(language, NULL_LANGUAGE);
+        Summary result = new Summary();
+        summaries.getOrDefault(language, Collections.emptyMap()).values().forEach(result::add);
+        return result;
+    }
+
+    /**
+     * Get the aggregated metrics of the parses of a language,
+     * restricted to inputs of a specific size.
+     * The returned summary is a snapshot, unaffected by subsequent parses.
+     *
+     * @param language the language of the parses
+     * @param size the size of the parsed inputs
+     * @return the summary of the parses, empty if there were none
+     * @throws NullPointerException if either argument is {@code null}
+     */
+    public Summary getSummary(@NotNull Language language, @NotNull Size size) {
+        Objects.requireNonNull(language, NULL_LANGUAGE);
+        Objects.requireNonNull(size, NULL_SIZE);
+        Summary result = new Summary();
+        Summary summary = summaries.getOrDefault(language, Collections.emptyMap()).get(size);
+        if (summary != null) result.add(summary);
+        return result;
+    }
+
+    /**
+     * Get the aggregated metrics of the parses of a language,
+     * broken down by the size of the parsed inputs.
+     * The returned summaries are snapshots, unaffected by subsequent parses.
+     *
+     * @param language the language of the parses
+     * @return the summaries of the parses, including only the sizes that were parsed
+     * @throws NullPointerException if the language is {@code null}
+     */
+    public Map<Size, Summary> getSummaries(@NotNull Language language) {
+        Objects.requireNonNull(language, NULL_LANGUAGE);
+        Map<Size, Summary> result = new EnumMap<>(Size.class);
+        summaries.getOrDefault(language, Collections.emptyMap())
+                .forEach((size, summary) -> result.computeIfAbsent(size, ignored -> new Summary()).add(summary));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Discard the metrics of all parses aggregated so far.
+     */
+    public void reset() {
+        summaries.clear();
+    }
+
+    @Override
+    @Generated
+    public String toString() {
+        return String.format("ParseStatistics(languages: %s)", summaries.keySet());
+    }
+
+    /**
+     * The classes of input sizes by which the metrics are grouped.
+     *
+     * @since 1.13.0
+     * @author Ozren Dabić
+     */
+    @Getter
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    public enum Size {
+
+        /**
+         * Inputs of less than 1 KiB.
+         */
+        TINY(TINY_LIMIT),
+
+        /**
+         * Inputs of less than 16 KiB.
+         */
+        SMALL(SMALL_LIMIT),
+
+        /**
+         * Inputs of less than 256 KiB.
+         */
+        MEDIUM(MEDIUM_LIMIT),
+
+        /**
+         * Inputs of less than 4 MiB.
+         */
+        LARGE(LARGE_LIMIT),
+
+        /**
+         * All the remaining inputs.
+         */
+        HUGE(Long.MAX_VALUE);
+
+        /**
+         * The exclusive upper bound on the number of bytes.
+         */
+        long limit;
+
+        private static final Size[] VALUES = values();
+
+        static Size of(long bytes) {
+            for (Size size: VALUES) {
+                if (bytes < size.limit) return size;
+            }
+            return HUGE;
+        }
+    }
+
+    /**
+     * The aggregated metrics of a group of parses.
+     * Time measurements are recorded in nanoseconds.
+     *
+     * @since 1.13.0
+     * @author Ozren Dabić
+     */
+    @Getter
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    public static final class Summary {
+
+        @Getter(AccessLevel.NONE)
+        AtomicLong parses = new AtomicLong();
+
+        @Getter(AccessLevel.NONE)
+        AtomicLong incremental = new AtomicLong();
+
+        @Getter(AccessLevel.NONE)
+        AtomicLong timeouts = new AtomicLong();
+
+        @Getter(AccessLevel.NONE)
+        AtomicLong cancellations = new AtomicLong();
+
+        @Getter(AccessLevel.NONE)
+        AtomicLong erroneous = new AtomicLong();
+
+        /**
+         * The number of bytes parsed.
+         */
+        Histogram bytes = new Histogram();
+
+        /**
+         * The elapsed wall-clock time of the parses.
+         */
+        Histogram wallTime = new Histogram();
+
+        /**
+         * The CPU time consumed by the parses.
+         */
+        Histogram cpuTime = new Histogram();
+
+        /**
+         * The number of nodes in the resulting trees.
+         */
+        Histogram descendantCount = new Histogram();
+
+        private Summary() {
+        }
+
+        private void record(ParseMetrics metrics) {
+            parses.incrementAndGet();
+            if (metrics.isIncremental()) incremental.incrementAndGet();
+            if (metrics.isTimedOut()) timeouts.incrementAndGet();
+            if (metrics.isCancelled()) cancellations.incrementAndGet();
+            if (metrics.hasErrors()) erroneous.incrementAndGet();
+            bytes.record(metrics.getBytes());
+            wallTime.record(metrics.getWallTime().toNanos());
+            cpuTime.record(metrics.getCpuTime().toNanos());
+            if (metrics.isSuccessful()) descendantCount.record(metrics.getDescendantCount());
+        }
+
+        private void add(Summary other) {
+            parses.addAndGet(other.parses.get());
+            incremental.addAndGet(other.incremental.get());
+            timeouts.addAndGet(other.timeouts.get());
+            cancellations.addAndGet(other.cancellations.get());
+            erroneous.addAndGet(other.erroneous.get());
+            bytes.add(other.bytes);
+            wallTime.add(other.wallTime);
+            cpuTime.add(other.cpuTime);
+            descendantCount.add(other.descendantCount);
+        }
+
+        /**
+         * Get the number of parses, including those that failed.
+         *
+         * @return the parse count
+         */
+        public long getParseCount() {
+            return parses.get();
+        }
+
+        /**
+         * Get the number of parses that reused an old tree.
+         *
+         * @return the incremental parse count
+         */
+        public long getIncrementalCount() {
+            return incremental.get();
+        }
+
+        /**
+         * Get the number of parses that were stopped by a timeout.
+         *
+         * @return the timeout count
+         */
+        public long getTimeoutCount() {
+            return timeouts.get();
+        }
+
+        /**
+         * Get the number of parses that were cancelled.
+         *
+         * @return the cancellation count
+         */
+        public long getCancellationCount() {
+            return cancellations.get();
+        }
+
+        /**
+         * Get the number of parses that produced a tree with syntax errors.
+         *
+         * @return the erroneous tree count
+         */
+        public long getErroneousCount() {
+            return erroneous.get();
+        }
+
+        @Override
+        @Generated
+        public String toString() {
+            return String.format(
+                    "Summary(parses: %d, incremental: %d, timeouts: %d, cancellations: %d, erroneous: %d, "
+                    + "bytes: %s, wallTime: %s, cpuTime: %s)",
+                    getParseCount(), getIncrementalCount(), getTimeoutCount(), getCancellationCount(),
+                    getErroneousCount(), bytes, wallTime, cpuTime
+            );
+        }
+    }
+}
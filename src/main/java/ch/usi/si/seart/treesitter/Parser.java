@@ -7,12 +7,22 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 
+import java.io.EOFException;
 import java.io.IOException;
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
@@ -21,6 +31,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Parsers are stateful objects used to produce a {@link Tree} from some source code,
@@ -36,8 +47,80 @@ public class Parser extends External {
 
     Language language;
 
-    private static final Charset CHARSET = StandardCharsets.UTF_16LE;
+    /**
+     * The handle used for cancelling the parsing performed by this parser.
+     * Parsing is also cancelled when the thread performing it is {@link Thread#interrupt() interrupted},
+     * in which case the interrupt status of the thread is left set.
+     *
+     * @since 1.13.0
+     */
+    ParseHandle parseHandle = new ParseHandle();
+
+    /**
+     * The buffer in which the parser records debugging information, if any.
+     *
+     * @since 1.13.0
+     */
+    @NonFinal
+    LogBuffer logBuffer = null;
+
+    /**
+     * The listener notified with the metrics of each parse, if any.
+     *
+     * @since 1.13.0
+     */
+    @NonFinal
+    ParseListener parseListener = null;
+
+    /**
+     * The monitor consulted as parsing progresses, if any.
+     *
+     * @since 1.13.0
+     */
+    @NonFinal
+    ProgressMonitor progressMonitor = null;
 
+    /*
+     * Initial capacity of the scratch buffer,
+     * where 0 means that no buffer is used
+     */
+    @NonFinal
+    @Getter(AccessLevel.NONE)
+    int capacity = 0;
+
+    /*
+     * Reused for encoding source code strings, but only
+     * if the parser was built with a scratch capacity.
+     * Allocated on first use, and released after parsing
+     * if it grew past the retention limit.
+     */
+    @NonFinal
+    @Getter(AccessLevel.NONE)
+    ByteBuffer scratch = null;
+
+    /*
+     * Allocated along with the first scratch buffer
+     */
+    @NonFinal
+    @Getter(AccessLevel.NONE)
+    CharsetEncoder encoder = null;
+
+    /*
+     * Written to natively during each parse,
+     * but only if the parser has a listener
+     */
+    @NonFinal
+    @Getter(AccessLevel.NONE)
+    ByteBuffer metrics = null;
+
+    private static final String NULL_SOURCE = "Source must not be null!";
+    private static final String NULL_BYTES = "Bytes must not be null!";
+    private static final String NULL_BUFFER = "Buffer must not be null!";
+    private static final String NULL_ENCODING = "Encoding must not be null!";
+    private static final String NULL_PATH = "Path must not be null!";
+    private static final String NULL_STREAM = "Stream must not be null!";
+    private static final String NULL_CHANNEL = "Channel must not be null!";
+    private static final String NULL_TREE = "Tree must not be null!";
     private static final String NULL_RANGE = "Range must not be null!";
     private static final String NULL_RANGES = "Ranges must not be null!";
     private static final String NULL_LANGUAGE = "Language must not be null!";
@@ -45,14 +128,26 @@ public class Parser extends External {
     private static final String NULL_TIME_UNIT = "Time unit must not be null!";
     private static final String NEGATIVE_TIMEOUT = "Timeout must not be negative!";
     private static final String NEGATIVE_DURATION = "Duration must not be negative!";
+    private static final String NEGATIVE_CAPACITY = "Capacity must not be negative!";
     private static final String OVERLAPPING_RANGES = "Ranges must not overlap!";
+    private static final String UNALIGNED_LENGTH = "Byte count must be a multiple of the encoding width!";
+    private static final String MISMATCHED_ENCODING = "Tree encoding must match the parsing encoding!";
+    private static final String UNADDRESSABLE_WINDOW = "Window must end within the addressable range!";
+    private static final String NEGATIVE_POINT = "Point must not be before the origin!";
+    private static final String UNADDRESSABLE_FILE = "File size %d exceeds the largest mappable size!";
+
+    private static final int WINDOW_SCAN_SIZE = 64 * 1024;
+    private static final int SCRATCH_RETENTION_LIMIT = 1024 * 1024;
 
     @SuppressWarnings("unused")
     Parser(long pointer, @NotNull Language language) {
         super(pointer);
         this.language = language;
+        setCancellationFlag(parseHandle.getFlag());
     }
 
+    private native void setCancellationFlag(ByteBuffer flag);
+
     /**
      * Static factory for obtaining new parser instances.
      *
@@ -84,7 +179,10 @@ public class Parser extends External {
         return builder()
                 .language(getLanguage())
                 .timeout(getTimeout())
-                .ranges(getIncludedRanges());
+                .ranges(getIncludedRanges())
+                .listener(getParseListener())
+                .monitor(getProgressMonitor())
+                .scratch(capacity);
     }
 
     /**
@@ -105,6 +203,12 @@ public class Parser extends External {
 
         List<Range> ranges = new ArrayList<>();
 
+        ParseListener listener = null;
+
+        ProgressMonitor monitor = null;
+
+        int scratch = 0;
+
         /**
          * Sets the programming language intended for parsing.
          *
@@ -251,6 +355,53 @@ public class Parser extends External {
             return this;
         }
 
+        /**
+         * Sets the listener notified with the metrics of each parse.
+         * To disable notifications, pass {@code null} as an argument.
+         *
+         * @param listener the parse listener
+         * @return this builder
+         * @since 1.13.0
+         */
+        public Builder listener(ParseListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Sets the monitor consulted as parsing progresses.
+         * To disable monitoring, pass {@code null} as an argument.
+         *
+         * @param monitor the progress monitor
+         * @return this builder
+         * @since 1.13.0
+         */
+        public Builder monitor(ProgressMonitor monitor) {
+            this.monitor = monitor;
+            return this;
+        }
+
+        /**
+         * Sets the initial capacity of the off-heap buffer that the parser reuses
+         * for encoding the source code strings that it parses. Without such a buffer,
+         * each parsed string is encoded into a newly allocated array. The buffer is only
+         * allocated once the first string is parsed, and grows to accommodate the largest
+         * string parsed so far. Buffers that grow past the larger of the initial capacity
+         * and 1 MiB are released once parsing completes, so that a single large string
+         * does not pin its off-heap memory for the remaining lifetime of the parser.
+         * Defaults to 0, which disables reuse.
+         *
+         * @param capacity the initial capacity in bytes
+         * @return this builder
+         * @throws IllegalArgumentException if the capacity is negative
+         * @since 1.13.0
+         */
+        public Builder scratch(int capacity) {
+            if (capacity < 0) throw new IllegalArgumentException(NEGATIVE_CAPACITY);
+            this.scratch = capacity;
+            return this;
+        }
+
         /**
          * Builds and returns a new Parser instance with the configured language.
          *
@@ -262,7 +413,11 @@ public class Parser extends External {
         public Parser build() {
             Objects.requireNonNull(language, NULL_LANGUAGE);
             Range[] array = validated(ranges.toArray(Range[]::new));
-            return build(language, timeout, array, array.length);
+            Parser parser = build(language, timeout, array, array.length);
+            parser.setParseListener(listener);
+            parser.setProgressMonitor(monitor);
+            parser.capacity = scratch;
+            return parser;
         }
 
         private static native Parser build(Language language, long timeout, Range[] ranges, int length);
@@ -320,11 +475,72 @@ public class Parser extends External {
      * By default, the parser will use the {@code DEBUG} level
      * with a dedicated {@link org.slf4j.Marker Marker} for
      * either the {@code PARSE} or {@code LEX} events.
+     * Setting a logger replaces the {@link LogBuffer} of the parser, if any.
      *
      * @param logger the logger used by the parser
      * @since 1.12.0
      */
-    public native void setLogger(Logger logger);
+    public void setLogger(Logger logger) {
+        logBuffer = null;
+        setLogger(this, logger);
+    }
+
+    private static native void setLogger(Parser parser, Logger logger);
+
+    /**
+     * Set the {@link LogBuffer} in which the parser should record debugging information
+     * during parsing. Recording to a buffer does not involve any calls from native code,
+     * which makes it considerably cheaper than using a {@link #setLogger(Logger) logger}.
+     * To disable recording, pass {@code null} as an argument.
+     * Setting a buffer replaces the logger of the parser, if any.
+     *
+     * @param logBuffer the buffer used by the parser
+     * @since 1.13.0
+     */
+    public void setLogBuffer(LogBuffer logBuffer) {
+        setLogBuffer(this, logBuffer != null ? logBuffer.getBuffer() : null);
+        this.logBuffer = logBuffer;
+    }
+
+    private static native void setLogBuffer(Parser parser, ByteBuffer buffer);
+
+    /*
+     * The error recovery cost incurred by the parse log message,
+     * as approximated for progress monitors that track it
+     */
+    static native long errorCost(String message);
+
+    /**
+     * Set the {@link ParseListener} that should be notified after each parse.
+     * The {@link ParseMetrics metrics} reported to the listener are measured natively,
+     * so parsers without a listener do not incur any additional cost.
+     * To disable notifications, pass {@code null} as an argument.
+     *
+     * @param parseListener the listener notified after each parse
+     * @since 1.13.0
+     * @see ParseStatistics
+     */
+    public void setParseListener(ParseListener parseListener) {
+        if (parseListener != null && metrics == null) {
+            metrics = ByteBuffer.allocateDirect(ParseMetrics.SIZE).order(ByteOrder.nativeOrder());
+        } else if (parseListener == null) {
+            metrics = null;
+        }
+        this.parseListener = parseListener;
+    }
+
+    /**
+     * Set the {@link ProgressMonitor} that should be consulted as parsing progresses,
+     * allowing parses of pathological inputs to be stopped before the timeout expires.
+     * To disable monitoring, pass {@code null} as an argument.
+     *
+     * @param progressMonitor the monitor consulted during parsing
+     * @since 1.13.0
+     * @see ProgressMonitor#errorCostLimit(long)
+     */
+    public void setProgressMonitor(ProgressMonitor progressMonitor) {
+        this.progressMonitor = progressMonitor;
+    }
 
     /**
      * Get an ordered, immutable {@link Range} sequence that corresponds
@@ -472,8 +688,7 @@ public class Parser extends External {
      * @since 1.3.0
      */
     public Tree parse(@NotNull String source) throws ParsingException {
-        byte[] bytes = source.getBytes(CHARSET);
-        return parse(source, bytes, bytes.length, null);
+        return parseString(source, null);
     }
 
     /**
@@ -487,8 +702,196 @@ public class Parser extends External {
      * @since 1.3.0
      */
     public Tree parse(@NotNull String source, @NotNull Tree oldTree) throws ParsingException {
-        byte[] bytes = source.getBytes(CHARSET);
-        return parse(source, bytes, bytes.length, oldTree);
+        Objects.requireNonNull(source, NULL_SOURCE);
+        return parseString(source, validated(oldTree, Encoding.UTF_16));
+    }
+
+    /*
+     * Strings are encoded into the scratch buffer when the parser has one,
+     * which the tree need not retain, as its content is read from the string
+     */
+    private Tree parseString(String source, Tree oldTree) {
+        if (capacity == 0) {
+            byte[] bytes = source.getBytes(Encoding.UTF_16.getCharset());
+            return guarded(() -> parse(Source.of(source), bytes, 0, bytes.length, Encoding.UTF_16, oldTree));
+        }
+        int required = source.length() * Encoding.UTF_16.getWidth();
+        if (scratch == null || scratch.capacity() < required) {
+            long doubled = scratch != null ? 2L * scratch.capacity() : capacity;
+            scratch = ByteBuffer.allocateDirect((int) Math.max(required, Math.min(Integer.MAX_VALUE, doubled)));
+        }
+        ByteBuffer buffer = encode(source, scratch.clear());
+        try {
+            return guarded(() -> parse(Source.of(source), buffer, buffer.remaining(), Encoding.UTF_16, oldTree));
+        } finally {
+            if (scratch.capacity() > Math.max(capacity, SCRATCH_RETENTION_LIMIT)) scratch = null;
+        }
+    }
+
+    private ByteBuffer encode(String source, ByteBuffer target) {
+        if (encoder == null) encoder = Encoding.UTF_16.getCharset().newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        encoder.reset();
+        encoder.encode(CharBuffer.wrap(source), target, true);
+        encoder.flush(target);
+        return target.flip();
+    }
+
+    /**
+     * Use the parser to parse UTF-8 encoded source code stored in a {@link ByteBuffer}.
+     * The bytes between the current position and the limit of the buffer are parsed,
+     * while the position, limit and mark of the buffer itself remain unchanged.
+     * Direct buffers are handed to {@code tree-sitter} as-is, without being copied.
+     * <p>
+     * The resulting syntax tree retains a read-only view of the parsed region,
+     * which is used for obtaining the {@link Node#getContent() content} of its nodes.
+     * As such, the contents of the buffer should not be modified while the tree is in use.
+     *
+     * @param buffer the buffer containing the source code
+     * @return a syntax tree matching the provided source
+     * @throws NullPointerException if the buffer is {@code null}
+     * @throws ParsingException if a parsing failure occurs
+     * @since 1.13.0
+     */
+    public Tree parse(@NotNull ByteBuffer buffer) throws ParsingException {
+        return parse(buffer, Encoding.UTF_8);
+    }
+
+    /**
+     * Use the parser to parse source code stored in a {@link ByteBuffer}.
+     * The bytes between the current position and the limit of the buffer are parsed,
+     * while the position, limit and mark of the buffer itself remain unchanged.
+     * Direct buffers are handed to {@code tree-sitter} as-is, without being copied.
+     * <p>
+     * The resulting syntax tree retains a read-only view of the parsed region,
+     * which is used for obtaining the {@link Node#getContent() content} of its nodes.
+     * As such, the contents of the buffer should not be modified while the tree is in use.
+     *
+     * @param buffer the buffer containing the source code
+     * @param encoding the encoding of the source code
+     * @return a syntax tree matching the provided source
+     * @throws NullPointerException if either argument is {@code null}
+     * @throws IllegalArgumentException if the number of remaining bytes
+     * is not a multiple of the {@link Encoding#getWidth() encoding width}
+     * @throws ParsingException if a parsing failure occurs
+     * @since 1.13.0
+     */
+    public Tree parse(@NotNull ByteBuffer buffer, @NotNull Encoding encoding) throws ParsingException {
+        return parseBuffer(buffer, encoding, null);
+    }
+
+    /**
+     * Use the parser to incrementally reparse changed source code stored in a {@link ByteBuffer},
+     * re-using unchanged parts of the {@link Tree} to expedite the process.
+     * The bytes between the current position and the limit of the buffer are parsed,
+     * while the position, limit and mark of the buffer itself remain unchanged.
+     * Direct buffers are handed to {@code tree-sitter} as-is, without being copied.
+     *
+     * @param buffer the buffer containing the source code
+     * @param encoding the encoding of the source code
+     * @param oldTree the syntax tree before changes were made
+     * @return a syntax tree matching the provided source
+     * @throws NullPointerException if any of the arguments is {@code null}
+     * @throws IllegalArgumentException if the number of remaining bytes
+     * is not a multiple of the {@link Encoding#getWidth() encoding width},
+     * or if the old tree was not parsed using the same encoding
+     * @throws ParsingException if a parsing failure occurs
+     * @since 1.13.0
+     */
+    public Tree parse(
+            @NotNull ByteBuffer buffer, @NotNull Encoding encoding, @NotNull Tree oldTree
+    ) throws ParsingException {
+        return parseBuffer(buffer, encoding, validated(oldTree, encoding));
+    }
+
+    private Tree parseBuffer(ByteBuffer buffer, Encoding encoding, Tree oldTree) {
+        Objects.requireNonNull(buffer, NULL_BUFFER);
+        Objects.requireNonNull(encoding, NULL_ENCODING);
+        if (buffer.isDirect()) {
+            ByteBuffer slice = validated(buffer.slice(), encoding);
+            Source source = Source.of(slice, encoding);
+            return guarded(() -> parse(source, slice, slice.remaining(), encoding, oldTree));
+        }
+        if (buffer.hasArray()) {
+            byte[] array = buffer.array();
+            int offset = buffer.arrayOffset() + buffer.position();
+            return parseBytes(array, offset, buffer.remaining(), encoding, oldTree);
+        }
+        byte[] copy = new byte[buffer.remaining()];
+        buffer.duplicate().get(copy);
+        return parseBytes(copy, 0, copy.length, encoding, oldTree);
+    }
+
+    /**
+     * Use the parser to parse source code stored in a byte array.
+     * The resulting syntax tree retains a read-only view of the parsed region,
+     * which is used for obtaining the {@link Node#getContent() content} of its nodes.
+     * As such, the contents of the array should not be modified while the tree is in use.
+     *
+     * @param bytes the array containing the source code
+     * @param offset the index of the first byte to parse
+     * @param length the number of bytes to parse
+     * @param encoding the encoding of the source code
+     * @return a syntax tree matching the provided source
+     * @throws NullPointerException if either the array or the encoding is {@code null}
+     * @throws IndexOutOfBoundsException if the region is out of the array bounds
+     * @throws IllegalArgumentException if the length is not a
+     * multiple of the {@link Encoding#getWidth() encoding width}
+     * @throws ParsingException if a parsing failure occurs
+     * @since 1.13.0
+     */
+    public Tree parse(
+            @NotNull byte[] bytes, int offset, int length, @NotNull Encoding encoding
+    ) throws ParsingException {
+        return parseBytes(bytes, offset, length, encoding, null);
+    }
+
+    /**
+     * Use the parser to incrementally reparse changed source code stored in a byte array,
+     * re-using unchanged parts of the {@link Tree} to expedite the process.
+     *
+     * @param bytes the array containing the source code
+     * @param offset the index of the first byte to parse
+     * @param length the number of bytes to parse
+     * @param encoding the encoding of the source code
+     * @param oldTree the syntax tree before changes were made
+     * @return a syntax tree matching the provided source
+     * @throws NullPointerException if the array, encoding or tree is {@code null}
+     * @throws IndexOutOfBoundsException if the region is out of the array bounds
+     * @throws IllegalArgumentException if the length is not a
+     * multiple of the {@link Encoding#getWidth() encoding width},
+     * or if the old tree was not parsed using the same encoding
+     * @throws ParsingException if a parsing failure occurs
+     * @since 1.13.0
+     */
+    public Tree parse(
+            @NotNull byte[] bytes, int offset, int length, @NotNull Encoding encoding, @NotNull Tree oldTree
+    ) throws ParsingException {
+        return parseBytes(bytes, offset, length, encoding, validated(oldTree, encoding));
+    }
+
+    private Tree parseBytes(byte[] bytes, int offset, int length, Encoding encoding, Tree oldTree) {
+        Objects.requireNonNull(bytes, NULL_BYTES);
+        Objects.requireNonNull(encoding, NULL_ENCODING);
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        ByteBuffer slice = validated(ByteBuffer.wrap(bytes, offset, length).slice(), encoding);
+        Source source = Source.of(slice, encoding);
+        return guarded(() -> parse(source, bytes, offset, length, encoding, oldTree));
+    }
+
+    private static ByteBuffer validated(ByteBuffer buffer, Encoding encoding) {
+        if (buffer.remaining() % encoding.getWidth() != 0)
+            throw new IllegalArgumentException(UNALIGNED_LENGTH);
+        return buffer;
+    }
+
+    private static Tree validated(Tree tree, Encoding encoding) {
+        Objects.requireNonNull(tree, NULL_TREE);
+        Objects.requireNonNull(encoding, NULL_ENCODING);
+        if (tree.getEncoding() != encoding)
+            throw new IllegalArgumentException(MISMATCHED_ENCODING);
+        return tree;
     }
 
     /**
@@ -527,5 +930,391 @@ public class Parser extends External {
         }
     }
 
-    private native Tree parse(String source, byte[] bytes, int length, Tree oldTree);
+    /**
+     * Use the parser to parse source code from a memory-mapped file.
+     * Unlike {@link #parse(Path)}, the file contents are never read into a {@link String}.
+     * Instead, the mapped region is handed to {@code tree-sitter} directly,
+     * without being copied or transcoded. The resulting syntax tree retains the mapping,
+     * decoding the {@link Node#getContent() content} of its nodes on demand.
+     * As such, the file should not be modified while the tree is in use.
+     * <p>
+     * The mapping is released once both the tree and all its nodes are no longer reachable.
+     * Note that the file size is limited by the size of an addressable {@link java.nio.ByteBuffer ByteBuffer}.
+     *
+     * @param path the path of the file to be parsed
+     * @param encoding the encoding of the file contents
+     * @return a syntax tree matching the provided source
+     * @throws NullPointerException if either argument is {@code null}
+     * @throws IllegalArgumentException if the file size is not a
+     * multiple of the {@link Encoding#getWidth() encoding width}
+     * @throws ParsingException if a parsing failure occurs, if the file is larger
+     * than {@code 2^31 - 1} bytes, or if an I/O error occurs while mapping the file
+     * @since 1.13.0
+     */
+    public Tree parse(@NotNull Path path, @NotNull Encoding encoding) throws ParsingException {
+        Objects.requireNonNull(encoding, NULL_ENCODING);
+        return parseBuffer(map(path), encoding, null);
+    }
+
+    /**
+     * Use the parser to incrementally reparse changed source code from a memory-mapped file,
+     * re-using unchanged parts of the {@link Tree} to expedite the process.
+     *
+     * @param path the path of the file to be parsed
+     * @param encoding the encoding of the file contents
+     * @param oldTree the syntax tree before changes were made
+     * @return a syntax tree matching the provided source
+     * @throws NullPointerException if any of the arguments is {@code null}
+     * @throws IllegalArgumentException if the file size is not a
+     * multiple of the {@link Encoding#getWidth() encoding width},
+     * or if the old tree was not parsed using the same encoding
+     * @throws ParsingException if a parsing failure occurs, if the file is larger
+     * than {@code 2^31 - 1} bytes, or if an I/O error occurs while mapping the file
+     * @since 1.13.0
+     * @see #parse(Path, Encoding)
+     */
+    public Tree parse(
+            @NotNull Path path, @NotNull Encoding encoding, @NotNull Tree oldTree
+    ) throws ParsingException {
+        Tree validated = validated(oldTree, encoding);
+        return parseBuffer(map(path), encoding, validated);
+    }
+
+    /**
+     * Use the parser to parse a window of a UTF-8 encoded file, without reading the rest of it.
+     * Only the window itself is memory-mapped and handed to {@code tree-sitter}, which parses it as the
+     * sole {@link #setIncludedRanges(List) included range}. As a result, the byte offsets and points of
+     * the resulting tree are expressed in the coordinates of the entire file, rather than the window.
+     * The included ranges of the parser are restored once parsing completes.
+     * <p>
+     * Obtaining the starting point of the window requires counting the lines that precede it,
+     * which is done by streaming all the preceding bytes through a small fixed-size buffer.
+     * The cost of doing so grows with the offset of the window, so callers that parse multiple
+     * windows of the same file, or that already know where the window starts, should prefer
+     * {@link #parseWindow(Path, long, long, Point)} instead.
+     * The resulting syntax tree retains the mapping, and its {@link Tree#getSource() source}
+     * consists of the contents of the window. Since node offsets are limited to the range of
+     * an {@code int}, the window must end within the first {@code 2^31 - 1} bytes of the file.
+     * Windows that cut through a multibyte character or a syntactic construct are parsed as-is,
+     * with any resulting errors reported in the tree.
+     *
+     * @param path the path of the file to be parsed
+     * @param start the byte offset at which the window starts, inclusive
+     * @param end the byte offset at which the window ends, exclusive
+     * @return a syntax tree of the window, in the coordinates of the file
+     * @throws NullPointerException if the path is {@code null}
+     * @throws IndexOutOfBoundsException if the window is not within the bounds of the file
+     * @throws IllegalArgumentException if the window ends past the largest addressable offset
+     * @throws ParsingException if a parsing failure occurs,
+     * or if an I/O error occurs while reading the file
+     * @since 1.13.0
+     */
+    public Tree parseWindow(@NotNull Path path, long start, long end) throws ParsingException {
+        return parseWindow(path, start, end, null);
+    }
+
+    /**
+     * Use the parser to parse a window of a UTF-8 encoded file, starting at a known point.
+     * Unlike {@link #parseWindow(Path, long, long)}, none of the bytes preceding the window are read,
+     * so the cost of parsing depends only on the size of the window. The point is not validated against
+     * the contents of the file: it is the responsibility of the caller to provide the row and byte column
+     * of the starting offset. When parsing consecutive windows, the
+     * {@link Node#getEndPoint() end point} of the root node from one window can be used as the starting
+     * point of the next, provided that it ends where the next one starts.
+     *
+     * @param path the path of the file to be parsed
+     * @param start the byte offset at which the window starts, inclusive
+     * @param end the byte offset at which the window ends, exclusive
+     * @param point the point at which the window starts,
+     * or {@code null} to compute it by scanning the preceding bytes
+     * @return a syntax tree of the window, in the coordinates of the file
+     * @throws NullPointerException if the path is {@code null}
+     * @throws IndexOutOfBoundsException if the window is not within the bounds of the file
+     * @throws IllegalArgumentException if the window ends past the largest addressable offset,
+     * or if the point is before the origin
+     * @throws ParsingException if a parsing failure occurs,
+     * or if an I/O error occurs while reading the file
+     * @since 1.13.0
+     */
+    public Tree parseWindow(@NotNull Path path, long start, long end, Point point) throws ParsingException {
+        Objects.requireNonNull(path, NULL_PATH);
+        if (end > Integer.MAX_VALUE) throw new IllegalArgumentException(UNADDRESSABLE_WINDOW);
+        if (point != null && (point.getRow() < 0 || point.getColumn() < 0))
+            throw new IllegalArgumentException(NEGATIVE_POINT);
+        try (FileChannel channel = FileChannel.open(path)) {
+            long size = channel.size();
+            if (start < 0 || start > end || end > size) throw new IndexOutOfBoundsException(
+                    String.format("Window [%d, %d) out of bounds for length %d", start, end, size)
+            );
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            Point startPoint = point != null ? point : locate(channel, start);
+            Point endPoint = advance(startPoint, window.duplicate());
+            Range range = new Range((int) start, (int) end, startPoint, endPoint);
+            Source source = Source.of(window, Encoding.UTF_8, (int) start);
+            List<Range> ranges = getIncludedRanges();
+            setIncludedRanges(range);
+            try {
+                return guarded(() -> parseWindow(source, window, (int) start, window.remaining()));
+            } finally {
+                setIncludedRanges(ranges);
+            }
+        } catch (IOException ex) {
+            throw new ParsingException(ex);
+        }
+    }
+
+    private static Point locate(FileChannel channel, long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(WINDOW_SCAN_SIZE);
+        Point point = Point.ORIGIN();
+        long position = 0;
+        while (position < offset) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), offset - position));
+            int count = channel.read(buffer, position);
+            if (count < 0) throw new EOFException();
+            position += count;
+            point = advance(point, buffer.flip());
+        }
+        return point;
+    }
+
+    private static Point advance(Point point, ByteBuffer buffer) {
+        int row = point.getRow();
+        int column = point.getColumn();
+        while (buffer.hasRemaining()) {
+            if (buffer.get() == '\n') {
+                row++;
+                column = 0;
+            } else {
+                column++;
+            }
+        }
+        return new Point(row, column);
+    }
+
+    private native Tree parseWindow(Source source, ByteBuffer buffer, int start, int length);
+
+    private static MappedByteBuffer map(Path path) {
+        Objects.requireNonNull(path, NULL_PATH);
+        try (FileChannel channel = FileChannel.open(path)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new ParsingException(String.format(UNADDRESSABLE_FILE, size));
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (IOException ex) {
+            throw new ParsingException(ex);
+        }
+    }
+
+    /**
+     * Use the parser to parse source code read from a {@link ReadableByteChannel}.
+     * Rather than reading the entire input up front, {@code tree-sitter} requests
+     * the bytes it needs in fixed-size chunks, which are read into a single reusable
+     * off-heap buffer. Parsing can thus begin before the input has been read in
+     * its entirety, and the heap footprint does not grow with the input size.
+     * <p>
+     * If the channel is a {@link java.nio.channels.SeekableByteChannel SeekableByteChannel},
+     * its contents are read starting from the current position of the channel, which is
+     * left in an unspecified position once parsing completes. The contents of sequential
+     * channels are spooled to a temporary file as they are consumed, since the parser
+     * may need to revisit input that it has already read. By the time parsing completes,
+     * the temporary file holds the input in full, and thus requires as much disk space.
+     * It is deleted once parsing completes. In either case, the channel is not closed by this method.
+     * <p>
+     * Non-blocking channels are supported, but reads that return no bytes are retried
+     * with a backoff, and parsing fails once the channel repeatedly makes no progress.
+     * <p>
+     * Since the source code is not retained, attempting to obtain the
+     * {@link Tree#getSource() source} of the resulting syntax tree,
+     * or the {@link Node#getContent() content} of its nodes
+     * will result in an {@link UnsupportedOperationException}.
+     *
+     * @param channel the channel supplying the source code
+     * @param encoding the encoding of the source code
+     * @return a syntax tree matching the provided source
+     * @throws NullPointerException if either argument is {@code null}
+     * @throws ParsingException if a parsing failure occurs,
+     * if an I/O error occurs while reading from the channel,
+     * or if the channel stalls without supplying any bytes
+     * @since 1.13.0
+     */
+    public Tree parse(@NotNull ReadableByteChannel channel, @NotNull Encoding encoding) throws ParsingException {
+        Objects.requireNonNull(channel, NULL_CHANNEL);
+        Objects.requireNonNull(encoding, NULL_ENCODING);
+        try (Input input = Input.of(channel, encoding)) {
+            Tree tree = guarded(() -> parse(input, Source.none(encoding), null));
+            IOException failure = input.getFailure();
+            if (failure != null) {
+                tree.close();
+                throw new ParsingException(failure);
+            }
+            return tree;
+        } catch (IOException ex) {
+            throw new ParsingException(ex);
+        }
+    }
+
+    /**
+     * Use the parser to parse source code read from an {@link InputStream}.
+     * The stream is consumed in chunks as the parsing progresses,
+     * in the same manner as {@link #parse(ReadableByteChannel, Encoding)},
+     * and is spooled in full to a temporary file that is deleted once parsing completes.
+     * The stream is not closed by this method.
+     *
+     * @param stream the stream supplying the source code
+     * @param encoding the encoding of the source code
+     * @return a syntax tree matching the provided source
+     * @throws NullPointerException if either argument is {@code null}
+     * @throws ParsingException if a parsing failure occurs,
+     * or if an I/O error occurs while reading from the stream
+     * @since 1.13.0
+     */
+    public Tree parse(@NotNull InputStream stream, @NotNull Encoding encoding) throws ParsingException {
+        Objects.requireNonNull(stream, NULL_STREAM);
+        return parse(Channels.newChannel(stream), encoding);
+    }
+
+    /**
+     * Use the parser to parse some source code in time slices.
+     * Only the first slice of parsing is performed by this method, while the returned
+     * {@link ParseProgress} can be used to resume parsing at a later point in time,
+     * without losing any of the work done so far. In the meantime, the parser remains
+     * available for use, as the parsing state is held by a dedicated parser that
+     * inherits the language, included ranges and logger of this parser.
+     *
+     * @param source the source code string to be parsed
+     * @param slice the maximum duration of the first parsing slice,
+     * rounded down to the millisecond, with zero denoting no limit
+     * @return the progress of parsing after the first slice
+     * @throws NullPointerException if either argument is {@code null}
+     * @throws IllegalArgumentException if the slice duration is negative
+     * @throws ParsingException if a parsing failure occurs
+     * @since 1.13.0
+     */
+    public ParseProgress parseSliced(@NotNull String source, @NotNull Duration slice) throws ParsingException {
+        Objects.requireNonNull(source, NULL_SOURCE);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(source.length() * Encoding.UTF_16.getWidth());
+        return begin(Source.of(source), encode(source, buffer), slice);
+    }
+
+    /**
+     * Use the parser to parse source code stored in a {@link ByteBuffer} in time slices.
+     * The bytes between the current position and the limit of the buffer are parsed,
+     * while the position, limit and mark of the buffer itself remain unchanged.
+     * Heap buffers are copied off-heap once, so that the same input can be supplied
+     * to {@code tree-sitter} every time parsing is resumed. As such, the contents of
+     * the buffer should not be modified until parsing completes.
+     *
+     * @param buffer the buffer containing the source code
+     * @param encoding the encoding of the source code
+     * @param slice the maximum duration of the first parsing slice,
+     * rounded down to the millisecond, with zero denoting no limit
+     * @return the progress of parsing after the first slice
+     * @throws NullPointerException if any of the arguments is {@code null}
+     * @throws IllegalArgumentException if the slice duration is negative, or if the number of
+     * remaining bytes is not a multiple of the {@link Encoding#getWidth() encoding width}
+     * @throws ParsingException if a parsing failure occurs
+     * @since 1.13.0
+     * @see #parseSliced(String, Duration)
+     */
+    public ParseProgress parseSliced(
+            @NotNull ByteBuffer buffer, @NotNull Encoding encoding, @NotNull Duration slice
+    ) throws ParsingException {
+        Objects.requireNonNull(buffer, NULL_BUFFER);
+        Objects.requireNonNull(encoding, NULL_ENCODING);
+        ByteBuffer region = validated(buffer.slice(), encoding);
+        if (!region.isDirect()) region = ByteBuffer.allocateDirect(region.remaining()).put(region).flip();
+        return begin(Source.of(region, encoding), region, slice);
+    }
+
+    private ParseProgress begin(Source source, ByteBuffer buffer, Duration slice) {
+        Objects.requireNonNull(slice, NULL_DURATION);
+        if (slice.isNegative()) throw new IllegalArgumentException(NEGATIVE_DURATION);
+        Parser parser = toBuilder().build();
+        parser.setLogger(getLogger());
+        ParseProgress progress = new ParseProgress(parser, source, buffer);
+        return progress.resume(slice);
+    }
+
+    /*
+     * Returns null if the timeout expired before parsing completed,
+     * in which case the parser retains its state for resumption
+     */
+    Tree resume(Source source, ByteBuffer buffer, long timeout) {
+        setTimeout(timeout);
+        return guarded(() -> resume(source, buffer, buffer.remaining(), source.getEncoding()));
+    }
+
+    /*
+     * Used by documents, whose text is encoded and supplied
+     * to the native parser in chunks, rather than in one piece
+     */
+    Tree parse(PieceTable.Snapshot snapshot, Tree oldTree) {
+        Input input = Input.of(snapshot);
+        return guarded(() -> parse(input, Source.of(snapshot), oldTree));
+    }
+
+    /*
+     * All native parsing goes through here, so that cancellation
+     * requests that arrive after the native parse has stopped checking
+     * for them, be it from the watchdog, a future or the listener,
+     * are discarded rather than carried over into the next parse
+     */
+    private Tree guarded(Supplier<Tree> parse) {
+        try {
+            return watched(parse);
+        } finally {
+            parseHandle.reset();
+        }
+    }
+
+    /*
+     * Thread interrupts are turned into cancellations for
+     * the duration of parsing, buffered log entries are flushed
+     * once it ends, and the listener is notified of the outcome
+     */
+    private Tree watched(Supplier<Tree> parse) {
+        LogBuffer buffer = logBuffer;
+        if (buffer != null) buffer.begin();
+        ParseListener listener = parseListener;
+        if (listener != null) metrics.putLong(ParseMetrics.FLAGS_OFFSET, 0L);
+        InterruptWatchdog.watch(parseHandle, Thread.currentThread());
+        Tree tree;
+        try {
+            tree = parse.get();
+        } catch (ParsingException ex) {
+            try {
+                report(listener);
+            } catch (RuntimeException suppressed) {
+                ex.addSuppressed(suppressed);
+            }
+            throw ex;
+        } finally {
+            InterruptWatchdog.unwatch(parseHandle);
+            if (buffer != null) buffer.flush();
+        }
+        // Suspended slices are reported once parsing completes
+        if (tree == null) return null;
+        try {
+            report(listener);
+        } catch (RuntimeException ex) {
+            tree.close();
+            throw ex;
+        }
+        return tree;
+    }
+
+    private void report(ParseListener listener) {
+        if (listener == null) return;
+        if ((metrics.getLong(ParseMetrics.FLAGS_OFFSET) & ParseMetrics.RECORDED) == 0) return;
+        listener.onParse(new ParseMetrics(language, metrics));
+    }
+
+    private native Tree parse(
+            Source source, byte[] bytes, int offset, int length, Encoding encoding, Tree oldTree
+    );
+
+    private native Tree parse(Source source, ByteBuffer buffer, int length, Encoding encoding, Tree oldTree);
+
+    private native Tree parse(Input input, Source source, Tree oldTree);
+
+    private native Tree resume(Source source, ByteBuffer buffer, int length, Encoding encoding);
 }
@@ -0,0 +1,402 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe pool of {@link Parser} instances, keyed by {@link Language}.
+ * Since parsers can not be used by multiple threads at once, and their creation
+ * involves both a native allocation and the language setup, this class allows
+ * for parsers to be leased by a thread, and returned to the pool once no longer
+ * needed. Leases are meant to be used in try-with-resources blocks:
+ * <pre>{@code
+ * try (ParserPool.Lease lease = pool.lease(Language.JAVA)) {
+ *     Parser parser = lease.getParser();
+ *     // use the parser
+ * }
+ * }</pre>
+ * The number of parsers that can be leased at once is limited on a per-language basis.
+ * Upon being returned, the timeout of each parser is reset to the pool default,
+ * while its included ranges, logger, parse listener, progress monitor
+ * and pending cancellation requests are cleared.
+ * Parsers that remain idle for longer than the eviction interval are closed in the background.
+ *
+ * @since 1.13.0
+ * @author Ozren Dabić
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ParserPool implements AutoCloseable {
+
+    private static final String NULL_LANGUAGE = "Language must not be null!";
+    private static final String NULL_DURATION = "Duration must not be null!";
+    private static final String NEGATIVE_DURATION = "Duration must not be negative!";
+    private static final String NON_POSITIVE_LIMIT = "Limit must be positive!";
+    private static final String CLOSED_POOL = "Pool is closed!";
+
+    int limit;
+    Map<Language, Integer> limits;
+    long timeout;
+    long evictionInterval;
+
+    Map<Language, Slot> slots = new ConcurrentHashMap<>();
+    ScheduledExecutorService evictor;
+    AtomicBoolean closed = new AtomicBoolean();
+
+    LongAdder hits = new LongAdder();
+    LongAdder misses = new LongAdder();
+    LongAdder evictions = new LongAdder();
+
+    private ParserPool(int limit, Map<Language, Integer> limits, long timeout, Duration evictionInterval) {
+        this.limit = limit;
+        this.limits = limits;
+        this.timeout = timeout;
+        this.evictionInterval = evictionInterval.toNanos();
+        if (this.evictionInterval > 0) {
+            this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "tree-sitter-parser-pool-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.evictor.scheduleWithFixedDelay(
+                    this::evict, this.evictionInterval, this.evictionInterval, TimeUnit.NANOSECONDS
+            );
+        } else {
+            this.evictor = null;
+        }
+    }
+
+    /**
+     * Obtain a new {@link Builder Builder} for constructing a parser pool.
+     *
+     * @return a new pool builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Facilitates the construction of {@link ParserPool} instances.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static final class Builder {
+
+        int limit = Runtime.getRuntime().availableProcessors();
+        Map<Language, Integer> limits = new EnumMap<>(Language.class);
+        long timeout = 0L;
+        Duration evictionInterval = Duration.ofMinutes(1);
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximum number of parsers that can be leased at once for each language.
+         * Defaults to the number of available processors.
+         *
+         * @param limit the default per-language limit
+         * @return this builder
+         * @throws IllegalArgumentException if the limit is not positive
+         */
+        public Builder limit(int limit) {
+            if (limit < 1) throw new IllegalArgumentException(NON_POSITIVE_LIMIT);
+            this.limit = limit;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of parsers that can be leased at once for a specific language,
+         * overriding the {@link #limit(int) default} limit.
+         *
+         * @param language the language
+         * @param limit the limit for the language
+         * @return this builder
+         * @throws NullPointerException if the language is {@code null}
+         * @throws IllegalArgumentException if the limit is not positive
+         */
+        public Builder limit(@NotNull Language language, int limit) {
+            Objects.requireNonNull(language, NULL_LANGUAGE);
+            if (limit < 1) throw new IllegalArgumentException(NON_POSITIVE_LIMIT);
+            limits.put(language, limit);
+            return this;
+        }
+
+        /**
+         * Sets the parsing timeout of pooled parsers.
+         * Parsers are reset to this timeout whenever they are returned to the pool.
+         * Timeouts are disabled by default.
+         *
+         * @param duration the timeout duration
+         * @return this builder
+         * @throws NullPointerException if the duration is {@code null}
+         * @throws IllegalArgumentException if the duration is negative
+         */
+        public Builder timeout(@NotNull Duration duration) {
+            Objects.requireNonNull(duration, NULL_DURATION);
+            if (duration.isNegative()) throw new IllegalArgumentException(NEGATIVE_DURATION);
+            this.timeout = duration.toMillis() * TimeUnit.MILLISECONDS.toMicros(1);
+            return this;
+        }
+
+        /**
+         * Sets the duration after which idle parsers are closed.
+         * Specifying a zero duration disables eviction altogether.
+         * Defaults to one minute.
+         *
+         * @param duration the eviction interval
+         * @return this builder
+         * @throws NullPointerException if the duration is {@code null}
+         * @throws IllegalArgumentException if the duration is negative
+         */
+        public Builder evictionInterval(@NotNull Duration duration) {
+            Objects.requireNonNull(duration, NULL_DURATION);
+            if (duration.isNegative()) throw new IllegalArgumentException(NEGATIVE_DURATION);
+            this.evictionInterval = duration;
+            return this;
+        }
+
+        /**
+         * Builds and returns a new parser pool instance with the configured settings.
+         *
+         * @return a new parser pool instance
+         */
+        public ParserPool build() {
+            return new ParserPool(limit, new EnumMap<>(limits), timeout, evictionInterval);
+        }
+    }
+
+    /**
+     * Lease a parser for the given language, waiting if the limit
+     * of concurrently leased parsers for that language has been reached.
+     *
+     * @param language the language of the parser
+     * @return a lease of a parser for the language
+     * @throws NullPointerException if the language is {@code null}
+     * @throws IllegalStateException if the pool has been closed
+     * @throws InterruptedException if interrupted while waiting
+     * @throws ch.usi.si.seart.treesitter.exception.parser.IncompatibleLanguageException
+     * if a new parser could not be created for the language
+     */
+    public Lease lease(@NotNull Language language) throws InterruptedException {
+        Objects.requireNonNull(language, NULL_LANGUAGE);
+        Slot slot = getSlot(language);
+        slot.permits.acquire();
+        return lease(language, slot);
+    }
+
+    /**
+     * Lease a parser for the given language, waiting at most for the given duration if the
+     * limit of concurrently leased parsers for that language has been reached.
+     *
+     * @param language the language of the parser
+     * @param timeout the maximum duration to wait
+     * @return a lease of a parser for the language,
+     * or an empty optional if the waiting time elapsed
+     * @throws NullPointerException if either argument is {@code null}
+     * @throws IllegalStateException if the pool has been closed
+     * @throws InterruptedException if interrupted while waiting
+     * @throws ch.usi.si.seart.treesitter.exception.parser.IncompatibleLanguageException
+     * if a new parser could not be created for the language
+     */
+    public Optional<Lease> tryLease(
+            @NotNull Language language, @NotNull Duration timeout
+    ) throws InterruptedException {
+        Objects.requireNonNull(language, NULL_LANGUAGE);
+        Objects.requireNonNull(timeout, NULL_DURATION);
+        Slot slot = getSlot(language);
+        boolean acquired = slot.permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        return acquired ? Optional.of(lease(language, slot)) : Optional.empty();
+    }
+
+    private Slot getSlot(Language language) {
+        if (closed.get()) throw new IllegalStateException(CLOSED_POOL);
+        return slots.computeIfAbsent(language, key -> new Slot(limits.getOrDefault(key, limit)));
+    }
+
+    private Lease lease(Language language, Slot slot) {
+        try {
+            Idle idle = slot.idle.pollFirst();
+            if (idle != null) {
+                hits.increment();
+                return new Lease(language, idle.parser, slot);
+            }
+            misses.increment();
+            Parser parser = Parser.builder()
+                    .language(language)
+                    .timeout(timeout)
+                    .build();
+            return new Lease(language, parser, slot);
+        } catch (RuntimeException ex) {
+            slot.permits.release();
+            throw ex;
+        }
+    }
+
+    private void release(Lease lease) {
+        Parser parser = lease.parser;
+        Slot slot = lease.slot;
+        try {
+            if (parser.isNull()) return;
+            if (closed.get()) {
+                parser.close();
+                return;
+            }
+            try {
+                if (parser.getLanguage() != lease.language) parser.setLanguage(lease.language);
+                parser.setTimeout(timeout);
+                parser.setIncludedRanges();
+                parser.setLogger(null);
+                parser.setParseListener(null);
+                parser.setProgressMonitor(null);
+                parser.getParseHandle().reset();
+                Idle idle = new Idle(parser, System.nanoTime());
+                slot.idle.offerFirst(idle);
+                if (closed.get() && slot.idle.remove(idle)) parser.close();
+            } catch (RuntimeException ex) {
+                parser.close();
+            }
+        } finally {
+            slot.permits.release();
+        }
+    }
+
+    private void evict() {
+        long threshold = System.nanoTime() - evictionInterval;
+        for (Slot slot: slots.values()) {
+            for (Idle idle: (Iterable<Idle>) slot.idle::descendingIterator) {
+                if (idle.since - threshold > 0) break;
+                if (slot.idle.removeLastOccurrence(idle)) {
+                    idle.parser.close();
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the number of leases served by an idle, previously created parser.
+     *
+     * @return the number of pool hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of leases that required the creation of a new parser.
+     *
+     * @return the number of pool misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of idle parsers that were closed by eviction.
+     *
+     * @return the number of evicted parsers
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Get the number of idle parsers currently held by the pool for a language.
+     *
+     * @param language the language of the parsers
+     * @return the number of idle parsers
+     * @throws NullPointerException if the language is {@code null}
+     */
+    public int getIdleCount(@NotNull Language language) {
+        Objects.requireNonNull(language, NULL_LANGUAGE);
+        Slot slot = slots.get(language);
+        return slot != null ? slot.idle.size() : 0;
+    }
+
+    /**
+     * Close the pool, along with all of its idle parsers.
+     * Parsers that are currently leased are closed once they are returned.
+     * Attempting to lease parsers from a closed pool will result in an exception.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) return;
+        if (evictor != null) evictor.shutdownNow();
+        for (Slot slot: slots.values()) {
+            for (Idle idle = slot.idle.pollFirst(); idle != null; idle = slot.idle.pollFirst()) {
+                idle.parser.close();
+            }
+        }
+    }
+
+    /**
+     * Represents the exclusive use of a pooled {@link Parser}.
+     * Closing the lease returns the parser to the pool.
+     * The parser should not be used once the lease has been closed.
+     *
+     * @since 1.13.0
+     * @author Ozren Dabić
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    public final class Lease implements AutoCloseable {
+
+        Language language;
+
+        @Getter
+        Parser parser;
+
+        Slot slot;
+
+        AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(Language language, Parser parser, Slot slot) {
+            this.language = language;
+            this.parser = parser;
+            this.slot = slot;
+        }
+
+        /**
+         * Return the leased parser to the pool.
+         * Subsequent invocations have no effect.
+         */
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) release(this);
+        }
+    }
+
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class Slot {
+
+        Semaphore permits;
+        Deque<Idle> idle = new ConcurrentLinkedDeque<>();
+
+        private Slot(int limit) {
+            this.permits = new Semaphore(limit);
+        }
+    }
+
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class Idle {
+
+        Parser parser;
+        long since;
+    }
+}
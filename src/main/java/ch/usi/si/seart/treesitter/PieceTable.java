@@ -0,0 +1,197 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Text buffer composed of pieces, each referencing a range of an immutable string.
+ * Replacing text only splits the affected pieces and inserts one for the new text,
+ * so the cost of an edit does not depend on the length of the text. Since none of
+ * the referenced strings are ever modified, snapshots only need to copy the list of
+ * pieces, and remain valid regardless of the edits that are made afterwards. Once the
+ * number of pieces exceeds a threshold, they are compacted into a single string.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+class PieceTable {
+
+    private static final int COMPACTION_THRESHOLD = 1024;
+
+    final List<Piece> pieces = new ArrayList<>();
+    int length;
+
+    PieceTable(@NotNull String text) {
+        append(pieces, new Piece(Chunk.of(text), 0, text.length()));
+        length = text.length();
+    }
+
+    int length() {
+        return length;
+    }
+
+    void replace(int start, int end, @NotNull String text) {
+        List<Piece> replaced = new ArrayList<>(pieces.size() + 2);
+        Piece inserted = new Piece(Chunk.of(text), 0, text.length());
+        boolean placed = false;
+        int position = 0;
+        for (Piece piece: pieces) {
+            int pieceEnd = position + piece.length();
+            if (pieceEnd <= start) {
+                append(replaced, piece);
+            } else if (position >= end) {
+                if (!placed) append(replaced, inserted);
+                append(replaced, piece);
+                placed = true;
+            } else {
+                if (position < start) append(replaced, piece.slice(0, start - position));
+                if (pieceEnd > end) {
+                    append(replaced, inserted);
+                    append(replaced, piece.slice(end - position, piece.length()));
+                    placed = true;
+                }
+            }
+            position = pieceEnd;
+        }
+        if (!placed) append(replaced, inserted);
+        length += text.length() - (end - start);
+        pieces.clear();
+        if (replaced.size() > COMPACTION_THRESHOLD) {
+            String compacted = snapshot(replaced).toString();
+            append(pieces, new Piece(Chunk.of(compacted), 0, compacted.length()));
+        } else {
+            pieces.addAll(replaced);
+        }
+    }
+
+    Point pointAt(int offset) {
+        int row = 0;
+        int lineStart = 0;
+        int position = 0;
+        for (Piece piece: pieces) {
+            if (position >= offset) break;
+            int limit = Math.min(offset - position, piece.length());
+            int[] breaks = piece.chunk.breaks;
+            int low = lowerBound(breaks, piece.start);
+            int high = lowerBound(breaks, piece.start + limit);
+            row += high - low;
+            if (high > low) lineStart = position + breaks[high - 1] - piece.start + 1;
+            position += piece.length();
+        }
+        return new Point(row, offset - lineStart);
+    }
+
+    Snapshot snapshot() {
+        return snapshot(pieces);
+    }
+
+    private static Snapshot snapshot(List<Piece> pieces) {
+        Piece[] array = pieces.toArray(Piece[]::new);
+        int[] offsets = new int[array.length + 1];
+        for (int i = 0; i < array.length; i++) {
+            offsets[i + 1] = offsets[i] + array[i].length();
+        }
+        return new Snapshot(array, offsets);
+    }
+
+    private static void append(List<Piece> pieces, Piece piece) {
+        if (piece.length() > 0) pieces.add(piece);
+    }
+
+    private static int lowerBound(int[] array, int key) {
+        int index = Arrays.binarySearch(array, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class Chunk {
+
+        String string;
+        int[] breaks;
+
+        private static Chunk of(String string) {
+            int count = 0;
+            for (int i = string.indexOf('\n'); i >= 0; i = string.indexOf('\n', i + 1)) count++;
+            int[] breaks = new int[count];
+            int index = 0;
+            for (int i = string.indexOf('\n'); i >= 0; i = string.indexOf('\n', i + 1)) breaks[index++] = i;
+            return new Chunk(string, breaks);
+        }
+    }
+
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class Piece {
+
+        Chunk chunk;
+        int start;
+        int end;
+
+        private int length() {
+            return end - start;
+        }
+
+        private Piece slice(int from, int to) {
+            return new Piece(chunk, start + from, start + to);
+        }
+    }
+
+    /*
+     * Immutable view of the text at the time it was taken.
+     * Sub-sequences are copied, as is the case for strings.
+     */
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    static final class Snapshot implements CharSequence {
+
+        Piece[] pieces;
+        int[] offsets;
+
+        @Override
+        public int length() {
+            return offsets[pieces.length];
+        }
+
+        @Override
+        public char charAt(int index) {
+            int i = indexOf(index);
+            Piece piece = pieces[i];
+            return piece.chunk.string.charAt(piece.start + index - offsets[i]);
+        }
+
+        @Override
+        public @NotNull String subSequence(int start, int end) {
+            char[] chars = new char[end - start];
+            getChars(start, end, chars, 0);
+            return new String(chars);
+        }
+
+        void getChars(int start, int end, char[] destination, int index) {
+            int position = start;
+            int written = index;
+            for (int i = indexOf(start); position < end; i++) {
+                Piece piece = pieces[i];
+                int from = piece.start + position - offsets[i];
+                int to = piece.start + Math.min(end, offsets[i + 1]) - offsets[i];
+                piece.chunk.string.getChars(from, to, destination, written);
+                written += to - from;
+                position += to - from;
+            }
+        }
+
+        private int indexOf(int offset) {
+            int index = Arrays.binarySearch(offsets, 0, pieces.length, offset);
+            return index >= 0 ? index : -index - 2;
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return subSequence(0, length());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ch.usi.si.seart.treesitter;
+
+/**
+ * Callback consulted by a {@link Parser} as parsing progresses, which can stop parsing early.
+ * This is mainly useful for bailing out of pathological inputs, such as minified bundles
+ * or machine-generated files, which tend to consume the entire {@link Parser#getTimeout() timeout},
+ * only to produce trees that consist mostly of {@code ERROR} nodes.
+ * <p>
+ * The monitor is consulted each time the parser reads further into the input,
+ * which happens at least once every 4 KiB, as well as each time the parser incurs
+ * an error recovery cost, provided that the monitor {@link #tracksErrorCost() tracks it}.
+ * Should the monitor return {@code false}, parsing is stopped as soon as possible, and a
+ * {@link ch.usi.si.seart.treesitter.exception.parser.ParsingException ParsingException} caused by a
+ * {@link java.util.concurrent.CancellationException CancellationException} is thrown.
+ * Exceptions thrown by the monitor also stop parsing, and are propagated to the caller.
+ * <p>
+ * Monitors are invoked on the parsing thread, and must not use the parser themselves.
+ *
+ * @since 1.13.0
+ * @author Ozren Dabić
+ * @see Parser#setProgressMonitor(ProgressMonitor)
+ */
+@FunctionalInterface
+public interface ProgressMonitor {
+
+    /**
+     * Decide whether parsing should continue.
+     *
+     * @param bytes the number of bytes of input consumed so far
+     * @param errorCost the error recovery cost incurred so far,
+     * always zero unless the monitor {@link #tracksErrorCost() tracks it}
+     * @return true if parsing should continue, false if it should be stopped
+     */
+    boolean proceed(long bytes, long errorCost);
+
+    /**
+     * Check if the monitor makes use of the error recovery cost.
+     * The cost is approximated from the debugging information written by {@code tree-sitter},
+     * weighing each detected error, missing node and skipped token by the same amount
+     * that the parser itself uses to rank its error recovery strategies.
+     * Costs proportional to the amount of skipped input are not logged, and thus not included.
+     * Tracking the cost requires {@code tree-sitter} to produce said information,
+     * which noticeably slows down parsing, and is therefore disabled by default.
+     *
+     * @return true if the error recovery cost should be tracked
+     */
+    default boolean tracksErrorCost() {
+        return false;
+    }
+
+    /**
+     * Obtain a monitor that stops parsing once the error recovery cost
+     * exceeds the given limit per kilobyte of consumed input.
+     * The limit is only enforced after the first kilobyte of input has been consumed,
+     * while the ratio is still too noisy to judge the input by.
+     *
+     * @param limit the largest acceptable error recovery cost per kilobyte
+     * @return a monitor that enforces the limit
+     * @throws IllegalArgumentException if the limit is negative
+     */
+    static ProgressMonitor errorCostLimit(long limit) {
+        if (limit < 0) throw new IllegalArgumentException("Limit must not be negative!");
+        return new ProgressMonitor() {
+
+            private static final long KILOBYTE = 1_024L;
+
+            @Override
+            public boolean proceed(long bytes, long errorCost) {
+                return bytes < KILOBYTE || errorCost * KILOBYTE <= limit * bytes;
+            }
+
+            @Override
+            public boolean tracksErrorCost() {
+                return true;
+            }
+        };
+    }
+}
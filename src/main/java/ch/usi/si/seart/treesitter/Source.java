@@ -0,0 +1,178 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+
+/*
+ * The source code backing a syntax tree.
+ * Offsets passed to its methods are expressed in the
+ * units of the encoding that was used during parsing.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+abstract class Source {
+
+    Encoding encoding;
+
+    static Source of(@NotNull String string) {
+        return new StringSource(string);
+    }
+
+    static Source of(@NotNull ByteBuffer buffer, @NotNull Encoding encoding) {
+        return new BufferSource(buffer, encoding, 0);
+    }
+
+    /*
+     * For buffers holding a window of some larger input,
+     * whose offsets are relative to the start of said input
+     */
+    static Source of(@NotNull ByteBuffer buffer, @NotNull Encoding encoding, int origin) {
+        return new BufferSource(buffer, encoding, origin);
+    }
+
+    static Source of(@NotNull PieceTable.Snapshot snapshot) {
+        return new SnapshotSource(snapshot);
+    }
+
+    static Source none(@NotNull Encoding encoding) {
+        return new NoSource(encoding);
+    }
+
+    abstract String getContent();
+
+    abstract String getContent(int start, int end);
+
+    abstract CharSequence getView(int start, int end);
+
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class StringSource extends Source {
+
+        String string;
+
+        private StringSource(String string) {
+            super(Encoding.UTF_16);
+            this.string = string;
+        }
+
+        @Override
+        String getContent() {
+            return string;
+        }
+
+        /*
+         * UTF-16 offsets coincide with String indices,
+         * so there is no need to encode the string at all.
+         */
+        @Override
+        String getContent(int start, int end) {
+            return string.substring(start, end);
+        }
+
+        @Override
+        CharSequence getView(int start, int end) {
+            return CharBuffer.wrap(string, start, end);
+        }
+    }
+
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class BufferSource extends Source {
+
+        ByteBuffer buffer;
+        int origin;
+
+        private BufferSource(ByteBuffer buffer, Encoding encoding, int origin) {
+            super(encoding);
+            this.buffer = buffer.asReadOnlyBuffer();
+            this.origin = origin;
+        }
+
+        @Override
+        String getContent() {
+            return getEncoding().getCharset().decode(buffer.duplicate()).toString();
+        }
+
+        @Override
+        String getContent(int start, int end) {
+            return decode(start, end).toString();
+        }
+
+        /*
+         * UTF-16 code units can be viewed in-place,
+         * while UTF-8 bytes have to be decoded first.
+         */
+        @Override
+        CharSequence getView(int start, int end) {
+            return getEncoding() == Encoding.UTF_16
+                    ? slice(start, end).order(ByteOrder.LITTLE_ENDIAN).asCharBuffer()
+                    : decode(start, end);
+        }
+
+        private CharBuffer decode(int start, int end) {
+            return getEncoding().getCharset().decode(slice(start, end));
+        }
+
+        private ByteBuffer slice(int start, int end) {
+            int width = getEncoding().getWidth();
+            return buffer.duplicate()
+                    .position((start - origin) * width)
+                    .limit((end - origin) * width)
+                    .slice();
+        }
+    }
+
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class SnapshotSource extends Source {
+
+        PieceTable.Snapshot snapshot;
+
+        private SnapshotSource(PieceTable.Snapshot snapshot) {
+            super(Encoding.UTF_16);
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        String getContent() {
+            return snapshot.toString();
+        }
+
+        @Override
+        String getContent(int start, int end) {
+            return snapshot.subSequence(start, end);
+        }
+
+        @Override
+        CharSequence getView(int start, int end) {
+            return snapshot.subSequence(start, end);
+        }
+    }
+
+    private static final class NoSource extends Source {
+
+        private NoSource(Encoding encoding) {
+            super(encoding);
+        }
+
+        @Override
+        String getContent() {
+            throw new UnsupportedOperationException("Source code of streamed trees is not retained!");
+        }
+
+        @Override
+        String getContent(int start, int end) {
+            return getContent();
+        }
+
+        @Override
+        CharSequence getView(int start, int end) {
+            return getContent();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Computes the edits that transform one version of source code into another.
+ * The common prefix and suffix are trimmed first, which is all that is needed
+ * for the typical single change. The remainder is compared code point by code
+ * point using the Myers algorithm, yielding a minimal sequence of hunks. When
+ * the edit distance exceeds the limit, the remainder is treated as a single
+ * hunk instead, trading minimality for bounded time and memory.
+ *
+ * Edits are ordered by position, with each one expressed in the coordinates
+ * of the source that results from applying all the preceding edits. As such,
+ * they can be applied to a tree in sequence, exactly as they are returned.
+ */
+@UtilityClass
+class SourceDiff {
+
+    private static final int LIMIT = 1024;
+
+    private static final int MAX_ONE_BYTE = 0x7F;
+    private static final int MAX_TWO_BYTE = 0x7FF;
+    private static final int THREE_BYTES = 3;
+    private static final int FOUR_BYTES = THREE_BYTES + 1;
+
+    List<InputEdit> diff(String oldSource, String newSource, Encoding encoding) {
+        int prefix = 0;
+        int bound = Math.min(oldSource.length(), newSource.length());
+        while (prefix < bound && oldSource.charAt(prefix) == newSource.charAt(prefix)) prefix++;
+        if (prefix == oldSource.length() && prefix == newSource.length()) return Collections.emptyList();
+        if (prefix > 0 && Character.isHighSurrogate(oldSource.charAt(prefix - 1))) prefix--;
+        int suffix = 0;
+        int oldLength = oldSource.length();
+        int newLength = newSource.length();
+        bound -= prefix;
+        while (suffix < bound && oldSource.charAt(oldLength - suffix - 1) == newSource.charAt(newLength - suffix - 1)) {
+            suffix++;
+        }
+        if (suffix > 0 && Character.isLowSurrogate(oldSource.charAt(oldLength - suffix))) suffix--;
+        String oldMiddle = oldSource.substring(prefix, oldLength - suffix);
+        String newMiddle = newSource.substring(prefix, newLength - suffix);
+        List<Hunk> hunks = hunks(oldMiddle, newMiddle);
+        List<InputEdit> edits = new ArrayList<>(hunks.size());
+        Position position = new Position(encoding);
+        position.advance(newSource, 0, prefix);
+        int cursor = prefix;
+        for (Hunk hunk: hunks) {
+            int oldStart = prefix + hunk.oldStart;
+            int oldEnd = prefix + hunk.oldEnd;
+            int newStart = prefix + hunk.newStart;
+            int newEnd = prefix + hunk.newEnd;
+            position.advance(newSource, cursor, newStart);
+            Position removed = position.copy();
+            removed.advance(oldSource, oldStart, oldEnd);
+            Position start = position.copy();
+            position.advance(newSource, newStart, newEnd);
+            cursor = newEnd;
+            edits.add(new InputEdit(
+                    start.offset,
+                    removed.offset,
+                    position.offset,
+                    start.toPoint(),
+                    removed.toPoint(),
+                    position.toPoint()
+            ));
+        }
+        return edits;
+    }
+
+    /*
+     * Returns the hunks in terms of char indices,
+     * with the comparison carried out on code points.
+     */
+    private List<Hunk> hunks(String oldMiddle, String newMiddle) {
+        int[] a = oldMiddle.codePoints().toArray();
+        int[] b = newMiddle.codePoints().toArray();
+        int[][] trace = trace(a, b);
+        if (trace == null) {
+            Hunk hunk = new Hunk(0, oldMiddle.length(), 0, newMiddle.length());
+            return Collections.singletonList(hunk);
+        }
+        int[] oldIndices = indices(oldMiddle, a.length);
+        int[] newIndices = indices(newMiddle, b.length);
+        List<Hunk> hunks = new ArrayList<>();
+        Hunk current = null;
+        int x = a.length;
+        int y = b.length;
+        for (int d = trace.length - 1; d > 0; d--) {
+            int[] v = trace[d - 1];
+            int k = x - y;
+            int previousK = (k == -d || (k != d && v[k - 1 + d - 1] < v[k + 1 + d - 1])) ? k + 1 : k - 1;
+            int previousX = v[previousK + d - 1];
+            int previousY = previousX - previousK;
+            int startX = x;
+            int startY = y;
+            while (startX > previousX && startY > previousY) {
+                startX--;
+                startY--;
+            }
+            boolean adjacent = current != null && current.oldStart == startX && current.newStart == startY;
+            if (!adjacent) {
+                current = new Hunk(startX, startX, startY, startY);
+                hunks.add(current);
+            }
+            current.oldStart = previousX;
+            current.newStart = previousY;
+            x = previousX;
+            y = previousY;
+        }
+        Collections.reverse(hunks);
+        for (Hunk hunk: hunks) {
+            hunk.oldStart = oldIndices[hunk.oldStart];
+            hunk.oldEnd = oldIndices[hunk.oldEnd];
+            hunk.newStart = newIndices[hunk.newStart];
+            hunk.newEnd = newIndices[hunk.newEnd];
+        }
+        return hunks;
+    }
+
+    /*
+     * Runs the forward pass of the Myers algorithm, recording the
+     * furthest reaching x for each diagonal k in [-d, d] at index
+     * k + d of the d-th row. Returns null once the limit is exceeded.
+     */
+    private int[][] trace(int[] a, int[] b) {
+        int n = a.length;
+        int m = b.length;
+        int max = Math.min(n + m, LIMIT);
+        int offset = max + 1;
+        int[] v = new int[2 * offset + 1];
+        List<int[]> rows = new ArrayList<>();
+        for (int d = 0; d <= max; d++) {
+            for (int k = -d; k <= d; k += 2) {
+                boolean down = k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1]);
+                int x = down ? v[offset + k + 1] : v[offset + k - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && a[x] == b[y]) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+            }
+            int[] row = new int[2 * d + 1];
+            System.arraycopy(v, offset - d, row, 0, row.length);
+            rows.add(row);
+            if (Math.abs(n - m) <= d && v[offset + n - m] >= n) return rows.toArray(int[][]::new);
+        }
+        return null;
+    }
+
+    private int[] indices(String string, int count) {
+        int[] indices = new int[count + 1];
+        int index = 0;
+        for (int i = 0; i < count; i++) {
+            indices[i] = index;
+            index += Character.charCount(string.codePointAt(index));
+        }
+        indices[count] = index;
+        return indices;
+    }
+
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    private static final class Hunk {
+
+        int oldStart;
+        int oldEnd;
+        int newStart;
+        int newEnd;
+    }
+
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    private static final class Position {
+
+        final Encoding encoding;
+        int offset;
+        int row;
+        int column;
+
+        private Position(Encoding encoding) {
+            this.encoding = encoding;
+        }
+
+        private Position copy() {
+            Position copy = new Position(encoding);
+            copy.offset = offset;
+            copy.row = row;
+            copy.column = column;
+            return copy;
+        }
+
+        private void advance(String string, int start, int end) {
+            for (int i = start; i < end; i++) {
+                char c = string.charAt(i);
+                int units = units(c);
+                offset += units;
+                if (c == '\n') {
+                    row++;
+                    column = 0;
+                } else {
+                    column += units;
+                }
+            }
+        }
+
+        /*
+         * UTF-8 byte counts are attributed per char,
+         * with surrogate pairs counted on their high half
+         */
+        private int units(char c) {
+            if (encoding == Encoding.UTF_16) return 1;
+            if (c <= MAX_ONE_BYTE) return 1;
+            if (c <= MAX_TWO_BYTE) return 2;
+            if (Character.isHighSurrogate(c)) return FOUR_BYTES;
+            if (Character.isLowSurrogate(c)) return 0;
+            return THREE_BYTES;
+        }
+
+        private Point toPoint() {
+            return new Point(row, column);
+        }
+    }
+}
@@ -5,11 +5,11 @@ import lombok.Getter;
 import lombok.experimental.FieldDefaults;
 import org.jetbrains.annotations.NotNull;
 
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.stream.Stream;
 
 /**
  * A Tree represents the syntax tree of an entire source code file.
@@ -23,15 +23,36 @@ import java.util.List;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class Tree extends External implements Iterable<Node>, Cloneable {
 
-    private static final Charset CHARSET = StandardCharsets.UTF_16LE;
+    private static final String NULL_EDIT = "Input edit must not be null!";
+    private static final String NULL_EDITS = "Input edits must not be null!";
+    private static final String NULL_OFFSETS = "Offsets must not be null!";
+    private static final String NULL_POINTS = "Points must not be null!";
+    private static final String MISMATCHED_LENGTHS = "Offsets and points must describe the same number of edits!";
+
+    private static final int OFFSETS_PER_EDIT = 3;
+    private static final int POINTS_PER_EDIT = OFFSETS_PER_EDIT * 2;
 
     Language language;
-    String source;
+
+    @Getter(AccessLevel.NONE)
+    Source source;
+
+    /*
+     * Width of the source encoding, resolved once so that
+     * native offset conversions need only read a single field
+     */
+    @Getter(AccessLevel.NONE)
+    int width;
 
     Tree(long pointer, @NotNull Language language, @NotNull String source) {
+        this(pointer, language, Source.of(source));
+    }
+
+    Tree(long pointer, @NotNull Language language, @NotNull Source source) {
         super(pointer);
         this.language = language;
         this.source = source;
+        this.width = source.getEncoding().getWidth();
     }
 
     @Override
@@ -45,6 +66,96 @@ public class Tree extends External implements Iterable<Node>, Cloneable {
      */
     public native void edit(@NotNull InputEdit edit);
 
+    /**
+     * Edit the syntax tree to keep it in sync with a new version of its source code.
+     * The edits are {@link InputEdit#diff(String, String, Encoding) computed} by comparing
+     * the {@link #getSource() current source} of the tree with the new one, after which they are
+     * applied to the tree. The edited tree can then be used to incrementally reparse the new source.
+     *
+     * @param source the new version of the source code
+     * @return the edits applied to the syntax tree
+     * @throws NullPointerException if the source is {@code null}
+     * @throws UnsupportedOperationException if the source of the tree is not retained
+     * @since 1.13.0
+     * @see Parser#parse(String, Tree)
+     */
+    public List<InputEdit> editTo(@NotNull String source) {
+        List<InputEdit> edits = InputEdit.diff(getSource(), source, getEncoding());
+        editAll(edits);
+        return edits;
+    }
+
+    /**
+     * Edit the syntax tree using a sequence of edits, all applied in a single native call.
+     * The edits are applied in order, and as such each one should be expressed in the
+     * coordinates of the source code that results from applying all the preceding edits.
+     * Adjacent edits can be merged beforehand using {@link InputEdit#coalesce(List)}.
+     * This method is named differently from {@link #edit(InputEdit)} so that
+     * calls passing a {@code null} literal remain unambiguous.
+     *
+     * @param edits changes made to the source code in terms of
+     * <strong>both</strong> byte offsets and row/column coordinates
+     * @throws NullPointerException if the list is {@code null} or contains {@code null} elements
+     * @since 1.13.0
+     */
+    public void editAll(@NotNull List<@NotNull InputEdit> edits) {
+        Objects.requireNonNull(edits, NULL_EDITS);
+        int count = edits.size();
+        int[] offsets = new int[count * OFFSETS_PER_EDIT];
+        int[] points = new int[count * POINTS_PER_EDIT];
+        int i = 0;
+        int j = 0;
+        for (InputEdit edit: edits) {
+            Objects.requireNonNull(edit, NULL_EDIT);
+            offsets[i++] = edit.getStartByte();
+            offsets[i++] = edit.getOldEndByte();
+            offsets[i++] = edit.getNewEndByte();
+            j = pack(edit.getStartPoint(), points, j);
+            j = pack(edit.getOldEndPoint(), points, j);
+            j = pack(edit.getNewEndPoint(), points, j);
+        }
+        edit(offsets, points, count);
+    }
+
+    private static int pack(Point point, int[] points, int index) {
+        points[index] = point.getRow();
+        points[index + 1] = point.getColumn();
+        return index + 2;
+    }
+
+    /**
+     * Edit the syntax tree using a sequence of edits packed into primitive arrays,
+     * all applied in a single native call. For each edit at index {@code i}:
+     * <pre>{@code
+     * offsets[3 * i]     // start offset
+     * offsets[3 * i + 1] // old end offset
+     * offsets[3 * i + 2] // new end offset
+     * points[6 * i]      // start row
+     * points[6 * i + 1]  // start column
+     * points[6 * i + 2]  // old end row
+     * points[6 * i + 3]  // old end column
+     * points[6 * i + 4]  // new end row
+     * points[6 * i + 5]  // new end column
+     * }</pre>
+     * As is the case with {@link #editAll(List)}, the edits are applied in order.
+     *
+     * @param offsets the packed offsets of the edits
+     * @param points the packed row/column coordinates of the edits
+     * @throws NullPointerException if either array is {@code null}
+     * @throws IllegalArgumentException if the array lengths do not describe the same number of edits
+     * @since 1.13.0
+     */
+    public void editAll(@NotNull int[] offsets, @NotNull int[] points) {
+        Objects.requireNonNull(offsets, NULL_OFFSETS);
+        Objects.requireNonNull(points, NULL_POINTS);
+        int count = offsets.length / OFFSETS_PER_EDIT;
+        if (offsets.length % OFFSETS_PER_EDIT != 0 || points.length != count * POINTS_PER_EDIT)
+            throw new IllegalArgumentException(MISMATCHED_LENGTHS);
+        edit(offsets, points, count);
+    }
+
+    private native void edit(int[] offsets, int[] points, int count);
+
     /**
      * Compare this old edited syntax tree to a new syntax tree representing the same document,
      * returning a sequence of {@link Range} instances, their coordinates corresponding to changes
@@ -81,6 +192,45 @@ public class Tree extends External implements Iterable<Node>, Cloneable {
         return getRootNode().iterator();
     }
 
+    /**
+     * Returns a spliterator over the entire syntax tree, starting from the root.
+     *
+     * @return a spliterator over syntax tree nodes
+     * @since 1.13.0
+     * @see Node#spliterator()
+     */
+    @Override
+    public Spliterator<Node> spliterator() {
+        return getRootNode().spliterator();
+    }
+
+    /**
+     * Returns a sequential stream over the entire syntax tree, starting from the root.
+     *
+     * @return a stream of syntax tree nodes
+     * @since 1.13.0
+     * @see Node#stream()
+     */
+    public Stream<Node> stream() {
+        return getRootNode().stream();
+    }
+
+    /**
+     * Copy all the nodes of this tree into a {@link FlatTree},
+     * a structure of primitive arrays filled in a single native call.
+     *
+     * @return the flattened copy of this tree
+     * @since 1.13.0
+     */
+    public FlatTree flatten() {
+        int size = getRootNode().getDescendantCount();
+        FlatTree flat = new FlatTree(language, size);
+        flatten(flat.getColumns(), flat.getFlags());
+        return flat;
+    }
+
+    private native void flatten(int[][] columns, byte[] flags);
+
     /**
      * Clone this tree, creating a separate, independent instance.
      *
@@ -90,9 +240,33 @@ public class Tree extends External implements Iterable<Node>, Cloneable {
     @Override
     public native Tree clone();
 
+    /**
+     * Get the source code that was used to produce this syntax tree.
+     * Trees obtained by parsing raw bytes decode their source on demand.
+     *
+     * @return the source code of the syntax tree
+     */
+    public String getSource() {
+        return source.getContent();
+    }
+
+    /**
+     * Get the {@link Encoding} of the source code used to produce this syntax tree.
+     * The byte offsets and column positions of all the tree nodes are expressed
+     * in the units of this encoding.
+     *
+     * @return the source code encoding
+     * @since 1.13.0
+     */
+    public Encoding getEncoding() {
+        return source.getEncoding();
+    }
+
     String getSource(int startByte, int endByte) {
-        byte[] bytes = source.getBytes(CHARSET);
-        byte[] copy = Arrays.copyOfRange(bytes, startByte * 2, endByte * 2);
-        return new String(copy, CHARSET);
+        return source.getContent(startByte, endByte);
+    }
+
+    CharSequence getSourceView(int startByte, int endByte) {
+        return source.getView(startByte, endByte);
     }
 }
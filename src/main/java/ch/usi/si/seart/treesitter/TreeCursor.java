@@ -3,8 +3,10 @@ package ch.usi.si.seart.treesitter;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import org.jetbrains.annotations.NotNull;
 
+import java.nio.ByteBuffer;
 import java.util.Objects;
 import java.util.function.Consumer;
 
@@ -31,6 +33,9 @@ public class TreeCursor extends External implements Cloneable {
 
     Tree tree;
 
+    @NonFinal
+    BatchVisitor.Batch batch;
+
     @SuppressWarnings("unused")
     TreeCursor(long pointer, int context0, int context1, long id, @NotNull Tree tree) {
         super(pointer);
@@ -185,6 +190,26 @@ public class TreeCursor extends External implements Cloneable {
         }
     }
 
+    /**
+     * Traverse the subtree of the current node in native code,
+     * handing over the traversal events to a visitor in batches.
+     * Compared to {@link #preorderTraversal(Consumer)}, this avoids creating {@link Node}
+     * instances, and crosses the native boundary once per batch instead of several times per node.
+     * The traversal does not move the cursor, and the off-heap buffer that
+     * the batches are recorded in is reused by subsequent traversals.
+     *
+     * @param visitor the visitor that will process the events
+     * @throws NullPointerException if {@code visitor} is null
+     * @since 1.13.0
+     */
+    public void traverse(@NotNull BatchVisitor visitor) {
+        Objects.requireNonNull(visitor, "Visitor must not be null!");
+        if (batch == null) batch = new BatchVisitor.Batch();
+        traverse(visitor, batch, batch.getBuffer());
+    }
+
+    private native void traverse(BatchVisitor visitor, BatchVisitor.Batch batch, ByteBuffer buffer);
+
     /**
      * Reset the cursor to the same state as another cursor.
      *
@@ -273,6 +298,11 @@ public class TreeCursor extends External implements Cloneable {
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        public void traverse(@NotNull BatchVisitor visitor) {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         public boolean reset(@NotNull TreeCursor other) {
             throw new UnsupportedOperationException();
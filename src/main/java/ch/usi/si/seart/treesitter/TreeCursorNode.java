@@ -1,24 +1,33 @@
 package ch.usi.si.seart.treesitter;
 
 import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
 import lombok.Generated;
-import lombok.Getter;
 import lombok.experimental.FieldDefaults;
 
 /**
  * Special type of node returned during tree traversals with {@link TreeCursor}.
+ * Apart from the field name, the node properties are resolved lazily,
+ * only once they are first requested. Traversals that only inspect
+ * some properties therefore do not pay for the ones they ignore.
  *
  * @since 1.0.0
  * @author Tommy MacWilliam
  * @author Ozren Dabić
  */
-@Getter
-@AllArgsConstructor(access = AccessLevel.PACKAGE)
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class TreeCursorNode {
 
-    String name;
+    private static final int TYPE = 1;
+    private static final int CONTENT = TYPE << 1;
+    private static final int START_BYTE = CONTENT << 1;
+    private static final int END_BYTE = START_BYTE << 1;
+    private static final int START_POINT = END_BYTE << 1;
+    private static final int END_POINT = START_POINT << 1;
+    private static final int IS_NAMED = END_POINT << 1;
+
+    final String name;
+    final Node node;
+
     String type;
     String content;
     int startByte;
@@ -27,24 +36,133 @@ public class TreeCursorNode {
     Point endPoint;
     boolean isNamed;
 
+    int resolved;
+
     @SuppressWarnings("unused")
     TreeCursorNode(String name, Node node) {
-        this(
-                name,
-                node.getType(),
-                node.getContent(),
-                node.getStartByte(),
-                node.getEndByte(),
-                node.getStartPoint(),
-                node.getEndPoint(),
-                node.isNamed()
-        );
+        this.name = name;
+        this.node = node;
+    }
+
+    TreeCursorNode(TreeCursorNode other) {
+        this(other.name, other.node);
+    }
+
+    /**
+     * Get the name of the field under which the node is stored in its parent.
+     *
+     * @return the field name, or {@code null} if the node is not stored under a field
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the type of the node.
+     *
+     * @return the node type
+     * @see Node#getType()
+     */
+    public String getType() {
+        if (unresolved(TYPE)) {
+            type = node.getType();
+            resolved |= TYPE;
+        }
+        return type;
+    }
+
+    /**
+     * Get the source code content encapsulated by the node.
+     *
+     * @return the node's source code
+     * @see Node#getContent()
+     */
+    public String getContent() {
+        if (unresolved(CONTENT)) {
+            content = node.getContent();
+            resolved |= CONTENT;
+        }
+        return content;
+    }
+
+    /**
+     * Get the start offset of the node.
+     *
+     * @return the start offset
+     * @see Node#getStartByte()
+     */
+    public int getStartByte() {
+        if (unresolved(START_BYTE)) {
+            startByte = node.getStartByte();
+            resolved |= START_BYTE;
+        }
+        return startByte;
+    }
+
+    /**
+     * Get the end offset of the node.
+     *
+     * @return the end offset
+     * @see Node#getEndByte()
+     */
+    public int getEndByte() {
+        if (unresolved(END_BYTE)) {
+            endByte = node.getEndByte();
+            resolved |= END_BYTE;
+        }
+        return endByte;
+    }
+
+    /**
+     * Get the start position of the node.
+     *
+     * @return the start point
+     * @see Node#getStartPoint()
+     */
+    public Point getStartPoint() {
+        if (unresolved(START_POINT)) {
+            startPoint = node.getStartPoint();
+            resolved |= START_POINT;
+        }
+        return startPoint;
+    }
+
+    /**
+     * Get the end position of the node.
+     *
+     * @return the end point
+     * @see Node#getEndPoint()
+     */
+    public Point getEndPoint() {
+        if (unresolved(END_POINT)) {
+            endPoint = node.getEndPoint();
+            resolved |= END_POINT;
+        }
+        return endPoint;
+    }
+
+    /**
+     * Check if the node is named.
+     *
+     * @return true if the node is named, false otherwise
+     * @see Node#isNamed()
+     */
+    public boolean isNamed() {
+        if (unresolved(IS_NAMED)) {
+            isNamed = node.isNamed();
+            resolved |= IS_NAMED;
+        }
+        return isNamed;
+    }
+
+    private boolean unresolved(int property) {
+        return (resolved & property) == 0;
     }
 
     @Override
     @Generated
     public String toString() {
         String field = name != null ? name + ": " : "";
-        return String.format("%s%s [%s] - [%s]", field, type, startPoint, endPoint);
+        return String.format("%s%s [%s] - [%s]", field, getType(), getStartPoint(), getEndPoint());
     }
 }
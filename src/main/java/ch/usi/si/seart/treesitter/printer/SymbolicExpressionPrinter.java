@@ -37,8 +37,6 @@ public class SymbolicExpressionPrinter extends IterativeTreePrinter {
         for (;;) {
             TreeCursorNode cursorNode = cursor.getCurrentTreeCursorNode();
             boolean isNamed = cursorNode.isNamed();
-            String type = cursorNode.getType();
-            String name = cursorNode.getName();
             if (visitedChildren) {
                 if (isNamed) {
                     appender.accept(")");
@@ -49,6 +47,8 @@ public class SymbolicExpressionPrinter extends IterativeTreePrinter {
                 else return;
             } else {
                 if (isNamed) {
+                    String type = cursorNode.getType();
+                    String name = cursorNode.getName();
                     if (needsSpace)
                         appender.accept(" ");
                     if (name != null) {
@@ -43,10 +43,6 @@ public class XMLPrinter extends IterativeTreePrinter {
         for (;;) {
             TreeCursorNode cursorNode = cursor.getCurrentTreeCursorNode();
             boolean isNamed = cursorNode.isNamed();
-            String type = cursorNode.getType();
-            String name = cursorNode.getName();
-            Point start = cursorNode.getStartPoint();
-            Point end = cursorNode.getEndPoint();
             if (visitedChildren) {
                 if (isNamed) {
                     appender.accept("</");
@@ -58,6 +54,10 @@ public class XMLPrinter extends IterativeTreePrinter {
                 else return;
             } else {
                 if (isNamed) {
+                    String type = cursorNode.getType();
+                    String name = cursorNode.getName();
+                    Point start = cursorNode.getStartPoint();
+                    Point end = cursorNode.getEndPoint();
                     appender.accept("<");
                     appender.accept(type);
                     appender.accept(" ");
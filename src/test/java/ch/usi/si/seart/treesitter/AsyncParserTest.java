@@ -0,0 +1,157 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.Cleanup;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+class AsyncParserTest extends BaseTest {
+
+    private static final String source = "print(\"hi\")\n";
+
+    private static Path path;
+
+    private static AsyncParser parser;
+
+    @BeforeAll
+    @SneakyThrows(URISyntaxException.class)
+    @SuppressWarnings("DataFlowIssue")
+    static void beforeAll() {
+        path = Path.of(AsyncParserTest.class.getClassLoader().getResource("deep_string_concat").toURI());
+        parser = AsyncParser.builder().threads(2).build();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        parser.close();
+    }
+
+    @Test
+    void testParse() {
+        List<CompletableFuture<Tree>> futures = IntStream.range(0, 8)
+                .mapToObj(i -> parser.parse(Language.PYTHON, source))
+                .collect(Collectors.toList());
+        for (CompletableFuture<Tree> future: futures) {
+            @Cleanup Tree tree = future.join();
+            Assertions.assertEquals("module", tree.getRootNode().getType());
+            Assertions.assertEquals(source, tree.getSource());
+        }
+    }
+
+    @Test
+    void testParseBuffer() {
+        ByteBuffer buffer = ByteBuffer.wrap(source.getBytes(StandardCharsets.UTF_8));
+        @Cleanup Tree tree = parser.parse(Language.PYTHON, buffer, Encoding.UTF_8).join();
+        Assertions.assertEquals(Encoding.UTF_8, tree.getEncoding());
+        Assertions.assertEquals(source, tree.getSource());
+    }
+
+    @Test
+    void testParseMapped() {
+        @Cleanup Tree tree = parser.parse(Language.JAVA, path, Encoding.UTF_8).join();
+        Assertions.assertEquals("program", tree.getRootNode().getType());
+    }
+
+    @Test
+    void testParseFailure() {
+        CompletableFuture<Tree> future = parser.parse(Language.PYTHON, path.resolveSibling("missing.py"));
+        ExecutionException thrown = Assertions.assertThrows(ExecutionException.class, future::get);
+        Assertions.assertInstanceOf(RuntimeException.class, thrown.getCause());
+    }
+
+    @Test
+    void testCancel() {
+        @Cleanup AsyncParser parser = AsyncParser.builder().threads(1).build();
+        CompletableFuture<Tree> running = parser.parse(Language.JAVA, path);
+        CompletableFuture<Tree> queued = parser.parse(Language.JAVA, path);
+        queued.cancel(true);
+        running.cancel(true);
+        Assertions.assertThrows(CancellationException.class, running::join);
+        Assertions.assertThrows(CancellationException.class, queued::join);
+        @Cleanup Tree tree = parser.parse(Language.PYTHON, source).join();
+        Assertions.assertEquals("module", tree.getRootNode().getType());
+    }
+
+    @Test
+    void testCapacity() {
+        @Cleanup AsyncParser parser = AsyncParser.builder().threads(1).capacity(1).build();
+        CompletableFuture<?>[] futures = IntStream.range(0, 4)
+                .mapToObj(i -> parser.parse(Language.JAVA, path))
+                .toArray(CompletableFuture[]::new);
+        long rejected = Stream.of(futures)
+                .map(future -> future.handle((tree, throwable) -> {
+                    if (tree != null) ((Tree) tree).close();
+                    return throwable;
+                }).join())
+                .filter(RejectedExecutionException.class::isInstance)
+                .count();
+        Assertions.assertTrue(rejected > 0);
+    }
+
+    @Test
+    void testClose() {
+        AsyncParser parser = AsyncParser.builder().threads(1).build();
+        CompletableFuture<Tree> future = parser.parse(Language.JAVA, path);
+        CompletableFuture<Tree> queued = parser.parse(Language.JAVA, path);
+        parser.close();
+        Assertions.assertThrows(CancellationException.class, queued::join);
+        future.handle((tree, throwable) -> {
+            if (tree != null) tree.close();
+            return null;
+        }).join();
+        Assertions.assertThrows(IllegalStateException.class, () -> parser.parse(Language.PYTHON, source));
+    }
+
+    private static class ExceptionProvider implements ArgumentsProvider {
+
+        @Override
+        public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+            Executable zeroThreads = () -> AsyncParser.builder().threads(0);
+            Executable zeroCapacity = () -> AsyncParser.builder().capacity(0);
+            Executable nullTimeout = () -> AsyncParser.builder().timeout(null);
+            Executable negativeTimeout = () -> AsyncParser.builder().timeout(Duration.ofSeconds(-1));
+            Executable nullLanguage = () -> parser.parse(null, source);
+            Executable nullSource = () -> parser.parse(Language.PYTHON, (String) null);
+            Executable nullPath = () -> parser.parse(Language.PYTHON, (Path) null);
+            Executable nullEncoding = () -> parser.parse(Language.PYTHON, path, null);
+            return Stream.of(
+                    Arguments.of(IllegalArgumentException.class, zeroThreads),
+                    Arguments.of(IllegalArgumentException.class, zeroCapacity),
+                    Arguments.of(NullPointerException.class, nullTimeout),
+                    Arguments.of(IllegalArgumentException.class, negativeTimeout),
+                    Arguments.of(NullPointerException.class, nullLanguage),
+                    Arguments.of(NullPointerException.class, nullSource),
+                    Arguments.of(NullPointerException.class, nullPath),
+                    Arguments.of(NullPointerException.class, nullEncoding)
+            );
+        }
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @ArgumentsSource(ExceptionProvider.class)
+    void testThrows(Class<Throwable> type, Executable executable) {
+        Assertions.assertThrows(type, executable);
+    }
+}
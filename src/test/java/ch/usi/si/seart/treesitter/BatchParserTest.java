@@ -0,0 +1,140 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.Cleanup;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+class BatchParserTest extends BaseTest {
+
+    private static final int COUNT = 16;
+
+    @TempDir
+    private static Path tmp;
+
+    private static List<Path> files;
+
+    private static ExecutorService executor;
+
+    @BeforeAll
+    static void beforeAll() throws IOException {
+        executor = Executors.newFixedThreadPool(2);
+        files = IntStream.range(0, COUNT)
+                .mapToObj(i -> tmp.resolve(i + ".py"))
+                .collect(Collectors.toList());
+        for (Path file: files) Files.writeString(file, "print(\"hi\")\n");
+    }
+
+    @AfterAll
+    static void afterAll() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testParseAll() {
+        @Cleanup BatchParser parser = BatchParser.builder()
+                .executor(executor)
+                .window(3)
+                .build();
+        @Cleanup Stream<BatchParser.Result> results = parser.parseAll(files.stream(), path -> Language.PYTHON);
+        List<BatchParser.Result> list = results.collect(Collectors.toList());
+        Assertions.assertEquals(COUNT, list.size());
+        for (BatchParser.Result result: list) {
+            Assertions.assertTrue(result.isSuccessful());
+            Assertions.assertNull(result.getFailure());
+            @Cleanup Tree tree = result.getTree();
+            Assertions.assertEquals("module", tree.getRootNode().getType());
+        }
+        List<Path> paths = list.stream()
+                .map(BatchParser.Result::getPath)
+                .sorted()
+                .collect(Collectors.toList());
+        Assertions.assertEquals(files.stream().sorted().collect(Collectors.toList()), paths);
+    }
+
+    @Test
+    void testParseAllMapped() {
+        @Cleanup BatchParser parser = BatchParser.builder()
+                .mapped(Encoding.UTF_8)
+                .build();
+        @Cleanup Stream<BatchParser.Result> results = parser.parseAll(files.stream(), path -> Language.PYTHON);
+        results.forEach(result -> {
+            @Cleanup Tree tree = result.getTree();
+            Assertions.assertEquals(Encoding.UTF_8, tree.getEncoding());
+        });
+    }
+
+    @Test
+    void testParseAllFailures() {
+        Path missing = tmp.resolve("missing.py");
+        @Cleanup BatchParser parser = BatchParser.builder()
+                .executor(executor)
+                .build();
+        @Cleanup Stream<BatchParser.Result> results = parser.parseAll(
+                Stream.of(missing, files.get(0)),
+                path -> path.equals(missing) ? Language.PYTHON : null
+        );
+        List<BatchParser.Result> list = results.collect(Collectors.toList());
+        Assertions.assertEquals(2, list.size());
+        for (BatchParser.Result result: list) {
+            Assertions.assertFalse(result.isSuccessful());
+            Assertions.assertNull(result.getTree());
+            Assertions.assertNotNull(result.getFailure());
+        }
+    }
+
+    @Test
+    void testClose() {
+        BatchParser parser = BatchParser.builder().build();
+        parser.close();
+        Assertions.assertThrows(IllegalStateException.class, () -> parser.parseAll(Stream.empty(), path -> null));
+    }
+
+    private static class BuilderExceptionProvider implements ArgumentsProvider {
+
+        @Override
+        public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+            Executable nullExecutor = () -> BatchParser.builder().executor(null);
+            Executable zeroWindow = () -> BatchParser.builder().window(0);
+            Executable nullTimeout = () -> BatchParser.builder().timeout(null);
+            Executable negativeTimeout = () -> BatchParser.builder().timeout(Duration.ofSeconds(-1));
+            Executable nullEncoding = () -> BatchParser.builder().mapped(null);
+            Executable nullPaths = () -> BatchParser.builder().build().parseAll(null, path -> Language.PYTHON);
+            Executable nullMapper = () -> BatchParser.builder().build().parseAll(Stream.empty(), null);
+            return Stream.of(
+                    Arguments.of(NullPointerException.class, nullExecutor),
+                    Arguments.of(IllegalArgumentException.class, zeroWindow),
+                    Arguments.of(NullPointerException.class, nullTimeout),
+                    Arguments.of(IllegalArgumentException.class, negativeTimeout),
+                    Arguments.of(NullPointerException.class, nullEncoding),
+                    Arguments.of(NullPointerException.class, nullPaths),
+                    Arguments.of(NullPointerException.class, nullMapper)
+            );
+        }
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @ArgumentsSource(BuilderExceptionProvider.class)
+    void testThrows(Class<Throwable> type, Executable executable) {
+        Assertions.assertThrows(type, executable);
+    }
+}
@@ -0,0 +1,182 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.Cleanup;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+class ChunkedParserTest extends BaseTest {
+
+    private static final int COUNT = 64;
+
+    @TempDir
+    private static Path tmp;
+
+    private static String csv;
+
+    private static String jsonl;
+
+    private static ExecutorService executor;
+
+    @BeforeAll
+    static void beforeAll() {
+        executor = Executors.newFixedThreadPool(2);
+        csv = IntStream.range(0, COUNT)
+                .mapToObj(i -> String.format("%d,\"multi\nline, %d\",value\n", i, i))
+                .collect(Collectors.joining());
+        jsonl = IntStream.range(0, COUNT)
+                .mapToObj(i -> String.format("{\"id\": %d, \"text\": \"a\\\"b\\n\", \"tags\": [%d]}\n", i, i))
+                .collect(Collectors.joining());
+    }
+
+    @AfterAll
+    static void afterAll() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testParseCSV() throws IOException {
+        Path path = Files.writeString(tmp.resolve("records.csv"), csv);
+        @Cleanup ChunkedParser parser = ChunkedParser.builder()
+                .language(Language.CSV)
+                .executor(executor)
+                .chunkSize(100)
+                .build();
+        @Cleanup Forest forest = parser.parse(path);
+        Assertions.assertTrue(forest.getChunks().size() > 1);
+        Assertions.assertEquals(csv.length(), forest.getLength());
+        long offset = 0;
+        for (Forest.Chunk chunk: forest) {
+            Assertions.assertEquals(offset, chunk.getOffset());
+            Assertions.assertEquals(0, chunk.getStartPoint().getColumn());
+            long rows = csv.substring(0, (int) offset).chars().filter(c -> c == '\n').count();
+            Assertions.assertEquals(rows, chunk.getStartPoint().getRow());
+            Assertions.assertFalse(chunk.getTree().getRootNode().hasError());
+            offset = chunk.getEndOffset();
+        }
+        Assertions.assertEquals(csv.length(), offset);
+        List<Node> records = forest.getRecords()
+                .filter(Node::isNamed)
+                .collect(Collectors.toList());
+        Assertions.assertEquals(COUNT, records.size());
+        for (int i = 0; i < COUNT; i++) {
+            Node record = records.get(i);
+            int start = (int) forest.getStartByte(record);
+            int end = (int) forest.getEndByte(record);
+            Assertions.assertEquals(record.getContent(), csv.substring(start, end));
+            Assertions.assertTrue(record.getContent().startsWith(i + ","));
+            Assertions.assertEquals(new Point(2 * i, 0), forest.getStartPoint(record));
+            Assertions.assertSame(forest.getChunkOf(record), forest.getChunkAt(start));
+        }
+    }
+
+    @Test
+    void testParseJSONL() throws IOException {
+        Path path = Files.writeString(tmp.resolve("records.jsonl"), jsonl);
+        @Cleanup ChunkedParser parser = ChunkedParser.builder()
+                .language(Language.JSON)
+                .chunkSize(256)
+                .build();
+        @Cleanup Forest forest = parser.parse(path);
+        Assertions.assertTrue(forest.getChunks().size() > 1);
+        List<Node> records = forest.getRecords()
+                .filter(Node::isNamed)
+                .collect(Collectors.toList());
+        Assertions.assertEquals(COUNT, records.size());
+        for (int i = 0; i < COUNT; i++) {
+            Node record = records.get(i);
+            Assertions.assertEquals("object", record.getType());
+            Assertions.assertEquals(new Point(i, 0), forest.getStartPoint(record));
+            Assertions.assertEquals(jsonl.indexOf("{\"id\": " + i + ","), forest.getStartByte(record));
+        }
+    }
+
+    @Test
+    void testParseSingleChunk() throws IOException {
+        Path path = Files.writeString(tmp.resolve("single.csv"), csv);
+        @Cleanup ChunkedParser parser = ChunkedParser.builder()
+                .language(Language.CSV)
+                .build();
+        @Cleanup Forest forest = parser.parse(path);
+        Assertions.assertEquals(1, forest.getChunks().size());
+        Assertions.assertEquals(Point.ORIGIN(), forest.getChunks().get(0).getStartPoint());
+    }
+
+    @Test
+    void testParseEmpty() throws IOException {
+        Path path = Files.writeString(tmp.resolve("empty.csv"), "");
+        @Cleanup ChunkedParser parser = ChunkedParser.builder()
+                .language(Language.CSV)
+                .build();
+        @Cleanup Forest forest = parser.parse(path);
+        Assertions.assertEquals(1, forest.getChunks().size());
+        Assertions.assertEquals(0, forest.getLength());
+    }
+
+    @Test
+    void testParsePool() throws IOException {
+        Path path = Files.writeString(tmp.resolve("pooled.csv"), csv);
+        @Cleanup ParserPool pool = ParserPool.builder().build();
+        ChunkedParser parser = ChunkedParser.builder()
+                .language(Language.CSV)
+                .pool(pool)
+                .chunkSize(100)
+                .build();
+        parser.close();
+        @Cleanup Forest forest = parser.parse(path);
+        Assertions.assertTrue(forest.getChunks().size() > 1);
+    }
+
+    private static class ExceptionProvider implements ArgumentsProvider {
+
+        @Override
+        public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+            Executable nullLanguage = () -> ChunkedParser.builder().language(null);
+            Executable unsupportedLanguage = () -> ChunkedParser.builder().language(Language.JAVA);
+            Executable nullExecutor = () -> ChunkedParser.builder().executor(null);
+            Executable nullPool = () -> ChunkedParser.builder().pool(null);
+            Executable zeroChunkSize = () -> ChunkedParser.builder().chunkSize(0);
+            Executable missingLanguage = () -> ChunkedParser.builder().build();
+            Executable nullPath = () -> ChunkedParser.builder().language(Language.CSV).build().parse(null);
+            Executable negativeOffset = () -> new Forest(List.of()).getChunkAt(-1);
+            Executable outOfBoundsOffset = () -> new Forest(List.of()).getChunkAt(0);
+            Executable nullNode = () -> new Forest(List.of()).getStartByte(null);
+            return Stream.of(
+                    Arguments.of(NullPointerException.class, nullLanguage),
+                    Arguments.of(IllegalArgumentException.class, unsupportedLanguage),
+                    Arguments.of(NullPointerException.class, nullExecutor),
+                    Arguments.of(NullPointerException.class, nullPool),
+                    Arguments.of(IllegalArgumentException.class, zeroChunkSize),
+                    Arguments.of(NullPointerException.class, missingLanguage),
+                    Arguments.of(NullPointerException.class, nullPath),
+                    Arguments.of(IndexOutOfBoundsException.class, negativeOffset),
+                    Arguments.of(IndexOutOfBoundsException.class, outOfBoundsOffset),
+                    Arguments.of(NullPointerException.class, nullNode)
+            );
+        }
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @ArgumentsSource(ExceptionProvider.class)
+    void testThrows(Class<Throwable> type, Executable executable) {
+        Assertions.assertThrows(type, executable);
+    }
+}
@@ -0,0 +1,78 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.Cleanup;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class DocumentTest extends BaseTest {
+
+    private static final String source = "class Main {\n    // This is a line comment\n}\n";
+
+    private static Parser parser;
+
+    @BeforeAll
+    static void beforeAll() {
+        parser = Parser.getFor(Language.JAVA);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        parser.close();
+    }
+
+    @Test
+    void testOf() {
+        @Cleanup Document document = Document.of(parser, source);
+        Assertions.assertFalse(document.isModified());
+        Assertions.assertEquals(source.length(), document.getLength());
+        Assertions.assertEquals(source, document.getText().toString());
+        Tree tree = document.getTree();
+        Assertions.assertEquals(source, tree.getSource());
+        Assertions.assertEquals("program", tree.getRootNode().getType());
+        Assertions.assertTrue(document.reparse().isEmpty());
+    }
+
+    @Test
+    void testReparse() {
+        @Cleanup Document document = Document.of(parser, source);
+        Tree original = document.getTree();
+        int start = source.indexOf("    //");
+        int end = source.indexOf('}');
+        CharSequence snapshot = document.getText();
+        document.delete(start, end)
+                .insert(start, "    void main() {}\n")
+                .replace(6, 10, "Test");
+        Assertions.assertTrue(document.isModified());
+        Assertions.assertEquals(source, snapshot.toString());
+        String expected = "class Test {\n    void main() {}\n}\n";
+        Assertions.assertEquals(expected, document.getText().toString());
+        List<Range> ranges = document.reparse();
+        Assertions.assertFalse(ranges.isEmpty());
+        Assertions.assertFalse(document.isModified());
+        Assertions.assertTrue(original.isNull());
+        Tree tree = document.getTree();
+        Assertions.assertEquals(expected, tree.getSource());
+        Node root = tree.getRootNode();
+        Assertions.assertFalse(root.hasError());
+        Node name = root.getChild(0).getChildByFieldName("name");
+        Assertions.assertEquals("Test", name.getContent());
+        Node method = root.getChild(0).getChildByFieldName("body").getChild(1);
+        Assertions.assertEquals("method_declaration", method.getType());
+        Assertions.assertEquals(new Point(1, 4), method.getStartPoint());
+    }
+
+    @Test
+    void testThrows() {
+        Assertions.assertThrows(NullPointerException.class, () -> Document.of(null, source));
+        Assertions.assertThrows(NullPointerException.class, () -> Document.of(parser, null));
+        @Cleanup Document document = Document.of(parser, source);
+        Assertions.assertThrows(NullPointerException.class, () -> document.insert(0, null));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> document.delete(-1, 0));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> document.delete(1, 0));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> document.insert(source.length() + 1, ""));
+    }
+}
@@ -0,0 +1,56 @@
+package ch.usi.si.seart.treesitter;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class FlatTreeTest extends BaseTest {
+
+    private static final String source = "def foo(bar baz):\n  pass";
+    private static Parser parser;
+    private static Tree tree;
+    private static Node error;
+
+    @BeforeAll
+    static void beforeAll() {
+        parser = Parser.getFor(Language.PYTHON);
+        tree = parser.parse(source);
+        error = tree.getRootNode().getChild(0).getChildByFieldName("parameters").getChild(2);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        tree.close();
+        parser.close();
+    }
+
+    @Test
+    void testError() {
+        FlatTree flat = tree.flatten();
+        int index = 0;
+        while (!flat.isError(index)) index++;
+        Assertions.assertEquals(error.getStartByte(), flat.getStartByte(index));
+        Assertions.assertEquals(error.getEndByte(), flat.getEndByte(index));
+        Assertions.assertEquals(error.getSymbol(), flat.getSymbol(index));
+        Assertions.assertEquals("ERROR", flat.getType(index));
+        Assertions.assertTrue(flat.hasError(index));
+        Assertions.assertTrue(flat.hasError(0));
+        Assertions.assertFalse(flat.isError(0));
+    }
+
+    @Test
+    void testHistogram() {
+        FlatTree flat = tree.flatten();
+        int[] histogram = new int[flat.getLanguage().getSymbols().size()];
+        int errors = 0;
+        for (int i = 0; i < flat.size(); i++) {
+            if (flat.isError(i)) errors++;
+            else histogram[flat.getSymbolId(i)]++;
+        }
+        int total = errors;
+        for (int count: histogram) total += count;
+        Assertions.assertTrue(errors > 0);
+        Assertions.assertEquals(flat.size(), total);
+    }
+}
@@ -0,0 +1,106 @@
+package ch.usi.si.seart.treesitter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.stream.Stream;
+
+class HistogramTest {
+
+    @Test
+    void testEmpty() {
+        Histogram histogram = new Histogram();
+        Assertions.assertEquals(0, histogram.getCount());
+        Assertions.assertEquals(0, histogram.getMin());
+        Assertions.assertEquals(0, histogram.getMax());
+        Assertions.assertEquals(0, histogram.getMean());
+        Assertions.assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+
+    @Test
+    void testExact() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 100; i++) histogram.record(i);
+        Assertions.assertEquals(100, histogram.getCount());
+        Assertions.assertEquals(1, histogram.getMin());
+        Assertions.assertEquals(100, histogram.getMax());
+        Assertions.assertEquals(50.5, histogram.getMean());
+        Assertions.assertEquals(1, histogram.getValueAtPercentile(0));
+        Assertions.assertEquals(50, histogram.getValueAtPercentile(50));
+        Assertions.assertEquals(99, histogram.getValueAtPercentile(99));
+        Assertions.assertEquals(100, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void testPrecision() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value < 1_000_000_000L; value *= 3) histogram.record(value);
+        long actual = histogram.getValueAtPercentile(50);
+        long expected = 19_683;
+        Assertions.assertTrue(actual >= expected);
+        Assertions.assertTrue(actual - expected < expected / 50);
+        Assertions.assertEquals(Long.MAX_VALUE, record(Long.MAX_VALUE).getValueAtPercentile(100));
+    }
+
+    @Test
+    void testAdd() {
+        Histogram histogram = record(1, 2, 3);
+        histogram.add(record(1_000, 2_000));
+        Assertions.assertEquals(5, histogram.getCount());
+        Assertions.assertEquals(1, histogram.getMin());
+        Assertions.assertEquals(2_000, histogram.getMax());
+        Assertions.assertEquals(3, histogram.getValueAtPercentile(60));
+        histogram.add(new Histogram());
+        Assertions.assertEquals(1, histogram.getMin());
+        Assertions.assertEquals(2_000, histogram.getMax());
+    }
+
+    @Test
+    void testReset() {
+        Histogram histogram = record(10, 20, 30);
+        histogram.reset();
+        Assertions.assertEquals(0, histogram.getCount());
+        Assertions.assertEquals(0, histogram.getValueAtPercentile(100));
+        histogram.record(5);
+        Assertions.assertEquals(5, histogram.getMin());
+        Assertions.assertEquals(5, histogram.getMax());
+    }
+
+    private static Histogram record(long... values) {
+        Histogram histogram = new Histogram();
+        for (long value: values) histogram.record(value);
+        return histogram;
+    }
+
+    private static class ExceptionProvider implements ArgumentsProvider {
+
+        @Override
+        public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+            Histogram histogram = new Histogram();
+            Executable negativeValue = () -> histogram.record(-1);
+            Executable negativePercentile = () -> histogram.getValueAtPercentile(-1);
+            Executable largePercentile = () -> histogram.getValueAtPercentile(101);
+            Executable nanPercentile = () -> histogram.getValueAtPercentile(Double.NaN);
+            Executable nullHistogram = () -> histogram.add(null);
+            return Stream.of(
+                    Arguments.of(IllegalArgumentException.class, negativeValue),
+                    Arguments.of(IllegalArgumentException.class, negativePercentile),
+                    Arguments.of(IllegalArgumentException.class, largePercentile),
+                    Arguments.of(IllegalArgumentException.class, nanPercentile),
+                    Arguments.of(NullPointerException.class, nullHistogram)
+            );
+        }
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @ArgumentsSource(ExceptionProvider.class)
+    void testThrows(Class<Throwable> type, Executable executable) {
+        Assertions.assertThrows(type, executable);
+    }
+}
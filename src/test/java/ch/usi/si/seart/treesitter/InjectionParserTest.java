@@ -0,0 +1,159 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.Cleanup;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+class InjectionParserTest extends BaseTest {
+
+    private static final String source =
+            "<html>\n" +
+            "<script>let x = 1;</script>\n" +
+            "<style>p { color: red; }</style>\n" +
+            "<script>let y = 2;</script>\n" +
+            "</html>\n";
+
+    private static final String injections =
+            "; scripts\n" +
+            "((script_element (raw_text) @injection.content)\n" +
+            " (#set! injection.language \"javascript\"))\n" +
+            "; styles\n" +
+            "((style_element (raw_text) @injection.content)\n" +
+            " (#set! injection.language \"css\"))\n";
+
+    private static InjectionParser parser;
+
+    @BeforeAll
+    static void beforeAll() {
+        parser = InjectionParser.builder()
+                .language(Language.HTML)
+                .injections(Language.HTML, injections)
+                .build();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        parser.close();
+    }
+
+    @Test
+    void testParse() {
+        @Cleanup LayeredTree tree = parser.parse(source);
+        Assertions.assertEquals(4, tree.getLayers().size());
+        Assertions.assertEquals(Language.HTML, tree.getRoot().getLanguage());
+        Assertions.assertTrue(tree.getRoot().getRanges().isEmpty());
+        List<LayeredTree.Layer> scripts = tree.getLayers(Language.JAVASCRIPT);
+        Assertions.assertEquals(2, scripts.size());
+        for (LayeredTree.Layer layer: scripts) {
+            Assertions.assertEquals(1, layer.getDepth());
+            Assertions.assertEquals(tree.getRoot(), layer.getParent());
+            Assertions.assertEquals("program", layer.getTree().getRootNode().getType());
+        }
+        Assertions.assertEquals(1, tree.getLayers(Language.CSS).size());
+    }
+
+    @Test
+    void testGetLayerAt() {
+        @Cleanup LayeredTree tree = parser.parse(source);
+        int offset = source.indexOf("x =");
+        Assertions.assertEquals(Language.JAVASCRIPT, tree.getLayerAt(offset).getLanguage());
+        Assertions.assertEquals(Language.CSS, tree.getLayerAt(source.indexOf("color")).getLanguage());
+        Assertions.assertEquals(Language.HTML, tree.getLayerAt(0).getLanguage());
+        Node node = tree.getNodeAt(offset);
+        Assertions.assertEquals("identifier", node.getType());
+        Assertions.assertEquals("x", node.getContent());
+    }
+
+    @Test
+    void testQuery() {
+        @Cleanup LayeredTree tree = parser.parse(source);
+        @Cleanup Query query = Query.getFor(Language.JAVASCRIPT, "(lexical_declaration) @declaration");
+        List<QueryMatch> matches = tree.query(query);
+        Assertions.assertEquals(2, matches.size());
+    }
+
+    @Test
+    void testCombined() {
+        String combined = injections.replace(
+                "(#set! injection.language \"javascript\")",
+                "(#set! injection.language \"javascript\") (#set! injection.combined)"
+        );
+        @Cleanup InjectionParser parser = InjectionParser.builder()
+                .language(Language.HTML)
+                .injections(Language.HTML, combined)
+                .build();
+        @Cleanup LayeredTree tree = parser.parse(source);
+        List<LayeredTree.Layer> scripts = tree.getLayers(Language.JAVASCRIPT);
+        Assertions.assertEquals(1, scripts.size());
+        Assertions.assertEquals(2, scripts.get(0).getRanges().size());
+    }
+
+    @Test
+    void testDepth() {
+        @Cleanup InjectionParser parser = InjectionParser.builder()
+                .language(Language.HTML)
+                .injections(Language.HTML, injections)
+                .depth(0)
+                .build();
+        @Cleanup LayeredTree tree = parser.parse(source);
+        Assertions.assertEquals(1, tree.getLayers().size());
+    }
+
+    @Test
+    void testReparse() {
+        @Cleanup LayeredTree tree = parser.parse(source);
+        int offset = source.indexOf("1;");
+        String modified = source.substring(0, offset) + "10" + source.substring(offset + 1);
+        Point start = new Point(1, offset - source.indexOf("<script>"));
+        Point end = new Point(1, start.getColumn() + 1);
+        Point newEnd = new Point(1, start.getColumn() + 2);
+        tree.edit(new InputEdit(offset, offset + 1, offset + 2, start, end, newEnd));
+        Range range = tree.getLayers(Language.JAVASCRIPT).get(0).getRanges().get(0);
+        Assertions.assertEquals(modified.indexOf("</script>"), range.getEndByte());
+        @Cleanup LayeredTree reparsed = parser.parse(modified, tree);
+        Assertions.assertEquals(4, reparsed.getLayers().size());
+        Node node = reparsed.getNodeAt(offset);
+        Assertions.assertEquals("number", node.getType());
+        Assertions.assertEquals("10", node.getContent());
+    }
+
+    private static class ExceptionProvider implements ArgumentsProvider {
+
+        @Override
+        public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+            Executable nullLanguage = () -> InjectionParser.builder().language(null);
+            Executable nullQuery = () -> InjectionParser.builder().injections(Language.HTML, (String) null);
+            Executable nullAlias = () -> InjectionParser.builder().alias(null, Language.JAVASCRIPT);
+            Executable nullExecutor = () -> InjectionParser.builder().executor(null);
+            Executable negativeDepth = () -> InjectionParser.builder().depth(-1);
+            Executable missingLanguage = () -> InjectionParser.builder().build();
+            Executable nullSource = () -> parser.parse(null);
+            return Stream.of(
+                    Arguments.of(NullPointerException.class, nullLanguage),
+                    Arguments.of(NullPointerException.class, nullQuery),
+                    Arguments.of(NullPointerException.class, nullAlias),
+                    Arguments.of(NullPointerException.class, nullExecutor),
+                    Arguments.of(IllegalArgumentException.class, negativeDepth),
+                    Arguments.of(NullPointerException.class, missingLanguage),
+                    Arguments.of(NullPointerException.class, nullSource)
+            );
+        }
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @ArgumentsSource(ExceptionProvider.class)
+    void testThrows(Class<Throwable> type, Executable executable) {
+        Assertions.assertThrows(type, executable);
+    }
+}
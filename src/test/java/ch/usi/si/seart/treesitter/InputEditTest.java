@@ -0,0 +1,120 @@
+package ch.usi.si.seart.treesitter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+class InputEditTest extends BaseTest {
+
+    private static class DiffProvider implements ArgumentsProvider {
+
+        @Override
+        public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+            return Stream.of(
+                    Arguments.of("", "", 0),
+                    Arguments.of("same", "same", 0),
+                    Arguments.of("", "inserted", 1),
+                    Arguments.of("removed", "", 1),
+                    Arguments.of("class A {}", "class B {}", 1),
+                    Arguments.of("a\nb\nc\n", "a\nx\nb\nc\ny\n", 2),
+                    Arguments.of("int a = 1;\nint b = 2;\n", "int a = 3;\nint b = 4;\n", 2),
+                    Arguments.of("😀 a", "😁 a", 1)
+            );
+        }
+    }
+
+    @ParameterizedTest(name = "[{index}] {0} -> {1}")
+    @ArgumentsSource(DiffProvider.class)
+    void testDiff(String oldSource, String newSource, int count) {
+        List<InputEdit> edits = InputEdit.diff(oldSource, newSource);
+        Assertions.assertEquals(count, edits.size());
+        String current = oldSource;
+        for (InputEdit edit: edits) {
+            Assertions.assertEquals(pointOf(current, edit.getStartByte()), edit.getStartPoint());
+            Assertions.assertEquals(pointOf(current, edit.getOldEndByte()), edit.getOldEndPoint());
+            current = current.substring(0, edit.getStartByte())
+                    + newSource.substring(edit.getStartByte(), edit.getNewEndByte())
+                    + current.substring(edit.getOldEndByte());
+            Assertions.assertEquals(pointOf(current, edit.getNewEndByte()), edit.getNewEndPoint());
+        }
+        Assertions.assertEquals(newSource, current);
+    }
+
+    @Test
+    void testDiffUTF8() {
+        List<InputEdit> edits = InputEdit.diff("héllo 😀!\n", "héllo 😀?\n", Encoding.UTF_8);
+        Assertions.assertEquals(1, edits.size());
+        InputEdit edit = edits.get(0);
+        Assertions.assertEquals(11, edit.getStartByte());
+        Assertions.assertEquals(12, edit.getOldEndByte());
+        Assertions.assertEquals(12, edit.getNewEndByte());
+        Assertions.assertEquals(new Point(0, 11), edit.getStartPoint());
+        Assertions.assertEquals(new Point(0, 12), edit.getNewEndPoint());
+    }
+
+    @Test
+    void testDiffThrows() {
+        Assertions.assertThrows(NullPointerException.class, () -> InputEdit.diff(null, ""));
+        Assertions.assertThrows(NullPointerException.class, () -> InputEdit.diff("", null));
+        Assertions.assertThrows(NullPointerException.class, () -> InputEdit.diff("", "", null));
+    }
+
+    @Test
+    void testCoalesce() {
+        InputEdit first = new InputEdit(8, 8, 9, new Point(0, 8), new Point(0, 8), new Point(0, 9));
+        InputEdit second = new InputEdit(9, 9, 10, new Point(0, 9), new Point(0, 9), new Point(0, 10));
+        InputEdit third = new InputEdit(9, 10, 9, new Point(0, 9), new Point(0, 10), new Point(0, 9));
+        InputEdit distant = new InputEdit(0, 3, 4, new Point(0, 0), new Point(0, 3), new Point(0, 4));
+        List<InputEdit> coalesced = InputEdit.coalesce(List.of(first, second, third, distant));
+        Assertions.assertEquals(2, coalesced.size());
+        InputEdit merged = coalesced.get(0);
+        Assertions.assertEquals(8, merged.getStartByte());
+        Assertions.assertEquals(8, merged.getOldEndByte());
+        Assertions.assertEquals(9, merged.getNewEndByte());
+        Assertions.assertEquals(new Point(0, 9), merged.getNewEndPoint());
+        Assertions.assertSame(distant, coalesced.get(1));
+    }
+
+    @Test
+    void testCoalesceMultiline() {
+        InputEdit first = new InputEdit(4, 4, 6, new Point(0, 4), new Point(0, 4), new Point(1, 1));
+        InputEdit second = new InputEdit(3, 8, 3, new Point(0, 3), new Point(1, 3), new Point(0, 3));
+        List<InputEdit> coalesced = InputEdit.coalesce(List.of(first, second));
+        Assertions.assertEquals(1, coalesced.size());
+        InputEdit merged = coalesced.get(0);
+        Assertions.assertEquals(3, merged.getStartByte());
+        Assertions.assertEquals(6, merged.getOldEndByte());
+        Assertions.assertEquals(3, merged.getNewEndByte());
+        Assertions.assertEquals(new Point(0, 3), merged.getStartPoint());
+        Assertions.assertEquals(new Point(0, 6), merged.getOldEndPoint());
+        Assertions.assertEquals(new Point(0, 3), merged.getNewEndPoint());
+    }
+
+    @Test
+    void testCoalesceThrows() {
+        Assertions.assertThrows(NullPointerException.class, () -> InputEdit.coalesce(null));
+        Assertions.assertThrows(NullPointerException.class, () -> InputEdit.coalesce(Collections.singletonList(null)));
+    }
+
+    private static Point pointOf(String source, int offset) {
+        int row = 0;
+        int column = 0;
+        for (int i = 0; i < offset; i++) {
+            if (source.charAt(i) == '\n') {
+                row++;
+                column = 0;
+            } else {
+                column++;
+            }
+        }
+        return new Point(row, column);
+    }
+}
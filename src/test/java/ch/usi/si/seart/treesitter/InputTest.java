@@ -0,0 +1,99 @@
+package ch.usi.si.seart.treesitter;
+
+import ch.usi.si.seart.treesitter.exception.parser.ParsingException;
+import lombok.Cleanup;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class InputTest extends BaseTest {
+
+    private static final String source = "0123456789";
+
+    @Test
+    @SneakyThrows(IOException.class)
+    void testSequentialRead() {
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+        ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(bytes));
+        @Cleanup Input input = Input.of(channel, Encoding.UTF_8);
+        Assertions.assertEquals("56789", read(input, 5));
+        Assertions.assertEquals("0123456789", read(input, 0));
+        Assertions.assertEquals("89", read(input, 8));
+        Assertions.assertEquals("", read(input, 10));
+        Assertions.assertNull(input.getFailure());
+    }
+
+    @Test
+    @SneakyThrows(IOException.class)
+    void testAlignedRead() {
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_16LE);
+        ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(bytes, 0, bytes.length - 1));
+        @Cleanup Input input = Input.of(channel, Encoding.UTF_16);
+        int count = input.read(0);
+        Assertions.assertEquals(bytes.length - 2, count);
+    }
+
+    @Test
+    @SneakyThrows(IOException.class)
+    void testStalledRead() {
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+        ReadableByteChannel delegate = Channels.newChannel(new ByteArrayInputStream(bytes));
+        AtomicInteger attempts = new AtomicInteger();
+        ReadableByteChannel channel = new ReadableByteChannel() {
+
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                return attempts.incrementAndGet() % 3 == 0 ? delegate.read(dst) : 0;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        @Cleanup Input input = Input.of(channel, Encoding.UTF_8);
+        Assertions.assertEquals("0123456789", read(input, 0));
+        Assertions.assertNull(input.getFailure());
+    }
+
+    @Test
+    void testStuckRead() {
+        ReadableByteChannel channel = new ReadableByteChannel() {
+
+            @Override
+            public int read(ByteBuffer dst) {
+                return 0;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        @Cleanup Parser parser = Parser.getFor(Language.PYTHON);
+        Throwable thrown = Assertions.assertThrows(ParsingException.class, () -> parser.parse(channel, Encoding.UTF_8));
+        Assertions.assertInstanceOf(IOException.class, thrown.getCause());
+    }
+
+    private static String read(Input input, long offset) {
+        int count = input.read(offset);
+        ByteBuffer chunk = input.getChunk().duplicate().flip().limit(count);
+        return StandardCharsets.UTF_8.decode(chunk).toString();
+    }
+}
@@ -0,0 +1,112 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.Cleanup;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+class LogBufferTest extends BaseTest {
+
+    private static final String source = "print(\"hi\")\n";
+
+    @Test
+    void testDrain() {
+        @Cleanup Parser parser = Parser.getFor(Language.PYTHON);
+        LogBuffer buffer = LogBuffer.builder().build();
+        parser.setLogBuffer(buffer);
+        Assertions.assertEquals(buffer, parser.getLogBuffer());
+        Assertions.assertNull(parser.getLogger());
+        @Cleanup Tree tree = parser.parse(source);
+        List<LogBuffer.Entry> entries = buffer.drain();
+        Assertions.assertFalse(entries.isEmpty());
+        Assertions.assertTrue(entries.stream().anyMatch(entry -> entry.getType() == LogBuffer.Type.PARSE));
+        Assertions.assertTrue(entries.stream().anyMatch(entry -> entry.getType() == LogBuffer.Type.LEX));
+        Assertions.assertTrue(entries.stream().noneMatch(entry -> entry.getMessage().isEmpty()));
+        Assertions.assertEquals(0, buffer.getDropped());
+        Assertions.assertTrue(buffer.drain().isEmpty());
+    }
+
+    @Test
+    void testCapacity() {
+        @Cleanup Parser parser = Parser.getFor(Language.PYTHON);
+        LogBuffer buffer = LogBuffer.builder().capacity(4).build();
+        parser.setLogBuffer(buffer);
+        @Cleanup Tree tree = parser.parse(source);
+        Assertions.assertEquals(4, buffer.drain().size());
+        Assertions.assertTrue(buffer.getDropped() > 0);
+    }
+
+    @Test
+    void testTypes() {
+        @Cleanup Parser parser = Parser.getFor(Language.PYTHON);
+        LogBuffer buffer = LogBuffer.builder().types(LogBuffer.Type.LEX).build();
+        parser.setLogBuffer(buffer);
+        @Cleanup Tree tree = parser.parse(source);
+        List<LogBuffer.Entry> entries = buffer.drain();
+        Assertions.assertFalse(entries.isEmpty());
+        Assertions.assertTrue(entries.stream().allMatch(entry -> entry.getType() == LogBuffer.Type.LEX));
+    }
+
+    @Test
+    void testSample() {
+        @Cleanup Parser parser = Parser.getFor(Language.PYTHON);
+        LogBuffer buffer = LogBuffer.builder().sample(2).build();
+        parser.setLogBuffer(buffer);
+        @Cleanup Tree first = parser.parse(source);
+        Assertions.assertFalse(buffer.drain().isEmpty());
+        @Cleanup Tree second = parser.parse(source);
+        Assertions.assertTrue(buffer.drain().isEmpty());
+        @Cleanup Tree third = parser.parse(source);
+        Assertions.assertFalse(buffer.drain().isEmpty());
+    }
+
+    @Test
+    void testLogger() {
+        @Cleanup Parser parser = Parser.getFor(Language.PYTHON);
+        Logger logger = LoggerFactory.getLogger(Parser.class);
+        LogBuffer buffer = LogBuffer.builder().logger(logger).build();
+        parser.setLogBuffer(buffer);
+        @Cleanup Tree tree = parser.parse(source);
+        Assertions.assertTrue(buffer.drain().isEmpty());
+        parser.setLogger(logger);
+        Assertions.assertNull(parser.getLogBuffer());
+        Assertions.assertEquals(logger, parser.getLogger());
+        parser.setLogBuffer(null);
+        Assertions.assertNull(parser.getLogger());
+    }
+
+    private static class ExceptionProvider implements ArgumentsProvider {
+
+        @Override
+        public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+            Executable zeroCapacity = () -> LogBuffer.builder().capacity(0);
+            Executable zeroRate = () -> LogBuffer.builder().sample(0);
+            Executable nullTypes = () -> LogBuffer.builder().types((LogBuffer.Type[]) null);
+            Executable nullType = () -> LogBuffer.builder().types(LogBuffer.Type.LEX, null);
+            Executable nullLogger = () -> LogBuffer.builder().logger(null);
+            return Stream.of(
+                    Arguments.of(IllegalArgumentException.class, zeroCapacity),
+                    Arguments.of(IllegalArgumentException.class, zeroRate),
+                    Arguments.of(NullPointerException.class, nullTypes),
+                    Arguments.of(NullPointerException.class, nullType),
+                    Arguments.of(NullPointerException.class, nullLogger)
+            );
+        }
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @ArgumentsSource(ExceptionProvider.class)
+    void testThrows(Class<Throwable> type, Executable executable) {
+        Assertions.assertThrows(type, executable);
+    }
+}
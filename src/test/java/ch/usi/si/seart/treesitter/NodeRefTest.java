@@ -0,0 +1,140 @@
+package ch.usi.si.seart.treesitter;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class NodeRefTest extends BaseTest {
+
+    private static final String source = "def foo(bar, baz):\n  print(bar)\n  print(baz)";
+    private static Parser parser;
+    private static Tree tree;
+    private static Node root;
+
+    @BeforeAll
+    static void beforeAll() {
+        parser = Parser.getFor(Language.PYTHON);
+        tree = parser.parse(source);
+        root = tree.getRootNode();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        tree.close();
+        parser.close();
+    }
+
+    @Test
+    void testNavigation() {
+        Node function = root.getChild(0);
+        NodeRef ref = new NodeRef(root);
+        Assertions.assertFalse(ref.gotoParent());
+        Assertions.assertFalse(ref.gotoNextSibling());
+        Assertions.assertTrue(ref.gotoFirstChild());
+        Assertions.assertEquals(function, ref.toNode());
+        Assertions.assertEquals("function_definition", ref.getType());
+        Assertions.assertEquals(function.getSymbol().getId(), ref.getSymbolId());
+        Assertions.assertEquals(5, ref.getChildCount());
+        Assertions.assertTrue(ref.gotoChild(1));
+        Assertions.assertEquals(function.getChild(1), ref.toNode());
+        Assertions.assertEquals(4, ref.getStartByte());
+        Assertions.assertEquals(7, ref.getEndByte());
+        Assertions.assertTrue(ref.isNamed());
+        Assertions.assertTrue(ref.gotoNextSibling());
+        Assertions.assertEquals("parameters", ref.getType());
+        Assertions.assertTrue(ref.gotoPrevSibling());
+        Assertions.assertTrue(ref.gotoPrevSibling());
+        Assertions.assertEquals("def", ref.getType());
+        Assertions.assertFalse(ref.isNamed());
+        Assertions.assertFalse(ref.gotoPrevSibling());
+        Assertions.assertTrue(ref.gotoNextNamedSibling());
+        Assertions.assertEquals("identifier", ref.getType());
+        Assertions.assertTrue(ref.gotoParent());
+        Assertions.assertEquals(function, ref.toNode());
+        Assertions.assertFalse(ref.gotoChild(-1));
+        Assertions.assertFalse(ref.gotoChild(Integer.MAX_VALUE));
+        Assertions.assertEquals(function, ref.toNode());
+    }
+
+    @Test
+    void testNamedNavigation() {
+        NodeRef ref = new NodeRef(root.getChild(0));
+        Assertions.assertEquals(3, ref.getNamedChildCount());
+        Assertions.assertTrue(ref.gotoFirstNamedChild());
+        Assertions.assertEquals("identifier", ref.getType());
+        Assertions.assertTrue(ref.gotoNextNamedSibling());
+        Assertions.assertEquals("parameters", ref.getType());
+        Assertions.assertTrue(ref.gotoPrevNamedSibling());
+        Assertions.assertEquals("identifier", ref.getType());
+        Assertions.assertFalse(ref.gotoPrevNamedSibling());
+        Assertions.assertTrue(ref.gotoParent());
+        Assertions.assertTrue(ref.gotoNamedChild(1));
+        Assertions.assertEquals("parameters", ref.getType());
+    }
+
+    @Test
+    void testPreorder() {
+        int expected = 0;
+        for (Node ignored: root) expected++;
+        int actual = 0;
+        NodeRef ref = new NodeRef(root);
+        boolean done = false;
+        while (!done) {
+            actual++;
+            if (ref.gotoFirstChild()) continue;
+            while (!ref.gotoNextSibling()) {
+                if (!ref.gotoParent()) {
+                    done = true;
+                    break;
+                }
+            }
+        }
+        Assertions.assertEquals(expected, actual);
+    }
+
+    @Test
+    void testCopy() {
+        NodeRef ref = new NodeRef(root);
+        NodeRef copy = ref.copy();
+        Assertions.assertTrue(ref.gotoFirstChild());
+        Assertions.assertEquals(root, copy.toNode());
+        Assertions.assertEquals(root.getChild(0), copy.set(ref).toNode());
+        Assertions.assertEquals(root, copy.set(root).toNode());
+    }
+
+    @Test
+    void testNull() {
+        NodeRef ref = new NodeRef(new Node.Null());
+        Assertions.assertTrue(ref.isNull());
+        Assertions.assertFalse(ref.gotoParent());
+        Assertions.assertFalse(ref.gotoFirstChild());
+        Assertions.assertFalse(ref.gotoNextSibling());
+        Assertions.assertEquals(0, ref.getChildCount());
+        Assertions.assertNull(ref.getType());
+        Assertions.assertTrue(ref.toNode().isNull());
+    }
+
+    @Test
+    void testNullProperties() {
+        Node function = root.getChild(0);
+        NodeRef ref = new NodeRef(function.getNextSibling());
+        Assertions.assertTrue(ref.isNull());
+        Assertions.assertFalse(ref.hasError());
+        Assertions.assertFalse(ref.isError());
+        Assertions.assertFalse(ref.isExtra());
+        Assertions.assertFalse(ref.isMissing());
+        Assertions.assertFalse(ref.isNamed());
+        Assertions.assertEquals(0, ref.getSymbolId());
+        Assertions.assertEquals(0, ref.getStartByte());
+        Assertions.assertEquals(0, ref.getEndByte());
+    }
+
+    @Test
+    @SuppressWarnings("DataFlowIssue")
+    void testThrows() {
+        Assertions.assertThrows(NullPointerException.class, () -> new NodeRef(null));
+        Assertions.assertThrows(NullPointerException.class, () -> new NodeRef(root).set((Node) null));
+        Assertions.assertThrows(NullPointerException.class, () -> new NodeRef(root).set((NodeRef) null));
+    }
+}
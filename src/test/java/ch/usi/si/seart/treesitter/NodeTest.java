@@ -12,9 +12,11 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.NullSource;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 class NodeTest extends BaseTest {
@@ -116,6 +118,17 @@ class NodeTest extends BaseTest {
         Assertions.assertNull(empty.getContent());
     }
 
+    @Test
+    void testGetContentView() {
+        Node function = root.getChild(0);
+        Node identifier = function.getChild(1);
+        Assertions.assertEquals(source, root.getContentView().toString());
+        Assertions.assertEquals("foo", identifier.getContentView().toString());
+        Assertions.assertEquals('f', identifier.getContentView().charAt(0));
+        Assertions.assertEquals(3, identifier.getContentView().length());
+        Assertions.assertNull(empty.getContentView());
+    }
+
     @Test
     void testGetDescendantForByteRange() {
         Node function = root.getChild(0);
@@ -415,6 +428,68 @@ class NodeTest extends BaseTest {
         Assertions.assertFalse(def.hasError());
     }
 
+    @Test
+    void testInfo() {
+        Node function = root.getChild(0);
+        Node identifier = function.getChild(1);
+        NodeInfo info = identifier.info();
+        Assertions.assertEquals(Language.PYTHON, info.getLanguage());
+        Assertions.assertEquals(identifier.getSymbol().getId(), info.getSymbol().getId());
+        Assertions.assertEquals(identifier.getType(), info.getType());
+        Assertions.assertEquals(identifier.getStartByte(), info.getStartByte());
+        Assertions.assertEquals(identifier.getEndByte(), info.getEndByte());
+        Assertions.assertEquals(identifier.getStartPoint(), info.getStartPoint());
+        Assertions.assertEquals(identifier.getEndPoint(), info.getEndPoint());
+        Assertions.assertTrue(info.isNamed());
+        Assertions.assertFalse(info.hasError());
+        Assertions.assertFalse(info.isMissing());
+        Assertions.assertFalse(info.isExtra());
+        Assertions.assertFalse(function.getChild(0).info().isNamed());
+        NodeInfo none = empty.info();
+        Assertions.assertNull(none.getLanguage());
+        Assertions.assertNull(none.getType());
+        Assertions.assertTrue(none.getEndPoint().isOrigin());
+    }
+
+    @Test
+    void testInfoError() {
+        @Cleanup Tree tree = parser.parse("def foo(bar baz):\n  pass");
+        Node parameters = tree.getRootNode().getChild(0).getChildByFieldName("parameters");
+        Node error = parameters.getChild(2);
+        NodeInfo info = error.info();
+        Assertions.assertEquals(error.getSymbol(), info.getSymbol());
+        Assertions.assertEquals("ERROR", info.getType());
+        Assertions.assertTrue(info.isError());
+        Assertions.assertTrue(info.hasError());
+        Assertions.assertFalse(parameters.info().isError());
+        Assertions.assertTrue(parameters.info().hasError());
+        Assertions.assertNotNull(info.toString());
+    }
+
+    @Test
+    void testInfoBuffer() {
+        List<Node> children = root.getChild(0).getChildren();
+        int[] buffer = new int[children.size() * NodeInfo.SIZE];
+        for (int i = 0; i < children.size(); i++) children.get(i).info(buffer, i * NodeInfo.SIZE);
+        for (int i = 0; i < children.size(); i++) {
+            Node child = children.get(i);
+            int offset = i * NodeInfo.SIZE;
+            Assertions.assertEquals(child.getSymbol().getId(), buffer[offset + NodeInfo.SYMBOL]);
+            Assertions.assertEquals(child.getStartByte(), buffer[offset + NodeInfo.START_BYTE]);
+            Assertions.assertEquals(child.getEndByte(), buffer[offset + NodeInfo.END_BYTE]);
+            Assertions.assertEquals(child.getEndPoint().getRow(), buffer[offset + NodeInfo.END_ROW]);
+            Assertions.assertEquals(child.isNamed(), (buffer[offset + NodeInfo.FLAGS] & NodeInfo.NAMED) != 0);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("DataFlowIssue")
+    void testInfoThrows() {
+        Assertions.assertThrows(NullPointerException.class, () -> root.info(null, 0));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> root.info(new int[NodeInfo.SIZE], 1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> root.info(new int[NodeInfo.SIZE], -1));
+    }
+
     @Test
     void testIsError() {
         @Cleanup Tree tree = parser.parse("def foo(bar baz):\n  pass");
@@ -468,17 +543,56 @@ class NodeTest extends BaseTest {
     @Test
     void testIterator() {
         Node function = root.getChild(0);
+        Node parameters = function.getChild(2);
         Iterator<Node> iterator = function.iterator();
         Assertions.assertTrue(iterator.hasNext());
         Assertions.assertEquals(function, iterator.next());
-        for (int i = 0; i < function.getChildCount(); i++) {
+        for (int i = 0; i < 3; i++) {
             Assertions.assertTrue(iterator.hasNext());
             Assertions.assertEquals(function.getChild(i), iterator.next());
         }
         Assertions.assertTrue(iterator.hasNext());
+        Assertions.assertEquals(parameters.getChild(0), iterator.next());
+        List<Node> expected = new ArrayList<>();
+        preorder(root, expected);
+        List<Node> actual = new ArrayList<>();
+        root.iterator().forEachRemaining(actual::add);
+        Assertions.assertEquals(expected, actual);
         Iterator<Node> emptyIterator = empty.iterator();
         emptyIterator.next();
         Assertions.assertFalse(emptyIterator.hasNext());
         Assertions.assertThrows(NoSuchElementException.class, emptyIterator::next);
     }
+
+    @Test
+    void testStream() {
+        List<Node> expected = new ArrayList<>();
+        preorder(root, expected);
+        Assertions.assertEquals(expected, root.stream().collect(Collectors.toList()));
+        Assertions.assertEquals(List.of(empty), empty.stream().collect(Collectors.toList()));
+    }
+
+    @Test
+    void testParallelStream() {
+        @Cleanup Tree large = parser.parse("def foo(x):\n  return x + 1\n\n".repeat(1_000));
+        Node module = large.getRootNode();
+        List<Node> expected = new ArrayList<>();
+        module.iterator().forEachRemaining(expected::add);
+        Assertions.assertEquals(module.getDescendantCount(), expected.size());
+        List<Node> actual;
+        try (Stream<Node> stream = module.stream().parallel()) {
+            actual = stream.collect(Collectors.toList());
+        }
+        Assertions.assertEquals(expected, actual);
+        Assertions.assertTrue(actual.stream().allMatch(node -> node.getTree() == large));
+        try (Stream<Node> stream = large.stream().parallel()) {
+            long count = stream.filter(node -> node.getType().equals("return_statement")).count();
+            Assertions.assertEquals(1_000, count);
+        }
+    }
+
+    private static void preorder(Node node, List<Node> nodes) {
+        nodes.add(node);
+        for (Node child: node.getChildren()) preorder(child, nodes);
+    }
 }
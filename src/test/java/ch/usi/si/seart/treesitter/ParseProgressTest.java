@@ -0,0 +1,100 @@
+package ch.usi.si.seart.treesitter;
+
+import ch.usi.si.seart.treesitter.exception.parser.ParsingException;
+import lombok.Cleanup;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+
+class ParseProgressTest extends BaseTest {
+
+    private static final Duration SLICE = Duration.ofMillis(1);
+
+    private static String source;
+
+    private static Parser parser;
+
+    @BeforeAll
+    @SneakyThrows({IOException.class, URISyntaxException.class})
+    @SuppressWarnings("DataFlowIssue")
+    static void beforeAll() {
+        Path path = Path.of(ParseProgressTest.class.getClassLoader().getResource("deep_string_concat").toURI());
+        source = Files.readString(path);
+        parser = Parser.getFor(Language.JAVA);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        parser.close();
+    }
+
+    @Test
+    void testResume() {
+        @Cleanup Tree expected = parser.parse(source);
+        @Cleanup ParseProgress progress = parser.parseSliced(source, SLICE);
+        while (!progress.isDone()) {
+            @Cleanup Tree interleaved = parser.parse("class A {}");
+            Assertions.assertFalse(interleaved.isNull());
+            progress.resume(SLICE);
+        }
+        Assertions.assertTrue(progress.getSlices() > 0);
+        @Cleanup Tree actual = progress.getTree();
+        Assertions.assertEquals(expected.getRootNode().toString(), actual.getRootNode().toString());
+        Assertions.assertSame(progress, progress.resume(SLICE));
+    }
+
+    @Test
+    void testResumeUnlimited() {
+        @Cleanup ParseProgress progress = parser.parseSliced(source, Duration.ZERO);
+        Assertions.assertTrue(progress.isDone());
+        Assertions.assertEquals(1, progress.getSlices());
+        @Cleanup Tree tree = progress.getTree();
+        Assertions.assertEquals(source, tree.getSource());
+    }
+
+    @Test
+    void testResumeBuffer() {
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        @Cleanup ParseProgress progress = parser.parseSliced(buffer, Encoding.UTF_8, SLICE);
+        while (!progress.isDone()) progress.resume(SLICE);
+        @Cleanup Tree tree = progress.getTree();
+        Assertions.assertEquals(Encoding.UTF_8, tree.getEncoding());
+        Assertions.assertEquals(source, tree.getSource());
+        Assertions.assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void testResumeCancelled() {
+        @Cleanup ParseProgress progress = parser.parseSliced(source, SLICE);
+        Assumptions.assumeFalse(progress.isDone());
+        progress.getParseHandle().cancel();
+        Throwable thrown = Assertions.assertThrows(ParsingException.class, () -> progress.resume(SLICE));
+        Assertions.assertInstanceOf(CancellationException.class, thrown.getCause());
+        Assertions.assertThrows(IllegalStateException.class, () -> progress.resume(SLICE));
+        Assertions.assertThrows(IllegalStateException.class, progress::getTree);
+    }
+
+    @Test
+    void testResumeThrows() {
+        @Cleanup ParseProgress progress = parser.parseSliced(source, SLICE);
+        Assertions.assertThrows(NullPointerException.class, () -> progress.resume(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> progress.resume(Duration.ofMillis(-1)));
+        Assertions.assertThrows(NullPointerException.class, () -> parser.parseSliced((String) null, SLICE));
+        Assertions.assertThrows(NullPointerException.class, () -> parser.parseSliced(source, null));
+        Duration negative = Duration.ofMillis(-1);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> parser.parseSliced(source, negative));
+    }
+}
@@ -0,0 +1,127 @@
+package ch.usi.si.seart.treesitter;
+
+import ch.usi.si.seart.treesitter.exception.parser.ParsingException;
+import lombok.Cleanup;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+class ParseStatisticsTest extends BaseTest {
+
+    private static final String source = "print(\"hi\")\n";
+    private static final String erroneous = "print(\"hi\"\n";
+
+    @Test
+    void testListener() {
+        List<ParseMetrics> reported = new ArrayList<>();
+        @Cleanup Parser parser = Parser.builder()
+                .language(Language.PYTHON)
+                .listener(reported::add)
+                .build();
+        Assertions.assertNotNull(parser.getParseListener());
+        @Cleanup Tree tree = parser.parse(source);
+        Assertions.assertEquals(1, reported.size());
+        ParseMetrics metrics = reported.get(0);
+        Assertions.assertEquals(Language.PYTHON, metrics.getLanguage());
+        Assertions.assertEquals(source.length() * 2, metrics.getBytes());
+        Assertions.assertFalse(metrics.isIncremental());
+        Assertions.assertTrue(metrics.isSuccessful());
+        Assertions.assertFalse(metrics.hasErrors());
+        Assertions.assertEquals(tree.getRootNode().getDescendantCount(), metrics.getDescendantCount());
+        Assertions.assertFalse(metrics.getWallTime().isNegative());
+        Assertions.assertFalse(metrics.getCpuTime().isNegative());
+        @Cleanup Tree reparsed = parser.parse(erroneous, tree);
+        Assertions.assertEquals(2, reported.size());
+        metrics = reported.get(1);
+        Assertions.assertTrue(metrics.isIncremental());
+        Assertions.assertTrue(metrics.hasErrors());
+        Assertions.assertTrue(metrics.getErrorCount() + metrics.getMissingCount() > 0);
+        parser.setParseListener(null);
+        @Cleanup Tree unreported = parser.parse(source);
+        Assertions.assertEquals(2, reported.size());
+    }
+
+    @Test
+    void testListenerCancelled() {
+        List<ParseMetrics> reported = new ArrayList<>();
+        @Cleanup Parser parser = Parser.getFor(Language.PYTHON);
+        parser.setParseListener(reported::add);
+        parser.getParseHandle().cancel();
+        Assertions.assertThrows(ParsingException.class, () -> parser.parse(source));
+        Assertions.assertEquals(1, reported.size());
+        ParseMetrics metrics = reported.get(0);
+        Assertions.assertTrue(metrics.isCancelled());
+        Assertions.assertFalse(metrics.isTimedOut());
+        Assertions.assertEquals(0, metrics.getDescendantCount());
+    }
+
+    @Test
+    void testListenerThrows() {
+        @Cleanup Parser parser = Parser.builder()
+                .language(Language.PYTHON)
+                .listener(metrics -> {
+                    throw new IllegalStateException();
+                })
+                .build();
+        Assertions.assertThrows(IllegalStateException.class, () -> parser.parse(source));
+    }
+
+    @Test
+    void testStatistics() {
+        ParseStatistics statistics = new ParseStatistics();
+        @Cleanup Parser parser = Parser.builder()
+                .language(Language.PYTHON)
+                .listener(statistics)
+                .build();
+        @Cleanup Parser copy = parser.toBuilder().build();
+        Assertions.assertEquals(statistics, copy.getParseListener());
+        @Cleanup Tree first = parser.parse(source);
+        @Cleanup Tree second = copy.parse(erroneous);
+        @Cleanup Tree third = parser.parse(source.repeat(100));
+        ParseStatistics.Summary summary = statistics.getSummary(Language.PYTHON);
+        Assertions.assertEquals(3, summary.getParseCount());
+        Assertions.assertEquals(1, summary.getErroneousCount());
+        Assertions.assertEquals(0, summary.getTimeoutCount());
+        Assertions.assertEquals(3, summary.getWallTime().getCount());
+        Assertions.assertEquals(source.length() * 200, summary.getBytes().getMax());
+        Map<ParseStatistics.Size, ParseStatistics.Summary> summaries = statistics.getSummaries(Language.PYTHON);
+        Assertions.assertEquals(2, summaries.size());
+        Assertions.assertEquals(2, summaries.get(ParseStatistics.Size.TINY).getParseCount());
+        Assertions.assertEquals(1, statistics.getSummary(Language.PYTHON, ParseStatistics.Size.SMALL).getParseCount());
+        Assertions.assertEquals(0, statistics.getSummary(Language.JAVA).getParseCount());
+        statistics.reset();
+        Assertions.assertEquals(0, statistics.getSummary(Language.PYTHON).getParseCount());
+    }
+
+    private static class ExceptionProvider implements ArgumentsProvider {
+
+        @Override
+        public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+            ParseStatistics statistics = new ParseStatistics();
+            Executable nullLanguage = () -> statistics.getSummary(null);
+            Executable nullSize = () -> statistics.getSummary(Language.PYTHON, null);
+            Executable nullSummaries = () -> statistics.getSummaries(null);
+            return Stream.of(
+                    Arguments.of(NullPointerException.class, nullLanguage),
+                    Arguments.of(NullPointerException.class, nullSize),
+                    Arguments.of(NullPointerException.class, nullSummaries)
+            );
+        }
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @ArgumentsSource(ExceptionProvider.class)
+    void testThrows(Class<Throwable> type, Executable executable) {
+        Assertions.assertThrows(type, executable);
+    }
+}
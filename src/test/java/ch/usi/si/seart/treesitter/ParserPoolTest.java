@@ -0,0 +1,138 @@
+package ch.usi.si.seart.treesitter;
+
+import lombok.Cleanup;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+class ParserPoolTest extends BaseTest {
+
+    @Test
+    @SneakyThrows(InterruptedException.class)
+    void testLease() {
+        @Cleanup ParserPool pool = ParserPool.builder().build();
+        Parser first;
+        try (ParserPool.Lease lease = pool.lease(Language.PYTHON)) {
+            first = lease.getParser();
+            Assertions.assertEquals(Language.PYTHON, first.getLanguage());
+        }
+        Assertions.assertEquals(0, pool.getHits());
+        Assertions.assertEquals(1, pool.getMisses());
+        Assertions.assertEquals(1, pool.getIdleCount(Language.PYTHON));
+        try (ParserPool.Lease lease = pool.lease(Language.PYTHON)) {
+            Assertions.assertSame(first, lease.getParser());
+        }
+        Assertions.assertEquals(1, pool.getHits());
+        Assertions.assertEquals(1, pool.getMisses());
+    }
+
+    @Test
+    @SneakyThrows(InterruptedException.class)
+    void testLeaseReset() {
+        @Cleanup ParserPool pool = ParserPool.builder()
+                .timeout(Duration.ofSeconds(1))
+                .build();
+        try (ParserPool.Lease lease = pool.lease(Language.PYTHON)) {
+            Parser parser = lease.getParser();
+            Assertions.assertEquals(TimeUnit.SECONDS.toMicros(1), parser.getTimeout());
+            parser.setTimeout(0);
+            parser.setLanguage(Language.JAVA);
+            parser.setIncludedRanges(new Range(0, 1, new Point(0, 0), new Point(0, 1)));
+            parser.setParseListener(metrics -> { });
+            parser.setProgressMonitor(ProgressMonitor.errorCostLimit(0));
+        }
+        try (ParserPool.Lease lease = pool.lease(Language.PYTHON)) {
+            Parser parser = lease.getParser();
+            Assertions.assertEquals(TimeUnit.SECONDS.toMicros(1), parser.getTimeout());
+            Assertions.assertEquals(Language.PYTHON, parser.getLanguage());
+            Assertions.assertTrue(parser.getIncludedRanges().isEmpty());
+            Assertions.assertNull(parser.getParseListener());
+            Assertions.assertNull(parser.getProgressMonitor());
+        }
+    }
+
+    @Test
+    @SneakyThrows(InterruptedException.class)
+    void testLimit() {
+        @Cleanup ParserPool pool = ParserPool.builder()
+                .limit(2)
+                .limit(Language.PYTHON, 1)
+                .build();
+        try (ParserPool.Lease ignored = pool.lease(Language.PYTHON)) {
+            Optional<ParserPool.Lease> python = pool.tryLease(Language.PYTHON, Duration.ofMillis(10));
+            Assertions.assertTrue(python.isEmpty());
+            Optional<ParserPool.Lease> java = pool.tryLease(Language.JAVA, Duration.ofMillis(10));
+            Assertions.assertTrue(java.isPresent());
+            java.get().close();
+        }
+        Optional<ParserPool.Lease> python = pool.tryLease(Language.PYTHON, Duration.ZERO);
+        Assertions.assertTrue(python.isPresent());
+        python.get().close();
+    }
+
+    @Test
+    @SneakyThrows(InterruptedException.class)
+    void testEviction() {
+        @Cleanup ParserPool pool = ParserPool.builder()
+                .evictionInterval(Duration.ofMillis(50))
+                .build();
+        pool.lease(Language.PYTHON).close();
+        Assertions.assertEquals(1, pool.getIdleCount(Language.PYTHON));
+        TimeUnit.MILLISECONDS.sleep(250);
+        Assertions.assertEquals(0, pool.getIdleCount(Language.PYTHON));
+        Assertions.assertEquals(1, pool.getEvictions());
+    }
+
+    @Test
+    @SneakyThrows(InterruptedException.class)
+    void testClose() {
+        ParserPool pool = ParserPool.builder().build();
+        ParserPool.Lease lease = pool.lease(Language.PYTHON);
+        Parser parser = lease.getParser();
+        pool.close();
+        Assertions.assertFalse(parser.isNull());
+        lease.close();
+        Assertions.assertTrue(parser.isNull());
+        Assertions.assertThrows(IllegalStateException.class, () -> pool.lease(Language.PYTHON));
+    }
+
+    private static class BuilderExceptionProvider implements ArgumentsProvider {
+
+        @Override
+        public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+            Executable zeroLimit = () -> ParserPool.builder().limit(0);
+            Executable nullLanguage = () -> ParserPool.builder().limit(null, 1);
+            Executable negativeLanguageLimit = () -> ParserPool.builder().limit(Language.JAVA, -1);
+            Executable nullTimeout = () -> ParserPool.builder().timeout(null);
+            Executable negativeTimeout = () -> ParserPool.builder().timeout(Duration.ofSeconds(-1));
+            Executable nullInterval = () -> ParserPool.builder().evictionInterval(null);
+            Executable negativeInterval = () -> ParserPool.builder().evictionInterval(Duration.ofSeconds(-1));
+            return Stream.of(
+                    Arguments.of(IllegalArgumentException.class, zeroLimit),
+                    Arguments.of(NullPointerException.class, nullLanguage),
+                    Arguments.of(IllegalArgumentException.class, negativeLanguageLimit),
+                    Arguments.of(NullPointerException.class, nullTimeout),
+                    Arguments.of(IllegalArgumentException.class, negativeTimeout),
+                    Arguments.of(NullPointerException.class, nullInterval),
+                    Arguments.of(IllegalArgumentException.class, negativeInterval)
+            );
+        }
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @ArgumentsSource(BuilderExceptionProvider.class)
+    void testBuilderThrows(Class<Throwable> type, Executable executable) {
+        Assertions.assertThrows(type, executable);
+    }
+}
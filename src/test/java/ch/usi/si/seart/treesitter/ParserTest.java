@@ -18,13 +18,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.helpers.NOPLogger;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
@@ -68,6 +76,234 @@ class ParserTest extends BaseTest {
         checkRange(root);
     }
 
+    @Test
+    void testParseMappedFile() {
+        @Cleanup Tree tree = parser.parse(tmpFile, Encoding.UTF_8);
+        Assertions.assertFalse(tree.isNull());
+        Assertions.assertEquals(Encoding.UTF_8, tree.getEncoding());
+        Assertions.assertEquals(source, tree.getSource());
+        Node root = tree.getRootNode();
+        Assertions.assertEquals("module", root.getType());
+        Assertions.assertEquals("print", root.getChild(0).getChild(0).getChild(0).getContent());
+        checkRange(root);
+        @Cleanup Tree reparsed = parser.parse(tmpFile, Encoding.UTF_8, tree);
+        Assertions.assertEquals(source, reparsed.getSource());
+    }
+
+    @Test
+    void testParseOversizedMappedFile() throws IOException {
+        Path path = tmp.resolve("oversized.py");
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(Integer.MAX_VALUE + 1L);
+        }
+        try {
+            Assertions.assertThrows(ParsingException.class, () -> parser.parse(path, Encoding.UTF_8));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testParseBytes() {
+        byte[] bytes = ("#" + source).getBytes(StandardCharsets.UTF_8);
+        @Cleanup Tree tree = parser.parse(bytes, 1, bytes.length - 1, Encoding.UTF_8);
+        Assertions.assertFalse(tree.isNull());
+        Assertions.assertEquals(Encoding.UTF_8, tree.getEncoding());
+        Assertions.assertEquals(source, tree.getSource());
+        Node root = tree.getRootNode();
+        Assertions.assertEquals("module", root.getType());
+        checkRange(root);
+    }
+
+    @Test
+    void testParseDirectBuffer() {
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        @Cleanup Tree tree = parser.parse(buffer);
+        Assertions.assertEquals(0, buffer.position());
+        Assertions.assertEquals(Encoding.UTF_8, tree.getEncoding());
+        Assertions.assertEquals(source, tree.getSource());
+        Node root = tree.getRootNode();
+        Assertions.assertEquals("module", root.getType());
+        checkRange(root);
+    }
+
+    @Test
+    void testParseHeapBuffer() {
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_16LE);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        @Cleanup Tree tree = parser.parse(buffer, Encoding.UTF_16);
+        Assertions.assertEquals(Encoding.UTF_16, tree.getEncoding());
+        Assertions.assertEquals(source, tree.getSource());
+        Node root = tree.getRootNode();
+        Assertions.assertEquals("module", root.getType());
+        checkRange(root);
+    }
+
+    @Test
+    @SneakyThrows(IOException.class)
+    void testParseChannel() {
+        @Cleanup SeekableByteChannel channel = Files.newByteChannel(tmpFile);
+        @Cleanup Tree tree = parser.parse(channel, Encoding.UTF_8);
+        Assertions.assertEquals(Encoding.UTF_8, tree.getEncoding());
+        Node root = tree.getRootNode();
+        Assertions.assertEquals("module", root.getType());
+        checkRange(root);
+        Assertions.assertThrows(UnsupportedOperationException.class, tree::getSource);
+        Assertions.assertThrows(UnsupportedOperationException.class, root::getContent);
+    }
+
+    @Test
+    @SneakyThrows(IOException.class)
+    void testParseStream() {
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_16LE);
+        @Cleanup InputStream stream = new ByteArrayInputStream(bytes);
+        @Cleanup Tree tree = parser.parse(stream, Encoding.UTF_16);
+        Assertions.assertEquals(Encoding.UTF_16, tree.getEncoding());
+        Node root = tree.getRootNode();
+        Assertions.assertEquals("module", root.getType());
+        checkRange(root);
+    }
+
+    @Test
+    void testParseFailingStream() {
+        InputStream stream = new InputStream() {
+
+            @Override
+            public int read() throws IOException {
+                throw new IOException();
+            }
+        };
+        Throwable thrown = Assertions.assertThrows(ParsingException.class, () -> parser.parse(stream, Encoding.UTF_8));
+        Assertions.assertInstanceOf(IOException.class, thrown.getCause());
+    }
+
+    @Test
+    void testParseMultiByteOffsets() {
+        String source = "s = \"ćevapi\"\n";
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+        @Cleanup Tree utf8 = parser.parse(bytes, 0, bytes.length, Encoding.UTF_8);
+        @Cleanup Tree utf16 = parser.parse(source);
+        Node string8 = utf8.getRootNode().getChild(0).getChild(0).getChild(2);
+        Node string16 = utf16.getRootNode().getChild(0).getChild(0).getChild(2);
+        Assertions.assertEquals("\"ćevapi\"", string8.getContent());
+        Assertions.assertEquals("\"ćevapi\"", string16.getContent());
+        Assertions.assertEquals(bytes.length - 1, string8.getEndByte());
+        Assertions.assertEquals(source.length() - 1, string16.getEndByte());
+        Assertions.assertEquals(new Point(0, bytes.length - 1), string8.getEndPoint());
+        Assertions.assertEquals(new Point(0, source.length() - 1), string16.getEndPoint());
+    }
+
+    @Test
+    void testParseScratch() {
+        @Cleanup Parser scratch = parser.toBuilder().scratch(4).build();
+        String[] sources = { source, "s = \"ćevapi\"\n", source.repeat(100), source.repeat(50_000), source, "" };
+        for (String source: sources) {
+            @Cleanup Tree expected = parser.parse(source);
+            @Cleanup Tree actual = scratch.parse(source);
+            Assertions.assertEquals(expected.getRootNode().toString(), actual.getRootNode().toString());
+            Assertions.assertEquals(expected.getRootNode().getEndByte(), actual.getRootNode().getEndByte());
+            Assertions.assertEquals(source, actual.getSource());
+        }
+        String modified = source.replace("hi", "hello");
+        @Cleanup Tree tree = scratch.parse(source);
+        tree.editTo(modified);
+        @Cleanup Tree reparsed = scratch.parse(modified, tree);
+        Assertions.assertEquals(modified, reparsed.getSource());
+        Assertions.assertEquals(modified.length() - 1, reparsed.getRootNode().getChild(0).getEndByte());
+    }
+
+    @Test
+    void testParseWindow() throws IOException {
+        Path path = Files.writeString(tmp.resolve("window.py"), "a = 1\nb = 2\nc = 3\n");
+        @Cleanup Tree tree = parser.parseWindow(path, 6, 12);
+        Node statement = tree.getRootNode().getChild(0);
+        Assertions.assertEquals(1, tree.getRootNode().getChildCount());
+        Assertions.assertEquals("b = 2", statement.getContent());
+        Assertions.assertEquals(6, statement.getStartByte());
+        Assertions.assertEquals(11, statement.getEndByte());
+        Assertions.assertEquals(new Point(1, 0), statement.getStartPoint());
+        Assertions.assertEquals(new Point(1, 5), statement.getEndPoint());
+        Assertions.assertEquals("b = 2\n", tree.getSource());
+        Assertions.assertTrue(parser.getIncludedRanges().isEmpty());
+        @Cleanup Tree empty = parser.parseWindow(path, 6, 6);
+        Assertions.assertEquals(0, empty.getRootNode().getChildCount());
+    }
+
+    @Test
+    void testParseWindowAtPoint() throws IOException {
+        Path path = Files.writeString(tmp.resolve("windows.py"), "a = 1\nb = 2\nc = 3\n");
+        @Cleanup Tree first = parser.parseWindow(path, 0, 6, Point.ORIGIN());
+        Assertions.assertEquals("a = 1", first.getRootNode().getChild(0).getContent());
+        @Cleanup Tree second = parser.parseWindow(path, 6, 12, new Point(1, 0));
+        @Cleanup Tree expected = parser.parseWindow(path, 6, 12);
+        Node statement = second.getRootNode().getChild(0);
+        Assertions.assertEquals("b = 2", statement.getContent());
+        Assertions.assertEquals(expected.getRootNode().getStartPoint(), second.getRootNode().getStartPoint());
+        Assertions.assertEquals(expected.getRootNode().getEndPoint(), second.getRootNode().getEndPoint());
+        Assertions.assertEquals(new Point(1, 5), statement.getEndPoint());
+    }
+
+    private static class ParseExceptionProvider implements ArgumentsProvider {
+
+        @Override
+        @SuppressWarnings("resource")
+        public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+            byte[] bytes = source.getBytes(StandardCharsets.UTF_16LE);
+            Executable nullBuffer = () -> parser.parse((ByteBuffer) null);
+            Executable nullBufferEncoding = () -> parser.parse(ByteBuffer.wrap(bytes), null);
+            Executable nullBytes = () -> parser.parse(null, 0, 0, Encoding.UTF_8);
+            Executable nullBytesEncoding = () -> parser.parse(bytes, 0, bytes.length, null);
+            Executable negativeOffset = () -> parser.parse(bytes, -1, bytes.length, Encoding.UTF_16);
+            Executable excessiveLength = () -> parser.parse(bytes, 0, bytes.length + 1, Encoding.UTF_16);
+            Executable unalignedLength = () -> parser.parse(bytes, 0, bytes.length - 1, Encoding.UTF_16);
+            Executable nullChannel = () -> parser.parse((SeekableByteChannel) null, Encoding.UTF_8);
+            Executable nullStream = () -> parser.parse((InputStream) null, Encoding.UTF_8);
+            Executable nullStreamEncoding = () -> parser.parse(new ByteArrayInputStream(bytes), null);
+            Executable nullPath = () -> parser.parse((Path) null, Encoding.UTF_8);
+            Executable nullPathEncoding = () -> parser.parse(tmpFile, (Encoding) null);
+            Executable missingFile = () -> parser.parse(tmp.resolve("missing.py"), Encoding.UTF_8);
+            Executable nullWindowPath = () -> parser.parseWindow(null, 0, 1);
+            Executable negativeWindow = () -> parser.parseWindow(tmpFile, -1, 1);
+            Executable invertedWindow = () -> parser.parseWindow(tmpFile, 2, 1);
+            Executable excessiveWindow = () -> parser.parseWindow(tmpFile, 0, Files.size(tmpFile) + 1);
+            Executable unaddressableWindow = () -> parser.parseWindow(tmpFile, 0, Integer.MAX_VALUE + 1L);
+            Executable negativeWindowPoint = () -> parser.parseWindow(tmpFile, 0, 1, new Point(-1, 0));
+            Executable mismatchedTree = () -> {
+                @Cleanup Tree tree = parser.parse(source);
+                parser.parse(bytes, 0, bytes.length, Encoding.UTF_8, tree);
+            };
+            return Stream.of(
+                    Arguments.of(NullPointerException.class, nullBuffer),
+                    Arguments.of(NullPointerException.class, nullBufferEncoding),
+                    Arguments.of(NullPointerException.class, nullBytes),
+                    Arguments.of(NullPointerException.class, nullBytesEncoding),
+                    Arguments.of(IndexOutOfBoundsException.class, negativeOffset),
+                    Arguments.of(IndexOutOfBoundsException.class, excessiveLength),
+                    Arguments.of(IllegalArgumentException.class, unalignedLength),
+                    Arguments.of(NullPointerException.class, nullPath),
+                    Arguments.of(NullPointerException.class, nullPathEncoding),
+                    Arguments.of(ParsingException.class, missingFile),
+                    Arguments.of(NullPointerException.class, nullChannel),
+                    Arguments.of(NullPointerException.class, nullStream),
+                    Arguments.of(NullPointerException.class, nullStreamEncoding),
+                    Arguments.of(NullPointerException.class, nullWindowPath),
+                    Arguments.of(IndexOutOfBoundsException.class, negativeWindow),
+                    Arguments.of(IndexOutOfBoundsException.class, invertedWindow),
+                    Arguments.of(IndexOutOfBoundsException.class, excessiveWindow),
+                    Arguments.of(IllegalArgumentException.class, unaddressableWindow),
+                    Arguments.of(IllegalArgumentException.class, negativeWindowPoint),
+                    Arguments.of(IllegalArgumentException.class, mismatchedTree)
+            );
+        }
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @ArgumentsSource(ParseExceptionProvider.class)
+    void testParseThrows(Class<Throwable> type, Executable executable) {
+        Assertions.assertThrows(type, executable);
+    }
+
     @Test
     void testSetLanguage() {
         @Cleanup Parser parser = Parser.builder().language(Language.PYTHON).build();
@@ -167,6 +403,63 @@ class ParserTest extends BaseTest {
         Assertions.assertEquals(0, parser.getTimeout());
     }
 
+    @Test
+    void testCancel() {
+        ParseHandle handle = parser.getParseHandle();
+        Assertions.assertFalse(handle.isCancelled());
+        handle.cancel();
+        Assertions.assertTrue(handle.isCancelled());
+        Throwable thrown = Assertions.assertThrows(ParsingException.class, () -> parser.parse(source));
+        Assertions.assertInstanceOf(CancellationException.class, thrown.getCause());
+        Assertions.assertFalse(handle.isCancelled());
+        @Cleanup Tree tree = parser.parse(source);
+        Assertions.assertFalse(tree.isNull());
+    }
+
+    @Test
+    void testCancelAfterParse() {
+        ParseHandle handle = parser.getParseHandle();
+        parser.setParseListener(metrics -> handle.cancel());
+        try {
+            @Cleanup Tree tree = parser.parse(source);
+            Assertions.assertFalse(tree.isNull());
+        } finally {
+            parser.setParseListener(null);
+        }
+        Assertions.assertFalse(handle.isCancelled());
+        @Cleanup Tree tree = parser.parse(source);
+        Assertions.assertFalse(tree.isNull());
+    }
+
+    @Test
+    void testCancelOnInterrupt() {
+        Thread.currentThread().interrupt();
+        try {
+            Throwable thrown = Assertions.assertThrows(ParsingException.class, () -> parser.parse(source));
+            Assertions.assertInstanceOf(CancellationException.class, thrown.getCause());
+            Assertions.assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+        @Cleanup Tree tree = parser.parse(source);
+        Assertions.assertFalse(tree.isNull());
+    }
+
+    @Test
+    void testCancelOnFuture() {
+        ParseHandle handle = parser.getParseHandle();
+        CompletableFuture<Tree> completed = new CompletableFuture<>();
+        handle.cancelOn(completed);
+        completed.complete(null);
+        Assertions.assertFalse(handle.isCancelled());
+        CompletableFuture<Tree> cancelled = new CompletableFuture<>();
+        handle.cancelOn(cancelled);
+        cancelled.cancel(true);
+        Assertions.assertTrue(handle.isCancelled());
+        Assertions.assertThrows(ParsingException.class, () -> parser.parse(source));
+        Assertions.assertFalse(handle.isCancelled());
+    }
+
     @Test
     void testBuilder() {
         Duration duration = Duration.ofSeconds(3);
@@ -268,6 +561,7 @@ class ParserTest extends BaseTest {
             Executable nullRangeArray = () -> Parser.builder().ranges((Range[]) null);
             Executable rangeArrayWithNulls = () -> Parser.builder().ranges(new Range[]{ null });
             Executable nullRange = () -> Parser.builder().range(null);
+            Executable negativeScratch = () -> Parser.builder().scratch(-1);
             Executable unorderedRanges = () -> Parser.builder()
                     .language(Language.JAVA)
                     .ranges(
@@ -288,6 +582,7 @@ class ParserTest extends BaseTest {
                     Arguments.of(NullPointerException.class, nullRangeArray),
                     Arguments.of(NullPointerException.class, rangeArrayWithNulls),
                     Arguments.of(NullPointerException.class, nullRange),
+                    Arguments.of(IllegalArgumentException.class, negativeScratch),
                     Arguments.of(IllegalArgumentException.class, unorderedRanges)
             );
         }
@@ -0,0 +1,123 @@
+package ch.usi.si.seart.treesitter;
+
+import ch.usi.si.seart.treesitter.exception.parser.ParsingException;
+import lombok.Cleanup;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+class ProgressMonitorTest extends BaseTest {
+
+    private static final String valid = "x = [1, 2, 3]\n".repeat(1_000);
+    private static final String junk = "x = ([{ ;; }) ]] ,,\n".repeat(1_000);
+
+    @Test
+    void testProceed() {
+        List<Long> reported = new ArrayList<>();
+        @Cleanup Parser parser = Parser.builder()
+                .language(Language.PYTHON)
+                .monitor((bytes, errorCost) -> {
+                    reported.add(bytes);
+                    return true;
+                })
+                .build();
+        Assertions.assertNotNull(parser.getProgressMonitor());
+        @Cleanup Tree tree = parser.parse(valid);
+        Assertions.assertFalse(reported.isEmpty());
+        for (int i = 1; i < reported.size(); i++) {
+            Assertions.assertTrue(reported.get(i - 1) < reported.get(i));
+        }
+        Assertions.assertTrue(reported.get(reported.size() - 1) <= valid.length() * 2L);
+    }
+
+    @Test
+    void testAbort() {
+        @Cleanup Parser parser = Parser.getFor(Language.PYTHON);
+        parser.setProgressMonitor((bytes, errorCost) -> false);
+        Throwable thrown = Assertions.assertThrows(ParsingException.class, () -> parser.parse(valid));
+        Assertions.assertInstanceOf(CancellationException.class, thrown.getCause());
+        Assertions.assertFalse(parser.getParseHandle().isCancelled());
+        parser.setProgressMonitor(null);
+        @Cleanup Tree tree = parser.parse(valid);
+        Assertions.assertFalse(tree.getRootNode().hasError());
+    }
+
+    @Test
+    void testMonitorThrows() {
+        @Cleanup Parser parser = Parser.getFor(Language.PYTHON);
+        parser.setProgressMonitor((bytes, errorCost) -> {
+            throw new IllegalStateException();
+        });
+        Assertions.assertThrows(IllegalStateException.class, () -> parser.parse(valid));
+        Assertions.assertFalse(parser.getParseHandle().isCancelled());
+    }
+
+    @Test
+    void testErrorCostLimit() {
+        @Cleanup Parser parser = Parser.builder()
+                .language(Language.PYTHON)
+                .monitor(ProgressMonitor.errorCostLimit(100))
+                .build();
+        Assertions.assertTrue(parser.getProgressMonitor().tracksErrorCost());
+        @Cleanup Tree tree = parser.parse(valid);
+        Assertions.assertFalse(tree.getRootNode().hasError());
+        Throwable thrown = Assertions.assertThrows(ParsingException.class, () -> parser.parse(junk));
+        Assertions.assertInstanceOf(CancellationException.class, thrown.getCause());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ProgressMonitor.errorCostLimit(-1));
+    }
+
+    @Test
+    void testErrorCost() {
+        AtomicLong cost = new AtomicLong();
+        LogBuffer buffer = LogBuffer.builder()
+                .capacity(65_536)
+                .types(LogBuffer.Type.PARSE)
+                .build();
+        @Cleanup Parser parser = Parser.getFor(Language.PYTHON);
+        parser.setLogBuffer(buffer);
+        parser.setProgressMonitor(new ProgressMonitor() {
+
+            @Override
+            public boolean proceed(long bytes, long errorCost) {
+                cost.accumulateAndGet(errorCost, Math::max);
+                return true;
+            }
+
+            @Override
+            public boolean tracksErrorCost() {
+                return true;
+            }
+        });
+        @Cleanup Tree tree = parser.parse(junk.substring(0, junk.length() / 100));
+        Assertions.assertTrue(tree.getRootNode().hasError());
+        List<LogBuffer.Entry> entries = buffer.drain();
+        Assertions.assertEquals(0, buffer.getDropped());
+        long expected = 0;
+        boolean detected = false;
+        for (LogBuffer.Entry entry: entries) {
+            String message = entry.getMessage();
+            expected += Parser.errorCost(message);
+            detected |= message.startsWith("detect_error");
+        }
+        Assertions.assertTrue(detected);
+        Assertions.assertTrue(expected > 0);
+        Assertions.assertEquals(expected, cost.get());
+        Assertions.assertEquals(500, Parser.errorCost("detect_error"));
+        Assertions.assertEquals(110, Parser.errorCost("recover_with_missing symbol:identifier, state:1"));
+        Assertions.assertEquals(100, Parser.errorCost("skip_token symbol:identifier"));
+        Assertions.assertEquals(0, Parser.errorCost("shift state:1"));
+    }
+
+    @Test
+    void testErrorCostLimitBounds() {
+        ProgressMonitor monitor = ProgressMonitor.errorCostLimit(10);
+        Assertions.assertTrue(monitor.proceed(0, 1_000));
+        Assertions.assertTrue(monitor.proceed(2_048, 20));
+        Assertions.assertFalse(monitor.proceed(2_048, 21));
+        Assertions.assertFalse(((ProgressMonitor) (bytes, errorCost) -> true).tracksErrorCost());
+    }
+}
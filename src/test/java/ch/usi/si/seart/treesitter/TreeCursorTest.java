@@ -10,6 +10,10 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 class TreeCursorTest extends BaseTest {
@@ -68,6 +72,35 @@ class TreeCursorTest extends BaseTest {
         Assertions.assertFalse(cursor.gotoParent());
     }
 
+    @Test
+    void testGetCurrentTreeCursorNode() {
+        Assertions.assertTrue(cursor.gotoFirstChild());
+        Assertions.assertTrue(cursor.gotoFirstChild());
+        Assertions.assertTrue(cursor.gotoNextSibling());
+        TreeCursorNode cursorNode = cursor.getCurrentTreeCursorNode();
+        Node node = cursor.getCurrentNode();
+        Assertions.assertTrue(cursor.gotoNextSibling());
+        Assertions.assertEquals("name", cursorNode.getName());
+        Assertions.assertEquals(node.getType(), cursorNode.getType());
+        Assertions.assertEquals(node.getContent(), cursorNode.getContent());
+        Assertions.assertEquals(node.getStartByte(), cursorNode.getStartByte());
+        Assertions.assertEquals(node.getEndByte(), cursorNode.getEndByte());
+        Assertions.assertEquals(node.getStartPoint(), cursorNode.getStartPoint());
+        Assertions.assertEquals(node.getEndPoint(), cursorNode.getEndPoint());
+        Assertions.assertEquals(node.isNamed(), cursorNode.isNamed());
+    }
+
+    @Test
+    void testGetCurrentTreeCursorNodeWithoutSource() {
+        byte[] bytes = "pass\n".getBytes(StandardCharsets.UTF_8);
+        @Cleanup Tree streamed = parser.parse(new ByteArrayInputStream(bytes), Encoding.UTF_8);
+        @Cleanup TreeCursor cursor = streamed.getRootNode().walk();
+        TreeCursorNode cursorNode = cursor.getCurrentTreeCursorNode();
+        Assertions.assertEquals("module", cursorNode.getType());
+        Assertions.assertEquals(new Point(1, 0), cursorNode.getEndPoint());
+        Assertions.assertThrows(UnsupportedOperationException.class, cursorNode::getContent);
+    }
+
     @Test
     void testWalkRightToLeft() {
         Assertions.assertEquals("module", cursor.getCurrentTreeCursorNode().getType());
@@ -201,6 +234,107 @@ class TreeCursorTest extends BaseTest {
         Assertions.assertEquals(17, count.get());
     }
 
+    @Test
+    void testTraverse() {
+        List<Node> expected = new ArrayList<>();
+        cursor.preorderTraversal(expected::add);
+        List<Node> entered = new ArrayList<>();
+        AtomicInteger named = new AtomicInteger();
+        AtomicInteger depth = new AtomicInteger(-1);
+        AtomicInteger batches = new AtomicInteger();
+        cursor.traverse(batch -> {
+            batches.incrementAndGet();
+            for (int i = 0; i < batch.size(); i++) {
+                if (batch.isEnter(i)) {
+                    Node node = expected.get(entered.size());
+                    Assertions.assertEquals(node.getSymbol().getId(), batch.getSymbolId(i));
+                    Assertions.assertEquals(node.getStartByte(), batch.getStartByte(i));
+                    Assertions.assertEquals(node.getEndByte(), batch.getEndByte(i));
+                    Assertions.assertEquals(node.getEndPoint().getRow(), batch.getEndRow(i));
+                    Assertions.assertEquals(node.isNamed(), batch.isNamed(i));
+                    Assertions.assertEquals(depth.incrementAndGet(), batch.getDepth(i));
+                    if (batch.isNamed(i)) named.incrementAndGet();
+                    entered.add(node);
+                } else {
+                    Assertions.assertEquals(depth.getAndDecrement(), batch.getDepth(i));
+                }
+            }
+            return true;
+        });
+        Assertions.assertEquals(1, batches.get());
+        Assertions.assertEquals(expected, entered);
+        Assertions.assertEquals(17, named.get());
+        Assertions.assertEquals(-1, depth.get());
+        Assertions.assertEquals(tree.getRootNode(), cursor.getCurrentNode());
+    }
+
+    @Test
+    void testTraverseError() {
+        @Cleanup Tree tree = parser.parse("def foo(bar baz):\n  pass");
+        @Cleanup TreeCursor cursor = tree.getRootNode().walk();
+        Node error = tree.getRootNode().getChild(0).getChildByFieldName("parameters").getChild(2);
+        int[] histogram = new int[tree.getLanguage().getSymbols().size()];
+        AtomicInteger errors = new AtomicInteger();
+        AtomicInteger leaves = new AtomicInteger();
+        cursor.traverse(batch -> {
+            for (int i = 0; i < batch.size(); i++) {
+                if (batch.isLeave(i)) {
+                    leaves.incrementAndGet();
+                    continue;
+                }
+                if (batch.isError(i)) {
+                    if (errors.getAndIncrement() == 0)
+                        Assertions.assertEquals(error.getStartByte(), batch.getStartByte(i));
+                    Assertions.assertEquals(error.getSymbol().getId(), batch.getSymbolId(i));
+                    Assertions.assertTrue(batch.hasError(i));
+                } else {
+                    histogram[batch.getSymbolId(i)]++;
+                }
+            }
+            return true;
+        });
+        int entered = errors.get();
+        for (int count: histogram) entered += count;
+        Assertions.assertTrue(errors.get() > 0);
+        Assertions.assertEquals(leaves.get(), entered);
+    }
+
+    @Test
+    void testTraverseSubtree() {
+        Assertions.assertTrue(cursor.gotoFirstChild());
+        Assertions.assertTrue(cursor.gotoFirstChild());
+        Assertions.assertTrue(cursor.gotoNextSibling());
+        Node identifier = cursor.getCurrentNode();
+        AtomicInteger count = new AtomicInteger();
+        cursor.traverse(batch -> {
+            count.addAndGet(batch.size());
+            Assertions.assertEquals(identifier.getStartByte(), batch.getStartByte(0));
+            Assertions.assertEquals(tree.getLanguage().getFields().indexOf("name") + 1, batch.getFieldId(0));
+            Assertions.assertTrue(batch.isLeave(1));
+            return true;
+        });
+        Assertions.assertEquals(2, count.get());
+        Assertions.assertEquals(identifier, cursor.getCurrentNode());
+    }
+
+    @Test
+    @SuppressWarnings("DataFlowIssue")
+    void testTraverseStop() {
+        @Cleanup Tree tree = parser.parse("x = 1\n".repeat(1_000));
+        @Cleanup TreeCursor cursor = tree.getRootNode().walk();
+        AtomicInteger batches = new AtomicInteger();
+        cursor.traverse(batch -> {
+            Assertions.assertEquals(BatchVisitor.Batch.CAPACITY, batch.size());
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> batch.getDepth(batch.size()));
+            return batches.incrementAndGet() < 2;
+        });
+        Assertions.assertEquals(2, batches.get());
+        Assertions.assertThrows(IllegalStateException.class, () -> cursor.traverse(batch -> {
+            throw new IllegalStateException();
+        }));
+        Assertions.assertThrows(NullPointerException.class, () -> cursor.traverse(null));
+    }
+
     @Test
     void testClone() {
         @Cleanup TreeCursor copy = cursor.clone();
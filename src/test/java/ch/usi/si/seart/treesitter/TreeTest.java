@@ -79,6 +79,25 @@ class TreeTest extends BaseTest {
         Assertions.assertEquals(expected, actual);
     }
 
+    @ParameterizedTest(name = "[{index}] {0} - {1}")
+    @ArgumentsSource(ByteRangeContentProvider.class)
+    void testGetSourceViewStartEnd(int beginIndex, int endIndex, Node node) {
+        String expected = source.substring(beginIndex, endIndex);
+        CharSequence actual = tree.getSourceView(node.getStartByte(), node.getEndByte());
+        Assertions.assertEquals(expected, actual.toString());
+    }
+
+    @ParameterizedTest(name = "[{index}] {0} - {1}")
+    @ArgumentsSource(ByteRangeContentProvider.class)
+    void testGetBufferSourceViewStartEnd(int beginIndex, int endIndex, Node ignored) {
+        byte[] bytes = source.getBytes(Encoding.UTF_16.getCharset());
+        @Cleanup Tree other = parser.parse(bytes, 0, bytes.length, Encoding.UTF_16);
+        Node node = other.getRootNode().getDescendant(beginIndex, endIndex);
+        String expected = source.substring(beginIndex, endIndex);
+        Assertions.assertEquals(expected, node.getContent());
+        Assertions.assertEquals(expected, node.getContentView().toString());
+    }
+
     @Test
     void testEdit() {
         Assertions.assertEquals(new Point(0, 0), root.getStartPoint());
@@ -108,12 +127,94 @@ class TreeTest extends BaseTest {
         Assertions.assertFalse(root.hasChanges());
     }
 
+    @Test
+    void testEditTo() {
+        List<InputEdit> edits = tree.editTo(target);
+        Assertions.assertEquals(1, edits.size());
+        Assertions.assertTrue(root.hasChanges());
+        @Cleanup Tree modified = parser.parse(target, tree);
+        Assertions.assertEquals(target, modified.getSource());
+        Assertions.assertFalse(tree.getChangedRanges(modified).isEmpty());
+        Assertions.assertTrue(tree.editTo(source).isEmpty());
+    }
+
+    @Test
+    void testEditBatch() {
+        String modified = "class Main {\n    // This is a block comment\n}\n";
+        List<InputEdit> edits = InputEdit.diff(source, modified);
+        tree.editAll(edits);
+        Assertions.assertTrue(root.hasChanges());
+        @Cleanup Tree reparsed = parser.parse(modified, tree);
+        Assertions.assertEquals(modified, reparsed.getSource());
+        Assertions.assertFalse(reparsed.getRootNode().hasError());
+    }
+
+    @Test
+    void testEditPacked() {
+        int[] offsets = { 13, 43, 13 };
+        int[] points = { 1, 0, 2, 0, 1, 0 };
+        tree.editAll(offsets, points);
+        Assertions.assertTrue(root.hasChanges());
+        @Cleanup Tree modified = parser.parse(target, tree);
+        Assertions.assertEquals(target, modified.getSource());
+        Assertions.assertFalse(tree.getChangedRanges(modified).isEmpty());
+    }
+
+    @Test
+    void testEditThrows() {
+        Assertions.assertThrows(NullPointerException.class, () -> tree.editAll((List<InputEdit>) null));
+        Assertions.assertThrows(NullPointerException.class, () -> tree.editAll(null, new int[0]));
+        Assertions.assertThrows(NullPointerException.class, () -> tree.editAll(new int[0], null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tree.editAll(new int[2], new int[4]));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tree.editAll(new int[3], new int[3]));
+    }
+
     @Test
     void testClone() {
         @Cleanup Tree copy = tree.clone();
         Assertions.assertNotEquals(tree, copy);
     }
 
+    @Test
+    void testFlatten() {
+        FlatTree flat = tree.flatten();
+        Assertions.assertEquals(Language.JAVA, flat.getLanguage());
+        Assertions.assertEquals(root.getDescendantCount(), flat.size());
+        Assertions.assertEquals(-1, flat.getParent(0));
+        Assertions.assertEquals(-1, flat.getNextSibling(0));
+        Assertions.assertEquals(flat.size(), flatten(flat, root, 0, -1));
+        Node comment = root.getDescendant(source.indexOf("//"), source.indexOf("//") + 2);
+        int index = 0;
+        while (flat.getStartByte(index) != comment.getStartByte() || !flat.isExtra(index)) index++;
+        Assertions.assertEquals("line_comment", flat.getType(index));
+        Assertions.assertEquals("body", flat.getFieldName(flat.getParent(index)));
+        Assertions.assertNull(flat.getFieldName(index));
+    }
+
+    private static int flatten(FlatTree flat, Node node, int index, int parent) {
+        Assertions.assertEquals(node.getSymbol().getId(), flat.getSymbolId(index));
+        Assertions.assertEquals(node.getType(), flat.getType(index));
+        Assertions.assertEquals(parent, flat.getParent(index));
+        Assertions.assertEquals(node.getStartByte(), flat.getStartByte(index));
+        Assertions.assertEquals(node.getEndByte(), flat.getEndByte(index));
+        Assertions.assertEquals(node.getStartPoint(), flat.getStartPoint(index));
+        Assertions.assertEquals(node.getEndPoint(), flat.getEndPoint(index));
+        Assertions.assertEquals(node.isNamed(), flat.isNamed(index));
+        Assertions.assertEquals(node.isExtra(), flat.isExtra(index));
+        Assertions.assertEquals(node.hasError(), flat.hasError(index));
+        Assertions.assertEquals(node.isMissing(), flat.isMissing(index));
+        Assertions.assertEquals(node.isError(), flat.isError(index));
+        int next = index + 1;
+        int previous = -1;
+        Assertions.assertEquals(node.getChildCount() > 0 ? next : -1, flat.getFirstChild(index));
+        for (Node child: node.getChildren()) {
+            if (previous >= 0) Assertions.assertEquals(next, flat.getNextSibling(previous));
+            previous = next;
+            next = flatten(flat, child, next, index);
+        }
+        return next;
+    }
+
     @Test
     void testConstructorThrows() {
         @Cleanup Tree tree = new Tree(0L, Language.JAVA, "");